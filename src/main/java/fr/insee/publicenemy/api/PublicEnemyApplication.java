@@ -7,14 +7,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import java.util.TimeZone;
 
 @SpringBootApplication(scanBasePackages = "fr.insee.publicenemy")
 @EnableTransactionManagement
-@EnableAsync
 @ConfigurationPropertiesScan
 @Slf4j
 public class PublicEnemyApplication {
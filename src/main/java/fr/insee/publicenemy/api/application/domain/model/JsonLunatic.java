@@ -1,4 +1,36 @@
 package fr.insee.publicenemy.api.application.domain.model;
 
-public record JsonLunatic(String jsonContent) {
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lunatic questionnaire generated by Eno
+ *
+ * @param content json content, utf-8 encoded. Kept as bytes as sent by eno to avoid copies of large questionnaires
+ */
+public record JsonLunatic(byte[] content) {
+
+    public JsonLunatic(String jsonContent) {
+        this(jsonContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JsonLunatic jsonLunatic = (JsonLunatic) o;
+        return Arrays.equals(content, jsonLunatic.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(content);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonLunatic{" +
+                "size=" + (content == null ? 0 : content.length) +
+                '}';
+    }
 }
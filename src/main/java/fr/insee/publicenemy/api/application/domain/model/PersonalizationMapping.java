@@ -4,7 +4,20 @@ import fr.insee.publicenemy.api.application.domain.utils.IdentifierGenerationUti
 
 import java.util.Objects;
 
-public record PersonalizationMapping(String interrogationId, Long questionnaireId, Mode mode, int dataIndex) {
+/**
+ * Link between an interrogation in queen and a row of the questionnaire data
+ *
+ * @param interrogationId interrogation id
+ * @param questionnaireId questionnaire id
+ * @param mode            mode
+ * @param dataIndex       index of the row in the questionnaire data
+ * @param contentHash     hash of the interrogation content, used to detect changed rows (not part of equality)
+ */
+public record PersonalizationMapping(String interrogationId, Long questionnaireId, Mode mode, int dataIndex, String contentHash) {
+
+    public PersonalizationMapping(String interrogationId, Long questionnaireId, Mode mode, int dataIndex) {
+        this(interrogationId, questionnaireId, mode, dataIndex, null);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,12 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+import java.util.List;
+
+/**
+ * Page of personalization mappings of a questionnaire mode
+ *
+ * @param mappings   mappings ordered by data index
+ * @param nextCursor data index after which the next page starts, null when this page is the last one
+ */
+public record PersonalizationPage(List<PersonalizationMapping> mappings, Integer nextCursor) {
+}
@@ -8,4 +8,10 @@ import lombok.Getter;
 public class PreparedQuestionnaire {
     private Questionnaire questionnaire;
     private QuestionnaireModel questionnaireModel;
+    // true when pogues version or context has changed since last synchronisation
+    private boolean questionnaireModelUpdated;
+
+    public PreparedQuestionnaire(Questionnaire questionnaire, QuestionnaireModel questionnaireModel) {
+        this(questionnaire, questionnaireModel, true);
+    }
 }
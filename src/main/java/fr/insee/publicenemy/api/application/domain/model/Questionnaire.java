@@ -27,6 +27,8 @@ public class Questionnaire {
     private byte[] interrogationData;
     private PersonalizationState personalizationState;
     private boolean isOutdated;
+    // reference of the nomenclatures stored with the questionnaire, served by this api
+    private String nomenclaturesReference;
 
     public Questionnaire(String poguesId, String versionId, String label, Context context, List<Mode> modes, byte[] interrogationData) {
         this.poguesId = poguesId;
@@ -78,12 +80,13 @@ public class Questionnaire {
                 && Objects.equals(label, that.label) && context == that.context
                 && Objects.equals(questionnaireModes, that.questionnaireModes)
                 && Objects.equals(personalizationState, that.personalizationState)
+                && Objects.equals(nomenclaturesReference, that.nomenclaturesReference)
                 && Arrays.equals(interrogationData, that.interrogationData);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(id, poguesId, versionId, label, context, questionnaireModes, personalizationState, isOutdated);
+        int result = Objects.hash(id, poguesId, versionId, label, context, questionnaireModes, personalizationState, isOutdated, nomenclaturesReference);
         result = 31 * result + Arrays.hashCode(interrogationData);
         return result;
     }
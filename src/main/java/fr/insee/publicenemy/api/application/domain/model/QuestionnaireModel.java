@@ -6,7 +6,21 @@ import tools.jackson.databind.JsonNode;
 import java.util.List;
 import java.util.Objects;
 
-public record QuestionnaireModel(String poguesId, String versionId, String label, List<Mode> modes, JsonNode content) {
+/**
+ * @param poguesId          pogues questionnaire id
+ * @param versionId         pogues version id
+ * @param label             questionnaire label
+ * @param modes             questionnaire modes
+ * @param content           pogues json
+ * @param serializedContent pogues json as received from pogues (utf-8), shared by all the eno generations of the questionnaire.
+ *                          Can be null, content is then serialized when needed
+ */
+public record QuestionnaireModel(String poguesId, String versionId, String label, List<Mode> modes, JsonNode content, byte[] serializedContent) {
+
+    public QuestionnaireModel(String poguesId, String versionId, String label, List<Mode> modes, JsonNode content) {
+        this(poguesId, versionId, label, modes, content, null);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,12 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+import java.util.List;
+
+/**
+ * Page of questionnaires, most recent first
+ *
+ * @param questionnaires questionnaires without their interrogation data
+ * @param nextCursor     questionnaire id before which the next page starts, null when this page is the last one
+ */
+public record QuestionnairePage(List<Questionnaire> questionnaires, Long nextCursor) {
+}
@@ -0,0 +1,14 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+import java.util.List;
+
+/**
+ * Personalization of a questionnaire, used to build the urls of its interrogations
+ *
+ * @param questionnaire          questionnaire
+ * @param mappings               personalization mappings of all modes of the questionnaire
+ * @param nomenclaturesReference reference of the nomenclatures of the questionnaire served by this api
+ */
+public record QuestionnairePersonalization(Questionnaire questionnaire, List<PersonalizationMapping> mappings,
+                                           String nomenclaturesReference) {
+}
@@ -0,0 +1,22 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Queued synchronisation of a questionnaire with queen
+ *
+ * @param id                        job id
+ * @param questionnaireId           id of the questionnaire to synchronize
+ * @param type                      creation or update of the questionnaire
+ * @param status                    job status
+ * @param questionnaireModelUpdated true if the questionnaire model (pogues version or context) has changed since last synchronisation
+ * @param attempts                  number of times the job has been processed
+ * @param nextAttemptDate           date from which the job can be processed
+ * @param lastError                 error message of the last failed attempt
+ * @param creationDate              creation date of the job
+ * @param updatedDate               last update date of the job
+ */
+public record SynchronisationJob(Long id, Long questionnaireId, SynchronisationJobType type, SynchronisationJobStatus status,
+                                 boolean questionnaireModelUpdated, int attempts, Instant nextAttemptDate, String lastError,
+                                 Instant creationDate, Instant updatedDate) {
+}
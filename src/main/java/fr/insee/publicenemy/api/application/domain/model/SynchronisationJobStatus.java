@@ -0,0 +1,11 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+/**
+ * Status of a synchronisation job in the job queue
+ */
+public enum SynchronisationJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED;
+}
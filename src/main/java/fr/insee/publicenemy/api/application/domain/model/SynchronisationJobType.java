@@ -0,0 +1,9 @@
+package fr.insee.publicenemy.api.application.domain.model;
+
+/**
+ * Kind of synchronisation with queen processed by a synchronisation job
+ */
+public enum SynchronisationJobType {
+    CREATE,
+    UPDATE;
+}
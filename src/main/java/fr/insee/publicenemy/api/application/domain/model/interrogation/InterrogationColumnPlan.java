@@ -0,0 +1,81 @@
+package fr.insee.publicenemy.api.application.domain.model.interrogation;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Plan to transform the columns of a csv file containing survey units data to data attributes.
+ * Columns named NAME_1, NAME_2, ... hold the values of the list attribute NAME, other columns hold simple attributes.
+ * The plan only depends on the headers: it is computed once for a file, then the attributes of each line
+ * are built by indexing its values.
+ */
+public class InterrogationColumnPlan {
+
+    private static final Pattern LIST_COLUMN_SUFFIX = Pattern.compile("_\\d+$");
+
+    /**
+     * simple attributes names, and index of the column holding their value
+     */
+    private final String[] simpleAttributes;
+    private final int[] simpleColumns;
+
+    /**
+     * list attributes names, and indexes of the columns holding their values in list order
+     */
+    private final String[] listAttributes;
+    private final int[][] listColumns;
+
+    /**
+     * @param headers headers of the csv file
+     */
+    public InterrogationColumnPlan(String[] headers) {
+        // columns are sorted by header name, so simple attributes and list values (NAME_1, NAME_2, ...) keep a stable order
+        int[] sortedColumns = IntStream.range(0, headers.length)
+                .boxed()
+                .sorted(Comparator.comparing(column -> headers[column]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<String> simpleAttributeNames = new ArrayList<>();
+        List<Integer> simpleAttributeColumns = new ArrayList<>();
+        Map<String, List<Integer>> listAttributeColumns = new TreeMap<>();
+        for (int column : sortedColumns) {
+            String header = headers[column];
+            Matcher listSuffix = LIST_COLUMN_SUFFIX.matcher(header);
+            if (listSuffix.find()) {
+                listAttributeColumns.computeIfAbsent(header.substring(0, listSuffix.start()), name -> new ArrayList<>()).add(column);
+            } else {
+                simpleAttributeNames.add(header);
+                simpleAttributeColumns.add(column);
+            }
+        }
+
+        this.simpleAttributes = simpleAttributeNames.toArray(String[]::new);
+        this.simpleColumns = simpleAttributeColumns.stream().mapToInt(Integer::intValue).toArray();
+        this.listAttributes = listAttributeColumns.keySet().toArray(String[]::new);
+        this.listColumns = listAttributeColumns.values().stream()
+                .map(columns -> columns.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * @param values values of a csv line, in column order
+     * @return attributes of the line. Simple attributes come first, then list attributes, each in name order.
+     */
+    public Map<String, IInterrogationDataAttributeValue> getAttributes(String[] values) {
+        Map<String, IInterrogationDataAttributeValue> attributes = LinkedHashMap.newLinkedHashMap(simpleAttributes.length + listAttributes.length);
+        for (int index = 0; index < simpleAttributes.length; index++) {
+            attributes.put(simpleAttributes[index], new InterrogationDataAttributeValue<>(values[simpleColumns[index]]));
+        }
+        for (int index = 0; index < listAttributes.length; index++) {
+            InterrogationDataAttributeValueList<String> listValues = new InterrogationDataAttributeValueList<>();
+            for (int column : listColumns[index]) {
+                listValues.addValue(values[column]);
+            }
+            attributes.put(listAttributes[index], listValues);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,16 @@
+package fr.insee.publicenemy.api.application.domain.model.interrogation;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Failure report of an interrogation which could not be created in Queen
+ *
+ * @param interrogationId id of the interrogation
+ * @param status          http status returned (or deduced) for this interrogation
+ * @param message         error message
+ */
+public record InterrogationCreationFailure(
+        String interrogationId,
+        HttpStatus status,
+        String message) {
+}
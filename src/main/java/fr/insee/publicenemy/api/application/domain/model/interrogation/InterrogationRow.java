@@ -0,0 +1,13 @@
+package fr.insee.publicenemy.api.application.domain.model.interrogation;
+
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationData.FormatType;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Row of the interrogation data of a questionnaire
+ *
+ * @param format  format of the data file the row comes from
+ * @param content json document of the row: the row object for json data, the values by header for csv data
+ */
+public record InterrogationRow(FormatType format, JsonNode content) {
+}
@@ -0,0 +1,153 @@
+package fr.insee.publicenemy.api.application.domain.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Results of downstream calls made during a single flow (an http request or a synchronisation job).
+ * Identical calls made in the same flow are done only once, even when they are made at the same time by several threads.
+ * A memo is dropped with its flow, so results are never shared between flows and cannot become stale across requests.
+ * Failed calls are not kept, the next identical call is done again.
+ */
+public final class FlowMemo {
+
+    private static final ThreadLocal<FlowMemo> CURRENT = new ThreadLocal<>();
+
+    private final Map<Key, CompletableFuture<Object>> results = new ConcurrentHashMap<>();
+
+    private record Key(String namespace, List<Object> arguments) {
+    }
+
+    /**
+     * @return memo of the flow run by the current thread, null when the current thread is not running a flow
+     */
+    public static FlowMemo current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Calls made on the current thread use this memo until the returned scope is closed
+     *
+     * @return scope of the memo on the current thread
+     */
+    public Scope enter() {
+        FlowMemo previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> restore(previous);
+    }
+
+    /**
+     * Run a flow using this memo on the current thread
+     *
+     * @param flow flow to run
+     */
+    public void run(Runnable flow) {
+        try (Scope ignored = enter()) {
+            flow.run();
+        }
+    }
+
+    /**
+     * @param call call to run on another thread
+     * @return call using the memo of the current flow when run, the call itself when the current thread is not running a flow
+     */
+    public static <T> Callable<T> wrap(Callable<T> call) {
+        FlowMemo memo = current();
+        if (memo == null) {
+            return call;
+        }
+        return () -> {
+            try (Scope ignored = memo.enter()) {
+                return call.call();
+            }
+        };
+    }
+
+    /**
+     * @param task task to run on another thread
+     * @return task using the memo of the current flow when run, the task itself when the current thread is not running a flow
+     */
+    public static Runnable wrap(Runnable task) {
+        FlowMemo memo = current();
+        if (memo == null) {
+            return task;
+        }
+        return () -> memo.run(task);
+    }
+
+    /**
+     * Make a call once per flow. The call is always made when the current thread is not running a flow.
+     *
+     * @param namespace downstream api and operation called
+     * @param call      call to the downstream api
+     * @param arguments arguments identifying the call, must implement equals and hashCode
+     * @return result of the call, possibly made earlier in the flow
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T memoize(String namespace, Supplier<T> call, Object... arguments) {
+        FlowMemo memo = current();
+        if (memo == null) {
+            return call.get();
+        }
+        Key key = new Key(namespace, Arrays.asList(arguments));
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> existingResult = memo.results.putIfAbsent(key, result);
+        if (existingResult != null) {
+            try {
+                return (T) existingResult.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        try {
+            T value = call.get();
+            result.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            // errors are passed on too, calls waiting for this result must not wait forever
+            memo.results.remove(key, result);
+            result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Forget the results of the calls of a namespace made in the current flow, after a call changing their data
+     *
+     * @param namespacePrefix prefix of the namespaces to forget
+     */
+    public static void invalidate(String namespacePrefix) {
+        FlowMemo memo = current();
+        if (memo != null) {
+            memo.results.keySet().removeIf(key -> key.namespace().startsWith(namespacePrefix));
+        }
+    }
+
+    /**
+     * Scope of a memo on a thread, closing it restores the memo used before
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static void restore(FlowMemo previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package fr.insee.publicenemy.api.application.domain.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class HashUtils {
+
+    private HashUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param content content to hash
+     * @return sha-256 hash (hexadecimal) of the content
+     */
+    public static String sha256Hex(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @param content content to hash
+     * @return sha-256 hash (hexadecimal) of the utf-8 bytes of the content
+     */
+    public static String sha256Hex(String content) {
+        return sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
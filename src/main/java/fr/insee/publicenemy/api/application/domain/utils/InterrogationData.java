@@ -1,7 +1,5 @@
 package fr.insee.publicenemy.api.application.domain.utils;
 
-import java.nio.charset.StandardCharsets;
-
 public class InterrogationData {
 
     public enum FormatType {
@@ -11,6 +9,7 @@ public class InterrogationData {
 
     /**
      * Detects the format type (CSV or JSON) from a byte array.
+     * Only the first non whitespace character is read, the content is not decoded.
      * @param data the file content as a byte array
      * @return the detected format type (CSV or JSON)
      */
@@ -19,14 +18,14 @@ public class InterrogationData {
             return null;
         }
 
-        // Convert byte array to string (assuming UTF-8)
-        String content = new String(data, StandardCharsets.UTF_8).trim();
-
-        // Simple detection logic for JSON
-        if (content.startsWith("{") || content.startsWith("[")) {
-            return FormatType.JSON;
-        } else {
-            return FormatType.CSV;
+        for (byte character : data) {
+            // skip leading whitespaces and control characters, as String.trim() does
+            if (character >= 0 && character <= ' ') {
+                continue;
+            }
+            // Simple detection logic for JSON
+            return character == '{' || character == '[' ? FormatType.JSON : FormatType.CSV;
         }
+        return FormatType.CSV;
     }
 }
@@ -0,0 +1,45 @@
+package fr.insee.publicenemy.api.application.domain.utils;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.IInterrogationDataAttributeValue;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class InterrogationHashUtils {
+
+    private InterrogationHashUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    /**
+     * Compute a hash of the content (data and state data) of an interrogation. The interrogation id is not part of the hash,
+     * so the same row of two uploads gives the same hash. Attributes are sorted by name before hashing.
+     *
+     * @param interrogation interrogation
+     * @return sha-256 hash (hexadecimal) of the interrogation content
+     */
+    public static String computeContentHash(Interrogation interrogation) {
+        InterrogationData data = interrogation.data();
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("EXTERNAL", getAttributeValues(data == null ? null : data.getExternalAttributes()));
+        content.put("COLLECTED", getAttributeValues(data == null ? null : data.getCollectedAttributes()));
+        content.put("stateData", interrogation.stateData());
+
+        return HashUtils.sha256Hex(objectMapper.writeValueAsBytes(content));
+    }
+
+    private static Map<String, Object> getAttributeValues(Map<String, IInterrogationDataAttributeValue> attributes) {
+        Map<String, Object> values = new TreeMap<>();
+        if (attributes != null) {
+            attributes.forEach((name, value) -> values.put(name, value == null ? null : value.getValue()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,26 @@
+package fr.insee.publicenemy.api.application.exceptions;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationCreationFailure;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Thrown when some interrogations of a bulk creation could not be created. Interrogations not present
+ * in the failures list have been created successfully.
+ */
+@Getter
+public class InterrogationsCreationException extends ServiceException {
+
+    @Serial
+    private static final long serialVersionUID = 4123618245213760953L;
+
+    private final transient List<InterrogationCreationFailure> failures;
+
+    public InterrogationsCreationException(HttpStatus status, String message, List<InterrogationCreationFailure> failures) {
+        super(status, message);
+        this.failures = List.copyOf(failures);
+    }
+}
@@ -4,8 +4,10 @@ import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
 import fr.insee.publicenemy.api.infrastructure.csv.InterrogationCsvHeaderLine;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InterrogationCsvPort {
     /**
@@ -18,13 +20,30 @@ public interface InterrogationCsvPort {
     List<Interrogation> initInterrogations(byte[] interrogationData, String questionnaireModelId);
 
     /**
-     * get interrogation from a csv data file
+     * initialize interrogations from a csv data file, one line at a time when the stream is consumed
      *
-     * @param personalizationMapping
-     * @param interrogationData       interrogation csv data
-     * @return interrogations model from questionnaire csv interrogations
+     * @param interrogationData    interrogations data
+     * @param questionnaireModelId questionnaire model id
+     * @return interrogations model from questionnaire csv interrogations, the stream must be closed
+     */
+    Stream<Interrogation> streamInterrogations(byte[] interrogationData, String questionnaireModelId);
+
+    /**
+     * split a csv data file in rows
+     *
+     * @param interrogationData interrogations csv data
+     * @return json documents of the rows, in the order of the data file
+     */
+    List<JsonNode> getInterrogationRows(byte[] interrogationData);
+
+    /**
+     * get interrogation from a row of a csv data file
+     *
+     * @param personalizationMapping mapping of the interrogation
+     * @param row                    json document of the row
+     * @return interrogation model from the row
      */
-    Interrogation getCsvInterrogation(PersonalizationMapping personalizationMapping, byte[] interrogationData);
+    Interrogation getCsvInterrogation(PersonalizationMapping personalizationMapping, JsonNode row);
 
     /**
      * retrieve csv headers based on variable types from a questionnaire model
@@ -2,8 +2,10 @@ package fr.insee.publicenemy.api.application.ports;
 
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InterrogationJsonPort {
     /**
@@ -16,13 +18,30 @@ public interface InterrogationJsonPort {
     List<Interrogation> initInterrogations(byte[] interrogationData, String questionnaireModelId);
 
     /**
-     * get interrogation from a csv data file
+     * initialize interrogations from a json data file, one survey unit at a time when the stream is consumed
      *
-     * @param personalizationMapping
-     * @param interrogationData       interrogation json data
-     * @return interrogations model from questionnaire csv interrogations
+     * @param interrogationData    interrogations data (array, single survey unit or ndjson)
+     * @param questionnaireModelId questionnaire model id
+     * @return interrogations model from questionnaire json interrogations, the stream must be closed
+     */
+    Stream<Interrogation> streamInterrogations(byte[] interrogationData, String questionnaireModelId);
+
+    /**
+     * split a json data file in rows
+     *
+     * @param interrogationData interrogations json data
+     * @return json documents of the rows, in the order of the data file
+     */
+    List<JsonNode> getInterrogationRows(byte[] interrogationData);
+
+    /**
+     * get interrogation from a row of a json data file
+     *
+     * @param personalizationMapping mapping of the interrogation
+     * @param row                    json document of the row
+     * @return interrogation model from the row
      */
-    Interrogation getJsonInterrogation(PersonalizationMapping personalizationMapping, byte[] interrogationData);
+    Interrogation getJsonInterrogation(PersonalizationMapping personalizationMapping, JsonNode row);
 
 
 }
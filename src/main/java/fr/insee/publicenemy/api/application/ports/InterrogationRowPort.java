@@ -0,0 +1,29 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationRow;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface InterrogationRowPort {
+    /**
+     * Replace the rows of the interrogation data of a questionnaire
+     *
+     * @param questionnaireId questionnaire id
+     * @param rows            rows, in the order of the data file
+     */
+    void saveInterrogationRows(Long questionnaireId, List<InterrogationRow> rows);
+
+    /**
+     * @param questionnaireId questionnaire id
+     * @param dataIndex       index of the row in the data file
+     * @return the row, empty when the questionnaire has no row at this index
+     */
+    Optional<InterrogationRow> getInterrogationRow(Long questionnaireId, int dataIndex);
+
+    /**
+     * @param questionnaireId questionnaire id
+     * @return true if the rows of the questionnaire are stored
+     */
+    boolean hasInterrogationRows(Long questionnaireId);
+}
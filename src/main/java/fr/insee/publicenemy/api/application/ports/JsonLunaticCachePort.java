@@ -0,0 +1,59 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public interface JsonLunaticCachePort {
+    /**
+     * Retrieve a json lunatic previously generated for the same pogues version, context and mode
+     *
+     * @param questionnaireModel questionnaire model
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return the cached json lunatic, empty if not cached
+     */
+    Optional<JsonLunatic> getJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode);
+
+    /**
+     * Store a generated json lunatic
+     *
+     * @param questionnaireModel questionnaire model
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @param jsonLunatic        generated json lunatic
+     */
+    void putJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode, JsonLunatic jsonLunatic);
+
+    /**
+     * Start storing a json lunatic received in several parts, without holding it in memory
+     *
+     * @param questionnaireModel questionnaire model
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return writer of the json lunatic, empty if a json lunatic generated for this questionnaire model, context and mode cannot be stored
+     */
+    Optional<Writer> openJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode);
+
+    /**
+     * Json lunatic being stored. It is only cached once committed, closing it before discards what has been written.
+     */
+    interface Writer extends AutoCloseable {
+        /**
+         * @param content next part of the json lunatic (utf-8)
+         */
+        void write(ByteBuffer content);
+
+        /**
+         * Cache the json lunatic written so far
+         */
+        void commit();
+
+        @Override
+        void close();
+    }
+}
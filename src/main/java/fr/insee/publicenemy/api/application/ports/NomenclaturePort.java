@@ -0,0 +1,20 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import java.util.Optional;
+
+public interface NomenclaturePort {
+
+    /**
+     * Store nomenclatures, nothing is done when they are already stored
+     *
+     * @param hash    hash of the content
+     * @param content nomenclatures (json)
+     */
+    void addNomenclatures(String hash, String content);
+
+    /**
+     * @param hash hash of the content
+     * @return nomenclatures (json), empty if not stored
+     */
+    Optional<String> getNomenclatures(String hash);
+}
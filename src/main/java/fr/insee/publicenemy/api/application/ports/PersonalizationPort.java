@@ -9,7 +9,20 @@ public interface PersonalizationPort {
 
     PersonalizationMapping getPersonalizationMapping(String interrogationId);
     PersonalizationMapping addPersonalizationMapping(PersonalizationMapping personalizationMapping);
+    void addPersonalizationMappings(List<PersonalizationMapping> personalizationMappings);
+    void updatePersonalizationMappings(List<PersonalizationMapping> personalizationMappings);
+    void deletePersonalizationMappings(List<PersonalizationMapping> personalizationMappings);
     List<PersonalizationMapping> getPersonalizationMappingsByQuestionnaireIdAndMode(Long questionnaireId, Mode mode);
     List<PersonalizationMapping> getPersonalizationMappingsByQuestionnaire(Long questionnaireId);
+
+    /**
+     * @param questionnaireId questionnaire id
+     * @param mode            mode
+     * @param afterDataIndex  data index of the last mapping of the previous page, -1 for the first page
+     * @param size            maximum number of mappings returned
+     * @return mappings ordered by data index, following the mapping of the previous page
+     */
+    List<PersonalizationMapping> getPersonalizationMappingsPage(Long questionnaireId, Mode mode, int afterDataIndex, int size);
+
     void deletePersonalizationMappingsByQuestionnaireIdAndMode(Long questionnaireId, Mode mode);
 }
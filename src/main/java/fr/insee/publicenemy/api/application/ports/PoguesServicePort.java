@@ -16,6 +16,22 @@ public interface PoguesServicePort {
      */
     QuestionnaireModel getQuestionnaireModel(String questionnaireId);
 
+    /**
+     * Get the id of the last version of a pogues questionnaire, without its content
+     *
+     * @param poguesId pogues questionnaire id
+     * @return last version id
+     */
+    String getLatestVersionId(String poguesId);
+
+    /**
+     * Get the id of the last version of a pogues questionnaire, ignoring the version id already known
+     *
+     * @param poguesId pogues questionnaire id
+     * @return last version id
+     */
+    String refreshLatestVersionId(String poguesId);
+
     /**
      * @param poguesId pogues questionnaire id
      * @return questionnaire details from pogues
@@ -31,10 +47,10 @@ public interface PoguesServicePort {
     JsonNode getNomenclaturesByQuestionnaire(String poguesId);
 
     /**
-     * Get Json Pogues variables
+     * Get variables of a questionnaire model, without calling pogues
      *
-     * @param poguesId pogues questionnaire Id
-     * @return the json from pogues
+     * @param questionnaireModel questionnaire model retrieved from pogues
+     * @return variables of the questionnaire
      */
-    List<VariableType> getQuestionnaireVariables(String poguesId);
+    List<VariableType> getQuestionnaireVariables(QuestionnaireModel questionnaireModel);
 }
@@ -1,5 +1,6 @@
 package fr.insee.publicenemy.api.application.ports;
 
+import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 
 import java.util.List;
@@ -30,12 +31,21 @@ public interface QuestionnairePort {
     Questionnaire getQuestionnaire(String poguesId);
 
     /**
-     * Get all questionnaires
+     * Get all questionnaires, most recent first, without their interrogation data
      *
      * @return all questionnaires
      */
     List<Questionnaire> getQuestionnaires();
 
+    /**
+     * Get a page of questionnaires, most recent first, without their interrogation data
+     *
+     * @param cursor id of the last questionnaire of the previous page, null for the first page
+     * @param size   maximum number of questionnaires returned
+     * @return questionnaires created before the cursor
+     */
+    List<Questionnaire> getQuestionnairesPage(Long cursor, int size);
+
     /**
      * update questionnaire
      *
@@ -64,6 +74,23 @@ public interface QuestionnairePort {
      */
     Questionnaire updateQuestionnaireState(Questionnaire questionnaire);
 
+    /**
+     * update synchronisation state of a single questionnaire mode
+     *
+     * @param questionnaireId      questionnaire id
+     * @param mode                 questionnaire mode
+     * @param synchronisationState synchronisation state reached by the mode
+     */
+    void updateQuestionnaireModeState(Long questionnaireId, Mode mode, String synchronisationState);
+
+    /**
+     * update reference of the nomenclatures of a questionnaire
+     *
+     * @param questionnaireId        questionnaire id
+     * @param nomenclaturesReference reference of the stored nomenclatures
+     */
+    void updateNomenclaturesReference(Long questionnaireId, String nomenclaturesReference);
+
     /**
      * @param poguesId questionnaire pogues id
      * @return true if questionnaire exist, false otherwise
@@ -0,0 +1,36 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to eno. Calls are made on subscription, the security context used to authenticate them
+ * must be available in the reactor context.
+ */
+public interface ReactiveEnoServicePort {
+    /**
+     * Retrieve content as JSON Lunatic format from ENO
+     *
+     * @param questionnaireModel questionnaireModel content
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return Json Lunatic
+     */
+    Mono<JsonLunatic> getJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode);
+
+    /**
+     * Retrieve content as JSON Lunatic format from ENO, streamed as received from ENO.
+     * Buffers must be released by the subscriber.
+     *
+     * @param questionnaireModel questionnaireModel content
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return Json Lunatic content (utf-8)
+     */
+    Flux<DataBuffer> getJsonLunaticContent(QuestionnaireModel questionnaireModel, Context context, Mode mode);
+}
@@ -0,0 +1,52 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+
+/**
+ * Non-blocking access to pogues. Calls are made on subscription, the security context used to authenticate them
+ * must be available in the reactor context.
+ */
+public interface ReactivePoguesServicePort {
+    /**
+     * Get DDI from pogues questionnaire id
+     *
+     * @param poguesId pogues questionnaire id
+     * @return DDI
+     */
+    Mono<QuestionnaireModel> getQuestionnaireModel(String poguesId);
+
+    /**
+     * Get the id of the last version of a pogues questionnaire, without its content.
+     * Version ids are kept for a short time, concurrent calls for the same questionnaire share the same request.
+     *
+     * @param poguesId pogues questionnaire id
+     * @return last version id
+     */
+    Mono<String> getLatestVersionId(String poguesId);
+
+    /**
+     * Get the id of the last version of a pogues questionnaire, ignoring the version id already known
+     *
+     * @param poguesId pogues questionnaire id
+     * @return last version id
+     */
+    Mono<String> refreshLatestVersionId(String poguesId);
+
+    /**
+     * @param poguesId pogues questionnaire id
+     * @return questionnaire details from pogues
+     */
+    Mono<Questionnaire> getQuestionnaire(String poguesId);
+
+    /**
+     * Get nomenclature
+     *
+     * @param poguesId questionnaire pogues id
+     * @return the nomenclature of questionnaire
+     */
+    Mono<JsonNode> getNomenclaturesByQuestionnaire(String poguesId);
+}
@@ -0,0 +1,116 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.infrastructure.queen.dto.SimpleInterrogationDto;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Non-blocking access to queen. Calls are made on subscription, the security context used to authenticate them
+ * must be available in the reactor context.
+ */
+public interface ReactiveQueenServicePort {
+
+    /**
+     * Add questionnaire model in queen
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaireModel   questionnaire DDI
+     * @param jsonLunatic          json lunatic for this questionnaire model
+     * @return completion of the creation
+     */
+    Mono<Void> createQuestionnaireModel(String questionnaireModelId, QuestionnaireModel questionnaireModel, JsonLunatic jsonLunatic);
+
+    /**
+     * Add questionnaire model in queen, json lunatic being streamed to queen as it is received
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaireModel   questionnaire DDI
+     * @param jsonLunaticContent   json lunatic content (utf-8) for this questionnaire model
+     * @return completion of the creation
+     */
+    Mono<Void> createQuestionnaireModelFromContent(String questionnaireModelId, QuestionnaireModel questionnaireModel, Flux<DataBuffer> jsonLunaticContent);
+
+    /**
+     * Create campaign in queen
+     *
+     * @param campaignId         campaign id
+     * @param questionnaire      model questionnaire
+     * @param questionnaireModel questionnaire DDI
+     * @return completion of the creation
+     */
+    Mono<Void> createCampaign(String campaignId, Questionnaire questionnaire, QuestionnaireModel questionnaireModel);
+
+    /**
+     * Delete campaign in queen
+     *
+     * @param campaignId campaign id
+     * @return completion of the deletion, in error with a CampaignNotFoundException if the campaign does not exist
+     */
+    Mono<Void> deleteCampaign(String campaignId);
+
+    /**
+     * Create interrogations for campaign
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param interrogations       interrogations to save
+     * @return completion of the creations, in error with an InterrogationsCreationException if some interrogations were not created
+     */
+    Mono<Void> createInterrogations(String questionnaireModelId, List<Interrogation> interrogations);
+
+    /**
+     * Create an interrogation for campaign
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param interrogation        interrogation to save
+     * @return completion of the creation, in error with a ServiceException holding the queen status if it was not created
+     */
+    Mono<Void> createInterrogation(String questionnaireModelId, Interrogation interrogation);
+
+    /**
+     * @param campaignId campaign id
+     * @return list of all interrogations for a campaign
+     */
+    Mono<List<SimpleInterrogationDto>> getInterrogations(String campaignId);
+
+    /**
+     * @param interrogationId interrogation id
+     * @return interrogation according interrogation id
+     */
+    Mono<SimpleInterrogationDto> getInterrogation(String interrogationId);
+
+    /**
+     * @param questionnaireModelId questionnaire model id
+     * @return true if questionnaire model exists, false otherwise
+     */
+    Mono<Boolean> hasQuestionnaireModel(String questionnaireModelId);
+
+    /**
+     * Update an interrogation
+     *
+     * @param interrogation interrogation to update
+     * @return completion of the update
+     */
+    Mono<Void> updateInterrogation(Interrogation interrogation);
+
+    /**
+     * Delete an interrogation
+     *
+     * @param interrogation interrogation to delete
+     * @return completion of the deletion
+     */
+    Mono<Void> deleteInterrogation(Interrogation interrogation);
+
+    /**
+     * @param questionnaireModelId questionnaire model id
+     * @return questionnaire model from queen
+     */
+    Mono<JsonNode> getQuestionnaireModel(String questionnaireModelId);
+}
@@ -0,0 +1,63 @@
+package fr.insee.publicenemy.api.application.ports;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SynchronisationJobPort {
+
+    /**
+     * Queue a synchronisation job. When a job is already pending for the questionnaire, this job is reused
+     *
+     * @param questionnaireId           questionnaire id
+     * @param type                      synchronisation type
+     * @param questionnaireModelUpdated true if the questionnaire model has changed since last synchronisation
+     * @return the queued job
+     */
+    SynchronisationJob addJob(Long questionnaireId, SynchronisationJobType type, boolean questionnaireModelUpdated);
+
+    /**
+     * Claim pending jobs, jobs locked by other workers are skipped. Claimed jobs are marked as running
+     *
+     * @param maxJobs max number of jobs to claim
+     * @return claimed jobs
+     */
+    List<SynchronisationJob> claimJobs(int maxJobs);
+
+    /**
+     * Refresh running jobs so that they are not considered as lost
+     *
+     * @param jobIds ids of jobs still running
+     */
+    void refreshRunningJobs(Collection<Long> jobIds);
+
+    /**
+     * Queue again running jobs that have not been refreshed since the given date
+     *
+     * @param notRefreshedSince date
+     * @return number of jobs queued again
+     */
+    int releaseLostJobs(Instant notRefreshedSince);
+
+    void completeJob(Long jobId);
+
+    void retryJob(Long jobId, Instant nextAttemptDate, String error);
+
+    void failJob(Long jobId, String error);
+
+    /**
+     * @param questionnaireId questionnaire id
+     * @return the last job queued for this questionnaire
+     */
+    SynchronisationJob getLastJob(Long questionnaireId);
+
+    /**
+     * @return number of jobs for each status
+     */
+    Map<SynchronisationJobStatus, Long> countJobsByStatus();
+}
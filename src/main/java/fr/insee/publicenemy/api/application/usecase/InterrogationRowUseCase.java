@@ -0,0 +1,109 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationRow;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationData;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.InterrogationCsvPort;
+import fr.insee.publicenemy.api.application.ports.InterrogationJsonPort;
+import fr.insee.publicenemy.api.application.ports.InterrogationRowPort;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Rows of the interrogation data of questionnaires, stored once parsed so a single interrogation
+ * can be rebuilt without parsing the whole data file
+ */
+@Service
+@Slf4j
+public class InterrogationRowUseCase {
+
+    private final InterrogationRowPort interrogationRowPort;
+
+    private final QuestionnairePort questionnairePort;
+
+    private final InterrogationCsvPort interrogationCsvService;
+
+    private final InterrogationJsonPort interrogationJsonService;
+
+    private final I18nMessagePort messageService;
+
+    public InterrogationRowUseCase(InterrogationRowPort interrogationRowPort, QuestionnairePort questionnairePort,
+                                   InterrogationCsvPort interrogationCsvService, InterrogationJsonPort interrogationJsonService,
+                                   I18nMessagePort messageService) {
+        this.interrogationRowPort = interrogationRowPort;
+        this.questionnairePort = questionnairePort;
+        this.interrogationCsvService = interrogationCsvService;
+        this.interrogationJsonService = interrogationJsonService;
+        this.messageService = messageService;
+    }
+
+    /**
+     * Parse the interrogation data of a questionnaire and store its rows, replacing the previous ones
+     *
+     * @param questionnaireId   questionnaire id
+     * @param interrogationData interrogation data (csv or json)
+     * @return stored rows
+     */
+    public List<InterrogationRow> saveInterrogationRows(Long questionnaireId, byte[] interrogationData) {
+        InterrogationData.FormatType dataFormat = InterrogationData.getDataFormat(interrogationData);
+        List<InterrogationRow> rows;
+        if (InterrogationData.FormatType.CSV.equals(dataFormat)) {
+            rows = toRows(dataFormat, interrogationCsvService.getInterrogationRows(interrogationData));
+        } else if (InterrogationData.FormatType.JSON.equals(dataFormat)) {
+            rows = toRows(dataFormat, interrogationJsonService.getInterrogationRows(interrogationData));
+        } else {
+            throw new ServiceException(HttpStatus.NOT_ACCEPTABLE, "Invalid format of data");
+        }
+        interrogationRowPort.saveInterrogationRows(questionnaireId, rows);
+        log.info(String.format("%s: %s interrogation rows saved", questionnaireId, rows.size()));
+        return rows;
+    }
+
+    /**
+     * Get an interrogation from its row in the questionnaire data
+     *
+     * @param personalizationMapping mapping of the interrogation
+     * @return interrogation with its initial data and state data
+     */
+    public Interrogation getInterrogation(PersonalizationMapping personalizationMapping) {
+        InterrogationRow row = interrogationRowPort.getInterrogationRow(personalizationMapping.questionnaireId(), personalizationMapping.dataIndex())
+                .orElseGet(() -> initInterrogationRow(personalizationMapping));
+        return switch (row.format()) {
+            case CSV -> interrogationCsvService.getCsvInterrogation(personalizationMapping, row.content());
+            case JSON -> interrogationJsonService.getJsonInterrogation(personalizationMapping, row.content());
+        };
+    }
+
+    /**
+     * Rows of questionnaires saved before rows were stored are parsed and stored on first access
+     *
+     * @param personalizationMapping mapping of the interrogation
+     * @return row of the interrogation
+     */
+    private InterrogationRow initInterrogationRow(PersonalizationMapping personalizationMapping) {
+        Long questionnaireId = personalizationMapping.questionnaireId();
+        int dataIndex = personalizationMapping.dataIndex();
+        List<InterrogationRow> rows = List.of();
+        if (!interrogationRowPort.hasInterrogationRows(questionnaireId)) {
+            rows = saveInterrogationRows(questionnaireId, questionnairePort.getInterrogationData(questionnaireId));
+        }
+        if (dataIndex < 0 || dataIndex >= rows.size()) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, messageService.getMessage("interrogation.not-found", personalizationMapping.interrogationId()));
+        }
+        return rows.get(dataIndex);
+    }
+
+    private List<InterrogationRow> toRows(InterrogationData.FormatType dataFormat, List<JsonNode> rowsContent) {
+        return rowsContent.stream()
+                .map(content -> new InterrogationRow(dataFormat, content))
+                .toList();
+    }
+}
@@ -1,6 +1,7 @@
 package fr.insee.publicenemy.api.application.usecase;
 
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnairePersonalization;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.IInterrogationDataAttributeValue;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationDataAttributeValidationResult;
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class InterrogationUseCase {
@@ -35,18 +37,22 @@ public class InterrogationUseCase {
 
     private final PoguesUseCase poguesUseCase;
 
+    private final PersonalizationUseCase personalizationUseCase;
+
     private final I18nMessagePort messageService;
 
     private static final String VALIDATION_ERROR = "validation.errors";
 
     public InterrogationUseCase(InterrogationCsvPort interrogationService, InterrogationJsonPort interrogationJsonService,
                                 PoguesUseCase poguesUseCase,
-                                QuestionnaireUseCase questionnaireUseCase, I18nMessagePort messagePort,
+                                QuestionnaireUseCase questionnaireUseCase, PersonalizationUseCase personalizationUseCase,
+                                I18nMessagePort messagePort,
                                 @Value("${application.campaign.max-interrogations}") int maxInterrogationsDataToAdd) {
         this.interrogationService = interrogationService;
         this.interrogationJsonService = interrogationJsonService;
         this.poguesUseCase = poguesUseCase;
         this.questionnaireUseCase = questionnaireUseCase;
+        this.personalizationUseCase = personalizationUseCase;
         this.messageService = messagePort;
         this.maxInterrogationsDataToAdd = maxInterrogationsDataToAdd;
     }
@@ -60,6 +66,18 @@ public class InterrogationUseCase {
         return interrogationService.getInterrogationsCsvHeaders(variables);
     }
 
+    /**
+     * @param poguesId pogues questionnaire id
+     * @return questionnaire with its personalization mappings and the reference of its nomenclatures
+     */
+    public QuestionnairePersonalization getQuestionnairePersonalization(String poguesId) {
+        Questionnaire questionnaire = questionnaireUseCase.getQuestionnaire(poguesId);
+        // nomenclatures are served by this api, urls only carry their reference
+        return new QuestionnairePersonalization(questionnaire,
+                personalizationUseCase.getPersonalizationByQuestionnaireId(questionnaire.getId()),
+                questionnaireUseCase.getNomenclaturesReference(questionnaire));
+    }
+
     /**
      * Check data from survey units against variables type from a specific questionnaire
      *
@@ -84,9 +102,14 @@ public class InterrogationUseCase {
         List<Interrogation> interrogations;
         InterrogationData.FormatType dataFormat = InterrogationData.getDataFormat(interrogationData);
         if(InterrogationData.FormatType.CSV.equals(dataFormat)){
-            interrogations = interrogationService.initInterrogations(interrogationData, null);
+            // lines after the max number of interrogations are not read, the data is rejected anyway
+            try (Stream<Interrogation> csvInterrogations = interrogationService.streamInterrogations(interrogationData, null)) {
+                interrogations = csvInterrogations.limit(maxInterrogationsDataToAdd + 1L).toList();
+            }
         } else if(InterrogationData.FormatType.JSON.equals(dataFormat)) {
-            interrogations = interrogationJsonService.initInterrogations(interrogationData, null);
+            try (Stream<Interrogation> jsonInterrogations = interrogationJsonService.streamInterrogations(interrogationData, null)) {
+                interrogations = jsonInterrogations.limit(maxInterrogationsDataToAdd + 1L).toList();
+            }
         } else {
             throw new ServiceException(HttpStatus.NOT_ACCEPTABLE, "Invalid format of data");
         }
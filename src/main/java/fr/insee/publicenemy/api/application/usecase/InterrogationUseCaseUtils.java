@@ -5,7 +5,6 @@ import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.controllers.dto.InterrogationRest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import tools.jackson.databind.JsonNode;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -28,13 +27,26 @@ public class InterrogationUseCaseUtils {
     @Value("${application.queen.public-url}")
     private String apiQuestionnaire;
 
+    @Value("${application.public-url}")
+    private String publicUrl;
+
     public String buildLunaticUri(String questionnaireModelId){
         return String.format("%s/api/questionnaire/%s/data",
                 apiQuestionnaire,
                 questionnaireModelId);
     }
 
-    public String getUrlOfInterrogation(PersonalizationMapping personalizationMapping, Mode mode, JsonNode nomenclatures) {
+    /**
+     * @param nomenclaturesReference reference of stored nomenclatures
+     * @return url of the nomenclatures, served by this api
+     */
+    public String buildNomenclaturesUri(String nomenclaturesReference) {
+        return String.format("%s/api/nomenclatures/%s",
+                publicUrl,
+                nomenclaturesReference);
+    }
+
+    public String getUrlOfInterrogation(PersonalizationMapping personalizationMapping, Mode mode, String nomenclaturesReference) {
         String interrogationId = personalizationMapping.interrogationId();
         String questionnaireModelId = personalizationMapping.getQuestionnaireModelId();
         switch (mode){
@@ -52,7 +64,7 @@ public class InterrogationUseCaseUtils {
                         capiCatiOrchestratorUrl,
                         URLEncoder.encode(questionnaireUrl, StandardCharsets.UTF_8),
                         URLEncoder.encode(dataUrl, StandardCharsets.UTF_8),
-                        URLEncoder.encode(nomenclatures.toString(), StandardCharsets.UTF_8));
+                        URLEncoder.encode(buildNomenclaturesUri(nomenclaturesReference), StandardCharsets.UTF_8));
             }
             case null, default -> {
                 return null;
@@ -60,10 +72,10 @@ public class InterrogationUseCaseUtils {
         }
     }
 
-    public InterrogationRest buildInterrogationRest(PersonalizationMapping personalizationMapping,  Mode mode, JsonNode nomenclatures) {
+    public InterrogationRest buildInterrogationRest(PersonalizationMapping personalizationMapping,  Mode mode, String nomenclaturesReference) {
         return new InterrogationRest(
                 personalizationMapping.interrogationId(),
                 personalizationMapping.dataIndex() + 1 ,
-                getUrlOfInterrogation(personalizationMapping, mode, nomenclatures));
+                getUrlOfInterrogation(personalizationMapping, mode, nomenclaturesReference));
     }
 }
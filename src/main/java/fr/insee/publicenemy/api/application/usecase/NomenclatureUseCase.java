@@ -0,0 +1,54 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.NomenclaturePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+
+/**
+ * Nomenclatures of questionnaires, stored once by content hash so that visualization urls only carry their reference
+ */
+@Service
+@Slf4j
+public class NomenclatureUseCase {
+
+    private final NomenclaturePort nomenclaturePort;
+
+    private final I18nMessagePort messageService;
+
+    public NomenclatureUseCase(NomenclaturePort nomenclaturePort, I18nMessagePort messageService) {
+        this.nomenclaturePort = nomenclaturePort;
+        this.messageService = messageService;
+    }
+
+    /**
+     * Store nomenclatures if not already stored. Called when a questionnaire is added or updated, listings only read the reference.
+     *
+     * @param nomenclatures nomenclatures of a questionnaire
+     * @return reference of the nomenclatures (sha-256 hash of their content), null when the questionnaire has no nomenclatures
+     */
+    public String storeNomenclatures(JsonNode nomenclatures) {
+        if (nomenclatures == null) {
+            return null;
+        }
+        String content = nomenclatures.toString();
+        String reference = HashUtils.sha256Hex(content);
+        nomenclaturePort.addNomenclatures(reference, content);
+        log.info(String.format("nomenclatures %s stored", reference));
+        return reference;
+    }
+
+    /**
+     * @param reference nomenclatures reference
+     * @return nomenclatures (json)
+     */
+    public String getNomenclatures(String reference) {
+        return nomenclaturePort.getNomenclatures(reference)
+                .orElseThrow(() -> new ServiceException(HttpStatus.NOT_FOUND, messageService.getMessage("nomenclature.notfound", reference)));
+    }
+}
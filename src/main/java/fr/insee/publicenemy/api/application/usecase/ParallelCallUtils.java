@@ -0,0 +1,77 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Run independent blocking reads (database, downstream apis) at the same time and wait for all of them,
+ * so that the latency is the one of the slowest read instead of the sum of all reads.
+ * Calls are run with the security context and in the flow of the calling thread. When a call fails, the other call is cancelled
+ * and its exception is thrown. Calls may return null, as when they are made one after another.
+ */
+public final class ParallelCallUtils {
+
+    // calls are blocking reads, a virtual thread is cheap enough to be created for each of them
+    private static final ExecutorService CALL_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("parallel-call-", 0).factory());
+
+    private ParallelCallUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param first    first call
+     * @param second   second call
+     * @param combiner function combining the results of both calls
+     * @return combined results of both calls
+     */
+    public static <A, B, R> R callInParallel(Callable<A> first, Callable<B> second, BiFunction<? super A, ? super B, R> combiner) {
+        Future<A> firstResult = callAsync(first);
+        Future<B> secondResult = callAsync(second);
+        A firstValue = await(firstResult, secondResult);
+        B secondValue = await(secondResult, firstResult);
+        return combiner.apply(firstValue, secondValue);
+    }
+
+    /**
+     * @param call blocking call
+     * @return call made on another thread, with the security context and in the flow of the current thread
+     */
+    private static <T> Future<T> callAsync(Callable<T> call) {
+        return CALL_EXECUTOR.submit(new DelegatingSecurityContextCallable<>(FlowMemo.wrap(call), SecurityContextHolder.getContext()));
+    }
+
+    /**
+     * @param result      result to wait for
+     * @param otherResult result of the other call, cancelled when this call fails
+     * @return result of the call
+     */
+    private static <T> T await(Future<T> result, Future<?> otherResult) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            otherResult.cancel(true);
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel call interrupted", ex);
+        } catch (ExecutionException | CancellationException ex) {
+            otherResult.cancel(true);
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Parallel call failed", ex.getCause() == null ? ex : ex.getCause());
+        }
+    }
+}
@@ -2,11 +2,14 @@ package fr.insee.publicenemy.api.application.usecase;
 
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationPage;
 import fr.insee.publicenemy.api.application.ports.PersonalizationPort;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
@@ -14,8 +17,16 @@ public class PersonalizationUseCase {
 
     private final PersonalizationPort personalizationPort;
 
-    public PersonalizationUseCase(PersonalizationPort personalizationPort){
+    private final int maxPageSize;
+
+    private final int fetchSize;
+
+    public PersonalizationUseCase(PersonalizationPort personalizationPort,
+                                  @Value("${application.personalization.max-page-size}") int maxPageSize,
+                                  @Value("${application.personalization.fetch-size}") int fetchSize){
         this.personalizationPort = personalizationPort;
+        this.maxPageSize = maxPageSize;
+        this.fetchSize = fetchSize;
     }
 
     public List<PersonalizationMapping> getPersonalizationByQuestionnaireIdAndMode(Long questionnaireId, Mode mode){
@@ -26,6 +37,45 @@ public class PersonalizationUseCase {
         return personalizationPort.getPersonalizationMappingsByQuestionnaire(questionnaireId);
     }
 
+    /**
+     * @param questionnaireId questionnaire id
+     * @param mode            mode
+     * @param cursor          data index after which the page starts, null for the first page
+     * @param size            page size, limited to the max page size
+     * @return page of mappings ordered by data index
+     */
+    public PersonalizationPage getPersonalizationPage(Long questionnaireId, Mode mode, Integer cursor, int size){
+        int pageSize = Math.clamp(size, 1, maxPageSize);
+        // one more mapping is read to know if there is a next page
+        List<PersonalizationMapping> mappings = personalizationPort.getPersonalizationMappingsPage(questionnaireId, mode,
+                cursor == null ? -1 : cursor, pageSize + 1);
+        if (mappings.size() <= pageSize) {
+            return new PersonalizationPage(mappings, null);
+        }
+        List<PersonalizationMapping> pageMappings = mappings.subList(0, pageSize);
+        return new PersonalizationPage(pageMappings, pageMappings.getLast().dataIndex());
+    }
+
+    /**
+     * Read all mappings of a mode page by page. Each page is read in its own short transaction and consumed after it,
+     * so that a slow consumer (a download) does not hold a database connection.
+     *
+     * @param questionnaireId questionnaire id
+     * @param mode            mode
+     * @param consumer        consumer of the mappings ordered by data index
+     */
+    public void streamPersonalization(Long questionnaireId, Mode mode, Consumer<PersonalizationMapping> consumer){
+        int afterDataIndex = -1;
+        List<PersonalizationMapping> mappings;
+        do {
+            mappings = personalizationPort.getPersonalizationMappingsPage(questionnaireId, mode, afterDataIndex, fetchSize);
+            mappings.forEach(consumer);
+            if (!mappings.isEmpty()) {
+                afterDataIndex = mappings.getLast().dataIndex();
+            }
+        } while (mappings.size() == fetchSize);
+    }
+
     public PersonalizationMapping getPersoMappingByInterrogationId(String interrogationId){
         return personalizationPort.getPersonalizationMapping(interrogationId);
     }
@@ -2,26 +2,62 @@ package fr.insee.publicenemy.api.application.usecase;
 
 import fr.insee.publicenemy.api.application.domain.model.*;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
 import fr.insee.publicenemy.api.application.ports.EnoServicePort;
+import fr.insee.publicenemy.api.application.ports.JsonLunaticCachePort;
 import fr.insee.publicenemy.api.application.ports.PoguesServicePort;
+import fr.insee.publicenemy.api.application.ports.ReactiveEnoServicePort;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import tools.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 @Slf4j
 public class PoguesUseCase {
 
+    public static final String MODELS_CACHE = "pogues-models";
+    public static final String VARIABLES_CACHE = "pogues-variables";
+    public static final String NOMENCLATURES_CACHE = "pogues-nomenclatures";
+
     private final PoguesServicePort poguesServicePort;
     private final EnoServicePort enoService;
+    private final ReactiveEnoServicePort reactiveEnoService;
+    private final JsonLunaticCachePort jsonLunaticCache;
+    private final Executor lunaticGenerationExecutor;
+    private final boolean pregenerationEnabled;
+    private final CacheManager cacheManager;
+
+    // questionnaires whose json lunatic generations are being started, by pogues id and context
+    private final Map<String, CompletableFuture<Void>> pendingPregenerations = new ConcurrentHashMap<>();
+    // json lunatic generations started speculatively, by pogues id/version, context and mode
+    private final Map<String, CompletableFuture<JsonLunatic>> pendingJsonLunatics = new ConcurrentHashMap<>();
 
-    public PoguesUseCase(PoguesServicePort poguesServicePort, EnoServicePort enoService) {
+    public PoguesUseCase(PoguesServicePort poguesServicePort, EnoServicePort enoService, ReactiveEnoServicePort reactiveEnoService,
+                         JsonLunaticCachePort jsonLunaticCache,
+                         @Qualifier("lunaticGenerationExecutor") Executor lunaticGenerationExecutor,
+                         @Value("${application.eno.pregeneration-enabled}") boolean pregenerationEnabled,
+                         CacheManager cacheManager) {
         this.poguesServicePort = poguesServicePort;
         this.enoService = enoService;
+        this.reactiveEnoService = reactiveEnoService;
+        this.jsonLunaticCache = jsonLunaticCache;
+        this.lunaticGenerationExecutor = lunaticGenerationExecutor;
+        this.pregenerationEnabled = pregenerationEnabled;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -35,14 +71,30 @@ public class PoguesUseCase {
     }
 
     /**
-     * Get DDI as XML format from questionnaire Id
+     * Get DDI as XML format from questionnaire Id. The model is cached for the last version of the questionnaire.
      *
      * @param poguesId pogues questionnaire id
      * @return DDI
      */
     public QuestionnaireModel getQuestionnaireModel(String poguesId) {
-        log.info(poguesId + ": get pogues-model");
-        return poguesServicePort.getQuestionnaireModel(poguesId);
+        return getQuestionnaireModel(poguesId, poguesServicePort.refreshLatestVersionId(poguesId));
+    }
+
+    private QuestionnaireModel getQuestionnaireModel(String poguesId, String versionId) {
+        return getCached(MODELS_CACHE, poguesId, versionId, () -> {
+            log.info(poguesId + ": get pogues-model");
+            return poguesServicePort.getQuestionnaireModel(poguesId);
+        });
+    }
+
+    /**
+     * Get the id of the last version of a pogues questionnaire, without retrieving the questionnaire
+     *
+     * @param poguesId pogues questionnaire id
+     * @return last version id, possibly a few seconds old
+     */
+    public String getLatestVersionId(String poguesId) {
+        return poguesServicePort.getLatestVersionId(poguesId);
     }
 
     /**
@@ -54,22 +106,230 @@ public class PoguesUseCase {
      * @return Json Lunatic
      */
     public JsonLunatic getJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        return getPendingJsonLunatic(questionnaireModel, context, mode)
+                .orElseGet(() -> generateJsonLunatic(questionnaireModel, context, mode));
+    }
+
+    /**
+     * Get a Lunatic questionnaire (json format) already generated or being generated, without calling Eno
+     *
+     * @param questionnaireModel QuestionnaireModel
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return Json Lunatic, empty if it has to be generated
+     */
+    public Optional<JsonLunatic> findJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        return getPendingJsonLunatic(questionnaireModel, context, mode)
+                .or(() -> getCachedJsonLunatic(questionnaireModel, context, mode));
+    }
+
+    /**
+     * Generate a Lunatic questionnaire (json format) with Eno, streamed as it is received so that it can be sent
+     * to another api without being held in memory. When caching is enabled, it is written to the cache as it is received
+     * and cached on completion.
+     *
+     * @param questionnaireModel QuestionnaireModel
+     * @param context            insee context
+     * @param mode               questionnaire mode
+     * @return Json Lunatic content (utf-8), buffers must be released by the subscriber
+     */
+    public Flux<DataBuffer> streamJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        return Flux.defer(() -> {
+            log.info(questionnaireModel.poguesId() + ": stream JSON Lunatic for mode " + mode.name());
+            Flux<DataBuffer> content = reactiveEnoService.getJsonLunaticContent(questionnaireModel, context, mode);
+            Optional<JsonLunaticCachePort.Writer> cacheWriter = jsonLunaticCache.openJsonLunatic(questionnaireModel, context, mode);
+            if (cacheWriter.isEmpty()) {
+                return content;
+            }
+            JsonLunaticCachePort.Writer writer = cacheWriter.get();
+            return content
+                    .doOnNext(dataBuffer -> {
+                        // read without consuming the buffer, which is still to be written
+                        try (DataBuffer.ByteBufferIterator byteBuffers = dataBuffer.readableByteBuffers()) {
+                            byteBuffers.forEachRemaining(writer::write);
+                        }
+                    })
+                    .doOnComplete(writer::commit)
+                    // discard a partial json lunatic when the stream fails or is cancelled
+                    .doFinally(signal -> writer.close());
+        });
+    }
+
+    /**
+     * Start in background the generation of the Lunatic questionnaires (json format) of all web modes of a pogues questionnaire.
+     * Generated questionnaires are picked up by {@link #getJsonLunatic(QuestionnaireModel, Context, Mode)} when synchronizing,
+     * so Eno latency is hidden behind data validation. Errors are only logged, generation will be done again when needed.
+     * Pre-generation is skipped when the generation executor is saturated.
+     *
+     * @param poguesId pogues questionnaire id
+     * @param context  insee context
+     */
+    public void pregenerateJsonLunatics(String poguesId, Context context) {
+        if (!pregenerationEnabled || context == null) {
+            return;
+        }
+        String pregenerationKey = getPregenerationKey(poguesId, context);
+        CompletableFuture<Void> pregeneration = new CompletableFuture<>();
+        // registered before being submitted, so that a synchronisation starting right away waits for the generations to be started
+        if (pendingPregenerations.putIfAbsent(pregenerationKey, pregeneration) != null) {
+            return;
+        }
+        pregeneration.whenComplete((result, ex) -> pendingPregenerations.remove(pregenerationKey, pregeneration));
+        try {
+            // run in the flow of the caller, which will need the same questionnaire model
+            lunaticGenerationExecutor.execute(FlowMemo.wrap(() -> {
+                try {
+                    QuestionnaireModel questionnaireModel = getQuestionnaireModel(poguesId);
+                    questionnaireModel.modes().stream()
+                            .filter(Mode::isWebMode)
+                            .forEach(mode -> pregenerateJsonLunatic(questionnaireModel, context, mode));
+                } catch (RuntimeException ex) {
+                    log.warn(poguesId + ": unable to pre-generate JSON Lunatic: " + ex.getMessage());
+                } finally {
+                    pregeneration.complete(null);
+                }
+            }));
+        } catch (RejectedExecutionException ex) {
+            log.warn(poguesId + ": JSON Lunatic generation queue is full, skip pre-generation");
+            pregeneration.complete(null);
+        }
+    }
+
+    private void pregenerateJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        String pendingKey = getPendingKey(questionnaireModel, context, mode);
+        if (pendingKey == null) {
+            return;
+        }
+        CompletableFuture<JsonLunatic> generation = new CompletableFuture<>();
+        if (pendingJsonLunatics.putIfAbsent(pendingKey, generation) != null) {
+            return;
+        }
+        // json lunatic is in cache once generated, no need to keep the future
+        generation.whenComplete((jsonLunatic, ex) -> pendingJsonLunatics.remove(pendingKey, generation));
+        try {
+            lunaticGenerationExecutor.execute(() -> {
+                try {
+                    generation.complete(generateJsonLunatic(questionnaireModel, context, mode));
+                } catch (Throwable ex) {
+                    log.warn(questionnaireModel.poguesId() + ": unable to pre-generate JSON Lunatic for mode " + mode.name() + ": " + ex.getMessage());
+                    generation.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn(questionnaireModel.poguesId() + ": JSON Lunatic generation queue is full, skip pre-generation for mode " + mode.name());
+            generation.completeExceptionally(ex);
+        }
+    }
+
+    private String getPregenerationKey(String poguesId, Context context) {
+        return String.join("|", poguesId, context.name());
+    }
+
+    /**
+     * @return key of a speculative generation, null when the pogues version is unknown
+     */
+    private String getPendingKey(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        if (questionnaireModel.versionId() == null || questionnaireModel.versionId().isBlank()) {
+            return null;
+        }
+        return String.join("|", questionnaireModel.poguesId(), questionnaireModel.versionId(), context.name(), mode.name());
+    }
+
+    /**
+     * Wait for the speculative generation of a json lunatic
+     *
+     * @return json lunatic, empty when no generation was started or when it failed
+     */
+    private Optional<JsonLunatic> getPendingJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        CompletableFuture<Void> pregeneration = pendingPregenerations.get(getPregenerationKey(questionnaireModel.poguesId(), context));
+        if (pregeneration != null) {
+            // generations of the modes are not started yet, wait for them to be registered
+            pregeneration.join();
+        }
+        String pendingKey = getPendingKey(questionnaireModel, context, mode);
+        CompletableFuture<JsonLunatic> pendingJsonLunatic = pendingKey == null ? null : pendingJsonLunatics.get(pendingKey);
+        if (pendingJsonLunatic == null) {
+            return Optional.empty();
+        }
+        log.info(questionnaireModel.poguesId() + ": wait for pre-generated JSON Lunatic for mode " + mode.name());
+        try {
+            return Optional.of(pendingJsonLunatic.join());
+        } catch (CompletionException | CancellationException ex) {
+            log.warn(questionnaireModel.poguesId() + ": pre-generation of JSON Lunatic for mode " + mode.name() + " failed, generate it again");
+            return Optional.empty();
+        } finally {
+            pendingJsonLunatics.remove(pendingKey, pendingJsonLunatic);
+        }
+    }
+
+    private Optional<JsonLunatic> getCachedJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        Optional<JsonLunatic> cachedJsonLunatic = jsonLunaticCache.getJsonLunatic(questionnaireModel, context, mode);
+        cachedJsonLunatic.ifPresent(jsonLunatic ->
+                log.info(questionnaireModel.poguesId() + ": JSON Lunatic for mode " + mode.name() + " retrieved from cache"));
+        return cachedJsonLunatic;
+    }
+
+    private JsonLunatic generateJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        Optional<JsonLunatic> cachedJsonLunatic = getCachedJsonLunatic(questionnaireModel, context, mode);
+        if (cachedJsonLunatic.isPresent()) {
+            return cachedJsonLunatic.get();
+        }
         log.info(questionnaireModel.poguesId() + ": get JSON Lunatic for mode " + mode.name());
-        return enoService.getJsonLunatic(questionnaireModel, context, mode);
+        JsonLunatic jsonLunatic = enoService.getJsonLunatic(questionnaireModel, context, mode);
+        jsonLunaticCache.putJsonLunatic(questionnaireModel, context, mode, jsonLunatic);
+        return jsonLunatic;
     }
 
     /**
-     * Get Json Pogues variables
+     * Get Json Pogues variables, cached for the last version of the questionnaire.
+     * Variables are extracted from the questionnaire model, which is retrieved or reused from cache.
      *
      * @param questionnaireId pogues questionnaire Id
-     * @return variables type for a questionnaire. It only returns external variables right now
+     * @return variables type for a questionnaire
      */
     public List<VariableType> getQuestionnaireVariables(String questionnaireId) {
-        return poguesServicePort.getQuestionnaireVariables(questionnaireId);
+        String versionId = poguesServicePort.refreshLatestVersionId(questionnaireId);
+        return getCached(VARIABLES_CACHE, questionnaireId, versionId, () -> List.copyOf(
+                poguesServicePort.getQuestionnaireVariables(getQuestionnaireModel(questionnaireId, versionId))));
     }
 
+    /**
+     * Get nomenclatures of a questionnaire, cached for the last version of the questionnaire.
+     * Nomenclatures are only read to be displayed, the last version id may be a few seconds old.
+     *
+     * @param poguesId pogues questionnaire id
+     * @return nomenclatures
+     */
     public JsonNode getNomenclatureOfQuestionnaire(String poguesId){
-        log.info(poguesId + ": get nomenclatures");
-        return poguesServicePort.getNomenclaturesByQuestionnaire(poguesId);
+        String versionId = poguesServicePort.getLatestVersionId(poguesId);
+        return getCached(NOMENCLATURES_CACHE, poguesId, versionId, () -> {
+            log.info(poguesId + ": get nomenclatures");
+            return poguesServicePort.getNomenclaturesByQuestionnaire(poguesId);
+        });
+    }
+
+    /**
+     * Get a value from a cache region, entries are kept by pogues id and version id so that a new version of a
+     * questionnaire is always loaded again. Concurrent calls for the same missing entry load it only once.
+     *
+     * @param cacheName cache region
+     * @param poguesId  pogues questionnaire id
+     * @param versionId last version id of the questionnaire, value is not cached when unknown
+     * @param loader    call retrieving the value from pogues
+     * @return cached or loaded value
+     */
+    private <T> T getCached(String cacheName, String poguesId, String versionId, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || versionId == null || versionId.isBlank()) {
+            return loader.get();
+        }
+        try {
+            return cache.get(poguesId + "|" + versionId, loader::get);
+        } catch (Cache.ValueRetrievalException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
     }
 }
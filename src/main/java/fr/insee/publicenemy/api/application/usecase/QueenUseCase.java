@@ -2,25 +2,45 @@ package fr.insee.publicenemy.api.application.usecase;
 
 import fr.insee.publicenemy.api.application.domain.model.*;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationCreationFailure;
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
 import fr.insee.publicenemy.api.application.domain.utils.IdentifierGenerationUtils;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationHashUtils;
 import fr.insee.publicenemy.api.application.domain.utils.InterrogationData;
+import fr.insee.publicenemy.api.application.exceptions.InterrogationsCreationException;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.InterrogationCsvPort;
 import fr.insee.publicenemy.api.application.ports.InterrogationJsonPort;
 import fr.insee.publicenemy.api.application.ports.PersonalizationPort;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
 import fr.insee.publicenemy.api.application.ports.QueenServicePort;
-import fr.insee.publicenemy.api.infrastructure.queen.dto.InterrogationDto;
+import fr.insee.publicenemy.api.application.ports.ReactiveQueenServicePort;
 import fr.insee.publicenemy.api.infrastructure.queen.dto.SimpleInterrogationDto;
 import fr.insee.publicenemy.api.infrastructure.queen.exceptions.CampaignNotFoundException;
+import fr.insee.publicenemy.api.infrastructure.queen.exceptions.InterrogationsNotFoundException;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.RepositoryEntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import tools.jackson.databind.JsonNode;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Handle synchronisation with queen
@@ -30,20 +50,47 @@ import java.util.stream.IntStream;
 public class QueenUseCase {
 
     private final QueenServicePort queenService;
+    private final ReactiveQueenServicePort reactiveQueenService;
 
     private final InterrogationCsvPort interrogationCsvService;
     private final InterrogationJsonPort interrogationJsonService;
     private final PersonalizationPort personalizationService;
+    private final QuestionnairePort questionnairePort;
 
     private final PoguesUseCase poguesUseCase;
 
+    private final int modeSynchronisationParallelism;
+    private final int interrogationConcurrency;
+
+    private final int interrogationCheckpointSize;
+
+    private final boolean incrementalUpdateEnabled;
+    private final boolean resumeEnabled;
+    private final boolean questionnaireModelStreamingEnabled;
+
     public QueenUseCase(PoguesUseCase poguesUseCase,
                         QueenServicePort queenService,
+                        ReactiveQueenServicePort reactiveQueenService,
                         InterrogationCsvPort interrogationCsvService,
                         InterrogationJsonPort interrogationJsonService,
-                        PersonalizationPort personalizationService) {
+                        PersonalizationPort personalizationService,
+                        QuestionnairePort questionnairePort,
+                        @Value("${application.queen.mode-sync-parallelism}") int modeSynchronisationParallelism,
+                        @Value("${application.queen.interrogation-concurrency}") int interrogationConcurrency,
+                        @Value("${application.queen.interrogation-checkpoint-size}") int interrogationCheckpointSize,
+                        @Value("${application.queen.incremental-update}") boolean incrementalUpdateEnabled,
+                        @Value("${application.queen.resume-synchronisation}") boolean resumeEnabled,
+                        @Value("${application.queen.stream-questionnaire-model}") boolean questionnaireModelStreamingEnabled) {
         this.poguesUseCase = poguesUseCase;
+        this.questionnairePort = questionnairePort;
+        this.interrogationCheckpointSize = interrogationCheckpointSize;
+        this.resumeEnabled = resumeEnabled;
+        this.questionnaireModelStreamingEnabled = questionnaireModelStreamingEnabled;
+        this.modeSynchronisationParallelism = modeSynchronisationParallelism;
+        this.interrogationConcurrency = interrogationConcurrency;
+        this.incrementalUpdateEnabled = incrementalUpdateEnabled;
         this.queenService = queenService;
+        this.reactiveQueenService = reactiveQueenService;
         this.interrogationCsvService = interrogationCsvService;
         this.interrogationJsonService = interrogationJsonService;
         this.personalizationService = personalizationService;
@@ -69,24 +116,10 @@ public class QueenUseCase {
     /**
      * reset data/state data for a specific interrogation
      *
-     * @param personalizationMapping
-     * @param interrogationData interrogations csv data
+     * @param personalizationMapping mapping of the interrogation
+     * @param interrogation          interrogation with its initial data and state data
      */
-    public void resetInterrogation(PersonalizationMapping personalizationMapping, byte[] interrogationData) {
-        Interrogation interrogation;
-        InterrogationData.FormatType dataFormat = InterrogationData.getDataFormat(interrogationData);
-        if(InterrogationData.FormatType.CSV.equals(dataFormat)){
-            interrogation = interrogationCsvService.getCsvInterrogation(
-                    personalizationMapping,
-                    interrogationData);
-        } else if(InterrogationData.FormatType.JSON.equals(dataFormat)) {
-            interrogation = interrogationJsonService.getJsonInterrogation(
-                    personalizationMapping,
-                    interrogationData);
-        } else {
-            throw new ServiceException(HttpStatus.NOT_ACCEPTABLE, "Invalid format of data");
-        }
-
+    public void resetInterrogation(PersonalizationMapping personalizationMapping, Interrogation interrogation) {
         String campaignId = IdentifierGenerationUtils.generateCampaignAndQuestionnaireModelIdentifier(
                 personalizationMapping.questionnaireId(),
                 personalizationMapping.mode());
@@ -102,16 +135,13 @@ public class QueenUseCase {
      */
 
     public void synchronizeCreate(QuestionnaireModel questionnaireModel, Questionnaire questionnaire) {
-        questionnaire.getQuestionnaireModes().stream()
+        List<QuestionnaireMode> webQuestionnaireModes = questionnaire.getQuestionnaireModes().stream()
                 .filter(qm -> qm.getMode().isWebMode())
-                .forEach(qm -> createQueenCampaign(questionnaireModel, questionnaire, qm));
+                .toList();
+        synchronizeModes(webQuestionnaireModes, qm -> createQueenCampaign(questionnaireModel, questionnaire, qm));
         questionnaire.setPersonalizationState(PersonalizationState.COMPLETED);
     }
 
-    public CompletableFuture<Void> synchronizeCreateAsync(QuestionnaireModel questionnaireModel, Questionnaire questionnaire) {
-        return CompletableFuture.runAsync(() -> synchronizeCreate(questionnaireModel, questionnaire));
-    }
-
     /**
      * Update questionnaire in queen
      * This update is used for
@@ -122,6 +152,19 @@ public class QueenUseCase {
      * @param questionnaire questionnaire
      */
     public void synchronizeUpdate(QuestionnaireModel questionnaireModel, Questionnaire questionnaire) {
+        synchronizeUpdate(questionnaireModel, questionnaire, true);
+    }
+
+    /**
+     * Update questionnaire in queen
+     * When the questionnaire model has not been updated (same pogues version, same context), already synchronized modes
+     * are updated incrementally: only interrogations whose data changed are updated/created/deleted in queen
+     *
+     * @param questionnaireModel           DDI for the questionnaire
+     * @param questionnaire questionnaire
+     * @param questionnaireModelUpdated true if the questionnaire model (pogues version or context) has changed since last synchronisation
+     */
+    public void synchronizeUpdate(QuestionnaireModel questionnaireModel, Questionnaire questionnaire, boolean questionnaireModelUpdated) {
         List<Mode> modes = questionnaireModel.modes();
         List<QuestionnaireMode> questionnaireModes = new ArrayList<>(questionnaire.getQuestionnaireModes());
 
@@ -153,29 +196,17 @@ public class QueenUseCase {
         // synchronize created/updated questionnaire web modes
         // created modes will be processed like updated questionnaire modes, as synchronisation with API can cause unexpected errors
         // Often it will cause unnecessary checks for created modes, but synchronisation is safer this way
-        questionnaireModes.stream()
+        List<QuestionnaireMode> webQuestionnaireModes = questionnaireModes.stream()
                 .filter(questionnaireMode -> questionnaireMode.getMode().isWebMode())
-                .forEach(questionnaireMode -> {
-                    log.info(String.format("%s: mode to update: %s", questionnaire.getPoguesId(), questionnaireMode.getMode().name()));
-                    updateQueenCampaign(questionnaireModel, questionnaire, questionnaireMode);
-                });
+                .toList();
+        synchronizeModes(webQuestionnaireModes, questionnaireMode -> Mono.defer(() -> {
+            log.info(String.format("%s: mode to update: %s", questionnaire.getPoguesId(), questionnaireMode.getMode().name()));
+            return updateQueenCampaign(questionnaireModel, questionnaire, questionnaireMode, questionnaireModelUpdated);
+        }));
         questionnaire.setQuestionnaireModes(questionnaireModes);
         questionnaire.setPersonalizationState(PersonalizationState.COMPLETED);
     }
 
-    /**
-     * Update questionnaire in queen
-     * This update is used for
-     * - simply updating a questionnaire (context/survey unit data)
-     * - for updating a not well synchronized questionnaire (problems during previous sync, questionnaire changed in pogues, ...)
-     *
-     * @param questionnaireModel           DDI for the questionnaire
-     * @param questionnaire questionnaire
-     */
-    public CompletableFuture<Void> synchronizeUpdateAsync(QuestionnaireModel questionnaireModel, Questionnaire questionnaire) {
-        return CompletableFuture.runAsync(()-> synchronizeUpdate(questionnaireModel, questionnaire));
-    }
-
     /**
      * Delete questionnaire in queen
      *
@@ -200,24 +231,14 @@ public class QueenUseCase {
      * @param questionnaireModel               questionnaireModel
      * @param questionnaire     questionnaire
      * @param questionnaireMode questionnaire mode
-     * @throws CampaignNotFoundException exception thrown if the campaign was not found
+     * @return completion of the creation
      */
-    private void createQueenCampaign(QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) throws CampaignNotFoundException {
+    private Mono<Void> createQueenCampaign(QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
         String questionnaireModelId = IdentifierGenerationUtils.generateCampaignAndQuestionnaireModelIdentifier(questionnaire.getId(), questionnaireMode.getMode());
-        List<Interrogation> interrogations = List.of();
-        InterrogationData.FormatType dataFormat = InterrogationData.getDataFormat(questionnaire.getInterrogationData());
-        if(InterrogationData.FormatType.CSV.equals(dataFormat)){
-            interrogations = interrogationCsvService.initInterrogations(questionnaire.getInterrogationData(), questionnaireModelId);
-        } else if(InterrogationData.FormatType.JSON.equals(dataFormat)) {
-            interrogations = interrogationJsonService.initInterrogations(questionnaire.getInterrogationData(), questionnaireModelId);
-        } else {
-            log.warn("Invalid format of data");
-        }
-        createQuestionnaireModel(questionnaireModelId, questionnaireModel, questionnaire.getContext(), questionnaireMode);
-        createCampaign(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode);
-        createInterrogations(questionnaireModelId, interrogations, questionnaireMode);
-        createPersonalizationMappings(interrogations, questionnaire.getId(), questionnaireMode.getMode(), questionnaireMode);
-        questionnaireMode.setSynchronisationState(SynchronisationState.OK.name());
+        return createQuestionnaireModel(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode)
+                .then(createCampaign(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode))
+                .then(createInterrogations(questionnaireModelId, questionnaire, questionnaireMode))
+                .then(checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.OK));
     }
 
     /**
@@ -227,23 +248,273 @@ public class QueenUseCase {
      * @param questionnaireModel               questionnaireModel
      * @param questionnaire     questionnaire
      * @param questionnaireMode questionnaire mode
+     * @return completion of the update
      */
-    private void updateQueenCampaign(QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+    private Mono<Void> updateQueenCampaign(QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode,
+                                           boolean questionnaireModelUpdated) {
         Mode mode = questionnaireMode.getMode();
         String questionnaireModelId = IdentifierGenerationUtils.generateCampaignAndQuestionnaireModelIdentifier(questionnaire.getId(), mode);
-       // try to delete campaign if exists
-        try {
-            log.info(String.format("%s: delete campaign %s", questionnaire.getPoguesId(), questionnaireModelId));
-            queenService.deleteCampaign(questionnaireModelId);
-            personalizationService.deletePersonalizationMappingsByQuestionnaireIdAndMode(questionnaire.getId(), questionnaireMode.getMode());
-            questionnaireMode.setSynchronisationState(null);
-        } catch (CampaignNotFoundException ex) {
-            // campaign does not exist, we will create it afterwards, no need to throw this exception
-            log.debug(ex.getMessage());
+        Mono<Void> recreation = Mono.defer(() -> recreateQueenCampaign(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode));
+
+        if (questionnaireModelUpdated) {
+            return recreation;
+        }
+
+        String synchronisationState = questionnaireMode.getSynchronisationState();
+        if (incrementalUpdateEnabled && SynchronisationState.OK.name().equals(synchronisationState)) {
+            return withRecreationFallback(updateInterrogationsIncrementally(questionnaireModelId, questionnaire, questionnaireMode),
+                    recreation, questionnaire, questionnaireModelId);
+        }
+        // resume from the last checkpoint: questionnaire model (and campaign) already exist in queen
+        if (resumeEnabled && SynchronisationState.INIT_CAMPAIGN.name().equals(synchronisationState)) {
+            log.info(String.format("%s: resume synchronisation of campaign %s from campaign creation", questionnaire.getPoguesId(), questionnaireModelId));
+            return withRecreationFallback(createCampaign(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode)
+                    .then(resumeInterrogations(questionnaireModelId, questionnaire, questionnaireMode)), recreation, questionnaire, questionnaireModelId);
+        }
+        if (resumeEnabled && SynchronisationState.INIT_SURVEY_UNIT.name().equals(synchronisationState)) {
+            log.info(String.format("%s: resume synchronisation of campaign %s from interrogations creation", questionnaire.getPoguesId(), questionnaireModelId));
+            return withRecreationFallback(resumeInterrogations(questionnaireModelId, questionnaire, questionnaireMode),
+                    recreation, questionnaire, questionnaireModelId);
+        }
+        return recreation;
+    }
+
+    /**
+     * Recreate the campaign completely when a partial synchronisation fails, so that queen and personalization mappings are consistent again.
+     * Interrogations creation errors are not concerned: created interrogations have been checkpointed, next synchronisation will resume from them.
+     *
+     * @param partialSynchronisation incremental or resumed synchronisation
+     * @param recreation             complete recreation of the campaign
+     * @return synchronisation with fallback
+     */
+    private Mono<Void> withRecreationFallback(Mono<Void> partialSynchronisation, Mono<Void> recreation, Questionnaire questionnaire, String questionnaireModelId) {
+        return partialSynchronisation
+                .onErrorResume(ex -> !(ex instanceof InterrogationsCreationException) && (ex instanceof ServiceException
+                        || ex instanceof InterrogationsNotFoundException || ex instanceof RepositoryEntityNotFoundException), ex -> {
+                    log.warn(String.format("%s: partial synchronisation failed for campaign %s, campaign will be recreated: %s",
+                            questionnaire.getPoguesId(), questionnaireModelId, ex.getMessage()));
+                    return recreation;
+                });
+    }
+
+    /**
+     * Resume interrogations creation of a campaign. Interrogations created in queen but not checkpointed (synchronisation interrupted
+     * before their personalization mappings were saved) are deleted, then remaining rows are created like in an incremental update.
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaire        questionnaire
+     * @param questionnaireMode    questionnaire mode
+     * @return completion of the interrogations creation
+     */
+    private Mono<Void> resumeInterrogations(String questionnaireModelId, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        return checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.INIT_SURVEY_UNIT)
+                .then(deleteUncheckpointedInterrogations(questionnaireModelId, questionnaire.getId(), questionnaireMode.getMode()))
+                .then(updateInterrogationsIncrementally(questionnaireModelId, questionnaire, questionnaireMode));
+    }
+
+    private Mono<Void> deleteUncheckpointedInterrogations(String questionnaireModelId, Long questionnaireId, Mode mode) {
+        return reactiveQueenService.getInterrogations(questionnaireModelId)
+                .onErrorResume(InterrogationsNotFoundException.class, ex -> Mono.just(List.of()))
+                .zipWith(blockingCall(() -> personalizationService.getPersonalizationMappingsByQuestionnaireIdAndMode(questionnaireId, mode)))
+                .flatMapMany(interrogationsAndMappings -> {
+                    Set<String> checkpointedIds = interrogationsAndMappings.getT2().stream()
+                            .map(PersonalizationMapping::interrogationId)
+                            .collect(Collectors.toSet());
+                    return Flux.fromIterable(interrogationsAndMappings.getT1())
+                            .filter(interrogation -> !checkpointedIds.contains(interrogation.id()));
+                })
+                .doOnNext(interrogation -> log.info(String.format("delete interrogation %s not checkpointed for campaign %s", interrogation.id(), questionnaireModelId)))
+                .flatMap(interrogation -> reactiveQueenService.deleteInterrogation(new Interrogation(interrogation.id(), questionnaireModelId, null, null)),
+                        interrogationConcurrency)
+                .then();
+    }
+
+    /**
+     * Delete campaign if exists, then create it again
+     */
+    private Mono<Void> recreateQueenCampaign(String questionnaireModelId, QuestionnaireModel questionnaireModel, Questionnaire questionnaire,
+                                             QuestionnaireMode questionnaireMode) {
+        log.info(String.format("%s: delete campaign %s", questionnaire.getPoguesId(), questionnaireModelId));
+        return reactiveQueenService.deleteCampaign(questionnaireModelId)
+                .then(blockingRun(() -> personalizationService.deletePersonalizationMappingsByQuestionnaireIdAndMode(questionnaire.getId(), questionnaireMode.getMode())))
+                .then(checkpoint(questionnaire.getId(), questionnaireMode, null))
+                .onErrorResume(CampaignNotFoundException.class, ex -> {
+                    // campaign does not exist, we will create it afterwards, no need to throw this exception
+                    log.debug(ex.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> createQueenCampaign(questionnaireModel, questionnaire, questionnaireMode)));
+    }
+
+    /**
+     * Synchronize questionnaire modes in one reactive pipeline (parallelism is bounded by the mode synchronisation parallelism).
+     * Each mode synchronisation only updates the synchronisation state of its own questionnaire mode. Waits for all modes to be processed
+     * before returning, so the questionnaire can safely be updated afterwards.
+     *
+     * @param questionnaireModes  questionnaire modes to synchronize
+     * @param modeSynchronisation synchronisation to apply on each questionnaire mode
+     * @throws RuntimeException the first error encountered when synchronizing a mode
+     */
+    private void synchronizeModes(List<QuestionnaireMode> questionnaireModes, Function<QuestionnaireMode, Mono<Void>> modeSynchronisation) {
+        List<Throwable> errors = Flux.fromIterable(questionnaireModes)
+                .flatMapSequential(questionnaireMode -> Mono.defer(() -> modeSynchronisation.apply(questionnaireMode))
+                        .then(Mono.<Throwable>empty())
+                        .onErrorResume(ex -> {
+                            log.error(String.format("Synchronisation error for mode %s: %s", questionnaireMode.getMode().name(), ex.getMessage()));
+                            return Mono.just(ex);
+                        }), modeSynchronisationParallelism)
+                // calls are made from reactor threads, they need the security context of the caller
+                .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(SecurityContextHolder.getContext())))
+                .collectList()
+                .block();
+
+        if (errors != null && !errors.isEmpty()) {
+            throw Exceptions.propagate(errors.getFirst());
+        }
+    }
+
+    /**
+     * Update interrogations of an already synchronized campaign, comparing content hashes of the new data rows with the ones
+     * stored in personalization mappings:
+     * - changed rows are updated in queen (interrogation ids are kept)
+     * - new rows are created
+     * - rows no longer existing are deleted
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaire     questionnaire
+     * @param questionnaireMode questionnaire mode
+     * @return completion of the update
+     */
+    private Mono<Void> updateInterrogationsIncrementally(String questionnaireModelId, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        return blockingCall(() -> computeInterrogationsChanges(questionnaireModelId, questionnaire, questionnaireMode.getMode()))
+                .flatMap(changes -> Flux.fromIterable(changes.interrogationsToUpdate())
+                        .flatMap(reactiveQueenService::updateInterrogation, interrogationConcurrency)
+                        .thenMany(Flux.fromIterable(changes.interrogationsToDelete())
+                                .flatMap(reactiveQueenService::deleteInterrogation, interrogationConcurrency))
+                        .then(blockingRun(() -> {
+                            personalizationService.updatePersonalizationMappings(changes.mappingsToUpdate());
+                            personalizationService.deletePersonalizationMappings(changes.mappingsToDelete());
+                        }))
+                        .then(createInterrogationsWithCheckpoints(questionnaireModelId, Flux.fromIterable(changes.interrogationsToCreate())))
+                        .then(Mono.defer(() -> {
+                            log.info(String.format("%s: incremental update of campaign %s: %s updated, %s created, %s deleted", questionnaire.getPoguesId(),
+                                    questionnaireModelId, changes.mappingsToUpdate().size(), changes.interrogationsToCreate().size(), changes.mappingsToDelete().size()));
+                            return checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.OK);
+                        })));
+    }
+
+    /**
+     * Compute changes to apply on a campaign from the content hashes of the new data rows and the ones stored in personalization mappings.
+     * Data rows are read one at a time, only the changed ones are kept.
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaire        questionnaire
+     * @param mode                 questionnaire mode
+     * @return interrogations and personalization mappings to update/delete/create
+     */
+    private InterrogationsChanges computeInterrogationsChanges(String questionnaireModelId, Questionnaire questionnaire, Mode mode) {
+        Map<Integer, PersonalizationMapping> existingMappings = new HashMap<>();
+        personalizationService.getPersonalizationMappingsByQuestionnaireIdAndMode(questionnaire.getId(), mode)
+                .forEach(mapping -> existingMappings.put(mapping.dataIndex(), mapping));
+
+        List<Interrogation> interrogationsToUpdate = new ArrayList<>();
+        List<InterrogationCreation> interrogationsToCreate = new ArrayList<>();
+        List<PersonalizationMapping> mappingsToUpdate = new ArrayList<>();
+        try (Stream<Interrogation> interrogations = streamInterrogations(questionnaire, questionnaireModelId)) {
+            Iterator<Interrogation> interrogationIterator = interrogations.iterator();
+            for (int index = 0; interrogationIterator.hasNext(); index++) {
+                Interrogation interrogation = interrogationIterator.next();
+                String contentHash = InterrogationHashUtils.computeContentHash(interrogation);
+                PersonalizationMapping existingMapping = existingMappings.remove(index);
+                if (existingMapping == null) {
+                    interrogationsToCreate.add(new InterrogationCreation(interrogation,
+                            new PersonalizationMapping(interrogation.id(), questionnaire.getId(), mode, index, contentHash)));
+                    continue;
+                }
+                if (!contentHash.equals(existingMapping.contentHash())) {
+                    interrogationsToUpdate.add(new Interrogation(existingMapping.interrogationId(), questionnaireModelId,
+                            interrogation.data(), interrogation.stateData()));
+                    mappingsToUpdate.add(new PersonalizationMapping(existingMapping.interrogationId(), questionnaire.getId(), mode, index, contentHash));
+                }
+            }
         }
 
-        createQueenCampaign(questionnaireModel, questionnaire, questionnaireMode);
-        questionnaireMode.setSynchronisationState(SynchronisationState.OK.name());
+        // remaining mappings correspond to rows that no longer exist
+        List<PersonalizationMapping> mappingsToDelete = new ArrayList<>(existingMappings.values());
+        List<Interrogation> interrogationsToDelete = mappingsToDelete.stream()
+                .map(mapping -> new Interrogation(mapping.interrogationId(), questionnaireModelId, null, null))
+                .toList();
+        return new InterrogationsChanges(interrogationsToUpdate, interrogationsToDelete, interrogationsToCreate,
+                mappingsToUpdate, mappingsToDelete);
+    }
+
+    private record InterrogationsChanges(List<Interrogation> interrogationsToUpdate, List<Interrogation> interrogationsToDelete,
+                                         List<InterrogationCreation> interrogationsToCreate, List<PersonalizationMapping> mappingsToUpdate,
+                                         List<PersonalizationMapping> mappingsToDelete) {
+    }
+
+    /**
+     * Interrogation to create in queen, with the personalization mapping saved once it is created
+     */
+    private record InterrogationCreation(Interrogation interrogation, PersonalizationMapping mapping) {
+    }
+
+    /**
+     * Update the synchronisation state of a questionnaire mode and persist it, so that an interrupted synchronisation can be resumed
+     *
+     * @param questionnaireId   questionnaire id
+     * @param questionnaireMode questionnaire mode
+     * @param state             reached synchronisation state, null when the campaign has been deleted
+     * @return completion of the checkpoint
+     */
+    private Mono<Void> checkpoint(Long questionnaireId, QuestionnaireMode questionnaireMode, SynchronisationState state) {
+        return Mono.defer(() -> {
+            String synchronisationState = state == null ? null : state.name();
+            questionnaireMode.setSynchronisationState(synchronisationState);
+            return blockingRun(() -> questionnairePort.updateQuestionnaireModeState(questionnaireId, questionnaireMode.getMode(), synchronisationState));
+        });
+    }
+
+    /**
+     * Run a blocking call (database, parsing, cached eno generation) on the bounded elastic scheduler, so that it does not block
+     * the event-loop threads of the synchronisation pipeline. The security context of the pipeline is propagated to the call,
+     * as well as the flow of the thread assembling the pipeline.
+     *
+     * @param call blocking call
+     * @return result of the call, empty if the call returns null
+     */
+    private <T> Mono<T> blockingCall(Callable<T> call) {
+        Callable<T> flowCall = FlowMemo.wrap(call);
+        return ReactiveSecurityContextHolder.getContext()
+                .defaultIfEmpty(SecurityContextHolder.createEmptyContext())
+                .flatMap(securityContext -> Mono.fromCallable(new DelegatingSecurityContextCallable<>(flowCall, securityContext))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private Mono<Void> blockingRun(Runnable runnable) {
+        return blockingCall(() -> {
+            runnable.run();
+            return null;
+        }).then();
+    }
+
+    /**
+     * Initialize interrogations from questionnaire data, one row at a time when the stream is consumed
+     *
+     * @param questionnaire        questionnaire
+     * @param questionnaireModelId questionnaire model id
+     * @return interrogations (with generated ids) for each row of the questionnaire data, the stream must be closed
+     */
+    private Stream<Interrogation> streamInterrogations(Questionnaire questionnaire, String questionnaireModelId) {
+        InterrogationData.FormatType dataFormat = InterrogationData.getDataFormat(questionnaire.getInterrogationData());
+        if(InterrogationData.FormatType.CSV.equals(dataFormat)){
+            return interrogationCsvService.streamInterrogations(questionnaire.getInterrogationData(), questionnaireModelId);
+        }
+        if(InterrogationData.FormatType.JSON.equals(dataFormat)) {
+            return interrogationJsonService.streamInterrogations(questionnaire.getInterrogationData(), questionnaireModelId);
+        }
+        log.warn("Invalid format of data");
+        return Stream.empty();
     }
 
     /**
@@ -267,14 +538,42 @@ public class QueenUseCase {
      *
      * @param questionnaireModelId questionnaire model id
      * @param questionnaireModel                  questionnaireModel
-     * @param context              context
+     * @param questionnaire        questionnaire
+     * @param questionnaireMode    questionnaire mode
+     * @return completion of the creation
+     */
+    private Mono<Void> createQuestionnaireModel(String questionnaireModelId, QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        if (questionnaireModelStreamingEnabled) {
+            return streamQuestionnaireModel(questionnaireModelId, questionnaireModel, questionnaire, questionnaireMode);
+        }
+        return Mono.defer(() -> {
+            log.info(String.format("create questionnaire model %s", questionnaireModelId));
+            return blockingCall(() -> poguesUseCase.getJsonLunatic(questionnaireModel, questionnaire.getContext(), questionnaireMode.getMode()));
+        }).flatMap(jsonLunatic -> checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.INIT_QUESTIONNAIRE)
+                .then(reactiveQueenService.createQuestionnaireModel(questionnaireModelId, questionnaireModel, jsonLunatic)));
+    }
+
+    /**
+     * Create a questionnaire model in orchestrator backoffice, json lunatic being streamed from Eno to Queen when it is not
+     * already generated, and update synchronisation state for questionnaire mode
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaireModel   questionnaireModel
+     * @param questionnaire        questionnaire
      * @param questionnaireMode    questionnaire mode
+     * @return completion of the creation
      */
-    private void createQuestionnaireModel(String questionnaireModelId, QuestionnaireModel questionnaireModel, Context context, QuestionnaireMode questionnaireMode) {
-        log.info(String.format("create questionnaire model %s", questionnaireModelId));
-        JsonLunatic jsonLunatic = poguesUseCase.getJsonLunatic(questionnaireModel, context, questionnaireMode.getMode());
-        questionnaireMode.setSynchronisationState(SynchronisationState.INIT_QUESTIONNAIRE.name());
-        queenService.createQuestionnaireModel(questionnaireModelId, questionnaireModel, jsonLunatic);
+    private Mono<Void> streamQuestionnaireModel(String questionnaireModelId, QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        Context context = questionnaire.getContext();
+        Mode mode = questionnaireMode.getMode();
+        return Mono.defer(() -> {
+            log.info(String.format("create questionnaire model %s", questionnaireModelId));
+            return blockingCall(() -> poguesUseCase.findJsonLunatic(questionnaireModel, context, mode));
+        }).flatMap(jsonLunatic -> checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.INIT_QUESTIONNAIRE)
+                .then(jsonLunatic.isPresent()
+                        ? reactiveQueenService.createQuestionnaireModel(questionnaireModelId, questionnaireModel, jsonLunatic.get())
+                        : reactiveQueenService.createQuestionnaireModelFromContent(questionnaireModelId, questionnaireModel,
+                        poguesUseCase.streamJsonLunatic(questionnaireModel, context, mode))));
     }
 
     /**
@@ -284,24 +583,61 @@ public class QueenUseCase {
      * @param questionnaireModel                  questionnaireModel
      * @param questionnaire        questionnaire
      * @param questionnaireMode    questionnaire mode
+     * @return completion of the creation
      */
-    private void createCampaign(String questionnaireModelId, QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
-        log.info(String.format("create campaign %s", questionnaireModelId));
-        questionnaireMode.setSynchronisationState(SynchronisationState.INIT_CAMPAIGN.name());
-        queenService.createCampaign(questionnaireModelId, questionnaire, questionnaireModel);
+    private Mono<Void> createCampaign(String questionnaireModelId, QuestionnaireModel questionnaireModel, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        return Mono.defer(() -> {
+            log.info(String.format("create campaign %s", questionnaireModelId));
+            return checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.INIT_CAMPAIGN)
+                    .then(reactiveQueenService.createCampaign(questionnaireModelId, questionnaire, questionnaireModel));
+        });
     }
 
     /**
-     * Create interrogations in queen and update synchronisation state for questionnaire mode
+     * Create interrogations of the questionnaire data in queen and update synchronisation state for questionnaire mode
      *
      * @param campaignId        campaign id
-     * @param interrogations       interrogations list
+     * @param questionnaire     questionnaire
      * @param questionnaireMode questionnaire mode
+     * @return completion of the creation
      */
-    private void createInterrogations(String campaignId, List<Interrogation> interrogations, QuestionnaireMode questionnaireMode) {
-        log.info(String.format("create interrogations for campaign %s", campaignId));
-        questionnaireMode.setSynchronisationState(SynchronisationState.INIT_SURVEY_UNIT.name());
-        queenService.createInterrogations(campaignId, interrogations);
+    private Mono<Void> createInterrogations(String campaignId, Questionnaire questionnaire, QuestionnaireMode questionnaireMode) {
+        return Mono.defer(() -> {
+            log.info(String.format("create interrogations for campaign %s", campaignId));
+            return checkpoint(questionnaire.getId(), questionnaireMode, SynchronisationState.INIT_SURVEY_UNIT)
+                    .then(createInterrogationsWithCheckpoints(campaignId, initInterrogationCreations(campaignId, questionnaire, questionnaireMode.getMode())));
+        });
+    }
+
+    /**
+     * Create interrogations in queen by chunks. Personalization mappings of each chunk are saved as soon as its interrogations
+     * are created (also when only some of them were created), so that an interrupted creation can be resumed from them.
+     * Interrogations are requested one chunk ahead of the chunk being created.
+     *
+     * @param campaignId             campaign id
+     * @param interrogationCreations interrogations to create, with their personalization mappings
+     * @return completion of the creation
+     */
+    private Mono<Void> createInterrogationsWithCheckpoints(String campaignId, Flux<InterrogationCreation> interrogationCreations) {
+        return interrogationCreations
+                .buffer(interrogationCheckpointSize)
+                .concatMap(chunk -> {
+                    List<Interrogation> chunkInterrogations = chunk.stream().map(InterrogationCreation::interrogation).toList();
+                    List<PersonalizationMapping> chunkMappings = chunk.stream().map(InterrogationCreation::mapping).toList();
+                    return reactiveQueenService.createInterrogations(campaignId, chunkInterrogations)
+                            .then(blockingRun(() -> personalizationService.addPersonalizationMappings(chunkMappings)))
+                            .onErrorResume(InterrogationsCreationException.class, ex -> {
+                                Set<String> failedIds = ex.getFailures().stream()
+                                        .map(InterrogationCreationFailure::interrogationId)
+                                        .collect(Collectors.toSet());
+                                List<PersonalizationMapping> createdMappings = chunkMappings.stream()
+                                        .filter(mapping -> !failedIds.contains(mapping.interrogationId()))
+                                        .toList();
+                                return blockingRun(() -> personalizationService.addPersonalizationMappings(createdMappings))
+                                        .then(Mono.error(ex));
+                            });
+                }, 1)
+                .then();
     }
 
     private void createInterrogation(String campaignId, Interrogation interrogation) {
@@ -309,15 +645,23 @@ public class QueenUseCase {
         queenService.createInterrogation(campaignId, interrogation);
     }
 
-    private void createPersonalizationMappings(List<Interrogation> interrogations, Long questionnaireId, Mode mode, QuestionnaireMode questionnaireMode){
-        questionnaireMode.setSynchronisationState(SynchronisationState.INIT_PERSO_MAPPING.name());
-        IntStream.range(0, interrogations.size())
-                .mapToObj(index -> new PersonalizationMapping(
-                        interrogations.get(index).id(),
-                        questionnaireId,
+    /**
+     * Read interrogations of the questionnaire data as they are requested, on the bounded elastic scheduler.
+     * The data stream is closed when the creation completes, fails or is cancelled.
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaire        questionnaire
+     * @param mode                 questionnaire mode
+     * @return interrogations with their personalization mappings, in the order of the data rows
+     */
+    private Flux<InterrogationCreation> initInterrogationCreations(String questionnaireModelId, Questionnaire questionnaire, Mode mode) {
+        return Flux.fromStream(() -> streamInterrogations(questionnaire, questionnaireModelId))
+                .index((index, interrogation) -> new InterrogationCreation(interrogation, new PersonalizationMapping(
+                        interrogation.id(),
+                        questionnaire.getId(),
                         mode,
-                        index)
-                )
-                .forEach(personalizationService::addPersonalizationMapping);
+                        index.intValue(),
+                        InterrogationHashUtils.computeContentHash(interrogation))))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 }
@@ -5,11 +5,12 @@ import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Slf4j
@@ -20,13 +21,27 @@ public class QuestionnaireUseCase {
 
     private final PoguesUseCase poguesUseCase;
 
+    private final SynchronisationJobUseCase synchronisationJobUseCase;
+
+    private final InterrogationRowUseCase interrogationRowUseCase;
+
+    private final NomenclatureUseCase nomenclatureUseCase;
+
     private final I18nMessagePort messageService;
 
-    public QuestionnaireUseCase(QuestionnairePort questionnairePort, PoguesUseCase poguesUseCase, QueenUseCase queenUseCase, I18nMessagePort messageService) {
+    private final int maxPageSize;
+
+    public QuestionnaireUseCase(QuestionnairePort questionnairePort, PoguesUseCase poguesUseCase, QueenUseCase queenUseCase,
+                                SynchronisationJobUseCase synchronisationJobUseCase, InterrogationRowUseCase interrogationRowUseCase,
+                                NomenclatureUseCase nomenclatureUseCase, I18nMessagePort messageService, @Value("${application.questionnaire.max-page-size}") int maxPageSize) {
         this.questionnairePort = questionnairePort;
         this.poguesUseCase = poguesUseCase;
         this.queenUseCase = queenUseCase;
+        this.synchronisationJobUseCase = synchronisationJobUseCase;
+        this.interrogationRowUseCase = interrogationRowUseCase;
+        this.nomenclatureUseCase = nomenclatureUseCase;
         this.messageService = messageService;
+        this.maxPageSize = maxPageSize;
     }
 
     public boolean hasQuestionnaire(String poguesId){
@@ -47,30 +62,67 @@ public class QuestionnaireUseCase {
             throw new ServiceException(HttpStatus.CONFLICT, messageService.getMessage("questionnaire.exists", poguesId));
         }
         QuestionnaireModel questionnaireModel = poguesUseCase.getQuestionnaireModel(poguesId);
-        Questionnaire questionnaire = questionnairePort.addQuestionnaire(new Questionnaire(questionnaireModel, context, interrogationData));
+        Questionnaire questionnaire = new Questionnaire(questionnaireModel, context, interrogationData);
+        questionnaire.setNomenclaturesReference(storeNomenclatures(poguesId));
+        questionnaire = questionnairePort.addQuestionnaire(questionnaire);
+        interrogationRowUseCase.saveInterrogationRows(questionnaire.getId(), interrogationData);
         return new PreparedQuestionnaire(questionnaire, questionnaireModel);
     }
 
     public PreparedQuestionnaire prepareUpdateQuestionnaire(String poguesId, Context updatedContext, byte[] updatedInterrogationData){
-        Questionnaire questionnaire = getQuestionnaire(poguesId);
+        Questionnaire questionnaire = questionnairePort.getQuestionnaire(poguesId);
         QuestionnaireModel latestQuestionnaireModel = poguesUseCase.getQuestionnaireModel(questionnaire.getPoguesId());
+        boolean questionnaireModelUpdated = !Objects.equals(questionnaire.getVersionId(), latestQuestionnaireModel.versionId())
+                || !Objects.equals(questionnaire.getContext(), updatedContext);
         questionnaire.setContext(updatedContext);
         questionnaire.setInterrogationData(updatedInterrogationData);
         questionnaire.setLabel(latestQuestionnaireModel.label());
         questionnaire.setVersionId(latestQuestionnaireModel.versionId());
         questionnaire.setPersonalizationState(PersonalizationState.STARTED);
+        questionnaire.setNomenclaturesReference(storeNomenclatures(questionnaire.getPoguesId()));
         questionnairePort.updateQuestionnaire(questionnaire);
-        return new PreparedQuestionnaire(questionnaire, latestQuestionnaireModel);
+        if (updatedInterrogationData != null && updatedInterrogationData.length > 0) {
+            interrogationRowUseCase.saveInterrogationRows(questionnaire.getId(), updatedInterrogationData);
+        }
+        return new PreparedQuestionnaire(questionnaire, latestQuestionnaireModel, questionnaireModelUpdated);
     }
 
-    @Async
+    /**
+     * Store nomenclatures of the questionnaire, listings only read their reference
+     *
+     * @param poguesId questionnaire pogues id
+     * @return reference of the stored nomenclatures, null when the questionnaire has no nomenclatures
+     */
+    private String storeNomenclatures(String poguesId) {
+        return nomenclatureUseCase.storeNomenclatures(poguesUseCase.getNomenclatureOfQuestionnaire(poguesId));
+    }
+
+    /**
+     * Get reference of the nomenclatures of a questionnaire. Nomenclatures are stored when the questionnaire is added or updated:
+     * they are only stored here, once, for questionnaires saved before references were kept with questionnaires.
+     *
+     * @param questionnaire questionnaire
+     * @return reference of the stored nomenclatures, null when the questionnaire has no nomenclatures
+     */
+    public String getNomenclaturesReference(Questionnaire questionnaire) {
+        if (questionnaire.getNomenclaturesReference() == null) {
+            String nomenclaturesReference = storeNomenclatures(questionnaire.getPoguesId());
+            if (nomenclaturesReference != null) {
+                questionnairePort.updateNomenclaturesReference(questionnaire.getId(), nomenclaturesReference);
+            }
+            questionnaire.setNomenclaturesReference(nomenclaturesReference);
+        }
+        return questionnaire.getNomenclaturesReference();
+    }
+
+    /**
+     * Queue the creation of the questionnaire in queen
+     *
+     * @param preparedQuestionnaire saved questionnaire
+     */
     public void addQuestionnaireAsync(PreparedQuestionnaire preparedQuestionnaire) {
         log.info(String.format("%s: create questionnaire", preparedQuestionnaire.getQuestionnaire().getId()));
-        queenUseCase.synchronizeCreateAsync(preparedQuestionnaire.getQuestionnaireModel(), preparedQuestionnaire.getQuestionnaire()).exceptionally(ex -> {
-            log.error("Error during creation of personalization");
-            preparedQuestionnaire.getQuestionnaire().setPersonalizationState(PersonalizationState.ERROR);
-            return null;
-        }).thenRun(() -> questionnairePort.updateQuestionnaireState(preparedQuestionnaire.getQuestionnaire()));
+        synchronisationJobUseCase.submitJob(preparedQuestionnaire.getQuestionnaire(), SynchronisationJobType.CREATE, true);
     }
 
     public void addQuestionnaire(PreparedQuestionnaire preparedQuestionnaire) {
@@ -87,27 +139,22 @@ public class QuestionnaireUseCase {
     }
 
     /**
-     * Update questionnaire
+     * Queue the update of the questionnaire in queen
      *
-     * @param preparedQuestionnaire questionnaire id
-     * @return the saved questionnaire
+     * @param preparedQuestionnaire updated questionnaire
      */
-    @Async
     public void updateQuestionnaireAsync(PreparedQuestionnaire preparedQuestionnaire) {
         Questionnaire questionnaire = preparedQuestionnaire.getQuestionnaire();
         log.info(String.format("%s: update questionnaire", questionnaire.getPoguesId()));
-        queenUseCase.synchronizeUpdateAsync(preparedQuestionnaire.getQuestionnaireModel(), preparedQuestionnaire.getQuestionnaire()).exceptionally(ex -> {
-            log.error("Error during updating of personalization");
-            preparedQuestionnaire.getQuestionnaire().setPersonalizationState(PersonalizationState.ERROR);
-            return null;
-        }).thenRun(() -> questionnairePort.updateQuestionnaireState(preparedQuestionnaire.getQuestionnaire()));
+        synchronisationJobUseCase.submitJob(questionnaire, SynchronisationJobType.UPDATE, preparedQuestionnaire.isQuestionnaireModelUpdated());
     }
 
     public void updateQuestionnaire(PreparedQuestionnaire preparedQuestionnaire) {
         Questionnaire questionnaire = preparedQuestionnaire.getQuestionnaire();
         log.info(String.format("%s: update questionnaire", questionnaire.getPoguesId()));
         try {
-            queenUseCase.synchronizeUpdate(preparedQuestionnaire.getQuestionnaireModel(), preparedQuestionnaire.getQuestionnaire());
+            queenUseCase.synchronizeUpdate(preparedQuestionnaire.getQuestionnaireModel(), preparedQuestionnaire.getQuestionnaire(),
+                    preparedQuestionnaire.isQuestionnaireModelUpdated());
         } catch (Exception e){
             log.error("Error during updating of personalization");
             preparedQuestionnaire.getQuestionnaire().setPersonalizationState(PersonalizationState.ERROR);
@@ -136,14 +183,22 @@ public class QuestionnaireUseCase {
      * @return a questionnaire based on its pogues id
      */
     public Questionnaire getQuestionnaire(String poguesId) {
-        Questionnaire questionnaire = questionnairePort.getQuestionnaire(poguesId);
-        computeOutdatedAttribute(questionnaire);
-        return questionnaire;
+        // questionnaire and latest pogues version are both retrieved by pogues id, no need to wait for one before the other
+        return ParallelCallUtils.callInParallel(
+                () -> questionnairePort.getQuestionnaire(poguesId),
+                () -> poguesUseCase.getLatestVersionId(poguesId),
+                (questionnaire, latestVersionId) -> {
+                    computeOutdatedAttribute(questionnaire, latestVersionId);
+                    return questionnaire;
+                });
     }
 
     private void computeOutdatedAttribute(Questionnaire questionnaire){
-        QuestionnaireModel latestQuestionnaireModel = poguesUseCase.getQuestionnaireModel(questionnaire.getPoguesId());
-        questionnaire.setOutdated(!latestQuestionnaireModel.versionId().equals(questionnaire.getVersionId()));
+        computeOutdatedAttribute(questionnaire, poguesUseCase.getLatestVersionId(questionnaire.getPoguesId()));
+    }
+
+    private void computeOutdatedAttribute(Questionnaire questionnaire, String latestVersionId){
+        questionnaire.setOutdated(latestVersionId != null && !latestVersionId.equals(questionnaire.getVersionId()));
     }
 
     /**
@@ -167,14 +222,32 @@ public class QuestionnaireUseCase {
     }
 
     /**
-     * Get questionnaire list
+     * Get all questionnaires, most recent first
      *
-     * @return the questionnaire list
+     * @return the questionnaires, without interrogation data
      */
     public List<Questionnaire> getQuestionnaires() {
         return questionnairePort.getQuestionnaires();
     }
 
+    /**
+     * Get a page of questionnaires, most recent first
+     *
+     * @param cursor id of the last questionnaire of the previous page, null for the first page
+     * @param size   page size, limited to the max page size
+     * @return the questionnaires page, without interrogation data
+     */
+    public QuestionnairePage getQuestionnairesPage(Long cursor, int size) {
+        int pageSize = Math.clamp(size, 1, maxPageSize);
+        // one more questionnaire is read to know if there is a next page
+        List<Questionnaire> questionnaires = questionnairePort.getQuestionnairesPage(cursor, pageSize + 1);
+        if (questionnaires.size() <= pageSize) {
+            return new QuestionnairePage(questionnaires, null);
+        }
+        List<Questionnaire> pageQuestionnaires = questionnaires.subList(0, pageSize);
+        return new QuestionnairePage(pageQuestionnaires, pageQuestionnaires.getLast().getId());
+    }
+
     /**
      * delete questionnaire
      *
@@ -0,0 +1,207 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.*;
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
+import fr.insee.publicenemy.api.application.ports.SynchronisationJobPort;
+import fr.insee.publicenemy.api.application.web.auth.AuthenticationHelper;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.RepositoryEntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Process questionnaire synchronisations with queen through a persistent job queue
+ */
+@Service
+@Slf4j
+public class SynchronisationJobUseCase {
+
+    private final SynchronisationJobPort jobPort;
+
+    private final QuestionnairePort questionnairePort;
+
+    private final PoguesUseCase poguesUseCase;
+
+    private final QueenUseCase queenUseCase;
+
+    private final Executor jobExecutor;
+
+    private final int maxAttempts;
+
+    private final Duration retryDelay;
+
+    private final Duration retryMaxDelay;
+
+    private final Duration runningTimeout;
+
+    // free worker slots, jobs stay in the queue when no worker is available
+    private final Semaphore workerSlots;
+
+    private final Set<Long> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    private final AuthenticationHelper authenticationHelper;
+
+    public SynchronisationJobUseCase(SynchronisationJobPort jobPort, QuestionnairePort questionnairePort,
+                                     PoguesUseCase poguesUseCase, QueenUseCase queenUseCase,
+                                     AuthenticationHelper authenticationHelper,
+                                     @Qualifier("synchronisationJobExecutor") Executor jobExecutor,
+                                     @Value("${application.synchronisation-jobs.concurrency}") int concurrency,
+                                     @Value("${application.synchronisation-jobs.max-attempts}") int maxAttempts,
+                                     @Value("${application.synchronisation-jobs.retry-delay}") Duration retryDelay,
+                                     @Value("${application.synchronisation-jobs.retry-max-delay}") Duration retryMaxDelay,
+                                     @Value("${application.synchronisation-jobs.running-timeout}") Duration runningTimeout) {
+        this.jobPort = jobPort;
+        this.questionnairePort = questionnairePort;
+        this.poguesUseCase = poguesUseCase;
+        this.queenUseCase = queenUseCase;
+        this.authenticationHelper = authenticationHelper;
+        this.jobExecutor = jobExecutor;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.retryMaxDelay = retryMaxDelay;
+        this.runningTimeout = runningTimeout;
+        this.workerSlots = new Semaphore(concurrency);
+    }
+
+    /**
+     * Queue the synchronisation of a questionnaire
+     *
+     * @param questionnaire             questionnaire to synchronize
+     * @param type                      creation or update of the questionnaire in queen
+     * @param questionnaireModelUpdated true if the questionnaire model (pogues version or context) has changed since last synchronisation
+     * @return the queued job
+     */
+    public SynchronisationJob submitJob(Questionnaire questionnaire, SynchronisationJobType type, boolean questionnaireModelUpdated) {
+        SynchronisationJob job = jobPort.addJob(questionnaire.getId(), type, questionnaireModelUpdated);
+        log.info(String.format("%s: synchronisation job %s queued (%s)", questionnaire.getPoguesId(), job.id(), job.type()));
+        return job;
+    }
+
+    /**
+     * @param poguesId questionnaire pogues id
+     * @return last synchronisation job of the questionnaire
+     */
+    public SynchronisationJob getLastJob(String poguesId) {
+        Questionnaire questionnaire = questionnairePort.getQuestionnaire(poguesId);
+        return jobPort.getLastJob(questionnaire.getId());
+    }
+
+    /**
+     * @return number of jobs for each status
+     */
+    public Map<SynchronisationJobStatus, Long> getQueueState() {
+        return jobPort.countJobsByStatus();
+    }
+
+    /**
+     * Claim as many pending jobs as free workers and process them
+     */
+    @Scheduled(fixedDelayString = "${application.synchronisation-jobs.poll-interval}")
+    public void pollJobs() {
+        jobPort.refreshRunningJobs(List.copyOf(runningJobIds));
+        int releasedJobs = jobPort.releaseLostJobs(Instant.now().minus(runningTimeout));
+        if (releasedJobs > 0) {
+            log.warn(String.format("%s lost synchronisation jobs queued again", releasedJobs));
+        }
+
+        int freeSlots = workerSlots.availablePermits();
+        if (freeSlots == 0) {
+            return;
+        }
+        for (SynchronisationJob job : jobPort.claimJobs(freeSlots)) {
+            workerSlots.acquireUninterruptibly();
+            runningJobIds.add(job.id());
+            try {
+                jobExecutor.execute(() -> {
+                    try {
+                        runJob(job);
+                    } finally {
+                        runningJobIds.remove(job.id());
+                        workerSlots.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                runningJobIds.remove(job.id());
+                workerSlots.release();
+                jobPort.retryJob(job.id(), Instant.now(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a job in a new flow, authenticated as this application: a job can be run long after it has been queued,
+     * by any instance, so it cannot rely on the token of the user who queued it.
+     *
+     * @param job job to run
+     */
+    private void runJob(SynchronisationJob job) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authenticationHelper.getServiceAuthentication());
+        new FlowMemo().run(new DelegatingSecurityContextRunnable(() -> processJob(job), securityContext));
+    }
+
+    /**
+     * Synchronize the questionnaire of a job with queen. Failed jobs are retried with an exponential backoff
+     *
+     * @param job job to process
+     * @return true if the job is finished (done or failed), false if it will be retried
+     */
+    boolean processJob(SynchronisationJob job) {
+        Questionnaire questionnaire = null;
+        try {
+            questionnaire = questionnairePort.getQuestionnaire(job.questionnaireId());
+            questionnaire.setInterrogationData(questionnairePort.getInterrogationData(job.questionnaireId()));
+            log.info(String.format("%s: synchronisation job %s started (%s, attempt %s)", questionnaire.getPoguesId(), job.id(), job.type(), job.attempts()));
+            QuestionnaireModel questionnaireModel = poguesUseCase.getQuestionnaireModel(questionnaire.getPoguesId());
+            if (SynchronisationJobType.CREATE.equals(job.type()) && job.attempts() == 1) {
+                queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
+            } else {
+                // a failed creation is resumed like an update, from the synchronisation states of its modes
+                boolean questionnaireModelUpdated = SynchronisationJobType.UPDATE.equals(job.type()) && job.questionnaireModelUpdated()
+                        || !Objects.equals(questionnaire.getVersionId(), questionnaireModel.versionId());
+                queenUseCase.synchronizeUpdate(questionnaireModel, questionnaire, questionnaireModelUpdated);
+            }
+            questionnairePort.updateQuestionnaireState(questionnaire);
+            jobPort.completeJob(job.id());
+            log.info(String.format("%s: synchronisation job %s completed", questionnaire.getPoguesId(), job.id()));
+            return true;
+        } catch (Exception e) {
+            log.error(String.format("Synchronisation job %s failed (attempt %s/%s)", job.id(), job.attempts(), maxAttempts), e);
+            if (e instanceof RepositoryEntityNotFoundException || job.attempts() >= maxAttempts) {
+                jobPort.failJob(job.id(), e.getMessage());
+                if (questionnaire != null) {
+                    questionnaire.setPersonalizationState(PersonalizationState.ERROR);
+                    questionnairePort.updateQuestionnaireState(questionnaire);
+                }
+                return true;
+            }
+            jobPort.retryJob(job.id(), Instant.now().plus(getRetryDelay(job.attempts())), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param attempts number of attempts already done
+     * @return delay before next attempt, doubled on each attempt
+     */
+    Duration getRetryDelay(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+    }
+}
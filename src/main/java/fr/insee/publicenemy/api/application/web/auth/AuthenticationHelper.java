@@ -10,10 +10,25 @@ public interface AuthenticationHelper {
      */
     String getUserToken();
 
+    /**
+     * Retrieve the auth token of a given authentication
+     *
+     * @param authentication authentication object
+     * @return auth token
+     */
+    String getUserToken(Authentication authentication);
+
     /**
      * Retrieve the authentication principal for current user
      *
      * @return {@link Authentication} the authentication user object
      */
     Authentication getAuthenticationPrincipal();
+
+    /**
+     * Retrieve the authentication of this application, used to call downstream apis outside of a user request
+     *
+     * @return {@link Authentication} the application authentication object, null when authentication is disabled
+     */
+    Authentication getServiceAuthentication();
 }
\ No newline at end of file
@@ -2,8 +2,12 @@ package fr.insee.publicenemy.api.application.web.auth;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
@@ -11,10 +15,23 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 public class AuthenticationUserHelper implements AuthenticationHelper {
+
+    public static final String SERVICE_CLIENT_REGISTRATION_ID = "public-enemy";
+
+    // only defined when oidc is enabled
+    private final ObjectProvider<OAuth2AuthorizedClientManager> authorizedClientManager;
+
     @Override
     public String getUserToken() {
-        if(getAuthenticationPrincipal() instanceof JwtAuthenticationToken auth) {
+        return getUserToken(getAuthenticationPrincipal());
+    }
+
+    @Override
+    public String getUserToken(Authentication authentication) {
+        if(authentication instanceof JwtAuthenticationToken auth) {
             return auth.getToken().getTokenValue();
+        } else if(authentication instanceof ServiceAuthenticationToken auth) {
+            return getServiceToken(auth);
         } else {
             log.debug("WARN: Cannot retrieve token for the user.");
             return null;
@@ -25,4 +42,31 @@ public class AuthenticationUserHelper implements AuthenticationHelper {
     public Authentication getAuthenticationPrincipal() {
         return SecurityContextHolder.getContext().getAuthentication();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Authentication getServiceAuthentication() {
+        if(authorizedClientManager.getIfAvailable() == null) {
+            return null;
+        }
+        return new ServiceAuthenticationToken(SERVICE_CLIENT_REGISTRATION_ID);
+    }
+
+    /**
+     * @param authentication application authentication
+     * @return access token of the application, retrieved again when expired
+     */
+    private String getServiceToken(ServiceAuthenticationToken authentication) {
+        OAuth2AuthorizedClientManager clientManager = authorizedClientManager.getIfAvailable();
+        if(clientManager == null) {
+            return null;
+        }
+        OAuth2AuthorizedClient authorizedClient = clientManager.authorize(OAuth2AuthorizeRequest
+                .withClientRegistrationId(authentication.getClientRegistrationId())
+                .principal(authentication)
+                .build());
+        if(authorizedClient == null) {
+            throw new AuthenticationTokenException("Cannot retrieve access token for client " + authentication.getClientRegistrationId());
+        }
+        return authorizedClient.getAccessToken().getTokenValue();
+    }
+}
@@ -0,0 +1,36 @@
+package fr.insee.publicenemy.api.application.web.auth;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * Authentication of this application, used when downstream apis are called outside of a user request.
+ * Calls are authenticated with an access token of the application retrieved when needed, so it never expires.
+ */
+public class ServiceAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String clientRegistrationId;
+
+    /**
+     * @param clientRegistrationId client registration used to retrieve the access tokens of the application
+     */
+    public ServiceAuthenticationToken(String clientRegistrationId) {
+        super(AuthorityUtils.NO_AUTHORITIES);
+        this.clientRegistrationId = clientRegistrationId;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return clientRegistrationId;
+    }
+
+    public String getClientRegistrationId() {
+        return clientRegistrationId;
+    }
+}
@@ -1,27 +1,38 @@
 package fr.insee.publicenemy.api.configuration;
 
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.web.auth.AuthenticationHelper;
+import fr.insee.publicenemy.api.configuration.properties.HttpClientProperties;
+import fr.insee.publicenemy.api.configuration.rest.DownstreamResilienceFilter;
+import fr.insee.publicenemy.api.configuration.rest.GzipRequestFilter;
 import fr.insee.publicenemy.api.configuration.rest.WebClientTokenInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
 import io.netty.handler.logging.LogLevel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.ProxyProvider;
 import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
+import java.util.Set;
+
 
 @Configuration
 @EnableConfigurationProperties
@@ -34,27 +45,99 @@ public class AppConfig implements WebMvcConfigurer {
     @Autowired
     private AuthenticationHelper authenticationHelper;
 
+    @Value("${feature.proxy.enabled}")
+    private boolean proxyEnabled;
+
+    @Value("${feature.proxy.url}")
+    private String proxyUrl;
+
+    @Value("${feature.proxy.port}")
+    private Integer proxyPort;
+
+    @Value("${feature.debug.webclient}")
+    private boolean debug;
+
+    @Value("${feature.oidc.enabled}")
+    private boolean oidcEnabled;
+
+    // reactor netty shades reactor-pool in an internal package: its exceptions are matched by name, not by type
+    private static final Set<String> POOL_EXHAUSTED_EXCEPTIONS = Set.of("PoolAcquirePendingLimitException", "PoolAcquireTimeoutException");
+
+    /**
+     * Each downstream api has its own webclient and connection pool, so that a slow api cannot use
+     * the connections needed to call the other ones
+     *
+     * @param httpClientProperties connection pools properties
+     * @param builder webclient builder
+     * @param meterRegistry registry of the resilience metrics
+     * @return webclient used to call queen
+     */
+    @Bean
+    public WebClient queenWebClient(HttpClientProperties httpClientProperties, WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return buildWebClient("queen", httpClientProperties.queen(), builder, meterRegistry);
+    }
 
     /**
-     * 
-     * @param proxyUrl proxy url
-     * @param proxyPort proxy port
+     * @param httpClientProperties connection pools properties
      * @param builder webclient builder
-     * @return webclient configured with proxy
+     * @param meterRegistry registry of the resilience metrics
+     * @return webclient used to call pogues
      */
     @Bean
-    @ConditionalOnProperty(name="feature.proxy.enabled", havingValue="true")
-    public WebClient webClientProxy(
-            @Value("${feature.proxy.url}") String proxyUrl,
-            @Value("${feature.proxy.port}") Integer proxyPort,
-            @Value("${feature.debug.webclient}") boolean debug,
-            @Value("${feature.oidc.enabled}") boolean oidcEnabled,
-            WebClient.Builder builder) {
-        HttpClient httpClient = HttpClient.create()
-                .proxy(proxy -> proxy
-                .type(ProxyProvider.Proxy.HTTP)
-                .host(proxyUrl)
-                .port(proxyPort));
+    public WebClient poguesWebClient(HttpClientProperties httpClientProperties, WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return buildWebClient("pogues", httpClientProperties.pogues(), builder, meterRegistry);
+    }
+
+    /**
+     * @param httpClientProperties connection pools properties
+     * @param builder webclient builder
+     * @param meterRegistry registry of the resilience metrics
+     * @return webclient used to call eno
+     */
+    @Bean
+    public WebClient enoWebClient(HttpClientProperties httpClientProperties, WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return buildWebClient("eno", httpClientProperties.eno(), builder, meterRegistry);
+    }
+
+    /**
+     * @param httpClientProperties connection pools properties
+     * @param builder webclient builder
+     * @param meterRegistry registry of the resilience metrics
+     * @return webclient used to call lunatic pdf api
+     */
+    @Bean
+    public WebClient lunaticPdfWebClient(HttpClientProperties httpClientProperties, WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return buildWebClient("lunatic-pdf-api", httpClientProperties.lunaticPdfApi(), builder, meterRegistry);
+    }
+
+    /**
+     *
+     * @param name name of the downstream api, used in pool metrics (reactor.netty.connection.provider.*)
+     *             and resilience metrics (http.client.downstream.*)
+     * @param client connection pool, timeouts, retry, circuit breaker and compression properties
+     * @param builder webclient builder
+     * @param meterRegistry registry of the resilience metrics
+     * @return webclient with json default headers, configured with proxy if enabled
+     */
+    private WebClient buildWebClient(String name, HttpClientProperties.Client client, WebClient.Builder builder, MeterRegistry meterRegistry) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(client.maxConnections())
+                .pendingAcquireMaxCount(client.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.pendingAcquireTimeout())
+                .maxIdleTime(client.maxIdleTime())
+                .evictInBackground(client.evictionInterval())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.connectTimeout().toMillis())
+                .responseTimeout(client.timeouts().responseTimeout());
+
+        if(proxyEnabled) {
+            httpClient = httpClient.proxy(proxy -> proxy
+                    .type(ProxyProvider.Proxy.HTTP)
+                    .host(proxyUrl)
+                    .port(proxyPort));
+        }
 
         if(debug) {
             httpClient = httpClient.wiretap("reactor.netty.http.client.HttpClient",
@@ -63,27 +146,25 @@ public class AppConfig implements WebMvcConfigurer {
 
         builder
             .clientConnector(new ReactorClientHttpConnector(httpClient))
-            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE) 
-            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .filter(new DownstreamResilienceFilter(name, client, meterRegistry))
+            .filter(rejectWhenPoolExhausted(name));
 
+        if(client.compressRequests()) builder.filter(new GzipRequestFilter());
         if(oidcEnabled) builder.filter(new WebClientTokenInterceptor(authenticationHelper));
         return builder.build();
     }
 
     /**
-     * 
-     * @param builder webclient builder
-     * @return webclient with json default headers
+     * @param name name of the connection pool
+     * @return filter rejecting requests with a 503 error when no connection can be acquired from the pool
      */
-    @Bean
-    @ConditionalOnProperty(name="feature.proxy.enabled", havingValue="false")
-    public WebClient webClient(
-            @Value("${feature.oidc.enabled}") boolean oidcEnabled,
-            WebClient.Builder builder) {
-        builder
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
-        if(oidcEnabled)  builder.filter(new WebClientTokenInterceptor(authenticationHelper));
-        return builder.build();
+    private static ExchangeFilterFunction rejectWhenPoolExhausted(String name) {
+        return (request, next) -> next.exchange(request)
+                .onErrorMap(e -> e instanceof WebClientRequestException
+                                && e.getCause() != null
+                                && POOL_EXHAUSTED_EXCEPTIONS.contains(e.getCause().getClass().getSimpleName()),
+                        e -> new ServiceException(HttpStatus.SERVICE_UNAVAILABLE, String.format("Too many requests in progress to %s api", name)));
     }
 }
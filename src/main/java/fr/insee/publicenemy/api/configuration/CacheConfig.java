@@ -0,0 +1,41 @@
+package fr.insee.publicenemy.api.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.insee.publicenemy.api.application.usecase.PoguesUseCase;
+import fr.insee.publicenemy.api.configuration.properties.CacheRegionProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache manager with one bounded region per kind of data. Statistics are recorded so that hits, misses and
+     * evictions are published as cache metrics by actuator.
+     *
+     * @param properties size and expiration of cache regions
+     * @return cache manager
+     */
+    @Bean
+    public CacheManager cacheManager(CacheRegionProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // only configured regions can be used
+        cacheManager.setCacheNames(List.of());
+        registerRegion(cacheManager, PoguesUseCase.MODELS_CACHE, properties.poguesModels());
+        registerRegion(cacheManager, PoguesUseCase.VARIABLES_CACHE, properties.poguesVariables());
+        registerRegion(cacheManager, PoguesUseCase.NOMENCLATURES_CACHE, properties.poguesNomenclatures());
+        return cacheManager;
+    }
+
+    private void registerRegion(CaffeineCacheManager cacheManager, String name, CacheRegionProperties.Region region) {
+        cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(region.maximumSize())
+                .expireAfterWrite(region.expireAfterWrite())
+                .recordStats()
+                .build());
+    }
+}
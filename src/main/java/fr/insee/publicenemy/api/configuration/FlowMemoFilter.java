@@ -0,0 +1,26 @@
+package fr.insee.publicenemy.api.configuration;
+
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Each http request is a flow: identical downstream calls made while handling a request are done once
+ */
+@Component
+public class FlowMemoFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (FlowMemo.Scope ignored = new FlowMemo().enter()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
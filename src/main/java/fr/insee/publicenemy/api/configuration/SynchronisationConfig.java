@@ -0,0 +1,54 @@
+package fr.insee.publicenemy.api.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class SynchronisationConfig {
+
+    /**
+     * Executor used to generate json lunatic questionnaires in background. Generations are speculative,
+     * so they are rejected instead of piling up when the queue is full.
+     *
+     * @param parallelism   max number of json lunatic generated at the same time
+     * @param queueCapacity max number of json lunatic generations waiting for a thread
+     * @return json lunatic generation executor
+     */
+    @Bean
+    public Executor lunaticGenerationExecutor(@Value("${application.eno.pregeneration-parallelism}") int parallelism,
+                                              @Value("${application.eno.pregeneration-queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor delegateExecutor = new ThreadPoolTaskExecutor();
+        delegateExecutor.setCorePoolSize(parallelism);
+        delegateExecutor.setMaxPoolSize(parallelism);
+        delegateExecutor.setQueueCapacity(queueCapacity);
+        delegateExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        delegateExecutor.setThreadNamePrefix("lunatic-generation-");
+        delegateExecutor.initialize();
+        return new DelegatingSecurityContextAsyncTaskExecutor(delegateExecutor);
+    }
+
+    /**
+     * Executor processing queued synchronisation jobs
+     *
+     * @param concurrency max number of synchronisation jobs processed at the same time
+     * @return synchronisation job executor
+     */
+    @Bean
+    public Executor synchronisationJobExecutor(@Value("${application.synchronisation-jobs.concurrency}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("synchronisation-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
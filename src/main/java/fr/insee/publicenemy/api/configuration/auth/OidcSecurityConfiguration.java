@@ -16,6 +16,11 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -88,6 +93,25 @@ public class OidcSecurityConfiguration {
         return jwtAuthenticationConverter;
     }
 
+    /**
+     * Retrieve access tokens of this application with the client credentials grant, outside of any user request.
+     * Tokens are kept until they expire.
+     *
+     * @param clientRegistrationRepository client registrations
+     * @param authorizedClientService      store of the tokens
+     * @return authorized client manager usable from background threads
+     */
+    @Bean
+    protected OAuth2AuthorizedClientManager serviceAuthorizedClientManager(ClientRegistrationRepository clientRegistrationRepository,
+                                                                           OAuth2AuthorizedClientService authorizedClientService) {
+        AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager =
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientService);
+        authorizedClientManager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+        return authorizedClientManager;
+    }
+
     Converter<Jwt, Collection<GrantedAuthority>> jwtGrantedAuthoritiesConverter(OidcProperties oidcProperties, RoleProperties roleProperties) {
         return new GrantedAuthorityConverter(oidcProperties, roleProperties);
     }
@@ -0,0 +1,24 @@
+package fr.insee.publicenemy.api.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size and expiration of each cache region
+ */
+@ConfigurationProperties(prefix = "application.caches")
+public record CacheRegionProperties(
+        Region poguesModels,
+        Region poguesVariables,
+        Region poguesNomenclatures) {
+
+    /**
+     * @param maximumSize      max number of entries, least used entries are evicted beyond
+     * @param expireAfterWrite entries are evicted this long after being stored
+     */
+    public record Region(
+            long maximumSize,
+            Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,94 @@
+package fr.insee.publicenemy.api.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pool, timeouts, retries and circuit breaker of each downstream api
+ */
+@ConfigurationProperties(prefix = "application.http-clients")
+public record HttpClientProperties(
+        Client queen,
+        Client pogues,
+        Client eno,
+        Client lunaticPdfApi) {
+
+    /**
+     * @param maxConnections         max number of connections opened at the same time (concurrency limit)
+     * @param pendingAcquireMaxCount max number of requests waiting for a connection, next requests are rejected
+     * @param pendingAcquireTimeout  max time a request waits for a connection
+     * @param maxIdleTime            idle connections are closed after this delay
+     * @param evictionInterval       interval between two evictions of idle connections
+     * @param connectTimeout         max time to establish a connection
+     * @param timeouts               default timeouts of a request
+     * @param operations             timeouts of specific operations, by operation name
+     * @param retry                  retry policy
+     * @param circuitBreaker         circuit breaker policy
+     * @param compressRequests       gzip compress request bodies, the downstream api must accept gzip content encoding
+     */
+    public record Client(
+            int maxConnections,
+            int pendingAcquireMaxCount,
+            Duration pendingAcquireTimeout,
+            Duration maxIdleTime,
+            Duration evictionInterval,
+            Duration connectTimeout,
+            Timeouts timeouts,
+            Map<String, Timeouts> operations,
+            Retry retry,
+            CircuitBreaker circuitBreaker,
+            boolean compressRequests) {
+
+        public Client {
+            operations = operations == null ? Map.of() : Map.copyOf(operations);
+        }
+
+        /**
+         * @param operation operation name, can be null
+         * @return timeouts of the operation, default timeouts if the operation has no specific timeouts
+         */
+        public Timeouts getTimeouts(String operation) {
+            return operation == null ? timeouts : operations.getOrDefault(operation, timeouts);
+        }
+    }
+
+    /**
+     * @param responseTimeout max time between the request being sent and the response being received
+     * @param totalTimeout    deadline of the whole call, retries and response body reading included
+     */
+    public record Timeouts(
+            Duration responseTimeout,
+            Duration totalTimeout) {
+    }
+
+    /**
+     * @param maxRetries max number of retries, 0 to disable retries
+     * @param minBackoff delay before the first retry, doubled on each retry
+     * @param maxBackoff max delay between two retries
+     * @param jitter     random factor applied to the delays (between 0 and 1)
+     * @param methods    http methods of the requests that can be retried (idempotent requests)
+     */
+    public record Retry(
+            int maxRetries,
+            Duration minBackoff,
+            Duration maxBackoff,
+            double jitter,
+            List<String> methods) {
+
+        public Retry {
+            methods = methods == null ? List.of() : List.copyOf(methods);
+        }
+    }
+
+    /**
+     * @param failureThreshold number of consecutive failures opening the circuit
+     * @param openDuration     time during which calls fail fast before a trial call is allowed
+     */
+    public record CircuitBreaker(
+            int failureThreshold,
+            Duration openDuration) {
+    }
+}
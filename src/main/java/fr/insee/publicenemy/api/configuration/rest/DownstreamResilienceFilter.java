@@ -0,0 +1,229 @@
+package fr.insee.publicenemy.api.configuration.rest;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.configuration.properties.HttpClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.*;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Apply the deadline, retry and circuit breaker policies of a downstream api to its requests
+ * - the whole call (retries and response body included) must complete before the deadline of the operation
+ * - idempotent requests are retried with a jittered exponential backoff on timeouts, connection errors and 5xx responses
+ * - calls fail fast with a 503 error while the circuit of the downstream api is open
+ */
+@Slf4j
+public class DownstreamResilienceFilter implements ExchangeFilterFunction {
+
+    /**
+     * Request attribute naming the operation, used to apply the timeouts of this operation
+     */
+    public static final String OPERATION_ATTRIBUTE = DownstreamResilienceFilter.class.getName() + ".operation";
+
+    private final String clientName;
+
+    private final HttpClientProperties.Client properties;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Counter timeoutCounter;
+
+    private final Counter retryCounter;
+
+    private final Counter circuitOpenedCounter;
+
+    private final Counter circuitRejectedCounter;
+
+    /**
+     * @param clientName    name of the downstream api, used as metric tag
+     * @param properties    policies of the downstream api
+     * @param meterRegistry registry of timeouts, retries and circuit breaker metrics
+     */
+    public DownstreamResilienceFilter(String clientName, HttpClientProperties.Client properties, MeterRegistry meterRegistry) {
+        this.clientName = clientName;
+        this.properties = properties;
+        int failureThreshold = properties.circuitBreaker().failureThreshold();
+        this.circuitBreaker = CircuitBreaker.of(clientName, CircuitBreakerConfig.custom()
+                // opened after consecutive failures: all the calls of the window have failed
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(failureThreshold)
+                .minimumNumberOfCalls(failureThreshold)
+                .failureRateThreshold(100)
+                .waitDurationInOpenState(properties.circuitBreaker().openDuration())
+                // a single trial call when the open duration has elapsed
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        this.timeoutCounter = Counter.builder("http.client.downstream.timeouts")
+                .description("Calls to the downstream api that exceeded their timeout")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("http.client.downstream.retries")
+                .description("Retried calls to the downstream api")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        this.circuitOpenedCounter = Counter.builder("http.client.downstream.circuit.opened")
+                .description("Number of times the circuit of the downstream api has been opened")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        this.circuitRejectedCounter = Counter.builder("http.client.downstream.circuit.rejected")
+                .description("Calls rejected while the circuit of the downstream api was open")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            if (event.getStateTransition().getToState() == CircuitBreaker.State.OPEN) {
+                circuitOpenedCounter.increment();
+                log.error(String.format("%s api: circuit opened for %s", clientName, properties.circuitBreaker().openDuration()));
+            }
+        });
+        Gauge.builder("http.client.downstream.circuit.state", circuitBreaker, cb -> cb.getState().getOrder())
+                .description("Circuit state of the downstream api (0: closed, 1: open, 2: half open)")
+                .tag("client", clientName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String operation = (String) request.attribute(OPERATION_ATTRIBUTE).orElse(null);
+        HttpClientProperties.Timeouts timeouts = properties.getTimeouts(operation);
+        HttpClientProperties.Retry retry = properties.retry();
+        boolean idempotent = retry.methods().contains(request.method().name());
+
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + timeouts.totalTimeout().toNanos();
+            AtomicInteger retries = new AtomicInteger();
+            return Mono.defer(() -> exchange(request, next, timeouts, deadline,
+                            idempotent && retries.get() < retry.maxRetries() && hasTimeLeft(deadline, retry.minBackoff())))
+                    .retryWhen(Retry.backoff(retry.maxRetries(), retry.minBackoff())
+                            .maxBackoff(retry.maxBackoff())
+                            .jitter(retry.jitter())
+                            .filter(e -> e instanceof RetryableStatusException
+                                    || idempotent && isDownstreamFailure(e) && hasTimeLeft(deadline, retry.minBackoff()))
+                            .doBeforeRetry(signal -> {
+                                retries.incrementAndGet();
+                                retryCounter.increment();
+                                log.warn(String.format("%s api: retry %s %s (%s/%s): %s", clientName, request.method(), request.url(),
+                                        signal.totalRetries() + 1, retry.maxRetries(), signal.failure().getMessage()));
+                            })
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .onErrorMap(this::isTimeout, e -> timeoutException(request));
+        });
+    }
+
+    /**
+     * Send a request if the circuit allows it
+     *
+     * @param retryableStatus true if a 5xx response can be retried
+     * @return response whose body must be read before the deadline
+     */
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, HttpClientProperties.Timeouts timeouts,
+                                          long deadline, boolean retryableStatus) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejectedCounter.increment();
+            return Mono.error(new ServiceException(HttpStatus.SERVICE_UNAVAILABLE, String.format("%s api is unavailable", clientName)));
+        }
+        long start = System.nanoTime();
+        Duration remaining = remaining(deadline);
+        Duration responseTimeout = timeouts.responseTimeout().compareTo(remaining) < 0 ? timeouts.responseTimeout() : remaining;
+        ClientRequest timedRequest = ClientRequest.from(request)
+                .httpRequest(httpRequest -> {
+                    if (request.httpRequest() != null) {
+                        request.httpRequest().accept(httpRequest);
+                    }
+                    if (httpRequest.getNativeRequest() instanceof HttpClientRequest nettyRequest) {
+                        nettyRequest.responseTimeout(responseTimeout);
+                    }
+                })
+                .build();
+
+        return next.exchange(timedRequest)
+                .timeout(remaining)
+                .doOnError(e -> {
+                    // client errors do not tell anything about the downstream api
+                    if (isDownstreamFailure(e)) {
+                        circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                    } else {
+                        circuitBreaker.releasePermission();
+                    }
+                })
+                .doOnCancel(circuitBreaker::releasePermission)
+                .flatMap(response -> {
+                    if (!response.statusCode().is5xxServerError()) {
+                        circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return Mono.just(withBodyDeadline(request, response, deadline));
+                    }
+                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, new RetryableStatusException(response.statusCode()));
+                    if (retryableStatus) {
+                        return response.releaseBody().then(Mono.error(new RetryableStatusException(response.statusCode())));
+                    }
+                    return Mono.just(withBodyDeadline(request, response, deadline));
+                });
+    }
+
+    /**
+     * @return response whose body fails with a 504 error if it is not fully read before the deadline
+     */
+    private ClientResponse withBodyDeadline(ClientRequest request, ClientResponse response, long deadline) {
+        return response.mutate()
+                .body(body -> body
+                        .timeout(Mono.delay(remaining(deadline)), item -> Mono.delay(remaining(deadline)))
+                        .onErrorMap(TimeoutException.class, e -> timeoutException(request)))
+                .build();
+    }
+
+    private ServiceException timeoutException(ClientRequest request) {
+        timeoutCounter.increment();
+        return new ServiceException(HttpStatus.GATEWAY_TIMEOUT,
+                String.format("%s api did not respond in time (%s %s)", clientName, request.method(), request.url()));
+    }
+
+    /**
+     * @return true if the error is caused by the downstream api (unreachable, too slow)
+     */
+    private boolean isDownstreamFailure(Throwable e) {
+        return isTimeout(e) || e instanceof WebClientRequestException;
+    }
+
+    private boolean isTimeout(Throwable e) {
+        return e instanceof TimeoutException
+                || e instanceof WebClientRequestException
+                && (e.getCause() instanceof ReadTimeoutException || e.getCause() instanceof ConnectTimeoutException);
+    }
+
+    private static Duration remaining(long deadline) {
+        long remainingNanos = deadline - System.nanoTime();
+        return remainingNanos > 0 ? Duration.ofNanos(remainingNanos) : Duration.ZERO;
+    }
+
+    private static boolean hasTimeLeft(long deadline, Duration delay) {
+        return remaining(deadline).compareTo(delay) > 0;
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * 5xx response of an idempotent request, to be retried
+     */
+    private static class RetryableStatusException extends RuntimeException {
+        RetryableStatusException(HttpStatusCode status) {
+            super(String.format("status %s", status.value()));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package fr.insee.publicenemy.api.configuration.rest;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compress request bodies while they are written, without holding the whole body in memory.
+ * Requests without body are sent unchanged.
+ */
+public class GzipRequestFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        ClientRequest compressedRequest = ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body().insert(new GzipClientHttpRequest(outputMessage), context))
+                .build();
+        return next.exchange(compressedRequest);
+    }
+
+    /**
+     * @param body    body to compress
+     * @param factory factory of the compressed buffers
+     * @return gzip compressed body, buffers of the original body are released once compressed
+     */
+    static Flux<DataBuffer> compress(Publisher<? extends DataBuffer> body, DataBufferFactory factory) {
+        return Flux.using(GzipBuffer::new,
+                gzipBuffer -> Flux.from(body)
+                        .concatMap(dataBuffer -> Mono.justOrEmpty(gzipBuffer.write(dataBuffer)))
+                        .concatWith(Mono.fromSupplier(gzipBuffer::finish))
+                        .map(factory::wrap),
+                GzipBuffer::close);
+    }
+
+    private static class GzipClientHttpRequest extends ClientHttpRequestDecorator {
+
+        GzipClientHttpRequest(ClientHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return super.writeWith(compress(body, bufferFactory()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+    }
+
+    /**
+     * Gzip stream whose compressed output is drained after each write
+     */
+    private static class GzipBuffer {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final GZIPOutputStream gzipOutput;
+
+        GzipBuffer() throws IOException {
+            this.gzipOutput = new GZIPOutputStream(output);
+        }
+
+        /**
+         * @return compressed bytes available, null if the compressor needs more input
+         */
+        byte[] write(DataBuffer dataBuffer) {
+            try {
+                byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                dataBuffer.read(bytes);
+                gzipOutput.write(bytes);
+                return drain();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } finally {
+                DataBufferUtils.release(dataBuffer);
+            }
+        }
+
+        byte[] finish() {
+            try {
+                gzipOutput.finish();
+                byte[] bytes = output.toByteArray();
+                output.reset();
+                return bytes;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void close() {
+            try {
+                gzipOutput.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private byte[] drain() {
+            if (output.size() == 0) {
+                return null;
+            }
+            byte[] bytes = output.toByteArray();
+            output.reset();
+            return bytes;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package fr.insee.publicenemy.api.configuration.rest;
 
 import fr.insee.publicenemy.api.application.web.auth.AuthenticationHelper;
+import fr.insee.publicenemy.api.application.web.auth.ServiceAuthenticationToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -17,10 +25,35 @@ public class WebClientTokenInterceptor implements ExchangeFilterFunction {
 
     @Override
     public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
-        String jwt = authenticationHelper.getUserToken();
-        ClientRequest newRequest = ClientRequest.from(request)
-                .headers(h -> h.setBearerAuth(jwt))
-                .build();
-        return next.exchange(newRequest);
+        // requests subscribed from reactor threads (concurrent calls) cannot see the caller thread security context
+        return ReactiveSecurityContextHolder.getContext()
+                .flatMap(securityContext -> getToken(securityContext.getAuthentication()))
+                .switchIfEmpty(Mono.defer(() -> getToken(authenticationHelper.getAuthenticationPrincipal())))
+                .flatMap(jwt -> {
+                    ClientRequest newRequest = ClientRequest.from(request)
+                            .headers(h -> jwt.ifPresent(h::setBearerAuth))
+                            .build();
+                    return next.exchange(newRequest);
+                });
+    }
+
+    private Mono<Optional<String>> getToken(Authentication authentication) {
+        if (authentication instanceof ServiceAuthenticationToken) {
+            // the access token of the application is retrieved from the auth server when expired, which is a blocking call
+            return Mono.fromCallable(() -> Optional.ofNullable(authenticationHelper.getUserToken(authentication)))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.just(Optional.ofNullable(authenticationHelper.getUserToken(authentication)));
+    }
+
+    /**
+     * Put the security context of the current thread in the reactor context, so that requests subscribed
+     * on other threads can still be authenticated
+     *
+     * @param context reactor context
+     * @return reactor context with the current security context
+     */
+    public static Context withCurrentSecurityContext(Context context) {
+        return context.putAll(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(SecurityContextHolder.getContext())).readOnly());
     }
-}
\ No newline at end of file
+}
@@ -8,14 +8,19 @@ import com.opencsv.exceptions.CsvRuntimeException;
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.PdfRecap;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationPage;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnairePersonalization;
 import fr.insee.publicenemy.api.application.domain.model.pogues.ValidationWarningMessage;
 import fr.insee.publicenemy.api.application.exceptions.InterrogationsGlobalValidationException;
 import fr.insee.publicenemy.api.application.exceptions.InterrogationsSpecificValidationException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.PdfServicePort;
 import fr.insee.publicenemy.api.application.usecase.*;
+import fr.insee.publicenemy.api.controllers.dto.InterrogationLineRest;
 import fr.insee.publicenemy.api.controllers.dto.InterrogationRest;
+import fr.insee.publicenemy.api.controllers.dto.InterrogationsPageRest;
 import fr.insee.publicenemy.api.controllers.exceptions.ApiExceptionComponent;
 import fr.insee.publicenemy.api.controllers.exceptions.dto.ApiError;
 import fr.insee.publicenemy.api.controllers.exceptions.dto.ApiErrorWithInterrogations;
@@ -35,8 +40,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -50,12 +57,11 @@ public class InterrogationController {
 
     private final QueenUseCase queenUseCase;
 
-    private final PoguesUseCase poguesUseCase;
-
     private final QuestionnaireUseCase questionnaireUseCase;
 
     private final InterrogationUseCase interrogationUseCase;
     private final PersonalizationUseCase personalizationUseCase;
+    private final InterrogationRowUseCase interrogationRowUseCase;
 
     private final InterrogationUseCaseUtils interrogationUtils;
 
@@ -68,9 +74,12 @@ public class InterrogationController {
 
     private static final String CSV_ERROR_MESSAGE = "CSV Error: ";
 
+    private final JsonMapper jsonMapper;
+
     public InterrogationController(QuestionnaireUseCase questionnaireUseCase, QueenUseCase queenUseCase, InterrogationUseCase interrogationUseCase, PersonalizationUseCase personalizationUseCase,
                                    I18nMessagePort messageService, InterrogationMessagesComponent messageComponent,
-                                   ApiExceptionComponent errorComponent, PdfServicePort pdfServicePort, PoguesUseCase poguesUseCase, InterrogationUseCaseUtils interrogationUtils) {
+                                   ApiExceptionComponent errorComponent, PdfServicePort pdfServicePort, InterrogationUseCaseUtils interrogationUtils,
+                                   InterrogationRowUseCase interrogationRowUseCase, JsonMapper jsonMapper) {
         this.questionnaireUseCase = questionnaireUseCase;
         this.queenUseCase = queenUseCase;
         this.interrogationUseCase = interrogationUseCase;
@@ -79,8 +88,9 @@ public class InterrogationController {
         this.messageService = messageService;
         this.messageComponent = messageComponent;
         this.errorComponent = errorComponent;
-        this.poguesUseCase = poguesUseCase;
         this.pdfServicePort = pdfServicePort;
+        this.interrogationRowUseCase = interrogationRowUseCase;
+        this.jsonMapper = jsonMapper;
     }
     /**
      * @param poguesId questionnaire id
@@ -89,10 +99,10 @@ public class InterrogationController {
     @GetMapping("/questionnaires/{poguesId}/interrogations")
     @PreAuthorize(HAS_ANY_ROLE)
     public Map<Mode, List<InterrogationRest>> getInterrogationsByPoguesId(@PathVariable String poguesId) {
-
-        Questionnaire questionnaire = questionnaireUseCase.getQuestionnaire(poguesId);
-        List<PersonalizationMapping> personalizationMappings = personalizationUseCase.getPersonalizationByQuestionnaireId(questionnaire.getId());
-        JsonNode nomenclatures = poguesUseCase.getNomenclatureOfQuestionnaire(questionnaire.getPoguesId());
+        QuestionnairePersonalization personalization = interrogationUseCase.getQuestionnairePersonalization(poguesId);
+        Questionnaire questionnaire = personalization.questionnaire();
+        List<PersonalizationMapping> personalizationMappings = personalization.mappings();
+        String nomenclaturesReference = personalization.nomenclaturesReference();
 
         Map<Mode, List<InterrogationRest>> interrogationsByModes = new EnumMap<>(Mode.class);
         questionnaire.getQuestionnaireModes().forEach(questionnaireMode -> {
@@ -103,7 +113,7 @@ public class InterrogationController {
                             .map(mapping -> interrogationUtils.buildInterrogationRest(
                                     mapping,
                                     questionnaireMode.getMode(),
-                                    nomenclatures
+                                    nomenclaturesReference
                             ))
                             .toList());
         });
@@ -111,6 +121,58 @@ public class InterrogationController {
         return interrogationsByModes;
     }
 
+    /**
+     * @param poguesId questionnaire id
+     * @param mode     mode of the interrogations
+     * @param cursor   cursor returned with the previous page, none for the first page
+     * @param size     number of interrogations in the page
+     * @return page of interrogations of the questionnaire for the mode
+     */
+    @GetMapping("/questionnaires/{poguesId}/interrogations/page")
+    @PreAuthorize(HAS_ANY_ROLE)
+    public InterrogationsPageRest getInterrogationsPageByPoguesId(@PathVariable String poguesId, @RequestParam Mode mode,
+                                                                  @RequestParam(required = false) Integer cursor,
+                                                                  @RequestParam(defaultValue = "100") int size) {
+        Questionnaire questionnaire = questionnaireUseCase.getQuestionnaire(poguesId);
+        String nomenclaturesReference = questionnaireUseCase.getNomenclaturesReference(questionnaire);
+        PersonalizationPage page = personalizationUseCase.getPersonalizationPage(questionnaire.getId(), mode, cursor, size);
+        return new InterrogationsPageRest(
+                page.mappings().stream()
+                        .map(mapping -> interrogationUtils.buildInterrogationRest(mapping, mode, nomenclaturesReference))
+                        .toList(),
+                page.nextCursor());
+    }
+
+    /**
+     * Stream interrogations as newline delimited json, rows are written page by page as they are read
+     *
+     * @param response http servlet response object
+     * @param poguesId questionnaire id
+     * @param mode     mode of the interrogations, all modes of the questionnaire when not set
+     */
+    @GetMapping(path = "/questionnaires/{poguesId}/interrogations/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize(HAS_ANY_ROLE)
+    public void streamInterrogationsByPoguesId(HttpServletResponse response, @PathVariable String poguesId,
+                                               @RequestParam(required = false) Mode mode) throws IOException {
+        Questionnaire questionnaire = questionnaireUseCase.getQuestionnaire(poguesId);
+        String nomenclaturesReference = questionnaireUseCase.getNomenclaturesReference(questionnaire);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        PrintWriter writer = response.getWriter();
+        for (QuestionnaireMode questionnaireMode : questionnaire.getQuestionnaireModes()) {
+            Mode interrogationsMode = questionnaireMode.getMode();
+            if (mode != null && mode != interrogationsMode) {
+                continue;
+            }
+            personalizationUseCase.streamPersonalization(questionnaire.getId(), interrogationsMode, mapping -> {
+                InterrogationRest interrogation = interrogationUtils.buildInterrogationRest(mapping, interrogationsMode, nomenclaturesReference);
+                writer.write(jsonMapper.writeValueAsString(InterrogationLineRest.fromInterrogation(interrogationsMode, interrogation)));
+                writer.write('\n');
+            });
+        }
+        writer.flush();
+    }
+
     /**
      * reset interrogation data/state data
      *
@@ -120,8 +182,7 @@ public class InterrogationController {
     @PreAuthorize(HAS_ANY_ROLE)
     public String resetInterrogation(@PathVariable String interrogationId) {
         PersonalizationMapping personalizationMapping = personalizationUseCase.getPersoMappingByInterrogationId(interrogationId);
-        byte[] interrogationData = questionnaireUseCase.getInterrogationData(personalizationMapping.questionnaireId());
-        queenUseCase.resetInterrogation(personalizationMapping, interrogationData);
+        queenUseCase.resetInterrogation(personalizationMapping, interrogationRowUseCase.getInterrogation(personalizationMapping));
         return "{}";
     }
 
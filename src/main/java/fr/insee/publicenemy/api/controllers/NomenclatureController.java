@@ -0,0 +1,63 @@
+package fr.insee.publicenemy.api.controllers;
+
+import fr.insee.publicenemy.api.application.usecase.NomenclatureUseCase;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Nomenclatures referenced by visualization urls. This endpoint is public: it is called by orchestrators
+ * and references are hashes of the content
+ */
+@RestController
+@RequestMapping("/api/nomenclatures")
+public class NomenclatureController {
+
+    // content of a reference never changes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final NomenclatureUseCase nomenclatureUseCase;
+
+    public NomenclatureController(NomenclatureUseCase nomenclatureUseCase) {
+        this.nomenclatureUseCase = nomenclatureUseCase;
+    }
+
+    /**
+     * @param reference   nomenclatures reference
+     * @param ifNoneMatch etags of the nomenclatures already known by the client
+     * @return nomenclatures (json), not modified when already known by the client
+     */
+    @GetMapping(value = "/{reference}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getNomenclatures(@PathVariable String reference,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // the reference is the etag, no need to read the nomenclatures to check it
+        if (ifNoneMatch != null && ifNoneMatch.contains("\"" + reference + "\"")) {
+            return notModified(reference);
+        }
+        String nomenclatures = nomenclatureUseCase.getNomenclatures(reference);
+        // any etag matches, the nomenclatures exist as they have been read
+        if (ifNoneMatch != null && ifNoneMatch.strip().equals("*")) {
+            return notModified(reference);
+        }
+        return ResponseEntity.ok()
+                .eTag(reference)
+                .cacheControl(IMMUTABLE)
+                .body(nomenclatures);
+    }
+
+    private ResponseEntity<String> notModified(String reference) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(reference)
+                .cacheControl(IMMUTABLE)
+                .build();
+    }
+}
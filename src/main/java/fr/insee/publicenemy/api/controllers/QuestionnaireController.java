@@ -6,6 +6,7 @@ import com.opencsv.exceptions.CsvMultilineLimitBrokenException;
 import com.opencsv.exceptions.CsvRuntimeException;
 import fr.insee.publicenemy.api.application.domain.model.PreparedQuestionnaire;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnairePage;
 import fr.insee.publicenemy.api.application.domain.utils.InterrogationData;
 import fr.insee.publicenemy.api.application.exceptions.InterrogationsGlobalValidationException;
 import fr.insee.publicenemy.api.application.exceptions.InterrogationsSpecificValidationException;
@@ -16,6 +17,7 @@ import fr.insee.publicenemy.api.application.usecase.QuestionnaireUseCase;
 import fr.insee.publicenemy.api.controllers.dto.ContextRest;
 import fr.insee.publicenemy.api.controllers.dto.QuestionnaireAddRest;
 import fr.insee.publicenemy.api.controllers.dto.QuestionnaireRest;
+import fr.insee.publicenemy.api.controllers.dto.QuestionnairesPageRest;
 import fr.insee.publicenemy.api.controllers.exceptions.ApiExceptionComponent;
 import fr.insee.publicenemy.api.controllers.exceptions.dto.ApiError;
 import fr.insee.publicenemy.api.controllers.exceptions.dto.ApiErrorWithInterrogations;
@@ -80,6 +82,32 @@ public class QuestionnaireController {
         this.asyncEnabled = asyncEnabled;
     }
 
+    /**
+     * @return all questionnaires, most recent first
+     */
+    @GetMapping("")
+    @PreAuthorize(HAS_ANY_ROLE)
+    public List<QuestionnaireRest> getQuestionnaires() {
+        return questionnaireUseCase.getQuestionnaires().stream()
+                .map(questionnaireComponent::createFromModel)
+                .toList();
+    }
+
+    /**
+     * @param cursor cursor returned with the previous page, none for the first page
+     * @param size   number of questionnaires in the page
+     * @return page of questionnaires, most recent first
+     */
+    @GetMapping("/page")
+    @PreAuthorize(HAS_ANY_ROLE)
+    public QuestionnairesPageRest getQuestionnairesPage(@RequestParam(required = false) Long cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        QuestionnairePage page = questionnaireUseCase.getQuestionnairesPage(cursor, size);
+        return new QuestionnairesPageRest(
+                page.questionnaires().stream().map(questionnaireComponent::createFromModel).toList(),
+                page.nextCursor());
+    }
+
     /**
      * @param poguesId questionnaire id
      * @return questionnaire
@@ -134,6 +162,7 @@ public class QuestionnaireController {
         byte[] dataContent = interrogationData.getBytes();
 
         QuestionnaireRest questionnaireRest = objectMapper.readValue(questionnaireRestByte, QuestionnaireRest.class);
+        poguesUseCase.pregenerateJsonLunatics(questionnaireRest.poguesId(), ContextRest.toModel(questionnaireRest.context()));
 
         interroUseCase.validateInterrogations(dataContent, questionnaireRest.poguesId());
 
@@ -164,6 +193,7 @@ public class QuestionnaireController {
 
         byte[] dataContent;
         QuestionnaireRest questionnaireRest = objectMapper.readValue(questionnaireRestByte, QuestionnaireRest.class);
+        poguesUseCase.pregenerateJsonLunatics(questionnaireRest.poguesId(), ContextRest.toModel(questionnaireRest.context()));
         if (interrogationData != null) {
             dataContent = interrogationData.getBytes();
         } else {
@@ -0,0 +1,41 @@
+package fr.insee.publicenemy.api.controllers;
+
+import fr.insee.publicenemy.api.application.usecase.SynchronisationJobUseCase;
+import fr.insee.publicenemy.api.controllers.dto.SynchronisationJobRest;
+import fr.insee.publicenemy.api.controllers.dto.SynchronisationQueueRest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static fr.insee.publicenemy.api.configuration.auth.AuthorityRole.HAS_ANY_ROLE;
+
+@RestController
+@RequestMapping("/api/synchronisation-jobs")
+@PreAuthorize(HAS_ANY_ROLE)
+public class SynchronisationJobController {
+
+    private final SynchronisationJobUseCase synchronisationJobUseCase;
+
+    public SynchronisationJobController(SynchronisationJobUseCase synchronisationJobUseCase) {
+        this.synchronisationJobUseCase = synchronisationJobUseCase;
+    }
+
+    /**
+     * @return number of synchronisation jobs by status
+     */
+    @GetMapping("")
+    public SynchronisationQueueRest getQueueState() {
+        return SynchronisationQueueRest.fromModel(synchronisationJobUseCase.getQueueState());
+    }
+
+    /**
+     * @param poguesId questionnaire pogues id
+     * @return last synchronisation job of the questionnaire
+     */
+    @GetMapping("/questionnaires/{poguesId}")
+    public SynchronisationJobRest getLastJob(@PathVariable String poguesId) {
+        return SynchronisationJobRest.fromModel(synchronisationJobUseCase.getLastJob(poguesId));
+    }
+}
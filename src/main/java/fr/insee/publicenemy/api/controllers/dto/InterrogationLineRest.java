@@ -0,0 +1,18 @@
+package fr.insee.publicenemy.api.controllers.dto;
+
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+
+/**
+ * Interrogation written as a line of a streamed listing
+ *
+ * @param mode          mode of the interrogation
+ * @param id            interrogation id
+ * @param displayableId displayable id
+ * @param url           visualize url
+ */
+public record InterrogationLineRest(Mode mode, String id, int displayableId, String url) {
+
+    public static InterrogationLineRest fromInterrogation(Mode mode, InterrogationRest interrogation) {
+        return new InterrogationLineRest(mode, interrogation.id(), interrogation.displayableId(), interrogation.url());
+    }
+}
@@ -0,0 +1,10 @@
+package fr.insee.publicenemy.api.controllers.dto;
+
+import java.util.List;
+
+/**
+ * @param interrogations interrogations of the page
+ * @param nextCursor     cursor of the next page, null when this page is the last one
+ */
+public record InterrogationsPageRest(List<InterrogationRest> interrogations, Integer nextCursor) {
+}
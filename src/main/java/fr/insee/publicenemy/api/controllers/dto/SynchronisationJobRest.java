@@ -0,0 +1,16 @@
+package fr.insee.publicenemy.api.controllers.dto;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+
+import java.time.Instant;
+
+public record SynchronisationJobRest(Long id, SynchronisationJobType type, SynchronisationJobStatus status, int attempts,
+                                     Instant nextAttemptDate, String lastError, Instant creationDate, Instant updatedDate) {
+
+    public static SynchronisationJobRest fromModel(SynchronisationJob job) {
+        return new SynchronisationJobRest(job.id(), job.type(), job.status(), job.attempts(), job.nextAttemptDate(),
+                job.lastError(), job.creationDate(), job.updatedDate());
+    }
+}
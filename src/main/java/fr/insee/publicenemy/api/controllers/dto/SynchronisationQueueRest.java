@@ -0,0 +1,22 @@
+package fr.insee.publicenemy.api.controllers.dto;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+
+import java.util.Map;
+
+/**
+ * @param pending number of jobs waiting to be processed (queue depth)
+ * @param running number of jobs being processed
+ * @param failed  number of jobs failed after all their attempts
+ * @param done    number of completed jobs
+ */
+public record SynchronisationQueueRest(long pending, long running, long failed, long done) {
+
+    public static SynchronisationQueueRest fromModel(Map<SynchronisationJobStatus, Long> jobsByStatus) {
+        return new SynchronisationQueueRest(
+                jobsByStatus.getOrDefault(SynchronisationJobStatus.PENDING, 0L),
+                jobsByStatus.getOrDefault(SynchronisationJobStatus.RUNNING, 0L),
+                jobsByStatus.getOrDefault(SynchronisationJobStatus.FAILED, 0L),
+                jobsByStatus.getOrDefault(SynchronisationJobStatus.DONE, 0L));
+    }
+}
@@ -1,39 +1,77 @@
 package fr.insee.publicenemy.api.infrastructure.csv;
 
-import com.opencsv.bean.CsvBindAndJoinByName;
-import com.opencsv.bean.processor.ConvertEmptyOrBlankStringsToNull;
-import com.opencsv.bean.processor.PreAssignmentProcessor;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.IInterrogationDataAttributeValue;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationColumnPlan;
 import lombok.Getter;
-import lombok.Setter;
-import org.apache.commons.collections4.MultiValuedMap;
 
-import java.util.Objects;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Line of a csv file containing survey units data, values are bound to the headers by position
+ */
 @Getter
-@Setter
 public class InterrogationCsvLine {
 
-    @CsvBindAndJoinByName(column = ".*", elementType = String.class)
-    @PreAssignmentProcessor(processor = ConvertEmptyOrBlankStringsToNull.class)
-    private MultiValuedMap<String, String> fields;
+    /**
+     * headers of the csv file, shared by all its lines
+     */
+    private final String[] headers;
+
+    /**
+     * plan of the csv file, shared by all its lines
+     */
+    private final InterrogationColumnPlan columnPlan;
+
+    /**
+     * values in column order, empty or blank values are null
+     */
+    private final String[] values;
+
+    public InterrogationCsvLine(String[] headers, InterrogationColumnPlan columnPlan, String[] values) {
+        this.headers = headers;
+        this.columnPlan = columnPlan;
+        this.values = values;
+    }
+
+    /**
+     * @return values by header
+     */
+    public List<Map.Entry<String, String>> getFields() {
+        List<Map.Entry<String, String>> fields = new ArrayList<>(headers.length);
+        for (int index = 0; index < headers.length; index++) {
+            fields.add(new AbstractMap.SimpleImmutableEntry<>(headers[index], values[index]));
+        }
+        return fields;
+    }
+
+    /**
+     * @return data attributes of the line
+     */
+    public Map<String, IInterrogationDataAttributeValue> getAttributes() {
+        return columnPlan.getAttributes(values);
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         InterrogationCsvLine that = (InterrogationCsvLine) o;
-        return Objects.equals(fields, that.fields);
+        return Arrays.equals(headers, that.headers) && Arrays.equals(values, that.values);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fields);
+        return 31 * Arrays.hashCode(headers) + Arrays.hashCode(values);
     }
 
     @Override
     public String toString() {
         return "InterrogationCsvModel{" +
-                "fields=" + fields +
+                "fields=" + getFields() +
                 '}';
     }
 }
@@ -0,0 +1,134 @@
+package fr.insee.publicenemy.api.infrastructure.csv;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationColumnPlan;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read a csv file containing survey units data one line at a time.
+ * The first line holds the headers, values of the next lines are bound to the headers by position.
+ */
+class InterrogationCsvReader implements Iterator<InterrogationCsvLine>, Closeable {
+
+    private static final String MALFORM_ERROR_KEY = "validation.csv.malform.error";
+
+    private final CSVReader csvReader;
+
+    private final I18nMessagePort messageService;
+
+    private final String[] headers;
+
+    private final InterrogationColumnPlan columnPlan;
+
+    private InterrogationCsvLine nextLine;
+
+    private boolean endOfFile;
+
+    /**
+     * @param interrogationData survey units csv data
+     * @param messageService    message service
+     */
+    InterrogationCsvReader(byte[] interrogationData, I18nMessagePort messageService) {
+        CSVParser parser = new CSVParserBuilder()
+                .withSeparator(',')
+                .withIgnoreLeadingWhiteSpace(true)
+                .withStrictQuotes(true)
+                .withIgnoreQuotations(false)
+                .build();
+        this.csvReader = new CSVReaderBuilder(new InputStreamReader(new ByteArrayInputStream(interrogationData), StandardCharsets.UTF_8))
+                .withCSVParser(parser)
+                .build();
+        this.messageService = messageService;
+        String[] headerValues = readNext();
+        this.headers = headerValues != null ? headerValues : new String[0];
+        this.columnPlan = new InterrogationColumnPlan(headers);
+        this.endOfFile = headerValues == null;
+    }
+
+    /**
+     * @return lines of the csv file, read when consumed. Closing the stream closes the reader.
+     */
+    Stream<InterrogationCsvLine> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine == null && !endOfFile) {
+            String[] values = readNext();
+            if (values == null) {
+                endOfFile = true;
+            } else {
+                nextLine = toLine(values);
+            }
+        }
+        return nextLine != null;
+    }
+
+    @Override
+    public InterrogationCsvLine next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InterrogationCsvLine line = nextLine;
+        nextLine = null;
+        return line;
+    }
+
+    @Override
+    public void close() {
+        try {
+            csvReader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private InterrogationCsvLine toLine(String[] values) {
+        if (values.length != headers.length) {
+            throw malformedLineException(csvReader.getLinesRead(),
+                    String.format("Number of data fields (%s) does not match number of headers (%s)", values.length, headers.length));
+        }
+        for (int column = 0; column < values.length; column++) {
+            if (values[column].isBlank()) {
+                values[column] = null;
+            }
+        }
+        return new InterrogationCsvLine(headers, columnPlan, values);
+    }
+
+    private String[] readNext() {
+        try {
+            return csvReader.readNext();
+        } catch (CsvMalformedLineException e) {
+            throw malformedLineException(e.getLineNumber(), e.getMessage());
+        } catch (IOException | CsvValidationException e) {
+            throw malformedLineException(csvReader.getLinesRead(), e.getMessage());
+        }
+    }
+
+    private ServiceException malformedLineException(long lineNumber, String message) {
+        return new ServiceException(HttpStatus.BAD_REQUEST, messageService.getMessage(MALFORM_ERROR_KEY, lineNumber + "", message));
+    }
+}
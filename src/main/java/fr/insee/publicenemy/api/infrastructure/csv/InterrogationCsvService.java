@@ -1,6 +1,5 @@
 package fr.insee.publicenemy.api.infrastructure.csv;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
@@ -8,17 +7,17 @@ import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableTypeEnum;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.InterrogationCsvPort;
-import fr.insee.publicenemy.api.infrastructure.csv.exceptions.InterrogationCsvNotFoundException;
 import fr.insee.publicenemy.api.infrastructure.interro.InterrogationStateData;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -34,19 +33,31 @@ public class InterrogationCsvService implements InterrogationCsvPort {
 
     @Override
     public List<Interrogation> initInterrogations(byte[] interrogationData, String questionnaireModelId) {
-        List<InterrogationCsvLine> interrogationsCsvLines = getInterrogationsCsvLines(interrogationData);
+        try (Stream<Interrogation> interrogations = streamInterrogations(interrogationData, questionnaireModelId)) {
+            return interrogations.toList();
+        }
+    }
 
-        return interrogationsCsvLines.stream()
-                .map(line -> initInterrogation(line, null, questionnaireModelId))
-                .toList();
+    @Override
+    public Stream<Interrogation> streamInterrogations(byte[] interrogationData, String questionnaireModelId) {
+        return getInterrogationsCsvLines(interrogationData)
+                .map(line -> initInterrogation(line, null, questionnaireModelId));
     }
 
     @Override
-    public Interrogation getCsvInterrogation(PersonalizationMapping persoMapping, byte[] interrogationData) {
-        List<InterrogationCsvLine> interrogationsCsvLines = getInterrogationsCsvLines(interrogationData);
+    public List<JsonNode> getInterrogationRows(byte[] interrogationData) {
+        try (Stream<InterrogationCsvLine> lines = getInterrogationsCsvLines(interrogationData)) {
+            return lines.map(this::toRow).toList();
+        }
+    }
 
-        if(interrogationsCsvLines.isEmpty() || persoMapping.dataIndex() >= interrogationsCsvLines.size() || persoMapping.dataIndex() < 0) throw new InterrogationCsvNotFoundException(messageService.getMessage("interrogation.not-found", persoMapping.interrogationId()));
-        return initInterrogation(interrogationsCsvLines.get(persoMapping.dataIndex()), persoMapping.interrogationId(), persoMapping.getQuestionnaireModelId());
+    @Override
+    public Interrogation getCsvInterrogation(PersonalizationMapping persoMapping, JsonNode row) {
+        List<Map.Entry<String, String>> csvFields = row.properties().stream()
+                .<Map.Entry<String, String>>map(field -> new AbstractMap.SimpleEntry<>(field.getKey(),
+                        field.getValue().isNull() ? null : field.getValue().asString()))
+                .toList();
+        return initInterrogation(new InterrogationData(csvFields), persoMapping.interrogationId(), persoMapping.getQuestionnaireModelId());
     }
 
     /**
@@ -54,20 +65,29 @@ public class InterrogationCsvService implements InterrogationCsvPort {
      * @return a survey unit from a line in the csv file
      */
     private Interrogation initInterrogation(@NonNull InterrogationCsvLine interrogationCsvLine, String interrogationId, String questionnaireModelId) {
+        return initInterrogation(new InterrogationData(interrogationCsvLine.getAttributes()), interrogationId, questionnaireModelId);
+    }
 
-        List<Map.Entry<String, String>> csvFields = new ArrayList<>();
-        if (interrogationCsvLine.getFields() != null) {
-            csvFields = interrogationCsvLine.getFields().entries()
-                    .stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .toList();
-        }
-
+    /**
+     * @param interrogationData data attributes of a csv line
+     * @return a survey unit from the data attributes of a line in the csv file
+     */
+    private Interrogation initInterrogation(InterrogationData interrogationData, String interrogationId, String questionnaireModelId) {
         String interroId = interrogationId != null ? interrogationId : UUID.randomUUID().toString();
-        InterrogationData interrogationData = new InterrogationData(csvFields);
         return new Interrogation(interroId, questionnaireModelId, interrogationData, InterrogationStateData.createInitialStateData());
     }
 
+    /**
+     * @param interrogationCsvLine csv line containing a survey unit
+     * @return json document of the line, holding the values by header
+     */
+    private JsonNode toRow(InterrogationCsvLine interrogationCsvLine) {
+        ObjectNode row = JsonNodeFactory.instance.objectNode();
+        interrogationCsvLine.getFields()
+                .forEach(field -> row.put(field.getKey(), field.getValue()));
+        return row;
+    }
+
     @Override
     public InterrogationCsvHeaderLine getInterrogationsCsvHeaders(List<VariableType> variablesType) {
         Set<String> csvHeaders = new LinkedHashSet<>();
@@ -98,21 +118,12 @@ public class InterrogationCsvService implements InterrogationCsvPort {
     }
 
     /**
-     * get a list of interrogations from interrogation csv data
+     * get the lines of interrogation csv data, read one at a time when the stream is consumed
      *
      * @param interrogationData interrogations csv data
-     * @return list of interrogations from interrogation csv data
+     * @return lines of interrogation csv data
      */
-    private List<InterrogationCsvLine> getInterrogationsCsvLines(byte[] interrogationData) {
-        Reader reader = new InputStreamReader(new ByteArrayInputStream(interrogationData));
-
-        return new CsvToBeanBuilder<InterrogationCsvLine>(reader)
-                .withSkipLines(0)
-                .withSeparator(',')
-                .withIgnoreLeadingWhiteSpace(true)
-                .withStrictQuotes(true)
-                .withIgnoreQuotations(false)
-                .withType(InterrogationCsvLine.class)
-                .build().parse();
+    private Stream<InterrogationCsvLine> getInterrogationsCsvLines(byte[] interrogationData) {
+        return new InterrogationCsvReader(interrogationData, messageService).stream();
     }
 }
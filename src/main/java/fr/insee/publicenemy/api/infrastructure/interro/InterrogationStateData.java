@@ -10,6 +10,13 @@ public record InterrogationStateData(String currentPage, Long date, String state
         return Instant.now().toEpochMilli();
     }
 
+    /**
+     * @return this state data, with the default date when no date has been defined
+     */
+    public InterrogationStateData withDefaultDate() {
+        return date != null ? this : new InterrogationStateData(currentPage, getDefaultDate(), state);
+    }
+
     /**
      * @return a default initial state for survey unit, state can't be null
      */
@@ -0,0 +1,129 @@
+package fr.insee.publicenemy.api.infrastructure.json;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read json survey units data one survey unit at a time, with the token api of jackson.
+ * Data can be an array of survey units, a single survey unit, or survey units separated by new lines (ndjson).
+ * Only the tree of the survey unit being read is kept in memory.
+ */
+class InterrogationJsonReader implements Iterator<InterrogationJsonLine>, Closeable {
+
+    private static final String MALFORM_ERROR_KEY = "validation.json.malform.error";
+
+    private final JsonParser parser;
+
+    private final I18nMessagePort messageService;
+
+    /**
+     * true when survey units are the elements of a root array
+     */
+    private final boolean arrayData;
+
+    /**
+     * true when the parser is on the first token of the next survey unit
+     */
+    private boolean onValueStart;
+
+    private InterrogationJsonLine nextLine;
+
+    private boolean endOfData;
+
+    /**
+     * @param interrogationData survey units json data
+     * @param objectMapper      object mapper used to create the parser
+     * @param messageService    message service
+     */
+    InterrogationJsonReader(byte[] interrogationData, ObjectMapper objectMapper, I18nMessagePort messageService) {
+        this.messageService = messageService;
+        this.parser = read(() -> objectMapper.createParser(interrogationData));
+        JsonToken firstToken = read(parser::nextToken);
+        this.arrayData = firstToken == JsonToken.START_ARRAY;
+        this.onValueStart = !arrayData;
+        this.endOfData = firstToken == null;
+    }
+
+    /**
+     * @return survey units, read when consumed. Closing the stream closes the reader.
+     */
+    Stream<InterrogationJsonLine> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine == null && !endOfData) {
+            nextLine = read(this::readNextLine);
+            endOfData = nextLine == null;
+        }
+        return nextLine != null;
+    }
+
+    @Override
+    public InterrogationJsonLine next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InterrogationJsonLine line = nextLine;
+        nextLine = null;
+        return line;
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    /**
+     * @return next survey unit, null when all survey units are read
+     */
+    private InterrogationJsonLine readNextLine() {
+        if (onValueStart) {
+            // the first root value is already reached by the constructor
+            onValueStart = false;
+        } else {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (arrayData && token == JsonToken.END_ARRAY) {
+                // the root array is the whole data
+                if (parser.nextToken() != null) {
+                    throw malformedDataException("Unexpected content after the end of the array");
+                }
+                return null;
+            }
+        }
+        JsonNode node = parser.readValueAsTree();
+        return new InterrogationJsonLine(node);
+    }
+
+    private <T> T read(Supplier<T> reading) {
+        try {
+            return reading.get();
+        } catch (JacksonException e) {
+            throw malformedDataException(InterrogationJsonService.simplifyMessage(e.getMessage()));
+        }
+    }
+
+    private ServiceException malformedDataException(String message) {
+        return new ServiceException(HttpStatus.NOT_ACCEPTABLE, messageService.getMessage(MALFORM_ERROR_KEY, message));
+    }
+}
@@ -1,25 +1,21 @@
 package fr.insee.publicenemy.api.infrastructure.json;
 
-import tools.jackson.core.JacksonException;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
-import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.InterrogationJsonPort;
 import fr.insee.publicenemy.api.infrastructure.interro.InterrogationStateData;
-import fr.insee.publicenemy.api.infrastructure.json.exceptions.InterrogationJsonNotFoundException;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -35,18 +31,27 @@ public class InterrogationJsonService implements InterrogationJsonPort {
 
     @Override
     public List<Interrogation> initInterrogations(byte[] interrogationData, String questionnaireModelId) {
-        List<InterrogationJsonLine> interrogationsJsonLines = getInterrogationsJsonLines(interrogationData);
-        return interrogationsJsonLines.stream()
-                .map(line -> initInterrogation(line, null, questionnaireModelId))
-                .toList();
+        try (Stream<Interrogation> interrogations = streamInterrogations(interrogationData, questionnaireModelId)) {
+            return interrogations.toList();
+        }
+    }
+
+    @Override
+    public Stream<Interrogation> streamInterrogations(byte[] interrogationData, String questionnaireModelId) {
+        return getInterrogationsJsonLines(interrogationData)
+                .map(line -> initInterrogation(line, null, questionnaireModelId));
     }
 
     @Override
-    public Interrogation getJsonInterrogation(PersonalizationMapping persoMapping, byte[] interrogationData) {
-        List<InterrogationJsonLine> interrogationsJsonLines = getInterrogationsJsonLines(interrogationData);
+    public List<JsonNode> getInterrogationRows(byte[] interrogationData) {
+        try (Stream<InterrogationJsonLine> lines = getInterrogationsJsonLines(interrogationData)) {
+            return lines.map(InterrogationJsonLine::getFields).toList();
+        }
+    }
 
-        if(interrogationsJsonLines.isEmpty() || persoMapping.dataIndex() >= interrogationsJsonLines.size() || persoMapping.dataIndex() < 0) throw new InterrogationJsonNotFoundException(messageService.getMessage("interrogation.not-found", persoMapping.interrogationId()));
-        return initInterrogation(interrogationsJsonLines.get(persoMapping.dataIndex()), persoMapping.interrogationId(), persoMapping.getQuestionnaireModelId());
+    @Override
+    public Interrogation getJsonInterrogation(PersonalizationMapping persoMapping, JsonNode row) {
+        return initInterrogation(new InterrogationJsonLine(row), persoMapping.interrogationId(), persoMapping.getQuestionnaireModelId());
     }
 
     /**
@@ -64,29 +69,13 @@ public class InterrogationJsonService implements InterrogationJsonPort {
 
 
     /**
-     * get a list of interrogations from interrogation csv data
+     * get the survey units of interrogation json data, read one at a time when the stream is consumed
      *
-     * @param interrogationData interrogations csv data
-     * @return list of interrogations from interrogation csv data
+     * @param interrogationData interrogations json data (array, single survey unit or ndjson)
+     * @return survey units from interrogation json data
      */
-    private List<InterrogationJsonLine> getInterrogationsJsonLines(byte[] interrogationData) {
-        List<InterrogationJsonLine> result = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(interrogationData);
-            if (root.isArray()) {
-                for (JsonNode node : root) {
-                    result.add(new InterrogationJsonLine(node));
-                }
-            } else {
-                // Fallback to root: consider we have only one survey-unit at root level
-                result.add(new InterrogationJsonLine(root));
-            }
-        } catch (JacksonException e) {
-            throw new ServiceException(
-                    HttpStatus.NOT_ACCEPTABLE,
-                    messageService.getMessage("validation.json.malform.error", simplifyMessage(e.getMessage())));
-        }
-        return result;
+    private Stream<InterrogationJsonLine> getInterrogationsJsonLines(byte[] interrogationData) {
+        return new InterrogationJsonReader(interrogationData, objectMapper, messageService).stream();
     }
 
     /**
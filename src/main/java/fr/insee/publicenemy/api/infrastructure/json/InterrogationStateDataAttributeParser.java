@@ -16,7 +16,9 @@ public class InterrogationStateDataAttributeParser {
         JsonNode stateData = line.getFields().path("stateData");
         if(stateData == null || stateData.isNull() || !stateData.isObject()) return InterrogationStateData.createInitialStateData();
         String currentPage = safeGetText(stateData, "currentPage", DEFAULT_PAGE);
-        long date = safeGetLong(stateData, "date", getDefaultDate());
+        // a missing date is left empty so that parsing the same upload twice gives the same state data,
+        // the default date is applied when the interrogation is sent to Queen
+        Long date = safeGetLong(stateData, "date", null);
         String state = safeGetText(stateData, "state", DEFAULT_STATE);
 
         return new InterrogationStateData(currentPage, date, state);
@@ -25,7 +27,7 @@ public class InterrogationStateDataAttributeParser {
         JsonNode field = node.get(fieldName);
         return (field != null && !field.isNull() && field.isString()) ? field.asString() : defaultValue;
     }
-    private static long safeGetLong(JsonNode node, String fieldName, long defaultValue) {
+    private static Long safeGetLong(JsonNode node, String fieldName, Long defaultValue) {
         JsonNode field = node.get(fieldName);
         return (field != null && !field.isNull() && field.canConvertToLong()) ? field.asLong() : defaultValue;
     }
@@ -4,8 +4,10 @@ import fr.insee.publicenemy.api.application.domain.model.PdfRecap;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.PdfServicePort;
+import fr.insee.publicenemy.api.configuration.rest.DownstreamResilienceFilter;
 import fr.insee.publicenemy.api.infrastructure.queen.dto.SimpleInterrogationDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -33,7 +35,7 @@ public class PdfService implements PdfServicePort {
 
     private final static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
 
-    public PdfService(I18nMessagePort messageService, WebClient webClient, @Value("${application.lunatic-pdf-api.url}") String lunaticPdfApiUrl){
+    public PdfService(I18nMessagePort messageService, @Qualifier("lunaticPdfWebClient") WebClient webClient, @Value("${application.lunatic-pdf-api.url}") String lunaticPdfApiUrl){
         this.webClient = webClient;
         this.lunaticPdfApiUrl = lunaticPdfApiUrl;
         this.messageService = messageService;
@@ -54,6 +56,7 @@ public class PdfService implements PdfServicePort {
                 .toUri();
         ResponseEntity<byte[]> response = webClient.post()
                 .uri(uri)
+                .attribute(DownstreamResilienceFilter.OPERATION_ATTRIBUTE, "generate-pdf")
                 .body(BodyInserters.fromValue(pdfRequestDto))
                 .retrieve()
                 .onStatus(
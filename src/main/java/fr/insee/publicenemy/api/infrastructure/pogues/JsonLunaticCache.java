@@ -0,0 +1,316 @@
+package fr.insee.publicenemy.api.infrastructure.pogues;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import fr.insee.publicenemy.api.application.ports.JsonLunaticCachePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Two-tier cache for json lunatic generated by Eno: an in-memory Caffeine cache in front of a gzip compressed on-disk store.
+ * Entries are keyed by pogues id, pogues version, context, mode and Eno version, so an entry never needs to be invalidated:
+ * a new pogues version or a new Eno version gives a new key. The memory tier is weighted by the size of the json lunatic
+ * and publishes its statistics as cache metrics, the disk tier is bounded by its number of files and their compressed size
+ * and evicts least recently used files.
+ */
+@Component
+@Slf4j
+public class JsonLunaticCache implements JsonLunaticCachePort {
+
+    private static final String MEMORY_CACHE = "lunatic.memory";
+    private static final String DISK_TIER = "disk";
+    private static final String FILE_EXTENSION = ".json.gz";
+    private static final String REQUESTS_METRIC = "lunatic.cache.requests";
+    private static final String EVICTIONS_METRIC = "lunatic.cache.evictions";
+    private static final String TIER_TAG = "tier";
+    private static final String RESULT_TAG = "result";
+
+    private final boolean enabled;
+    private final String enoVersion;
+    private final int diskMaxEntries;
+    private final long diskMaxBytes;
+    private final Path directory;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, JsonLunatic> memoryCache;
+    // size of the files of the disk tier, loaded from the cache directory on first access, access ordered so that
+    // the eldest entry is the least recently used one
+    private final Map<String, Long> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+    private boolean diskIndexLoaded;
+
+    public JsonLunaticCache(@Value("${application.eno.cache.enabled}") boolean enabled,
+                            @Value("${application.eno.version}") String enoVersion,
+                            @Value("${application.eno.cache.memory-max-size}") DataSize memoryMaxSize,
+                            @Value("${application.eno.cache.disk-max-entries}") int diskMaxEntries,
+                            @Value("${application.eno.cache.disk-max-size}") DataSize diskMaxSize,
+                            @Value("${application.eno.cache.directory}") String directory,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.enoVersion = enoVersion;
+        this.diskMaxEntries = diskMaxEntries;
+        this.diskMaxBytes = diskMaxSize.toBytes();
+        this.directory = Path.of(directory);
+        this.meterRegistry = meterRegistry;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxSize.toBytes())
+                .<String, JsonLunatic>weigher((key, jsonLunatic) -> jsonLunatic.content().length)
+                .recordStats()
+                // maintenance runs on the calling thread, so that a put returns once the memory tier fits its max weight
+                .executor(Runnable::run)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memoryCache, MEMORY_CACHE);
+    }
+
+    @Override
+    public Optional<JsonLunatic> getJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        Optional<String> key = getKey(questionnaireModel, context, mode);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+
+        JsonLunatic jsonLunatic = memoryCache.getIfPresent(key.get());
+        if (jsonLunatic != null) {
+            return Optional.of(jsonLunatic);
+        }
+
+        Optional<JsonLunatic> diskJsonLunatic = readFromDisk(key.get());
+        count(REQUESTS_METRIC, TIER_TAG, DISK_TIER, RESULT_TAG, diskJsonLunatic.isPresent() ? "hit" : "miss");
+        diskJsonLunatic.ifPresent(value -> memoryCache.put(key.get(), value));
+        return diskJsonLunatic;
+    }
+
+    @Override
+    public void putJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode, JsonLunatic jsonLunatic) {
+        Optional<String> key = getKey(questionnaireModel, context, mode);
+        if (key.isEmpty() || jsonLunatic == null || jsonLunatic.content() == null) {
+            return;
+        }
+        memoryCache.put(key.get(), jsonLunatic);
+        writeToDisk(key.get(), jsonLunatic);
+    }
+
+    @Override
+    public Optional<Writer> openJsonLunatic(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        Optional<String> key = getKey(questionnaireModel, context, mode);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, key.get(), ".tmp");
+            return Optional.of(new DiskWriter(key.get(), temporaryFile));
+        } catch (IOException ex) {
+            log.warn(String.format("Unable to write json lunatic to cache directory %s: %s", directory, ex.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return cache key, empty when caching is disabled or when the pogues version is unknown
+     */
+    private Optional<String> getKey(QuestionnaireModel questionnaireModel, Context context, Mode mode) {
+        if (!enabled || questionnaireModel == null || questionnaireModel.versionId() == null || questionnaireModel.versionId().isBlank()) {
+            return Optional.empty();
+        }
+        String key = String.join("|", questionnaireModel.poguesId(), questionnaireModel.versionId(), context.name(), mode.name(), enoVersion);
+        return Optional.of(HashUtils.sha256Hex(key));
+    }
+
+    private Optional<JsonLunatic> readFromDisk(String key) {
+        synchronized (diskIndex) {
+            loadDiskIndex();
+            if (diskIndex.get(key) == null) {
+                return Optional.empty();
+            }
+        }
+        Path file = getFile(key);
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            byte[] content = inputStream.readAllBytes();
+            // last modified time keeps the access order of the disk tier across restarts
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return Optional.of(new JsonLunatic(content));
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn(String.format("Unable to read json lunatic from cache file %s: %s", file, ex.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    private void writeToDisk(String key, JsonLunatic jsonLunatic) {
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+                outputStream.write(jsonLunatic.content());
+            }
+            storeFile(key, temporaryFile);
+        } catch (IOException ex) {
+            log.warn(String.format("Unable to write json lunatic to cache directory %s: %s", directory, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Move a completely written temporary file to its cache entry, then evict least recently used files
+     * until the disk tier fits its max number of entries and max size
+     */
+    private void storeFile(String key, Path temporaryFile) throws IOException {
+        Path file = getFile(key);
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long size = Files.size(file);
+        synchronized (diskIndex) {
+            loadDiskIndex();
+            Long previousSize = diskIndex.put(key, size);
+            diskBytes += size - (previousSize == null ? 0 : previousSize);
+            Iterator<Map.Entry<String, Long>> eldest = diskIndex.entrySet().iterator();
+            while ((diskIndex.size() > diskMaxEntries || diskBytes > diskMaxBytes) && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                diskBytes -= entry.getValue();
+                eldest.remove();
+                if (Files.deleteIfExists(getFile(entry.getKey()))) {
+                    count(EVICTIONS_METRIC, TIER_TAG, DISK_TIER);
+                }
+            }
+        }
+    }
+
+    /**
+     * Json lunatic compressed to a temporary file as it is received, moved to the disk tier when committed
+     */
+    private class DiskWriter implements Writer {
+        private final String key;
+        private final Path temporaryFile;
+        private final OutputStream outputStream;
+        private final WritableByteChannel channel;
+        private boolean failed;
+        private boolean closed;
+
+        private DiskWriter(String key, Path temporaryFile) throws IOException {
+            this.key = key;
+            this.temporaryFile = temporaryFile;
+            this.outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile));
+            this.channel = Channels.newChannel(outputStream);
+        }
+
+        @Override
+        public synchronized void write(ByteBuffer content) {
+            if (failed || closed) {
+                return;
+            }
+            try {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            } catch (IOException ex) {
+                log.warn(String.format("Unable to write json lunatic to cache file %s: %s", temporaryFile, ex.getMessage()));
+                failed = true;
+            }
+        }
+
+        @Override
+        public synchronized void commit() {
+            if (failed || closed) {
+                return;
+            }
+            try {
+                outputStream.close();
+                closed = true;
+                storeFile(key, temporaryFile);
+            } catch (IOException ex) {
+                log.warn(String.format("Unable to write json lunatic to cache directory %s: %s", directory, ex.getMessage()));
+                close();
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    outputStream.close();
+                } catch (IOException ex) {
+                    log.debug(String.format("Unable to close json lunatic cache file %s: %s", temporaryFile, ex.getMessage()));
+                }
+            }
+            // no-op once committed, the file has been moved to the disk tier
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ex) {
+                log.warn(String.format("Unable to delete json lunatic cache file %s: %s", temporaryFile, ex.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * List the cache directory once, so that files written before a restart are still used and evicted.
+     * Must be called while holding the disk index lock.
+     */
+    private void loadDiskIndex() {
+        if (diskIndexLoaded) {
+            return;
+        }
+        diskIndexLoaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .sorted(Comparator.comparing(this::getLastModifiedTime))
+                    .forEach(path -> {
+                        String fileName = path.getFileName().toString();
+                        long size = getSize(path);
+                        diskIndex.put(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()), size);
+                        diskBytes += size;
+                    });
+        } catch (IOException ex) {
+            log.warn(String.format("Unable to list json lunatic cache directory %s: %s", directory, ex.getMessage()));
+        }
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(key + FILE_EXTENSION);
+    }
+
+    private FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private long getSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private void count(String name, String... tags) {
+        meterRegistry.counter(name, tags).increment();
+    }
+}
@@ -0,0 +1,62 @@
+package fr.insee.publicenemy.api.infrastructure.pogues;
+
+import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read json pogues with a single shared mapper
+ */
+@Slf4j
+final class PoguesJsonReader {
+
+    private static final ObjectMapper JSON_MAPPER = JsonMapper.builder().build();
+
+    private PoguesJsonReader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param questionnaireId pogues questionnaire id
+     * @param rawJsonPogues   json pogues (utf-8)
+     * @return json pogues
+     */
+    static JsonNode readJsonPogues(String questionnaireId, byte[] rawJsonPogues) {
+        try {
+            return JSON_MAPPER.readTree(rawJsonPogues);
+        } catch (JacksonException e) {
+            log.error(String.format("Exception during pogues json deserialization of questionnaire id: %s", questionnaireId), e);
+            throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, String.format("Error retrieving questionnaire id %s", questionnaireId));
+        }
+    }
+
+    /**
+     * Extract the variables of a questionnaire from its json pogues, as given by the pogues vars endpoint
+     *
+     * @param questionnaireId pogues questionnaire id
+     * @param jsonPogues      json pogues
+     * @return variables of the questionnaire, with their data types
+     */
+    static List<VariableType> readVariables(String questionnaireId, @NonNull JsonNode jsonPogues) {
+        JsonNode variableNodes = jsonPogues.path("Variables").path("Variable");
+        List<VariableType> variables = new ArrayList<>(variableNodes.size());
+        try {
+            for (JsonNode variableNode : variableNodes) {
+                variables.add(JSON_MAPPER.treeToValue(variableNode, VariableType.class));
+            }
+        } catch (JacksonException e) {
+            log.error(String.format("Exception during variables deserialization of questionnaire id: %s", questionnaireId), e);
+            throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, String.format("Error retrieving variables from questionnaire id %s", questionnaireId));
+        }
+        return variables;
+    }
+}
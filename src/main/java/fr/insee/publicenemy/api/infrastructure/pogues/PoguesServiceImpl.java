@@ -1,191 +1,72 @@
 package fr.insee.publicenemy.api.infrastructure.pogues;
 
-import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
-import fr.insee.publicenemy.api.application.exceptions.ServiceException;
-import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
 import fr.insee.publicenemy.api.application.ports.PoguesServicePort;
-import fr.insee.publicenemy.api.infrastructure.pogues.exceptions.PoguesJsonNotFoundException;
+import fr.insee.publicenemy.api.application.ports.ReactivePoguesServicePort;
+import fr.insee.publicenemy.api.configuration.rest.WebClientTokenInterceptor;
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import tools.jackson.core.JacksonException;
-import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Blocking access to pogues, waiting for the calls of the reactive pogues service.
+ * Pogues is only read, identical calls are made once per flow (see {@link FlowMemo}).
+ */
 @Service
-@Slf4j
 public class PoguesServiceImpl implements PoguesServicePort {
 
-    private final WebClient webClient;
-    private final String poguesUrl;
-
-    private final I18nMessagePort messageService;
-
-    private static final String QUESTIONNAIRE_NOT_FOUND_ERROR = "questionnaire.notfound";
+    private final ReactivePoguesServicePort reactivePoguesService;
 
     /**
      * Constructor
      *
-     * @param webClient webclient
-     * @param poguesUrl pogues url
+     * @param reactivePoguesService reactive pogues service
      */
-    public PoguesServiceImpl(WebClient webClient, @Value("${application.pogues.url}") String poguesUrl, I18nMessagePort messagePort) {
-        this.webClient = webClient;
-        this.poguesUrl = poguesUrl;
-        this.messageService = messagePort;
+    public PoguesServiceImpl(ReactivePoguesServicePort reactivePoguesService) {
+        this.reactivePoguesService = reactivePoguesService;
     }
 
     @Override
     public QuestionnaireModel getQuestionnaireModel(@NonNull String poguesId) {
-        JsonNode jsonPogues = getJsonPogues(poguesId);
-        JsonNode jsonVersion = getLatestVersion(poguesId);
-        PoguesDataSummary summary = getPoguesSummary(jsonPogues);
-        String versionId = getPoguesVersionId(jsonVersion);
-        return new QuestionnaireModel(poguesId, versionId, summary.label(), summary.modes(), jsonPogues);
+        return FlowMemo.memoize("pogues.model", () -> block(reactivePoguesService.getQuestionnaireModel(poguesId)), poguesId);
     }
 
     @Override
-    public Questionnaire getQuestionnaire(@NonNull String poguesId) {
-        PoguesDataSummary summary = getPoguesSummary(poguesId);
-        return new Questionnaire(poguesId, summary.label(), summary.modes());
+    public String getLatestVersionId(@NonNull String poguesId) {
+        return FlowMemo.memoize("pogues.latest-version", () -> block(reactivePoguesService.getLatestVersionId(poguesId)), poguesId);
     }
 
     @Override
-    public JsonNode getNomenclaturesByQuestionnaire(String poguesId) {
-        return getNomeclatureOfQuestionnaire(poguesId);
-    }
-
-    /**
-     * Retrieve summary details from JSON Pogues
-     *
-     * @param poguesId questionnaire pogues Id
-     * @return questionnaire summary from pogues
-     */
-    private PoguesDataSummary getPoguesSummary(@NonNull String poguesId) {
-        JsonNode jsonPogues = getJsonPogues(poguesId);
-        return getPoguesSummary(jsonPogues);
+    public String refreshLatestVersionId(@NonNull String poguesId) {
+        return FlowMemo.memoize("pogues.refreshed-version", () -> block(reactivePoguesService.refreshLatestVersionId(poguesId)), poguesId);
     }
 
-    /**
-     * Retrieve summary details from JSON Pogues
-     *
-     * @param jsonPogues json from pogues
-     * @return questionnaire summary from pogues
-     */
-    private PoguesDataSummary getPoguesSummary(@NonNull JsonNode jsonPogues) {
-        List<Mode> modes = new ArrayList<>();
-        String label = "";
-        jsonPogues.get("TargetMode").forEach(node -> modes.add(Mode.valueOf(node.asString())));
-        JsonNode labelNode = jsonPogues.get("Label");
-        if (!labelNode.isEmpty()) {
-            label = labelNode.get(0).asString();
-        }
-        return new PoguesDataSummary(label, modes);
+    @Override
+    public Questionnaire getQuestionnaire(@NonNull String poguesId) {
+        return FlowMemo.memoize("pogues.questionnaire", () -> block(reactivePoguesService.getQuestionnaire(poguesId)), poguesId);
     }
 
-    private String getPoguesVersionId(@NonNull JsonNode jsonVersion) {
-        String versionId = "";
-        JsonNode versionIdNode =  jsonVersion.get("id");
-        if (versionIdNode != null && !versionIdNode.isNull()) {
-            versionId = versionIdNode.asString();
-        }
-        return versionId;
+    @Override
+    public JsonNode getNomenclaturesByQuestionnaire(String poguesId) {
+        return FlowMemo.memoize("pogues.nomenclatures", () -> block(reactivePoguesService.getNomenclaturesByQuestionnaire(poguesId)), poguesId);
     }
 
-    private JsonNode getLatestVersion(@NonNull String questionnaireId) {
-        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}/version/last", questionnaireId)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .bodyToMono(JsonNode.class)
-                .blockOptional().orElseThrow(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR, questionnaireId)));
+    @Override
+    public List<VariableType> getQuestionnaireVariables(@NonNull QuestionnaireModel questionnaireModel) {
+        // variables are part of the json pogues already retrieved with the model
+        return PoguesJsonReader.readVariables(questionnaireModel.poguesId(), questionnaireModel.content());
     }
 
     /**
-     * Get Json Pogues
-     *
-     * @param questionnaireId pogues questionnaire Id
-     * @return the json from pogues
+     * Wait for a pogues call, authenticated with the security context of the current thread
      */
-    private JsonNode getJsonPogues(@NonNull String questionnaireId) {
-        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}?references=true", questionnaireId)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .bodyToMono(JsonNode.class)
-                .blockOptional().orElseThrow(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR, questionnaireId)));
-    }
-
-    private JsonNode getNomeclatureOfQuestionnaire(@NonNull String questionnaireId) {
-        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}/nomenclatures", questionnaireId)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .bodyToMono(JsonNode.class)
-                .blockOptional().orElseThrow(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR)));
-    }
-
-    @Override
-    public List<VariableType> getQuestionnaireVariables(@NonNull String questionnaireId) {
-        String variablesString = webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}/vars", questionnaireId)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .bodyToMono(String.class)
-                .blockOptional().orElseThrow(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR)));
-
-        ObjectMapper mapper = JsonMapper.builder().build();
-        try {
-            return mapper.readValue(variablesString, new TypeReference<List<VariableType>>() {
-            });
-        } catch (JacksonException e) {
-            log.error(String.format("Exception during variables deserialization of questionnaire id: %s", questionnaireId), e);
-            throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, String.format("Error retrieving variables from questionnaire id %s", questionnaireId));
-        }
+    private <T> T block(Mono<T> call) {
+        return call.contextWrite(WebClientTokenInterceptor::withCurrentSecurityContext).block();
     }
 }
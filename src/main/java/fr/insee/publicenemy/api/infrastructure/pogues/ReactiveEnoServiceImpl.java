@@ -0,0 +1,90 @@
+package fr.insee.publicenemy.api.infrastructure.pogues;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.ReactiveEnoServicePort;
+import fr.insee.publicenemy.api.configuration.rest.DownstreamResilienceFilter;
+import fr.insee.publicenemy.api.infrastructure.pogues.exceptions.LunaticJsonNotFoundException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Service
+@Slf4j
+public class ReactiveEnoServiceImpl implements ReactiveEnoServicePort {
+
+    private final WebClient webClient;
+    private final String enoUrl;
+
+    public ReactiveEnoServiceImpl(@Qualifier("enoWebClient") WebClient webClient, @Value("${application.eno.url}") String enoUrl) {
+        this.webClient = webClient;
+        this.enoUrl = enoUrl;
+    }
+
+    @Override
+    public Mono<JsonLunatic> getJsonLunatic(@NonNull QuestionnaireModel questionnaireModel, @NonNull Context context, @NonNull Mode mode) {
+        return DataBufferUtils.join(getJsonLunaticContent(questionnaireModel, context, mode))
+                .map(dataBuffer -> {
+                    byte[] content = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(content);
+                    DataBufferUtils.release(dataBuffer);
+                    return new JsonLunatic(content);
+                });
+    }
+
+    @Override
+    public Flux<DataBuffer> getJsonLunaticContent(@NonNull QuestionnaireModel questionnaireModel, @NonNull Context context, @NonNull Mode mode) {
+
+        MultipartBodyBuilder resourceBuilder = new MultipartBodyBuilder();
+        Resource poguesResource = new FileNameAwareByteArrayResource("resource.json", getSerializedContent(questionnaireModel), "description");
+        resourceBuilder.part("in", poguesResource);
+
+
+        return webClient.post().uri(enoUrl + "/questionnaire/pogues-2-lunatic/{context}/{mode}", context.name(), mode.name())
+                .attribute(DownstreamResilienceFilter.OPERATION_ATTRIBUTE, "generate-lunatic")
+                .accept(MediaType.APPLICATION_OCTET_STREAM)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(resourceBuilder.build()))
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new LunaticJsonNotFoundException(questionnaireModel.poguesId(), context, mode)))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .bodyToFlux(DataBuffer.class)
+                .switchIfEmpty(Flux.error(() -> new LunaticJsonNotFoundException(questionnaireModel.poguesId(), context, mode)));
+    }
+
+    /**
+     * @return pogues json as received from pogues, serialized pogues json if not available
+     */
+    private byte[] getSerializedContent(QuestionnaireModel questionnaireModel) {
+        if (questionnaireModel.serializedContent() != null) {
+            return questionnaireModel.serializedContent();
+        }
+        return questionnaireModel.content().toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,195 @@
+package fr.insee.publicenemy.api.infrastructure.pogues;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.ReactivePoguesServicePort;
+import fr.insee.publicenemy.api.infrastructure.pogues.exceptions.PoguesJsonNotFoundException;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ReactivePoguesServiceImpl implements ReactivePoguesServicePort {
+
+    private final WebClient webClient;
+    private final String poguesUrl;
+
+    private final I18nMessagePort messageService;
+
+    private final Duration versionCacheTtl;
+
+    // last version id by pogues id, shared by concurrent calls and kept for versionCacheTtl
+    private final Cache<String, Mono<String>> latestVersionIds;
+
+    private static final String QUESTIONNAIRE_NOT_FOUND_ERROR = "questionnaire.notfound";
+
+    /**
+     * Constructor
+     *
+     * @param webClient webclient
+     * @param poguesUrl pogues url
+     * @param versionCacheTtl duration during which last version ids are kept
+     * @param versionCacheMaxSize max number of questionnaires whose last version id is kept
+     */
+    public ReactivePoguesServiceImpl(@Qualifier("poguesWebClient") WebClient webClient, @Value("${application.pogues.url}") String poguesUrl, I18nMessagePort messagePort,
+                                     @Value("${application.pogues.version-cache-ttl}") Duration versionCacheTtl,
+                                     @Value("${application.pogues.version-cache-max-size}") long versionCacheMaxSize) {
+        this.webClient = webClient;
+        this.poguesUrl = poguesUrl;
+        this.messageService = messagePort;
+        this.versionCacheTtl = versionCacheTtl;
+        this.latestVersionIds = Caffeine.newBuilder()
+                .expireAfterWrite(versionCacheTtl)
+                .maximumSize(versionCacheMaxSize)
+                .build();
+    }
+
+    @Override
+    public Mono<QuestionnaireModel> getQuestionnaireModel(@NonNull String poguesId) {
+        // raw json is kept so that it is sent as is to eno for each mode, without being serialized again
+        // questionnaire and its last version are independent calls, made at the same time
+        return Mono.zip(getRawJsonPogues(poguesId), getLatestVersion(poguesId))
+                .map(results -> {
+                    byte[] rawJsonPogues = results.getT1();
+                    JsonNode jsonPogues = PoguesJsonReader.readJsonPogues(poguesId, rawJsonPogues);
+                    PoguesDataSummary summary = getPoguesSummary(jsonPogues);
+                    String versionId = getPoguesVersionId(results.getT2());
+                    return new QuestionnaireModel(poguesId, versionId, summary.label(), summary.modes(), jsonPogues, rawJsonPogues);
+                });
+    }
+
+    @Override
+    public Mono<String> getLatestVersionId(@NonNull String poguesId) {
+        // errors and empty results are not kept, next call retries
+        return latestVersionIds.get(poguesId, id -> getLatestVersion(id)
+                .map(this::getPoguesVersionId)
+                .cache(versionId -> versionCacheTtl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    @Override
+    public Mono<String> refreshLatestVersionId(@NonNull String poguesId) {
+        latestVersionIds.invalidate(poguesId);
+        return getLatestVersionId(poguesId);
+    }
+
+    @Override
+    public Mono<Questionnaire> getQuestionnaire(@NonNull String poguesId) {
+        return getJsonPogues(poguesId)
+                .map(this::getPoguesSummary)
+                .map(summary -> new Questionnaire(poguesId, summary.label(), summary.modes()));
+    }
+
+    @Override
+    public Mono<JsonNode> getNomenclaturesByQuestionnaire(String poguesId) {
+        return getNomeclatureOfQuestionnaire(poguesId);
+    }
+
+    /**
+     * Retrieve summary details from JSON Pogues
+     *
+     * @param jsonPogues json from pogues
+     * @return questionnaire summary from pogues
+     */
+    private PoguesDataSummary getPoguesSummary(@NonNull JsonNode jsonPogues) {
+        List<Mode> modes = new ArrayList<>();
+        String label = "";
+        jsonPogues.get("TargetMode").forEach(node -> modes.add(Mode.valueOf(node.asString())));
+        JsonNode labelNode = jsonPogues.get("Label");
+        if (!labelNode.isEmpty()) {
+            label = labelNode.get(0).asString();
+        }
+        return new PoguesDataSummary(label, modes);
+    }
+
+    private String getPoguesVersionId(@NonNull JsonNode jsonVersion) {
+        String versionId = "";
+        JsonNode versionIdNode =  jsonVersion.get("id");
+        if (versionIdNode != null && !versionIdNode.isNull()) {
+            versionId = versionIdNode.asString();
+        }
+        return versionId;
+    }
+
+    private Mono<JsonNode> getLatestVersion(@NonNull String questionnaireId) {
+        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}/version/last", questionnaireId)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .bodyToMono(JsonNode.class)
+                .switchIfEmpty(Mono.error(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR, questionnaireId))));
+    }
+
+    /**
+     * Get Json Pogues
+     *
+     * @param questionnaireId pogues questionnaire Id
+     * @return the json from pogues
+     */
+    private Mono<JsonNode> getJsonPogues(@NonNull String questionnaireId) {
+        return getRawJsonPogues(questionnaireId)
+                .map(rawJsonPogues -> PoguesJsonReader.readJsonPogues(questionnaireId, rawJsonPogues));
+    }
+
+    /**
+     * Get Json Pogues as received from pogues
+     *
+     * @param questionnaireId pogues questionnaire Id
+     * @return the json from pogues (utf-8)
+     */
+    private Mono<byte[]> getRawJsonPogues(@NonNull String questionnaireId) {
+        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}?references=true", questionnaireId)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .bodyToMono(byte[].class)
+                .switchIfEmpty(Mono.error(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR, questionnaireId))));
+    }
+
+    private Mono<JsonNode> getNomeclatureOfQuestionnaire(@NonNull String questionnaireId) {
+        return webClient.get().uri(poguesUrl + "/api/persistence/questionnaire/{id}/nomenclatures", questionnaireId)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .bodyToMono(JsonNode.class)
+                .switchIfEmpty(Mono.error(() -> new PoguesJsonNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_ERROR))));
+    }
+}
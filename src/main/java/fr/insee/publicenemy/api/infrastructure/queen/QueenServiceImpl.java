@@ -4,290 +4,105 @@ import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
-import fr.insee.publicenemy.api.application.exceptions.ServiceException;
-import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
+import fr.insee.publicenemy.api.application.exceptions.InterrogationsCreationException;
 import fr.insee.publicenemy.api.application.ports.QueenServicePort;
-import fr.insee.publicenemy.api.configuration.MetadataProps;
-import fr.insee.publicenemy.api.infrastructure.queen.dto.*;
+import fr.insee.publicenemy.api.application.ports.ReactiveQueenServicePort;
+import fr.insee.publicenemy.api.configuration.rest.WebClientTokenInterceptor;
+import fr.insee.publicenemy.api.infrastructure.queen.dto.SimpleInterrogationDto;
 import fr.insee.publicenemy.api.infrastructure.queen.exceptions.CampaignNotFoundException;
-import fr.insee.publicenemy.api.infrastructure.queen.exceptions.InterrogationsNotFoundException;
 import jakarta.validation.constraints.NotNull;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 import tools.jackson.databind.JsonNode;
 
-import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Blocking access to queen, waiting for the calls of the reactive queen service.
+ * Identical reads are made once per flow (see {@link FlowMemo}), until data is changed in queen.
+ */
 @Service
-@Slf4j
 public class QueenServiceImpl implements QueenServicePort {
 
-    private final MetadataProps metadataProps;
-    private final WebClient webClient;
-    private final String queenUrl;
+    private final ReactiveQueenServicePort reactiveQueenService;
 
-    private final I18nMessagePort messageService;
-
-    private static final String INTERROGATION_PATH = "/api/interrogations/{id}";
-    private static final String INTERROGATION_NOT_FOUND_MSG = "queen.error.interrogation.not-found";
-    private static final String QUESTIONNAIRE_NOT_FOUND_MSG = "queen.error.questionnaire.not-found";
-
-    public QueenServiceImpl(I18nMessagePort messagePort, WebClient webClient, @Value("${application.queen.url}") String queenUrl,
-                            MetadataProps metadataProps) {
-        this.webClient = webClient;
-        this.queenUrl = queenUrl;
-        this.metadataProps = metadataProps;
-        this.messageService = messagePort;
+    public QueenServiceImpl(ReactiveQueenServicePort reactiveQueenService) {
+        this.reactiveQueenService = reactiveQueenService;
     }
 
     public void createQuestionnaireModel(String questionnaireModelId, @NotNull QuestionnaireModel questionnaireModel, @NotNull JsonLunatic jsonLunatic) {
-        QuestionnaireModelDto questionnaireModelDto = new QuestionnaireModelDto(questionnaireModelId, questionnaireModel.label(), new ArrayList<>(), jsonLunatic.jsonContent());
-
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/questionnaire-models")
-                .build()
-                .toUri();
-
-        webClient.post().uri(uri)
-                .body(BodyInserters.fromValue(questionnaireModelDto))
-                .retrieve()
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .toBodilessEntity()
-                .block();
+        write(reactiveQueenService.createQuestionnaireModel(questionnaireModelId, questionnaireModel, jsonLunatic));
     }
 
     @Override
     public boolean hasQuestionnaireModel(String questionnaireModelId) {
-
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/questionnaire/{id}/data")
-                .build(questionnaireModelId);
-
-        JsonNode result = webClient.get().uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.empty()
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> response.bodyToMono(String.class)
-                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
-                )
-                .bodyToMono(JsonNode.class)
-                .block();
-
-        return result != null && !result.isEmpty();
+        return FlowMemo.memoize("queen.has-questionnaire-model",
+                () -> Boolean.TRUE.equals(block(reactiveQueenService.hasQuestionnaireModel(questionnaireModelId))), questionnaireModelId);
     }
 
     public void createCampaign(@NotNull String campaignId, @NotNull Questionnaire questionnaire, QuestionnaireModel questionnaireModel) {
-        QuestionnaireMetadataDto metadata = QuestionnaireMetadataDto.createDefaultQuestionnaireMetadata(questionnaire, metadataProps.getMetadata());
-        CampaignDto campaign = new CampaignDto(campaignId, questionnaireModel.label(), metadata);
-
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/campaign")
-                .build()
-                .toUri();
-
-        webClient.post().uri(uri)
-                .body(BodyInserters.fromValue(campaign))
-                .retrieve()
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.campaign.su.create", campaignId)))
-                )
-                .toBodilessEntity()
-                .block();
+        write(reactiveQueenService.createCampaign(campaignId, questionnaire, questionnaireModel));
     }
 
     public void deleteCampaign(String campaignId) throws CampaignNotFoundException {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/campaign/{id}")
-                .queryParam("force", true)
-                .build(campaignId);
-
-        webClient.delete()
-                .uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.error(new CampaignNotFoundException(messageService.getMessage("queen.error.campaign.not-found", campaignId)))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.campaign.delete", campaignId)))
-                )
-                .toBodilessEntity()
-                .block();
+        write(reactiveQueenService.deleteCampaign(campaignId));
     }
 
+    /**
+     * Create interrogations in Queen. Payloads are serialized before any call, then posted concurrently
+     * (bounded by the configured concurrency). A failing interrogation does not stop the others.
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param interrogations       interrogations to create
+     * @throws InterrogationsCreationException when at least one interrogation could not be created, with the failure report
+     */
     public void createInterrogations(@NotNull String questionnaireModelId, @NotNull List<Interrogation> interrogations) {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/campaign/{id}/interrogation")
-                .build(questionnaireModelId);
-
-        List<InterrogationDto> interrogationDtos = interrogations.stream().map(InterrogationDto::fromModel).toList();
-        interrogationDtos.forEach(interrogationDto ->
-                webClient.post().uri(uri)
-                        .body(BodyInserters.fromValue(interrogationDto))
-                        .retrieve()
-                        .onStatus(
-                                HttpStatusCode::isError,
-                                response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                        messageService.getMessage("queen.error.campaign.su.create", interrogationDto.id(), questionnaireModelId)))
-                        )
-                        .toBodilessEntity()
-                        .block());
+        write(reactiveQueenService.createInterrogations(questionnaireModelId, interrogations));
     }
 
     public void createInterrogation(@NotNull String questionnaireModelId, @NotNull Interrogation interrogation) {
-
-        InterrogationDto interrogationDto = InterrogationDto.fromModel(interrogation);
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/campaign/{id}/interrogation")
-                .build(questionnaireModelId);
-
-        webClient.post().uri(uri)
-                .body(BodyInserters.fromValue(interrogationDto))
-                .retrieve()
-                .onStatus(HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), messageService.getMessage("queen.error.campaign.su.create", interrogation.id(), questionnaireModelId)))
-                )
-                .toBodilessEntity()
-                .block();
+        write(reactiveQueenService.createInterrogation(questionnaireModelId, interrogation));
     }
 
     @Override
     public JsonNode getQuestionnaireModel(String questionnaireModelId) {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/questionnaire/{id}/data")
-                .build(questionnaireModelId);
-
-        return webClient.get().uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_MSG, questionnaireModelId)))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.questionnaire", questionnaireModelId)))
-                )
-                .bodyToMono(new ParameterizedTypeReference<JsonNode>() {
-                })
-                .blockOptional()
-                .orElseThrow(() -> new InterrogationsNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_MSG, questionnaireModelId)));
+        return FlowMemo.memoize("queen.questionnaire-model",
+                () -> block(reactiveQueenService.getQuestionnaireModel(questionnaireModelId)), questionnaireModelId);
     }
 
     public List<SimpleInterrogationDto> getInterrogations(@NotNull String campaignId) {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path("/api/campaign/{id}/interrogations")
-                .build(campaignId);
-
-        return webClient.get().uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage("queen.error.campaign.su.not-found", campaignId)))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.campaign.su", campaignId)))
-                )
-                .bodyToMono(new ParameterizedTypeReference<List<SimpleInterrogationDto>>() {
-                })
-                .blockOptional()
-                .orElseThrow(() -> new InterrogationsNotFoundException(messageService.getMessage("queen.error.campaign.su.not-found", campaignId)));
+        return FlowMemo.memoize("queen.interrogations", () -> block(reactiveQueenService.getInterrogations(campaignId)), campaignId);
     }
 
     public SimpleInterrogationDto getInterrogation(@NotNull String interrogationId) {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path(INTERROGATION_PATH)
-                .build(interrogationId);
-
-        return webClient.get().uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage(INTERROGATION_NOT_FOUND_MSG, interrogationId)))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.interrogation", interrogationId)))
-                )
-                .bodyToMono(new ParameterizedTypeReference<SimpleInterrogationDto>() {
-                })
-                .blockOptional()
-                .orElseThrow(() -> new InterrogationsNotFoundException(messageService.getMessage(INTERROGATION_NOT_FOUND_MSG, interrogationId)));
+        return FlowMemo.memoize("queen.interrogation", () -> block(reactiveQueenService.getInterrogation(interrogationId)), interrogationId);
     }
 
     public void updateInterrogation(@NotNull Interrogation interrogation) {
-        InterrogationUpdateDto interrogationUpdateDto = InterrogationUpdateDto.fromModel(interrogation);
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path(INTERROGATION_PATH)
-                .build(interrogation.id());
-
-        webClient.put().uri(uri)
-                .body(BodyInserters.fromValue(interrogationUpdateDto))
-                .retrieve()
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("queen.error.campaign.su.update", interrogation.id(), interrogation.questionnaireModelId())))
-                )
-                .toBodilessEntity()
-                .block();
+        write(reactiveQueenService.updateInterrogation(interrogation));
     }
 
     @Override
     public void deteteInterrogation(Interrogation interrogation) {
-        URI uri = UriComponentsBuilder
-                .fromUriString(queenUrl)
-                .path(INTERROGATION_PATH)
-                .build(interrogation.id());
+        write(reactiveQueenService.deleteInterrogation(interrogation));
+    }
+
+    /**
+     * Wait for a queen call changing data, reads made earlier in the flow are forgotten even if the call fails
+     */
+    private void write(Mono<Void> call) {
+        try {
+            block(call);
+        } finally {
+            FlowMemo.invalidate("queen.");
+        }
+    }
 
-        webClient.delete()
-                .uri(uri)
-                .retrieve()
-                .onStatus(
-                        HttpStatus.NOT_FOUND::equals,
-                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage("interrogation.not-found", interrogation.id())))
-                )
-                .onStatus(
-                        HttpStatusCode::isError,
-                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
-                                messageService.getMessage("interrogation.error.delete", interrogation.id())))
-                )
-                .toBodilessEntity()
-                .block();
+    /**
+     * Wait for a queen call, authenticated with the security context of the current thread
+     */
+    private <T> T block(Mono<T> call) {
+        return call.contextWrite(WebClientTokenInterceptor::withCurrentSecurityContext).block();
     }
 }
@@ -0,0 +1,396 @@
+package fr.insee.publicenemy.api.infrastructure.queen;
+
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationCreationFailure;
+import fr.insee.publicenemy.api.application.exceptions.InterrogationsCreationException;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.ReactiveQueenServicePort;
+import fr.insee.publicenemy.api.configuration.MetadataProps;
+import fr.insee.publicenemy.api.configuration.rest.DownstreamResilienceFilter;
+import fr.insee.publicenemy.api.infrastructure.queen.dto.*;
+import fr.insee.publicenemy.api.infrastructure.queen.exceptions.CampaignNotFoundException;
+import fr.insee.publicenemy.api.infrastructure.queen.exceptions.InterrogationsNotFoundException;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ReactiveQueenServiceImpl implements ReactiveQueenServicePort {
+
+    private final MetadataProps metadataProps;
+    private final WebClient webClient;
+    private final String queenUrl;
+
+    private final I18nMessagePort messageService;
+    private final int interrogationConcurrency;
+    private final JsonMapper jsonMapper;
+
+    private static final String INTERROGATION_PATH = "/api/interrogations/{id}";
+    private static final String INTERROGATION_NOT_FOUND_MSG = "queen.error.interrogation.not-found";
+    private static final String QUESTIONNAIRE_NOT_FOUND_MSG = "queen.error.questionnaire.not-found";
+
+    public ReactiveQueenServiceImpl(I18nMessagePort messagePort, @Qualifier("queenWebClient") WebClient webClient, @Value("${application.queen.url}") String queenUrl,
+                                    MetadataProps metadataProps, @Value("${application.queen.interrogation-concurrency}") int interrogationConcurrency,
+                                    JsonMapper jsonMapper) {
+        this.webClient = webClient;
+        this.jsonMapper = jsonMapper;
+        this.interrogationConcurrency = interrogationConcurrency;
+        this.queenUrl = queenUrl;
+        this.metadataProps = metadataProps;
+        this.messageService = messagePort;
+    }
+
+    @Override
+    public Mono<Void> createQuestionnaireModel(String questionnaireModelId, @NotNull QuestionnaireModel questionnaireModel, @NotNull JsonLunatic jsonLunatic) {
+        return createQuestionnaireModelFromContent(questionnaireModelId, questionnaireModel,
+                Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(jsonLunatic.content()))));
+    }
+
+    @Override
+    public Mono<Void> createQuestionnaireModelFromContent(String questionnaireModelId, @NotNull QuestionnaireModel questionnaireModel, @NotNull Flux<DataBuffer> jsonLunaticContent) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/questionnaire-models")
+                .build()
+                .toUri();
+
+        // json lunatic is written as is in the value of the questionnaire model, without being parsed or copied
+        QuestionnaireModelEnvelope envelope = writeQuestionnaireModelEnvelope(questionnaireModelId, questionnaireModel);
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(envelope.beforeValue())),
+                jsonLunaticContent,
+                Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(envelope.afterValue())));
+
+        return webClient.post().uri(uri)
+                .attribute(DownstreamResilienceFilter.OPERATION_ATTRIBUTE, "create-questionnaire-model")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Write the questionnaire model with a json generator, around its value
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param questionnaireModel   questionnaire model
+     * @return json of the questionnaire model before and after its value
+     */
+    private QuestionnaireModelEnvelope writeQuestionnaireModelEnvelope(String questionnaireModelId, QuestionnaireModel questionnaireModel) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] beforeValue;
+        try (JsonGenerator generator = jsonMapper.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeStringProperty("idQuestionnaireModel", questionnaireModelId);
+            generator.writeStringProperty("label", questionnaireModel.label());
+            generator.writeName("requiredNomenclatureIds");
+            generator.writeStartArray();
+            generator.writeEndArray();
+            generator.writeName("value");
+            // empty raw value, json lunatic is sent in its place
+            generator.writeRawValue("");
+            generator.flush();
+            beforeValue = outputStream.toByteArray();
+            outputStream.reset();
+            generator.writeEndObject();
+        }
+        return new QuestionnaireModelEnvelope(beforeValue, outputStream.toByteArray());
+    }
+
+    private record QuestionnaireModelEnvelope(byte[] beforeValue, byte[] afterValue) {
+    }
+
+    @Override
+    public Mono<Boolean> hasQuestionnaireModel(String questionnaireModelId) {
+
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/questionnaire/{id}/data")
+                .build(questionnaireModelId);
+
+        return webClient.get().uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.empty()
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> response.bodyToMono(String.class)
+                                .flatMap(errorMessage -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()), errorMessage)))
+                )
+                .bodyToMono(JsonNode.class)
+                .map(result -> !result.isEmpty())
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<Void> createCampaign(@NotNull String campaignId, @NotNull Questionnaire questionnaire, QuestionnaireModel questionnaireModel) {
+        QuestionnaireMetadataDto metadata = QuestionnaireMetadataDto.createDefaultQuestionnaireMetadata(questionnaire, metadataProps.getMetadata());
+        CampaignDto campaign = new CampaignDto(campaignId, questionnaireModel.label(), metadata);
+
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/campaign")
+                .build()
+                .toUri();
+
+        return webClient.post().uri(uri)
+                .body(BodyInserters.fromValue(campaign))
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.su.create", campaignId)))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteCampaign(String campaignId) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/campaign/{id}")
+                .queryParam("force", true)
+                .build(campaignId);
+
+        return webClient.delete()
+                .uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.error(new CampaignNotFoundException(messageService.getMessage("queen.error.campaign.not-found", campaignId)))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.delete", campaignId)))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Create interrogations in Queen. Payloads are serialized before any call, then posted concurrently
+     * (bounded by the configured concurrency). A failing interrogation does not stop the others.
+     * Interrogations sharing the same id are rejected before any call.
+     *
+     * @param questionnaireModelId questionnaire model id
+     * @param interrogations       interrogations to create
+     * @return completion of the creations, in error with an {@link InterrogationsCreationException} containing the failure report
+     * when at least one interrogation could not be created
+     */
+    @Override
+    public Mono<Void> createInterrogations(@NotNull String questionnaireModelId, @NotNull List<Interrogation> interrogations) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/campaign/{id}/interrogation")
+                .build(questionnaireModelId);
+
+        return Mono.fromCallable(() -> {
+                    Map<String, byte[]> payloads = new LinkedHashMap<>();
+                    interrogations.forEach(interrogation ->
+                            payloads.put(interrogation.id(), jsonMapper.writeValueAsBytes(InterrogationDto.fromModel(interrogation))));
+                    return payloads;
+                })
+                .flatMapMany(payloads -> Flux.fromIterable(payloads.entrySet()))
+                .flatMap(payload -> postInterrogation(uri, questionnaireModelId, payload.getKey(), payload.getValue()), interrogationConcurrency)
+                .collectList()
+                .flatMap(failures -> {
+                    if (failures.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    failures.forEach(failure -> log.error(String.format("Interrogation %s not created: %s", failure.interrogationId(), failure.message())));
+                    return Mono.error(new InterrogationsCreationException(failures.getFirst().status(),
+                            messageService.getMessage("queen.error.campaign.su.bulk-create", failures.size(), interrogations.size(), questionnaireModelId),
+                            failures));
+                });
+    }
+
+    @Override
+    public Mono<Void> createInterrogation(@NotNull String questionnaireModelId, @NotNull Interrogation interrogation) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/campaign/{id}/interrogation")
+                .build(questionnaireModelId);
+
+        return webClient.post().uri(uri)
+                .body(BodyInserters.fromValue(InterrogationDto.fromModel(interrogation)))
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.su.create", interrogation.id(), questionnaireModelId)))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Post a serialized interrogation
+     *
+     * @return an empty mono when interrogation has been created, the failure report otherwise
+     */
+    private Mono<InterrogationCreationFailure> postInterrogation(URI uri, String questionnaireModelId, String interrogationId, byte[] payload) {
+        return webClient.post().uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.su.create", interrogationId, questionnaireModelId)))
+                )
+                .toBodilessEntity()
+                .then(Mono.<InterrogationCreationFailure>empty())
+                .onErrorResume(ex -> Mono.just(new InterrogationCreationFailure(interrogationId,
+                        ex instanceof ServiceException serviceException ? serviceException.getStatus() : HttpStatus.BAD_GATEWAY,
+                        ex.getMessage())));
+    }
+
+    @Override
+    public Mono<JsonNode> getQuestionnaireModel(String questionnaireModelId) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/questionnaire/{id}/data")
+                .build(questionnaireModelId);
+
+        return webClient.get().uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_MSG, questionnaireModelId)))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.questionnaire", questionnaireModelId)))
+                )
+                .bodyToMono(new ParameterizedTypeReference<JsonNode>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new InterrogationsNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_MSG, questionnaireModelId))));
+    }
+
+    @Override
+    public Mono<List<SimpleInterrogationDto>> getInterrogations(@NotNull String campaignId) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path("/api/campaign/{id}/interrogations")
+                .build(campaignId);
+
+        return webClient.get().uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage("queen.error.campaign.su.not-found", campaignId)))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.su", campaignId)))
+                )
+                .bodyToMono(new ParameterizedTypeReference<List<SimpleInterrogationDto>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new InterrogationsNotFoundException(messageService.getMessage("queen.error.campaign.su.not-found", campaignId))));
+    }
+
+    @Override
+    public Mono<SimpleInterrogationDto> getInterrogation(@NotNull String interrogationId) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path(INTERROGATION_PATH)
+                .build(interrogationId);
+
+        return webClient.get().uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage(INTERROGATION_NOT_FOUND_MSG, interrogationId)))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.interrogation", interrogationId)))
+                )
+                .bodyToMono(new ParameterizedTypeReference<SimpleInterrogationDto>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new InterrogationsNotFoundException(messageService.getMessage(INTERROGATION_NOT_FOUND_MSG, interrogationId))));
+    }
+
+    @Override
+    public Mono<Void> updateInterrogation(@NotNull Interrogation interrogation) {
+        InterrogationUpdateDto interrogationUpdateDto = InterrogationUpdateDto.fromModel(interrogation);
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path(INTERROGATION_PATH)
+                .build(interrogation.id());
+
+        return webClient.put().uri(uri)
+                .body(BodyInserters.fromValue(interrogationUpdateDto))
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("queen.error.campaign.su.update", interrogation.id(), interrogation.questionnaireModelId())))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteInterrogation(Interrogation interrogation) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(queenUrl)
+                .path(INTERROGATION_PATH)
+                .build(interrogation.id());
+
+        return webClient.delete()
+                .uri(uri)
+                .retrieve()
+                .onStatus(
+                        HttpStatus.NOT_FOUND::equals,
+                        response -> Mono.error(new InterrogationsNotFoundException(messageService.getMessage("interrogation.not-found", interrogation.id())))
+                )
+                .onStatus(
+                        HttpStatusCode::isError,
+                        response -> Mono.error(new ServiceException(HttpStatus.valueOf(response.statusCode().value()),
+                                messageService.getMessage("interrogation.error.delete", interrogation.id())))
+                )
+                .toBodilessEntity()
+                .then();
+    }
+}
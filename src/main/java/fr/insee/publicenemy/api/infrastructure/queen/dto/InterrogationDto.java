@@ -19,6 +19,7 @@ public record InterrogationDto(
      * @return a new survey unit dto from the survey unit model
      */
     public static InterrogationDto fromModel(Interrogation interrogation) {
-        return new InterrogationDto(interrogation.id(), String.format("su-%s",interrogation.id()), interrogation.questionnaireModelId(), interrogation.data(), interrogation.stateData());
+        return new InterrogationDto(interrogation.id(), String.format("su-%s",interrogation.id()), interrogation.questionnaireModelId(), interrogation.data(),
+                interrogation.stateData() == null ? null : interrogation.stateData().withDefaultDate());
     }
 }
@@ -15,6 +15,7 @@ public record InterrogationUpdateDto(
      * @return a new survey unit dto from the survey unit model
      */
     public static InterrogationUpdateDto fromModel(Interrogation interrogation) {
-        return new InterrogationUpdateDto(interrogation.data(), interrogation.stateData());
+        return new InterrogationUpdateDto(interrogation.data(),
+                interrogation.stateData() == null ? null : interrogation.stateData().withDefaultDate());
     }
 }
@@ -0,0 +1,26 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.InterrogationDataEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface InterrogationDataEntityRepository extends JpaRepository<InterrogationDataEntity, String> {
+
+    /**
+     * Lock interrogation data until the end of the current transaction, without reading its content
+     *
+     * @param hash interrogation data hash
+     * @return hash of the locked interrogation data, empty when it does not exist
+     */
+    @Query(value = "select hash from interrogation_data where hash = :hash for update", nativeQuery = true)
+    Optional<String> lockByHash(@Param("hash") String hash);
+
+    @Modifying
+    @Query("delete from InterrogationDataEntity d where d.hash = :hash " +
+            "and not exists (select q.id from QuestionnaireEntity q where q.interrogationDataHash = :hash)")
+    int deleteUnreferenced(@Param("hash") String hash);
+}
@@ -0,0 +1,117 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Liquibase change moving interrogation data of existing questionnaires to the interrogation data table.
+ * Large objects of the old column are not unlinked, they are removed with the column once the migration has been checked.
+ */
+@Slf4j
+public class InterrogationDataMigration implements CustomTaskChange {
+
+    private static final String SELECT_QUESTIONNAIRES_QUERY =
+            "select id, survey_unit_data from questionnaire where interrogation_data_hash is null and survey_unit_data is not null";
+    private static final String EXISTS_DATA_QUERY =
+            "select count(*) from interrogation_data where hash = ?";
+    private static final String INSERT_DATA_QUERY =
+            "insert into interrogation_data (hash, content, size, creation_date) values (?, ?, ?, ?)";
+    private static final String UPDATE_QUESTIONNAIRE_QUERY =
+            "update questionnaire set interrogation_data_hash = ? where id = ?";
+
+    private int nbMigratedQuestionnaires;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement selectStatement = connection.prepareStatement(SELECT_QUESTIONNAIRES_QUERY);
+             PreparedStatement existsStatement = connection.prepareStatement(EXISTS_DATA_QUERY);
+             PreparedStatement insertStatement = connection.prepareStatement(INSERT_DATA_QUERY);
+             PreparedStatement updateStatement = connection.prepareStatement(UPDATE_QUESTIONNAIRE_QUERY);
+             ResultSet questionnaires = selectStatement.executeQuery()) {
+            while (questionnaires.next()) {
+                long questionnaireId = questionnaires.getLong(1);
+                byte[] interrogationData = database instanceof PostgresDatabase
+                        ? readLargeObject(questionnaires, 2)
+                        : questionnaires.getBytes(2);
+                String hash = HashUtils.sha256Hex(interrogationData);
+                if (!exists(existsStatement, hash)) {
+                    insertStatement.setString(1, hash);
+                    insertStatement.setBytes(2, InterrogationDataRepository.compress(interrogationData));
+                    insertStatement.setLong(3, interrogationData.length);
+                    insertStatement.setTimestamp(4, Timestamp.from(Instant.now()));
+                    insertStatement.executeUpdate();
+                }
+                updateStatement.setString(1, hash);
+                updateStatement.setLong(2, questionnaireId);
+                updateStatement.executeUpdate();
+                nbMigratedQuestionnaires++;
+            }
+        } catch (SQLException ex) {
+            throw new CustomChangeException("Interrogation data migration failed", ex);
+        }
+        log.info(String.format("%s questionnaires: interrogation data migrated", nbMigratedQuestionnaires));
+    }
+
+    /**
+     * The column was mapped as a @Lob byte[]: on postgresql, it holds the oid of a large object, not the data itself
+     *
+     * @param resultSet result set positioned on a questionnaire
+     * @param column    index of the column holding the large object oid
+     * @return content of the large object
+     */
+    private byte[] readLargeObject(ResultSet resultSet, int column) throws SQLException {
+        Blob largeObject = resultSet.getBlob(column);
+        try (InputStream inputStream = largeObject.getBinaryStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException ex) {
+            throw new SQLException("Unable to read interrogation data large object", ex);
+        } finally {
+            largeObject.free();
+        }
+    }
+
+    private boolean exists(PreparedStatement existsStatement, String hash) throws SQLException {
+        existsStatement.setString(1, hash);
+        try (ResultSet result = existsStatement.executeQuery()) {
+            return result.next() && result.getLong(1) > 0;
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return String.format("%s questionnaires: interrogation data migrated", nbMigratedQuestionnaires);
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resource used
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
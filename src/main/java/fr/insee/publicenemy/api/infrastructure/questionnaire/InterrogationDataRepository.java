@@ -0,0 +1,217 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Interrogation data uploaded with questionnaires, stored gzip compressed and identified by the sha-256 hash of their content.
+ * Identical uploads are stored once and shared by questionnaires.
+ */
+@Repository
+@Transactional
+@Slf4j
+public class InterrogationDataRepository {
+
+    // compressed data is read by chunks of this size, never as a whole
+    static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final String INSERT_DATA_QUERY =
+            "insert into interrogation_data (hash, content, size, creation_date) values (?, ?, ?, ?)";
+    private static final String SELECT_CHUNK_QUERY =
+            "select substring(content from ? for ?) from interrogation_data where hash = ?";
+
+    private final InterrogationDataEntityRepository interrogationDataEntityRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate newTransaction;
+
+    /**
+     * Constructor
+     *
+     * @param interrogationDataEntityRepository interrogation data repository
+     * @param jdbcTemplate                      jdbc template used to insert and read interrogation data
+     * @param transactionManager                transaction manager used to insert interrogation data in its own transaction
+     */
+    public InterrogationDataRepository(InterrogationDataEntityRepository interrogationDataEntityRepository, JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager) {
+        this.interrogationDataEntityRepository = interrogationDataEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store interrogation data if not already stored. The stored data is locked until the end of the current transaction,
+     * so that it cannot be deleted as unreferenced before the questionnaire of this transaction references it.
+     *
+     * @param interrogationData interrogation data
+     * @return hash of the interrogation data
+     */
+    public String addInterrogationData(byte[] interrogationData) {
+        String hash = HashUtils.sha256Hex(interrogationData);
+        // data is identified by its hash: stored data never changes
+        while (interrogationDataEntityRepository.lockByHash(hash).isEmpty()) {
+            insertInterrogationData(hash, interrogationData);
+        }
+        return hash;
+    }
+
+    /**
+     * Insert interrogation data in its own transaction: on postgresql, a duplicate key would abort the current transaction
+     *
+     * @param hash              interrogation data hash
+     * @param interrogationData interrogation data
+     */
+    void insertInterrogationData(String hash, byte[] interrogationData) {
+        byte[] compressedData = compress(interrogationData);
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_DATA_QUERY,
+                    hash, compressedData, interrogationData.length, Timestamp.from(Instant.now())));
+            log.info(String.format("interrogation data %s stored: %s bytes compressed to %s bytes", hash, interrogationData.length, compressedData.length));
+        } catch (DuplicateKeyException ex) {
+            // the same data has been stored at the same time by another request
+            log.info(String.format("interrogation data %s already stored", hash));
+        }
+    }
+
+    /**
+     * @param hash interrogation data hash
+     * @return uncompressed interrogation data
+     */
+    @Transactional(readOnly = true)
+    public Optional<byte[]> getInterrogationData(String hash) {
+        return getInterrogationDataStream(hash)
+                .map(inputStream -> {
+                    try (inputStream) {
+                        return inputStream.readAllBytes();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * The stream reads chunks lazily, after this method has returned: it opens no transaction of its own.
+     * Callers must read it within their transaction, holding a lock on the questionnaire or the interrogation data,
+     * otherwise the data may be deleted between two chunks.
+     *
+     * @param hash interrogation data hash
+     * @return stream of the interrogation data, read by chunks and uncompressed as it is read
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<InputStream> getInterrogationDataStream(String hash) {
+        if (!interrogationDataEntityRepository.existsById(hash)) {
+            return Optional.empty();
+        }
+        return Optional.of(decompress(new ContentInputStream(hash)));
+    }
+
+    /**
+     * Delete interrogation data when no questionnaire uses it anymore. The data is locked first, so that data being added
+     * to a questionnaire by a running transaction is only checked once this transaction has ended.
+     *
+     * @param hash interrogation data hash
+     */
+    public void deleteUnreferencedInterrogationData(String hash) {
+        if (interrogationDataEntityRepository.lockByHash(hash).isPresent()
+                && interrogationDataEntityRepository.deleteUnreferenced(hash) > 0) {
+            log.info(String.format("interrogation data %s deleted", hash));
+        }
+    }
+
+    /**
+     * @param interrogationData interrogation data
+     * @return gzip compressed interrogation data
+     */
+    static byte[] compress(byte[] interrogationData) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, interrogationData.length / 4));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(interrogationData);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static InputStream decompress(InputStream compressedData) {
+        try {
+            return new GZIPInputStream(compressedData);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Compressed content of interrogation data, read from the database by chunks as it is consumed
+     */
+    private class ContentInputStream extends InputStream {
+        private final String hash;
+        private byte[] chunk = new byte[0];
+        private int chunkPosition;
+        private int contentPosition;
+        private boolean lastChunk;
+
+        private ContentInputStream(String hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] value = new byte[1];
+            return read(value, 0, 1) == -1 ? -1 : value[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (chunkPosition == chunk.length) {
+                if (lastChunk) {
+                    return -1;
+                }
+                readNextChunk();
+                if (chunk.length == 0) {
+                    return -1;
+                }
+            }
+            int readLength = Math.min(length, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, offset, readLength);
+            chunkPosition += readLength;
+            return readLength;
+        }
+
+        private void readNextChunk() throws IOException {
+            try {
+                // sql positions start at 1
+                byte[] nextChunk = jdbcTemplate.queryForObject(SELECT_CHUNK_QUERY, byte[].class, contentPosition + 1, CHUNK_SIZE, hash);
+                chunk = nextChunk == null ? new byte[0] : nextChunk;
+            } catch (EmptyResultDataAccessException ex) {
+                throw new IOException(String.format("interrogation data %s deleted while it was read", hash), ex);
+            }
+            chunkPosition = 0;
+            contentPosition += chunk.length;
+            lastChunk = chunk.length < CHUNK_SIZE;
+        }
+    }
+}
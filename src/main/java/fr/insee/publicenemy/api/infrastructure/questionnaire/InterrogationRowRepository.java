@@ -0,0 +1,77 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationRow;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationData.FormatType;
+import fr.insee.publicenemy.api.application.ports.InterrogationRowPort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+@Repository
+@Transactional
+public class InterrogationRowRepository implements InterrogationRowPort {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final int batchSize;
+
+    private static final String INSERT_ROW_QUERY =
+            "insert into interrogation_row (questionnaire_id, data_index, format, content) values (?, ?, ?, ?)";
+    private static final String DELETE_ROWS_QUERY =
+            "delete from interrogation_row where questionnaire_id = ?";
+    private static final String SELECT_ROW_QUERY =
+            "select format, content from interrogation_row where questionnaire_id = ? and data_index = ?";
+    private static final String SELECT_FIRST_ROW_QUERY =
+            "select data_index from interrogation_row where questionnaire_id = ? fetch first 1 rows only";
+
+    /**
+     * Constructor
+     *
+     * @param jdbcTemplate jdbc template used for batch inserts
+     * @param batchSize    number of rows inserted in a single jdbc batch
+     */
+    public InterrogationRowRepository(JdbcTemplate jdbcTemplate, @Value("${application.questionnaire.row-batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void saveInterrogationRows(Long questionnaireId, List<InterrogationRow> rows) {
+        jdbcTemplate.update(DELETE_ROWS_QUERY, questionnaireId);
+        List<Integer> dataIndexes = IntStream.range(0, rows.size()).boxed().toList();
+        jdbcTemplate.batchUpdate(INSERT_ROW_QUERY, dataIndexes, batchSize, (statement, dataIndex) -> {
+            InterrogationRow row = rows.get(dataIndex);
+            statement.setLong(1, questionnaireId);
+            statement.setInt(2, dataIndex);
+            statement.setString(3, row.format().name());
+            statement.setString(4, objectMapper.writeValueAsString(row.content()));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<InterrogationRow> getInterrogationRow(Long questionnaireId, int dataIndex) {
+        // single lookup on the primary key, whatever the size of the data file
+        return jdbcTemplate.query(SELECT_ROW_QUERY,
+                        (resultSet, rowNum) -> new InterrogationRow(
+                                FormatType.valueOf(resultSet.getString(1)),
+                                objectMapper.readTree(resultSet.getString(2))),
+                        questionnaireId, dataIndex)
+                .stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasInterrogationRows(Long questionnaireId) {
+        return !jdbcTemplate.queryForList(SELECT_FIRST_ROW_QUERY, Integer.class, questionnaireId).isEmpty();
+    }
+}
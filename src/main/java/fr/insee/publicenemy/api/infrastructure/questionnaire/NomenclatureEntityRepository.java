@@ -0,0 +1,7 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.NomenclatureEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NomenclatureEntityRepository extends JpaRepository<NomenclatureEntity, String> {
+}
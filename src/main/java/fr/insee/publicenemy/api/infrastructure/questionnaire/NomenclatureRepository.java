@@ -0,0 +1,61 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.ports.NomenclaturePort;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.NomenclatureEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@Transactional
+public class NomenclatureRepository implements NomenclaturePort {
+
+    // content is identified by its hash: a stored content never changes, nothing to do when it is already stored
+    private static final String INSERT_NOMENCLATURES_QUERY =
+            "insert into nomenclature (hash, content, creation_date) values (?, ?, ?) on conflict do nothing";
+    // h2 (tests) has no on conflict clause outside of its postgresql mode
+    private static final String H2_INSERT_NOMENCLATURES_QUERY =
+            "merge into nomenclature key (hash) values (?, ?, ?)";
+
+    private final NomenclatureEntityRepository nomenclatureEntityRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private String insertNomenclaturesQuery;
+
+    /**
+     * Constructor
+     *
+     * @param nomenclatureEntityRepository nomenclature repository
+     * @param jdbcTemplate                 jdbc template used to insert nomenclatures
+     */
+    public NomenclatureRepository(NomenclatureEntityRepository nomenclatureEntityRepository, JdbcTemplate jdbcTemplate) {
+        this.nomenclatureEntityRepository = nomenclatureEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addNomenclatures(String hash, String content) {
+        // a single statement, concurrent inserts of the same nomenclatures do not fail
+        jdbcTemplate.update(getInsertNomenclaturesQuery(), hash, content, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public Optional<String> getNomenclatures(String hash) {
+        return nomenclatureEntityRepository.findById(hash)
+                .map(NomenclatureEntity::getContent);
+    }
+
+    private String getInsertNomenclaturesQuery() {
+        if (insertNomenclaturesQuery == null) {
+            String databaseName = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            insertNomenclaturesQuery = "H2".equals(databaseName) ? H2_INSERT_NOMENCLATURES_QUERY : INSERT_NOMENCLATURES_QUERY;
+        }
+        return insertNomenclaturesQuery;
+    }
+}
@@ -2,7 +2,11 @@ package fr.insee.publicenemy.api.infrastructure.questionnaire;
 
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.PersonalizationMappingEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,5 +16,9 @@ public interface PersonalizationMappingEntityRepository extends JpaRepository<Pe
 
     Optional<List<PersonalizationMappingEntity>> findByQuestionnaireIdAndMode(Long questionnaireId, Mode mode);
     Optional<List<PersonalizationMappingEntity>> findByQuestionnaireId(Long questionnaireId);
-    Long deleteByQuestionnaireIdAndMode(Long questionnaireId, Mode mode);
+    List<PersonalizationMappingEntity> findByQuestionnaireIdAndModeAndDataIndexGreaterThanOrderByDataIndex(Long questionnaireId, Mode mode, int dataIndex, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PersonalizationMappingEntity m where m.questionnaireId = :questionnaireId and m.mode = :mode")
+    int deleteByQuestionnaireIdAndMode(@Param("questionnaireId") Long questionnaireId, @Param("mode") Mode mode);
 }
@@ -6,6 +6,9 @@ import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.PersonalizationPort;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.PersonalizationMappingEntity;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,18 +22,34 @@ public class PersonalizationMappingRepository implements PersonalizationPort {
 
     private final PersonalizationMappingEntityRepository mappingEntityRepository;
 
+    private final JdbcTemplate jdbcTemplate;
+
     private final I18nMessagePort messageService;
 
+    private final int batchSize;
+
     private static final String QUESTIONNAIRE_NOT_FOUND_KEY = "questionnaire.notfound";
 
+    private static final String INSERT_MAPPING_QUERY =
+            "insert into personalization_mapping (interrogation_id, questionnaire_id, mode, data_index, content_hash) values (?, ?, ?, ?, ?)";
+    private static final String UPDATE_MAPPING_QUERY =
+            "update personalization_mapping set data_index = ?, content_hash = ? where interrogation_id = ?";
+    private static final String DELETE_MAPPING_QUERY =
+            "delete from personalization_mapping where interrogation_id = ?";
+
     /**
      * Constructor
      *
      * @param mappingEntityRepository  repository
+     * @param jdbcTemplate jdbc template used for batch inserts
+     * @param batchSize number of mappings inserted in a single jdbc batch
      */
-    public PersonalizationMappingRepository(PersonalizationMappingEntityRepository mappingEntityRepository, I18nMessagePort messageService) {
+    public PersonalizationMappingRepository(PersonalizationMappingEntityRepository mappingEntityRepository, JdbcTemplate jdbcTemplate,
+                                            I18nMessagePort messageService, @Value("${application.personalization.batch-size}") int batchSize) {
         this.mappingEntityRepository = mappingEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
         this.messageService = messageService;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -47,6 +66,32 @@ public class PersonalizationMappingRepository implements PersonalizationPort {
         return entity.toModel();
     }
 
+    @Override
+    public void addPersonalizationMappings(List<PersonalizationMapping> mappings) {
+        jdbcTemplate.batchUpdate(INSERT_MAPPING_QUERY, mappings, batchSize, (statement, mapping) -> {
+            statement.setObject(1, UUID.fromString(mapping.interrogationId()));
+            statement.setLong(2, mapping.questionnaireId());
+            statement.setString(3, mapping.mode().name());
+            statement.setInt(4, mapping.dataIndex());
+            statement.setString(5, mapping.contentHash());
+        });
+    }
+
+    @Override
+    public void updatePersonalizationMappings(List<PersonalizationMapping> mappings) {
+        jdbcTemplate.batchUpdate(UPDATE_MAPPING_QUERY, mappings, batchSize, (statement, mapping) -> {
+            statement.setInt(1, mapping.dataIndex());
+            statement.setString(2, mapping.contentHash());
+            statement.setObject(3, UUID.fromString(mapping.interrogationId()));
+        });
+    }
+
+    @Override
+    public void deletePersonalizationMappings(List<PersonalizationMapping> mappings) {
+        jdbcTemplate.batchUpdate(DELETE_MAPPING_QUERY, mappings, batchSize,
+                (statement, mapping) -> statement.setObject(1, UUID.fromString(mapping.interrogationId())));
+    }
+
     @Override
     public List<PersonalizationMapping> getPersonalizationMappingsByQuestionnaireIdAndMode(Long questionnaireId, Mode mode) {
         List<PersonalizationMappingEntity> mappingEntities =  mappingEntityRepository.findByQuestionnaireIdAndMode(questionnaireId, mode)
@@ -61,9 +106,17 @@ public class PersonalizationMappingRepository implements PersonalizationPort {
         return mappingEntities.stream().map(PersonalizationMappingEntity::toModel).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonalizationMapping> getPersonalizationMappingsPage(Long questionnaireId, Mode mode, int afterDataIndex, int size) {
+        // keyset pagination: the page starts after the last data index, so no row is skipped or read twice
+        return mappingEntityRepository.findByQuestionnaireIdAndModeAndDataIndexGreaterThanOrderByDataIndex(questionnaireId, mode, afterDataIndex, Limit.of(size))
+                .stream().map(PersonalizationMappingEntity::toModel).toList();
+    }
+
     @Override
     public void deletePersonalizationMappingsByQuestionnaireIdAndMode(Long questionnaireId, Mode mode) {
-        Long nbDeleted = mappingEntityRepository.deleteByQuestionnaireIdAndMode(questionnaireId, mode);
+        int nbDeleted = mappingEntityRepository.deleteByQuestionnaireIdAndMode(questionnaireId, mode);
         log.info("Perso deleted for questionnaireId {}, and mode {} : {}", questionnaireId, mode, nbDeleted);
     }
 } 
@@ -1,10 +1,18 @@
 package fr.insee.publicenemy.api.infrastructure.questionnaire;
 
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.dto.QuestionnaireSummaryDto;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.QuestionnaireEntity;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +27,23 @@ public interface QuestionnaireEntityRepository extends JpaRepository<Questionnai
     @Query("select q from QuestionnaireEntity q join fetch q.modeEntities where q.poguesId=?1")
     Optional<QuestionnaireEntity> findByPoguesId(String poguesId);
 
+    @Query("select new fr.insee.publicenemy.api.infrastructure.questionnaire.dto.QuestionnaireSummaryDto(q.id, q.poguesId, q.versionId, q.label, q.context, q.personalizationState) " +
+            "from QuestionnaireEntity q where q.id < :cursor order by q.id desc")
+    List<QuestionnaireSummaryDto> findSummariesBefore(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("select new fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode(m.questionnaire.id, m.mode, m.synchronisationState) " +
+            "from questionnaire_mode m where m.questionnaire.id in :questionnaireIds")
+    List<QuestionnaireMode> findModesByQuestionnaireIds(@Param("questionnaireIds") Collection<Long> questionnaireIds);
+
     boolean existsByPoguesId(String poguesId);
 
     void deleteByPoguesId(String poguesId);
+
+    @Modifying
+    @Query("update questionnaire_mode m set m.synchronisationState = :state where m.questionnaire.id = :questionnaireId and m.mode = :mode")
+    int updateModeState(@Param("questionnaireId") Long questionnaireId, @Param("mode") Mode mode, @Param("state") @Nullable String state);
+
+    @Modifying
+    @Query("update QuestionnaireEntity q set q.nomenclaturesReference = :reference where q.id = :questionnaireId")
+    int updateNomenclaturesReference(@Param("questionnaireId") Long questionnaireId, @Param("reference") String reference);
 }
@@ -1,14 +1,21 @@
 package fr.insee.publicenemy.api.infrastructure.questionnaire;
 
+import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.dto.QuestionnaireSummaryDto;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.QuestionnaireEntity;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @Transactional
@@ -17,23 +24,51 @@ public class QuestionnaireRepository implements QuestionnairePort {
 
     private final QuestionnaireEntityRepository questionnaireEntityRepository;
 
+    private final InterrogationDataRepository interrogationDataRepository;
+
     private final I18nMessagePort messageService;
 
     private static final String QUESTIONNAIRE_NOT_FOUND_KEY = "questionnaire.notfound";
 
+    private static final String INTERROGATION_DATA_NOT_FOUND_KEY = "questionnaire.data.notfound";
+
     /**
      * Constructor
      *
      * @param questionnaireEntityRepository questionnaire repository
+     * @param interrogationDataRepository   interrogation data repository
      */
-    public QuestionnaireRepository(QuestionnaireEntityRepository questionnaireEntityRepository, I18nMessagePort messageService) {
+    public QuestionnaireRepository(QuestionnaireEntityRepository questionnaireEntityRepository, InterrogationDataRepository interrogationDataRepository,
+                                   I18nMessagePort messageService) {
         this.questionnaireEntityRepository = questionnaireEntityRepository;
+        this.interrogationDataRepository = interrogationDataRepository;
         this.messageService = messageService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Questionnaire> getQuestionnaires() {
-        return questionnaireEntityRepository.findAll().stream().map(QuestionnaireEntity::toModel).toList();
+        return getQuestionnaireSummaries(Long.MAX_VALUE, Limit.unlimited());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Questionnaire> getQuestionnairesPage(Long cursor, int size) {
+        return getQuestionnaireSummaries(cursor == null ? Long.MAX_VALUE : cursor, Limit.of(size));
+    }
+
+    private List<Questionnaire> getQuestionnaireSummaries(Long cursor, Limit limit) {
+        // two queries whatever the number of questionnaires: questionnaire columns without interrogation data, then their modes
+        List<QuestionnaireSummaryDto> summaries = questionnaireEntityRepository.findSummariesBefore(cursor, limit);
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<QuestionnaireMode>> modesByQuestionnaire = questionnaireEntityRepository
+                .findModesByQuestionnaireIds(summaries.stream().map(QuestionnaireSummaryDto::id).toList()).stream()
+                .collect(Collectors.groupingBy(QuestionnaireMode::getId));
+        return summaries.stream()
+                .map(summary -> summary.toModel(modesByQuestionnaire.getOrDefault(summary.id(), List.of())))
+                .toList();
     }
 
     @Override
@@ -59,19 +94,26 @@ public class QuestionnaireRepository implements QuestionnairePort {
     public byte[] getInterrogationData(Long questionnaireId) {
         QuestionnaireEntity questionnaireEntity = questionnaireEntityRepository.findById(questionnaireId)
                 .orElseThrow(() -> new RepositoryEntityNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_KEY, Long.toString(questionnaireId))));
-        return questionnaireEntity.getInterrogationData();
+        return getInterrogationData(questionnaireEntity);
     }
 
     @Override
     public byte[] getInterrogationData(String poguesId) {
         QuestionnaireEntity questionnaireEntity = questionnaireEntityRepository.findByPoguesId(poguesId)
                 .orElseThrow(() -> new RepositoryEntityNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_KEY, poguesId)));
-        return questionnaireEntity.getInterrogationData();
+        return getInterrogationData(questionnaireEntity);
+    }
+
+    private byte[] getInterrogationData(QuestionnaireEntity questionnaireEntity) {
+        String interrogationDataHash = questionnaireEntity.getInterrogationDataHash();
+        return (interrogationDataHash == null ? Optional.<byte[]>empty() : interrogationDataRepository.getInterrogationData(interrogationDataHash))
+                .orElseThrow(() -> new RepositoryEntityNotFoundException(messageService.getMessage(INTERROGATION_DATA_NOT_FOUND_KEY, questionnaireEntity.getPoguesId())));
     }
 
     @Override
     public Questionnaire addQuestionnaire(Questionnaire questionnaire) {
-        QuestionnaireEntity questionnaireEntity = QuestionnaireEntity.createEntity(questionnaire);
+        String interrogationDataHash = interrogationDataRepository.addInterrogationData(questionnaire.getInterrogationData());
+        QuestionnaireEntity questionnaireEntity = QuestionnaireEntity.createEntity(questionnaire, interrogationDataHash);
         questionnaireEntity = questionnaireEntityRepository.save(questionnaireEntity);
         // add interrogationData to model as it is not retrieved in DB for perf reasons
         return questionnaireEntity.toModel(questionnaire.getInterrogationData());
@@ -82,19 +124,44 @@ public class QuestionnaireRepository implements QuestionnairePort {
         QuestionnaireEntity questionnaireEntity = questionnaireEntityRepository.findById(questionnaire.getId())
                 .orElseThrow(() -> new RepositoryEntityNotFoundException(messageService.getMessage(QUESTIONNAIRE_NOT_FOUND_KEY, Long.toString(questionnaire.getId()))));
 
-        questionnaireEntity.update(questionnaire);
+        String previousInterrogationDataHash = questionnaireEntity.getInterrogationDataHash();
+        byte[] interrogationData = questionnaire.getInterrogationData();
+        String interrogationDataHash = interrogationData != null && interrogationData.length > 0
+                ? interrogationDataRepository.addInterrogationData(interrogationData)
+                : null;
+        questionnaireEntity.update(questionnaire, interrogationDataHash);
         questionnaireEntity = questionnaireEntityRepository.save(questionnaireEntity);
+        if (interrogationDataHash != null && !interrogationDataHash.equals(previousInterrogationDataHash)) {
+            deleteUnreferencedInterrogationData(previousInterrogationDataHash);
+        }
         return questionnaireEntity.toModel();
     }
 
     @Override
     public void deleteQuestionnaire(Long id) {
+        String interrogationDataHash = questionnaireEntityRepository.findById(id)
+                .map(QuestionnaireEntity::getInterrogationDataHash)
+                .orElse(null);
         questionnaireEntityRepository.deleteById(id);
+        deleteUnreferencedInterrogationData(interrogationDataHash);
     }
 
     @Override
     public void deleteQuestionnaire(String poguesId) {
+        String interrogationDataHash = questionnaireEntityRepository.findByPoguesId(poguesId)
+                .map(QuestionnaireEntity::getInterrogationDataHash)
+                .orElse(null);
         questionnaireEntityRepository.deleteByPoguesId(poguesId);
+        deleteUnreferencedInterrogationData(interrogationDataHash);
+    }
+
+    private void deleteUnreferencedInterrogationData(String interrogationDataHash) {
+        if (interrogationDataHash == null) {
+            return;
+        }
+        // interrogation data may be shared with other questionnaires
+        questionnaireEntityRepository.flush();
+        interrogationDataRepository.deleteUnreferencedInterrogationData(interrogationDataHash);
     }
 
     @Override
@@ -106,4 +173,14 @@ public class QuestionnaireRepository implements QuestionnairePort {
         questionnaireEntity = questionnaireEntityRepository.save(questionnaireEntity);
         return questionnaireEntity.toModel();
     }
+
+    @Override
+    public void updateQuestionnaireModeState(Long questionnaireId, Mode mode, String synchronisationState) {
+        questionnaireEntityRepository.updateModeState(questionnaireId, mode, synchronisationState);
+    }
+
+    @Override
+    public void updateNomenclaturesReference(Long questionnaireId, String nomenclaturesReference) {
+        questionnaireEntityRepository.updateNomenclaturesReference(questionnaireId, nomenclaturesReference);
+    }
 } 
@@ -0,0 +1,78 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.SynchronisationJobEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SynchronisationJobEntityRepository extends JpaRepository<SynchronisationJobEntity, Long> {
+
+    /**
+     * Lock pending jobs ready to be processed. Rows already locked by another worker are skipped, as well as jobs
+     * of questionnaires already being synchronized. At most one job is locked for each questionnaire: the oldest pending one.
+     *
+     * @param now     current date
+     * @param maxJobs max number of jobs to lock
+     * @return locked jobs
+     */
+    @Query(value = """
+            select j.* from sync_job j
+            where j.status = 'PENDING' and j.next_attempt_date <= :now
+            and not exists (select 1 from sync_job r where r.questionnaire_id = j.questionnaire_id and r.status = 'RUNNING')
+            and not exists (select 1 from sync_job p where p.questionnaire_id = j.questionnaire_id and p.status = 'PENDING' and p.id < j.id)
+            order by j.id
+            fetch first :maxJobs rows only
+            for update skip locked""", nativeQuery = true)
+    List<SynchronisationJobEntity> lockClaimableJobs(@Param("now") Instant now, @Param("maxJobs") int maxJobs);
+
+    /**
+     * Lock the job of a questionnaire in a given status until the end of the current transaction
+     *
+     * @param questionnaireId questionnaire id
+     * @param status          job status
+     * @return locked job
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SynchronisationJobEntity> findFirstByQuestionnaireIdAndStatus(Long questionnaireId, SynchronisationJobStatus status);
+
+    Optional<SynchronisationJobEntity> findFirstByQuestionnaireIdOrderByIdDesc(Long questionnaireId);
+
+    @Modifying
+    @Query("update SynchronisationJobEntity j set j.updatedDate = :now where j.id in :ids and j.status = :status")
+    int refreshJobs(@Param("ids") Collection<Long> ids, @Param("status") SynchronisationJobStatus status, @Param("now") Instant now);
+
+    /**
+     * Change the status of jobs not updated since a date, unless their questionnaire already has a job in the new status
+     */
+    @Modifying
+    @Query("""
+            update SynchronisationJobEntity j set j.status = :newStatus, j.updatedDate = :now
+            where j.status = :status and j.updatedDate < :updatedBefore
+            and not exists (select o.id from SynchronisationJobEntity o where o.questionnaireId = j.questionnaireId and o.status = :newStatus)""")
+    int updateStatusWhenNotUpdatedSince(@Param("status") SynchronisationJobStatus status, @Param("newStatus") SynchronisationJobStatus newStatus,
+                                        @Param("updatedBefore") Instant updatedBefore, @Param("now") Instant now);
+
+    /**
+     * Change the status of jobs not updated since a date, when their questionnaire already has a job in the other status
+     */
+    @Modifying
+    @Query("""
+            update SynchronisationJobEntity j set j.status = :newStatus, j.lastError = :error, j.updatedDate = :now
+            where j.status = :status and j.updatedDate < :updatedBefore
+            and exists (select o.id from SynchronisationJobEntity o where o.questionnaireId = j.questionnaireId and o.status = :otherStatus)""")
+    int updateStatusWhenNotUpdatedSinceAndOtherJob(@Param("status") SynchronisationJobStatus status, @Param("otherStatus") SynchronisationJobStatus otherStatus,
+                                                   @Param("newStatus") SynchronisationJobStatus newStatus, @Param("error") String error,
+                                                   @Param("updatedBefore") Instant updatedBefore, @Param("now") Instant now);
+
+    @Query("select j.status, count(j) from SynchronisationJobEntity j group by j.status")
+    List<Object[]> countByStatus();
+}
@@ -0,0 +1,205 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.SynchronisationJobPort;
+import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.SynchronisationJobEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+@Repository
+@Transactional
+@Slf4j
+public class SynchronisationJobRepository implements SynchronisationJobPort {
+
+    private final SynchronisationJobEntityRepository jobEntityRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final I18nMessagePort messageService;
+
+    private static final String JOB_NOT_FOUND_KEY = "synchronisation.job.notfound";
+
+    private static final String SUPERSEDED_JOB_ERROR = "Superseded by a pending job of the same questionnaire";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private static final String INSERT_PENDING_JOB_QUERY = """
+            insert into sync_job (questionnaire_id, type, status, questionnaire_model_updated, attempts, next_attempt_date, creation_date, updated_date)
+            values (?, ?, 'PENDING', ?, 0, ?, ?, ?)""";
+
+    /**
+     * Constructor
+     *
+     * @param jobEntityRepository synchronisation job repository
+     * @param jdbcTemplate        jdbc template used to insert pending jobs
+     * @param messageService      i18n messages
+     */
+    public SynchronisationJobRepository(SynchronisationJobEntityRepository jobEntityRepository, JdbcTemplate jdbcTemplate,
+                                        I18nMessagePort messageService) {
+        this.jobEntityRepository = jobEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageService = messageService;
+    }
+
+    /**
+     * A questionnaire has at most one pending job (unique index on pending jobs). When two jobs are added at the same time,
+     * the second insert conflicts with the first one and is merged into it once the first one is committed.
+     */
+    @Override
+    public SynchronisationJob addJob(Long questionnaireId, SynchronisationJobType type, boolean questionnaireModelUpdated) {
+        while (true) {
+            Optional<SynchronisationJobEntity> pendingJob = jobEntityRepository.findFirstByQuestionnaireIdAndStatus(questionnaireId, SynchronisationJobStatus.PENDING);
+            if (pendingJob.isPresent()) {
+                // the pending job has not started yet: it will synchronize the latest questionnaire data
+                SynchronisationJobEntity jobEntity = pendingJob.get();
+                jobEntity.setQuestionnaireModelUpdated(jobEntity.isQuestionnaireModelUpdated() || questionnaireModelUpdated);
+                jobEntity.setUpdatedDate(Instant.now());
+                return jobEntity.toModel();
+            }
+            Optional<Long> jobId = insertPendingJob(questionnaireId, type, questionnaireModelUpdated);
+            if (jobId.isPresent()) {
+                return jobEntityRepository.findById(jobId.get())
+                        .map(SynchronisationJobEntity::toModel)
+                        .orElseThrow();
+            }
+            log.info(String.format("%s: pending synchronisation job added concurrently, job merged into it", questionnaireId));
+        }
+    }
+
+    /**
+     * Insert a pending job behind a savepoint, so that a conflict with the pending job of another transaction
+     * does not abort the current transaction
+     *
+     * @return id of the inserted job, empty when the questionnaire already has a pending job
+     */
+    private Optional<Long> insertPendingJob(Long questionnaireId, SynchronisationJobType type, boolean questionnaireModelUpdated) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.execute((ConnectionCallback<Optional<Long>>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_PENDING_JOB_QUERY, new String[]{"id"})) {
+                statement.setLong(1, questionnaireId);
+                statement.setString(2, type.name());
+                statement.setBoolean(3, questionnaireModelUpdated);
+                statement.setTimestamp(4, now);
+                statement.setTimestamp(5, now);
+                statement.setTimestamp(6, now);
+                statement.executeUpdate();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    generatedKeys.next();
+                    Long jobId = generatedKeys.getLong(1);
+                    connection.releaseSavepoint(savepoint);
+                    return Optional.of(jobId);
+                }
+            } catch (SQLException ex) {
+                connection.rollback(savepoint);
+                if (UNIQUE_VIOLATION_SQL_STATE.equals(ex.getSQLState())) {
+                    return Optional.empty();
+                }
+                throw ex;
+            }
+        });
+    }
+
+    @Override
+    public List<SynchronisationJob> claimJobs(int maxJobs) {
+        Instant now = Instant.now();
+        return jobEntityRepository.lockClaimableJobs(now, maxJobs).stream()
+                .map(jobEntity -> {
+                    jobEntity.setStatus(SynchronisationJobStatus.RUNNING);
+                    jobEntity.setAttempts(jobEntity.getAttempts() + 1);
+                    jobEntity.setUpdatedDate(now);
+                    return jobEntity.toModel();
+                })
+                .toList();
+    }
+
+    @Override
+    public void refreshRunningJobs(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        jobEntityRepository.refreshJobs(jobIds, SynchronisationJobStatus.RUNNING, Instant.now());
+    }
+
+    @Override
+    public int releaseLostJobs(Instant notRefreshedSince) {
+        Instant now = Instant.now();
+        // the pending job of the questionnaire will synchronize it again
+        int supersededJobs = jobEntityRepository.updateStatusWhenNotUpdatedSinceAndOtherJob(SynchronisationJobStatus.RUNNING,
+                SynchronisationJobStatus.PENDING, SynchronisationJobStatus.FAILED, SUPERSEDED_JOB_ERROR, notRefreshedSince, now);
+        return supersededJobs + jobEntityRepository.updateStatusWhenNotUpdatedSince(SynchronisationJobStatus.RUNNING,
+                SynchronisationJobStatus.PENDING, notRefreshedSince, now);
+    }
+
+    @Override
+    public void completeJob(Long jobId) {
+        updateJob(jobId, SynchronisationJobStatus.DONE, null, null);
+    }
+
+    @Override
+    public void retryJob(Long jobId, Instant nextAttemptDate, String error) {
+        updateJob(jobId, SynchronisationJobStatus.PENDING, nextAttemptDate, error);
+    }
+
+    @Override
+    public void failJob(Long jobId, String error) {
+        updateJob(jobId, SynchronisationJobStatus.FAILED, null, error);
+    }
+
+    @Override
+    public SynchronisationJob getLastJob(Long questionnaireId) {
+        return jobEntityRepository.findFirstByQuestionnaireIdOrderByIdDesc(questionnaireId)
+                .map(SynchronisationJobEntity::toModel)
+                .orElseThrow(() -> new RepositoryEntityNotFoundException(messageService.getMessage(JOB_NOT_FOUND_KEY, questionnaireId.toString())));
+    }
+
+    @Override
+    public Map<SynchronisationJobStatus, Long> countJobsByStatus() {
+        Map<SynchronisationJobStatus, Long> counts = new EnumMap<>(SynchronisationJobStatus.class);
+        Arrays.stream(SynchronisationJobStatus.values()).forEach(status -> counts.put(status, 0L));
+        jobEntityRepository.countByStatus()
+                .forEach(row -> counts.put((SynchronisationJobStatus) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    private void updateJob(Long jobId, SynchronisationJobStatus status, Instant nextAttemptDate, String error) {
+        // the job is deleted with its questionnaire
+        jobEntityRepository.findById(jobId).ifPresent(jobEntity -> {
+            SynchronisationJobStatus newStatus = status;
+            String newError = error;
+            if (SynchronisationJobStatus.PENDING.equals(status)) {
+                // a questionnaire has at most one pending job: a job queued since this one was claimed will synchronize it again
+                Optional<SynchronisationJobEntity> pendingJob = jobEntityRepository
+                        .findFirstByQuestionnaireIdAndStatus(jobEntity.getQuestionnaireId(), SynchronisationJobStatus.PENDING)
+                        .filter(otherJob -> !otherJob.getId().equals(jobId));
+                if (pendingJob.isPresent()) {
+                    pendingJob.get().setQuestionnaireModelUpdated(pendingJob.get().isQuestionnaireModelUpdated() || jobEntity.isQuestionnaireModelUpdated());
+                    newStatus = SynchronisationJobStatus.FAILED;
+                    newError = error == null ? SUPERSEDED_JOB_ERROR : SUPERSEDED_JOB_ERROR + ": " + error;
+                }
+            }
+            jobEntity.setStatus(newStatus);
+            if (nextAttemptDate != null) {
+                jobEntity.setNextAttemptDate(nextAttemptDate);
+            }
+            jobEntity.setLastError(newError == null || newError.length() <= MAX_ERROR_LENGTH ? newError : newError.substring(0, MAX_ERROR_LENGTH));
+            jobEntity.setUpdatedDate(Instant.now());
+        });
+    }
+}
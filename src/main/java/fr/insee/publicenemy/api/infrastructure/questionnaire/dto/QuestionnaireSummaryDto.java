@@ -0,0 +1,31 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire.dto;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationState;
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode;
+
+import java.util.List;
+
+/**
+ * Questionnaire columns read when listing questionnaires, interrogation data is never read
+ *
+ * @param id                   questionnaire id
+ * @param poguesId             questionnaire pogues id
+ * @param versionId            questionnaire pogues version id
+ * @param label                questionnaire label
+ * @param context              insee context
+ * @param personalizationState personalization state
+ */
+public record QuestionnaireSummaryDto(Long id, String poguesId, String versionId, String label, Context context,
+                                      String personalizationState) {
+
+    /**
+     * @param questionnaireModes modes of the questionnaire
+     * @return application model of this questionnaire, without interrogation data
+     */
+    public Questionnaire toModel(List<QuestionnaireMode> questionnaireModes) {
+        return new Questionnaire(id, poguesId, versionId, label, context, questionnaireModes, null,
+                PersonalizationState.valueOf(personalizationState), false, null);
+    }
+}
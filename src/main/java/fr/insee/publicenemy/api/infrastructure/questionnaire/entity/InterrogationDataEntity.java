@@ -0,0 +1,44 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "interrogation_data")
+public class InterrogationDataEntity implements Serializable {
+    @Id
+    @Column(name = "hash", nullable = false)
+    private String hash;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "creation_date", nullable = false)
+    private Instant creationDate;
+
+    /**
+     * @param hash    hash of the uncompressed interrogation data
+     * @param content compressed interrogation data
+     * @param size    size of the uncompressed interrogation data
+     */
+    public InterrogationDataEntity(String hash, byte[] content, long size) {
+        this.hash = hash;
+        this.content = content;
+        this.size = size;
+        this.creationDate = Instant.now();
+    }
+}
@@ -0,0 +1,39 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "nomenclature")
+public class NomenclatureEntity implements Serializable {
+    @Id
+    @Column(name = "hash", nullable = false)
+    private String hash;
+
+    @Column(name = "content", nullable = false)
+    private String content;
+
+    @Column(name = "creation_date", nullable = false)
+    private Instant creationDate;
+
+    /**
+     * @param hash    hash of the content
+     * @param content nomenclatures (json)
+     */
+    public NomenclatureEntity(String hash, String content) {
+        this.hash = hash;
+        this.content = content;
+        this.creationDate = Instant.now();
+    }
+}
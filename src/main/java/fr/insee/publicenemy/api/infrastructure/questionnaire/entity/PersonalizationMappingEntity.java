@@ -23,13 +23,15 @@ public class PersonalizationMappingEntity implements Serializable {
     @Enumerated(EnumType.STRING)
     private Mode mode;
     private int dataIndex;
+    private String contentHash;
 
     public PersonalizationMapping toModel(){
         return new PersonalizationMapping(
                 this.getInterrogationId().toString(),
                 this.getQuestionnaireId(),
                 this.getMode(),
-                this.getDataIndex());
+                this.getDataIndex(),
+                this.getContentHash());
     }
 
     public static PersonalizationMappingEntity createEntity(@NonNull PersonalizationMapping mapping) {
@@ -37,7 +39,8 @@ public class PersonalizationMappingEntity implements Serializable {
                 UUID.fromString(mapping.interrogationId()),
                 mapping.questionnaireId(),
                 mapping.mode(),
-                mapping.dataIndex());
+                mapping.dataIndex(),
+                mapping.contentHash());
     }
 
     @Override
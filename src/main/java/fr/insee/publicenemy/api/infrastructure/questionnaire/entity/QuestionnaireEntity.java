@@ -45,15 +45,17 @@ public class QuestionnaireEntity implements Serializable {
     @Temporal(TemporalType.DATE)
     private Date updatedDate;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "survey_unit_data")
-    @NotNull
-    private byte[] interrogationData;
+    // interrogation data is stored apart, so that it is only read when asked for
+    @Column(name = "interrogation_data_hash")
+    private String interrogationDataHash;
 
     @Column(name = "state", nullable = false)
     private String personalizationState;
 
+    // nomenclatures are stored when the questionnaire is saved, listings only read their reference
+    @Column(name = "nomenclatures_reference")
+    private String nomenclaturesReference;
+
     /**
      * Constructor
      *
@@ -61,10 +63,11 @@ public class QuestionnaireEntity implements Serializable {
      * @param label              questionnaire label
      * @param context            insee context
      * @param questionnaireModes questionnaire modes
-     * @param interrogationData     csv interrogation data
+     * @param interrogationDataHash hash of the interrogation data
+     * @param nomenclaturesReference reference of the stored nomenclatures
      */
     public QuestionnaireEntity(String poguesId, String versionId, String label, Context context, List<QuestionnaireMode> questionnaireModes,
-                               @NotNull byte[] interrogationData, String personalizationState) {
+                               String interrogationDataHash, String personalizationState, String nomenclaturesReference) {
         Date date = Calendar.getInstance().getTime();
         this.poguesId = poguesId;
         this.versionId = versionId;
@@ -73,8 +76,9 @@ public class QuestionnaireEntity implements Serializable {
         this.modeEntities = QuestionnaireModeEntity.fromModel(this, questionnaireModes);
         this.creationDate = date;
         this.updatedDate = date;
-        this.interrogationData = interrogationData;
+        this.interrogationDataHash = interrogationDataHash;
         this.personalizationState = personalizationState;
+        this.nomenclaturesReference = nomenclaturesReference;
     }
 
     /**
@@ -84,7 +88,7 @@ public class QuestionnaireEntity implements Serializable {
         return new Questionnaire(getId(), getPoguesId(), getVersionId(), getLabel(),
                 getContext(), QuestionnaireModeEntity.toModel(modeEntities),
                 interrogationData,
-                PersonalizationState.valueOf(personalizationState), false);
+                PersonalizationState.valueOf(personalizationState), false, nomenclaturesReference);
     }
 
     /**
@@ -93,29 +97,31 @@ public class QuestionnaireEntity implements Serializable {
     public Questionnaire toModel() {
         return new Questionnaire(getId(), getPoguesId(), getVersionId(), getLabel(),
                 getContext(), QuestionnaireModeEntity.toModel(modeEntities), null,
-                PersonalizationState.valueOf(personalizationState), false);
+                PersonalizationState.valueOf(personalizationState), false, nomenclaturesReference);
     }
 
     /**
      * Permits to create the entity before saving it to persistence unit
      *
      * @param questionnaire application model of questionnaire
+     * @param interrogationDataHash hash of the stored interrogation data of the questionnaire
      * @return the entity representation of the questionnaire
      */
-    public static QuestionnaireEntity createEntity(@NonNull Questionnaire questionnaire) {
+    public static QuestionnaireEntity createEntity(@NonNull Questionnaire questionnaire, String interrogationDataHash) {
         return new QuestionnaireEntity(questionnaire.getPoguesId(), questionnaire.getVersionId(), questionnaire.getLabel(),
-                questionnaire.getContext(), questionnaire.getQuestionnaireModes(), questionnaire.getInterrogationData(), questionnaire.getPersonalizationState().name());
+                questionnaire.getContext(), questionnaire.getQuestionnaireModes(), interrogationDataHash, questionnaire.getPersonalizationState().name(),
+                questionnaire.getNomenclaturesReference());
     }
 
     /**
      * Update questionnaire entity from questionnaire
      *
      * @param questionnaire questionnaire to update
+     * @param interrogationDataHash hash of the stored new interrogation data, null when interrogation data is unchanged
      */
-    public void update(@NonNull Questionnaire questionnaire) {
-        byte[] questionnaireUnitData = questionnaire.getInterrogationData();
-        if (questionnaireUnitData != null && questionnaireUnitData.length > 0) {
-            setInterrogationData(questionnaireUnitData);
+    public void update(@NonNull Questionnaire questionnaire, String interrogationDataHash) {
+        if (interrogationDataHash != null) {
+            setInterrogationDataHash(interrogationDataHash);
         }
         setVersionId(questionnaire.getVersionId());
         setContext(questionnaire.getContext());
@@ -126,6 +132,7 @@ public class QuestionnaireEntity implements Serializable {
         // need to create a mutable list from the immutable one or jpa fails on merge lists
         setModeEntities(new ArrayList<>(qModeEntities));
         setPersonalizationState(questionnaire.getPersonalizationState().name());
+        setNomenclaturesReference(questionnaire.getNomenclaturesReference());
     }
 
     /**
@@ -170,15 +177,14 @@ public class QuestionnaireEntity implements Serializable {
                 && Objects.equals(modeEntities, that.modeEntities)
                 && Objects.equals(creationDate, that.creationDate)
                 && Objects.equals(updatedDate, that.updatedDate)
-                && Arrays.equals(interrogationData, that.interrogationData)
-                && Objects.equals(personalizationState, that.personalizationState);
+                && Objects.equals(interrogationDataHash, that.interrogationDataHash)
+                && Objects.equals(personalizationState, that.personalizationState)
+                && Objects.equals(nomenclaturesReference, that.nomenclaturesReference);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(id, poguesId, label, context, modeEntities, creationDate, updatedDate, personalizationState);
-        result = 31 * result + Arrays.hashCode(interrogationData);
-        return result;
+        return Objects.hash(id, poguesId, label, context, modeEntities, creationDate, updatedDate, interrogationDataHash, personalizationState, nomenclaturesReference);
     }
 
     @Override
@@ -192,8 +198,9 @@ public class QuestionnaireEntity implements Serializable {
                 ", modeEntities=" + modeEntities +
                 ", creationDate=" + creationDate +
                 ", updatedDate=" + updatedDate +
-                ", interrogationData=" + Arrays.toString(interrogationData) +
+                ", interrogationDataHash='" + interrogationDataHash + '\'' +
                 ", personalizationState='" + personalizationState + '\'' +
+                ", nomenclaturesReference='" + nomenclaturesReference + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,78 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire.entity;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sync_job")
+public class SynchronisationJobEntity implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "questionnaire_id", nullable = false)
+    private Long questionnaireId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private SynchronisationJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private SynchronisationJobStatus status;
+
+    @Column(name = "questionnaire_model_updated", nullable = false)
+    private boolean questionnaireModelUpdated;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "creation_date", nullable = false)
+    private Instant creationDate;
+
+    @Column(name = "updated_date", nullable = false)
+    private Instant updatedDate;
+
+    /**
+     * Constructor for a new pending job
+     *
+     * @param questionnaireId           questionnaire id
+     * @param type                      synchronisation type
+     * @param questionnaireModelUpdated true if the questionnaire model has changed since last synchronisation
+     */
+    public SynchronisationJobEntity(Long questionnaireId, SynchronisationJobType type, boolean questionnaireModelUpdated) {
+        Instant now = Instant.now();
+        this.questionnaireId = questionnaireId;
+        this.type = type;
+        this.status = SynchronisationJobStatus.PENDING;
+        this.questionnaireModelUpdated = questionnaireModelUpdated;
+        this.attempts = 0;
+        this.nextAttemptDate = now;
+        this.creationDate = now;
+        this.updatedDate = now;
+    }
+
+    /**
+     * @return application model of this job
+     */
+    public SynchronisationJob toModel() {
+        return new SynchronisationJob(id, questionnaireId, type, status, questionnaireModelUpdated, attempts,
+                nextAttemptDate, lastError, creationDate, updatedDate);
+    }
+}
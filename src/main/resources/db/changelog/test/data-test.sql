@@ -1,12 +1,19 @@
-insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, survey_unit_data,
+insert into interrogation_data (hash, content, size, creation_date)
+values ('d0b425e00e15a0d36b9b361f02bab63563aed6cb4665083905386c55d5b679fa', X'1F8B08000000000002034BCECF2B49CD2B310400CB31282C08000000', 8, CURRENT_TIMESTAMP());
+insert into interrogation_data (hash, content, size, creation_date)
+values ('dab741b6289e7dccc1ed42330cae1accc2b755ce8079c2cd5d4b5366c9f769a6', X'1F8B08000000000002034BCECF2B49CD2B310200716021B508000000', 8, CURRENT_TIMESTAMP());
+insert into interrogation_data (hash, content, size, creation_date)
+values ('3edb4af0a0f7c03b911f09f72820d409dd0c9d86d183cac8a35848a8fc30a756', X'1F8B08000000000002034BCECF2B49CD2B310600E75026C208000000', 8, CURRENT_TIMESTAMP());
+
+insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, interrogation_data_hash,
                            updated_date)
-values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 1', 'l8wwljbo', 'uuid', 'content1', CURRENT_TIMESTAMP());
-insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, survey_unit_data,
+values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 1', 'l8wwljbo', 'uuid', 'd0b425e00e15a0d36b9b361f02bab63563aed6cb4665083905386c55d5b679fa', CURRENT_TIMESTAMP());
+insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, interrogation_data_hash,
                            updated_date)
-values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 2', 'lqdfgdf', 'uuid2', 'content2', CURRENT_TIMESTAMP());
-insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, survey_unit_data,
+values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 2', 'lqdfgdf', 'uuid2', 'dab741b6289e7dccc1ed42330cae1accc2b755ce8079c2cd5d4b5366c9f769a6', CURRENT_TIMESTAMP());
+insert into questionnaire (context, creation_date, label, questionnaire_pogues_id, questionnaire_pogues_version_id, interrogation_data_hash,
                            updated_date)
-values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 3', 'a1z2e3456', 'uuid3', 'content3', CURRENT_TIMESTAMP());
+values ('HOUSEHOLD', CURRENT_TIMESTAMP(), 'questionnaire_label 3', 'a1z2e3456', 'uuid3', '3edb4af0a0f7c03b911f09f72820d409dd0c9d86d183cac8a35848a8fc30a756', CURRENT_TIMESTAMP());
 
 insert into questionnaire_mode (questionnaire_id, mode, state)
 values (1, 'CAWI', 'OK');
@@ -0,0 +1,47 @@
+package fr.insee.publicenemy.api.application.model.interrogation;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.IInterrogationDataAttributeValue;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationColumnPlan;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationDataAttributeValue;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationDataAttributeValueList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InterrogationColumnPlanTest {
+
+    private final InterrogationColumnPlan columnPlan = new InterrogationColumnPlan(
+            new String[]{"PRENOM_2", "NOM", "PRENOM_1", "AGE", "ADRESSE_1_1"});
+
+    @Test
+    void onGetAttributesReturnSimpleAttributesThenListAttributesInNameOrder() {
+        Map<String, IInterrogationDataAttributeValue> attributes = columnPlan.getAttributes(
+                new String[]{"Bob", "Doe", "Alice", "12", "Paris"});
+
+        assertEquals(List.of("AGE", "NOM", "ADRESSE_1", "PRENOM"), List.copyOf(attributes.keySet()));
+        assertEquals(new InterrogationDataAttributeValue<>("Doe"), attributes.get("NOM"));
+        assertEquals(new InterrogationDataAttributeValue<>("12"), attributes.get("AGE"));
+        assertEquals(List.of("Paris"), ((InterrogationDataAttributeValueList<?>) attributes.get("ADRESSE_1")).getValue());
+    }
+
+    @Test
+    void onGetAttributesReturnListValuesInNameOrder() {
+        Map<String, IInterrogationDataAttributeValue> attributes = columnPlan.getAttributes(
+                new String[]{"Bob", "Doe", "Alice", "12", null});
+
+        assertEquals(List.of("Alice", "Bob"), ((InterrogationDataAttributeValueList<?>) attributes.get("PRENOM")).getValue());
+    }
+
+    @Test
+    void onGetAttributesReuseSamePlanForEachLine() {
+        Map<String, IInterrogationDataAttributeValue> first = columnPlan.getAttributes(new String[]{"Bob", "Doe", "Alice", "12", null});
+        Map<String, IInterrogationDataAttributeValue> second = columnPlan.getAttributes(new String[]{"Carol", "Roe", "Dan", "40", null});
+
+        assertEquals(new InterrogationDataAttributeValue<>("Doe"), first.get("NOM"));
+        assertEquals(new InterrogationDataAttributeValue<>("Roe"), second.get("NOM"));
+        assertEquals(List.of("Dan", "Carol"), ((InterrogationDataAttributeValueList<?>) second.get("PRENOM")).getValue());
+    }
+}
@@ -0,0 +1,107 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationRow;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationData.FormatType;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.InterrogationCsvPort;
+import fr.insee.publicenemy.api.application.ports.InterrogationJsonPort;
+import fr.insee.publicenemy.api.application.ports.InterrogationRowPort;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterrogationRowUseCaseTest {
+
+    @Mock
+    private InterrogationRowPort interrogationRowPort;
+    @Mock
+    private QuestionnairePort questionnairePort;
+    @Mock
+    private InterrogationCsvPort interrogationCsvPort;
+    @Mock
+    private InterrogationJsonPort interrogationJsonPort;
+    @Mock
+    private I18nMessagePort messagePort;
+
+    private InterrogationRowUseCase interrogationRowUseCase;
+
+    private final PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, 1);
+
+    @BeforeEach
+    public void init() {
+        interrogationRowUseCase = new InterrogationRowUseCase(interrogationRowPort, questionnairePort, interrogationCsvPort,
+                interrogationJsonPort, messagePort);
+    }
+
+    @Test
+    void onSaveInterrogationRowsWhenCsvDataSaveCsvRows() {
+        byte[] data = "\"name\"\n\"value0\"\n\"value1\"".getBytes();
+        List<JsonNode> rows = List.of(row("value0"), row("value1"));
+        when(interrogationCsvPort.getInterrogationRows(data)).thenReturn(rows);
+
+        interrogationRowUseCase.saveInterrogationRows(11L, data);
+
+        verify(interrogationRowPort).saveInterrogationRows(11L, List.of(
+                new InterrogationRow(FormatType.CSV, rows.get(0)),
+                new InterrogationRow(FormatType.CSV, rows.get(1))));
+    }
+
+    @Test
+    void onGetInterrogationWhenRowStoredDoNotReadQuestionnaireData() {
+        InterrogationRow row = new InterrogationRow(FormatType.JSON, row("value1"));
+        Interrogation interrogation = new Interrogation(mapping.interrogationId(), mapping.getQuestionnaireModelId(), null, null);
+        when(interrogationRowPort.getInterrogationRow(11L, 1)).thenReturn(Optional.of(row));
+        when(interrogationJsonPort.getJsonInterrogation(mapping, row.content())).thenReturn(interrogation);
+
+        assertEquals(interrogation, interrogationRowUseCase.getInterrogation(mapping));
+        verify(questionnairePort, never()).getInterrogationData(anyLong());
+    }
+
+    @Test
+    void onGetInterrogationWhenRowsNotStoredSaveRowsFromQuestionnaireData() {
+        byte[] data = "\"name\"\n\"value0\"\n\"value1\"".getBytes();
+        List<JsonNode> rows = List.of(row("value0"), row("value1"));
+        Interrogation interrogation = new Interrogation(mapping.interrogationId(), mapping.getQuestionnaireModelId(), null, null);
+        when(interrogationRowPort.getInterrogationRow(11L, 1)).thenReturn(Optional.empty());
+        when(interrogationRowPort.hasInterrogationRows(11L)).thenReturn(false);
+        when(questionnairePort.getInterrogationData(11L)).thenReturn(data);
+        when(interrogationCsvPort.getInterrogationRows(data)).thenReturn(rows);
+        when(interrogationCsvPort.getCsvInterrogation(mapping, rows.get(1))).thenReturn(interrogation);
+
+        assertEquals(interrogation, interrogationRowUseCase.getInterrogation(mapping));
+        verify(interrogationRowPort).saveInterrogationRows(eq(11L), anyList());
+    }
+
+    @Test
+    void onGetInterrogationWhenRowsStoredAndNoRowAtIndexThrowsNotFound() {
+        when(interrogationRowPort.getInterrogationRow(11L, 1)).thenReturn(Optional.empty());
+        when(interrogationRowPort.hasInterrogationRows(11L)).thenReturn(true);
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> interrogationRowUseCase.getInterrogation(mapping));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(questionnairePort, never()).getInterrogationData(anyLong());
+    }
+
+    private JsonNode row(String value) {
+        return JsonNodeFactory.instance.objectNode().put("name", value);
+    }
+}
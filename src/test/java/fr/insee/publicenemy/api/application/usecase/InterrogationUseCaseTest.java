@@ -1,6 +1,9 @@
 package fr.insee.publicenemy.api.application.usecase;
 
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnairePersonalization;
 import fr.insee.publicenemy.api.application.domain.model.pogues.*;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
@@ -20,6 +23,7 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +43,9 @@ class InterrogationUseCaseTest {
     @Mock
     private InterrogationJsonService interrogationJsonService;
 
+    @Mock
+    private PersonalizationUseCase personalizationUseCase;
+
     @Mock
     private I18nMessagePort messageService;
 
@@ -50,7 +57,23 @@ class InterrogationUseCaseTest {
 
     @BeforeEach
     void init() {
-        usecase = new InterrogationUseCase(interrogationCsvService, interrogationJsonService, poguesUseCase, questionnaireUseCase, messageService, 10);
+        usecase = new InterrogationUseCase(interrogationCsvService, interrogationJsonService, poguesUseCase, questionnaireUseCase,
+                personalizationUseCase, messageService, 10);
+    }
+
+    @Test
+    void onGetQuestionnairePersonalizationReturnMappingsAndNomenclaturesReference() {
+        String poguesId = "l8wwljbo";
+        List<PersonalizationMapping> mappings = List.of(new PersonalizationMapping("interrogation1", 1L, Mode.CAWI, 0));
+        when(questionnaireUseCase.getQuestionnaire(poguesId)).thenReturn(questionnaire);
+        when(questionnaire.getId()).thenReturn(1L);
+        when(personalizationUseCase.getPersonalizationByQuestionnaireId(1L)).thenReturn(mappings);
+        when(questionnaireUseCase.getNomenclaturesReference(questionnaire)).thenReturn("reference");
+
+        QuestionnairePersonalization personalization = usecase.getQuestionnairePersonalization(poguesId);
+
+        assertEquals(new QuestionnairePersonalization(questionnaire, mappings, "reference"), personalization);
+        verify(poguesUseCase, never()).getNomenclatureOfQuestionnaire(any());
     }
 
     @Test
@@ -66,7 +89,7 @@ class InterrogationUseCaseTest {
         String poguesId = "l8wwljbo";
         byte[] surveyUnitDataByte = "data".getBytes();
 
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(new ArrayList<>());
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(Stream.empty());
         when(poguesUseCase.getQuestionnaireVariables(poguesId)).thenReturn(new ArrayList<>());
 
         InterrogationsGlobalValidationException ex = assertThrows(InterrogationsGlobalValidationException.class, () -> usecase.validateInterrogations(surveyUnitDataByte, poguesId));
@@ -83,7 +106,7 @@ class InterrogationUseCaseTest {
         for (int i = 0; i < 50; i++) {
             interrogations.add(new Interrogation(i + "", "q1", data, InterrogationStateData.createInitialStateData()));
         }
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations);
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations.stream());
         when(poguesUseCase.getQuestionnaireVariables(poguesId)).thenReturn(new ArrayList<>());
 
         InterrogationsGlobalValidationException ex = assertThrows(InterrogationsGlobalValidationException.class, () -> usecase.validateInterrogations(surveyUnitDataByte, poguesId));
@@ -103,7 +126,7 @@ class InterrogationUseCaseTest {
 
         interrogations.add(new Interrogation("1", "q1", data, InterrogationStateData.createInitialStateData()));
 
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations);
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations.stream());
 
         List<VariableType> variablesTypes = new ArrayList<>();
         variablesTypes.add(new VariableType(VariableTypeEnum.EXTERNAL, "name", null, new BooleanDatatypeType()));
@@ -131,7 +154,7 @@ class InterrogationUseCaseTest {
         List<VariableType> variablesTypes = new ArrayList<>();
         variablesTypes.add(new VariableType(VariableTypeEnum.EXTERNAL, "isCorrect", null, new BooleanDatatypeType()));
         when(poguesUseCase.getQuestionnaireVariables(poguesId)).thenReturn(variablesTypes);
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations);
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations.stream());
 
         assertThrows(InterrogationsSpecificValidationException.class, () -> usecase.validateInterrogations(surveyUnitDataByte, poguesId));
     }
@@ -153,7 +176,7 @@ class InterrogationUseCaseTest {
         List<VariableType> variablesTypes = new ArrayList<>();
         variablesTypes.add(new VariableType(VariableTypeEnum.EXTERNAL, "isCorrect", null, new BooleanDatatypeType()));
         when(poguesUseCase.getQuestionnaireVariables(poguesId)).thenReturn(variablesTypes);
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations);
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations.stream());
 
         List<ValidationWarningMessage> messages = usecase.validateInterrogations(surveyUnitDataByte, poguesId);
 
@@ -180,7 +203,7 @@ class InterrogationUseCaseTest {
         List<VariableType> variablesTypes = new ArrayList<>();
         variablesTypes.add(new VariableType(VariableTypeEnum.EXTERNAL, "isCorrect", null, new BooleanDatatypeType()));
         when(poguesUseCase.getQuestionnaireVariables(poguesId)).thenReturn(variablesTypes);
-        when(interrogationCsvService.initInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations);
+        when(interrogationCsvService.streamInterrogations(surveyUnitDataByte, null)).thenReturn(interrogations.stream());
 
         List<ValidationWarningMessage> messages = usecase.validateInterrogations(surveyUnitDataByte, questionnaireId);
 
@@ -0,0 +1,57 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import fr.insee.publicenemy.api.application.ports.NomenclaturePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NomenclatureUseCaseTest {
+
+    @Mock
+    private NomenclaturePort nomenclaturePort;
+
+    @Mock
+    private I18nMessagePort messageService;
+
+    private NomenclatureUseCase nomenclatureUseCase;
+
+    private final JsonNode nomenclatures = JsonMapper.builder().build().readTree("{\"L_COMMUNE\":[]}");
+
+    @BeforeEach
+    void init() {
+        nomenclatureUseCase = new NomenclatureUseCase(nomenclaturePort, messageService);
+    }
+
+    @Test
+    void onStoreNomenclaturesStoreThemByContentHash() {
+        String reference = nomenclatureUseCase.storeNomenclatures(nomenclatures);
+
+        assertEquals(64, reference.length());
+        assertEquals(reference, nomenclatureUseCase.storeNomenclatures(JsonMapper.builder().build().readTree("{\"L_COMMUNE\":[]}")));
+        verify(nomenclaturePort, times(2)).addNomenclatures(reference, nomenclatures.toString());
+    }
+
+    @Test
+    void onStoreNomenclaturesWhenNoNomenclaturesReturnNull() {
+        assertNull(nomenclatureUseCase.storeNomenclatures(null));
+        verify(nomenclaturePort, never()).addNomenclatures(anyString(), anyString());
+    }
+
+    @Test
+    void onStoreNomenclaturesWhenStoreFailsThrowsException() {
+        doThrow(new DataIntegrityViolationException("database error")).when(nomenclaturePort).addNomenclatures(anyString(), anyString());
+
+        assertThrows(DataIntegrityViolationException.class, () -> nomenclatureUseCase.storeNomenclatures(nomenclatures));
+    }
+}
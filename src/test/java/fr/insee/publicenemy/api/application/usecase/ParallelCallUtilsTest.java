@@ -0,0 +1,81 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCallUtilsTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void onCallInParallelRunCallsAtTheSameTime() {
+        // each call waits for the other one: calls made one after another would time out
+        CountDownLatch latch = new CountDownLatch(2);
+
+        String result = ParallelCallUtils.callInParallel(
+                () -> awaitOther(latch, "questionnaire"),
+                () -> awaitOther(latch, 2),
+                (questionnaire, version) -> questionnaire + version);
+
+        assertEquals("questionnaire2", result);
+    }
+
+    @Test
+    void onCallInParallelWhenCallReturnsNullCombineNull() {
+        List<String> results = ParallelCallUtils.callInParallel(
+                () -> "questionnaire",
+                () -> (String) null,
+                Arrays::asList);
+
+        assertEquals("questionnaire", results.get(0));
+        assertNull(results.get(1));
+    }
+
+    @Test
+    void onCallInParallelWhenCallFailsThrowsException() {
+        assertThrows(ServiceException.class, () -> ParallelCallUtils.callInParallel(
+                () -> "questionnaire",
+                () -> {
+                    throw new ServiceException(HttpStatus.NOT_FOUND, "not found");
+                },
+                (questionnaire, version) -> questionnaire));
+    }
+
+    @Test
+    void onCallInParallelUseSecurityContextOfCurrentThread() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new TestingAuthenticationToken("user", "password"));
+        SecurityContextHolder.setContext(securityContext);
+
+        List<String> results = ParallelCallUtils.callInParallel(
+                () -> SecurityContextHolder.getContext().getAuthentication().getName(),
+                () -> Thread.currentThread().getName(),
+                List::of);
+
+        assertEquals("user", results.get(0));
+        assertNotEquals(Thread.currentThread().getName(), results.get(1));
+    }
+
+    private <T> T awaitOther(CountDownLatch latch, T result) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("calls were not made at the same time");
+        }
+        return result;
+    }
+}
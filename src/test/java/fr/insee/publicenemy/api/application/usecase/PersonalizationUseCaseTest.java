@@ -0,0 +1,83 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationPage;
+import fr.insee.publicenemy.api.application.ports.PersonalizationPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PersonalizationUseCaseTest {
+
+    @Mock
+    private PersonalizationPort personalizationPort;
+
+    private PersonalizationUseCase personalizationUseCase;
+
+    @BeforeEach
+    public void init() {
+        personalizationUseCase = new PersonalizationUseCase(personalizationPort, 3, 2);
+    }
+
+    @Test
+    void onGetPersonalizationPageWhenMoreMappingsReturnNextCursor() {
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, 4, 3)).thenReturn(createMappings(5, 3));
+
+        PersonalizationPage page = personalizationUseCase.getPersonalizationPage(11L, Mode.CAPI, 4, 2);
+
+        assertEquals(createMappings(5, 2), page.mappings());
+        assertEquals(6, page.nextCursor());
+    }
+
+    @Test
+    void onGetPersonalizationPageWhenLastMappingsReturnNoCursor() {
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, -1, 4)).thenReturn(createMappings(0, 3));
+
+        // page size is limited to the max page size
+        PersonalizationPage page = personalizationUseCase.getPersonalizationPage(11L, Mode.CAPI, null, 50);
+
+        assertEquals(createMappings(0, 3), page.mappings());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void onStreamPersonalizationConsumeAllPagesInOrder() {
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, -1, 2)).thenReturn(createMappings(0, 2));
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, 1, 2)).thenReturn(createMappings(2, 2));
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, 3, 2)).thenReturn(createMappings(4, 1));
+
+        List<PersonalizationMapping> streamedMappings = new ArrayList<>();
+        personalizationUseCase.streamPersonalization(11L, Mode.CAPI, streamedMappings::add);
+
+        assertEquals(createMappings(0, 5), streamedMappings);
+    }
+
+    @Test
+    void onStreamPersonalizationWhenLastPageFullReadOneMorePage() {
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, -1, 2)).thenReturn(createMappings(0, 2));
+        when(personalizationPort.getPersonalizationMappingsPage(11L, Mode.CAPI, 1, 2)).thenReturn(List.of());
+
+        List<PersonalizationMapping> streamedMappings = new ArrayList<>();
+        personalizationUseCase.streamPersonalization(11L, Mode.CAPI, streamedMappings::add);
+
+        assertEquals(createMappings(0, 2), streamedMappings);
+    }
+
+    private List<PersonalizationMapping> createMappings(int firstDataIndex, int size) {
+        return IntStream.range(firstDataIndex, firstDataIndex + size)
+                .mapToObj(index -> new PersonalizationMapping("11-CAPI-" + index, 11L, Mode.CAPI, index))
+                .toList();
+    }
+}
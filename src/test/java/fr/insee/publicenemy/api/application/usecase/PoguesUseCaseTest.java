@@ -0,0 +1,231 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
+import fr.insee.publicenemy.api.application.domain.model.pogues.VariableTypeEnum;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.EnoServicePort;
+import fr.insee.publicenemy.api.application.ports.JsonLunaticCachePort;
+import fr.insee.publicenemy.api.application.ports.PoguesServicePort;
+import fr.insee.publicenemy.api.application.ports.ReactiveEnoServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PoguesUseCaseTest {
+
+    @Mock
+    private PoguesServicePort poguesServicePort;
+    @Mock
+    private EnoServicePort enoService;
+    @Mock
+    private ReactiveEnoServicePort reactiveEnoService;
+    @Mock
+    private JsonLunaticCachePort jsonLunaticCache;
+
+    private PoguesUseCase poguesUseCase;
+
+    private final String poguesId = "l8wwljbo";
+
+    private final List<VariableType> variables = List.of(new VariableType(VariableTypeEnum.EXTERNAL, "NAME", null, null));
+
+    @BeforeEach
+    void init() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PoguesUseCase.MODELS_CACHE,
+                PoguesUseCase.VARIABLES_CACHE, PoguesUseCase.NOMENCLATURES_CACHE);
+        poguesUseCase = new PoguesUseCase(poguesServicePort, enoService, reactiveEnoService, jsonLunaticCache,
+                Runnable::run, false, cacheManager);
+    }
+
+    @Test
+    void onGetQuestionnaireVariablesWhenVersionUnchangedReturnCachedVariables() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1");
+        when(poguesServicePort.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        when(poguesServicePort.getQuestionnaireVariables(questionnaireModel)).thenReturn(variables);
+
+        poguesUseCase.getQuestionnaireVariables(poguesId);
+        List<VariableType> cachedVariables = poguesUseCase.getQuestionnaireVariables(poguesId);
+
+        assertEquals(variables, cachedVariables);
+        verify(poguesServicePort, times(1)).getQuestionnaireModel(poguesId);
+        verify(poguesServicePort, times(1)).getQuestionnaireVariables(questionnaireModel);
+    }
+
+    @Test
+    void onGetQuestionnaireVariablesThenQuestionnaireModelIsRetrievedOnce() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1");
+        when(poguesServicePort.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        when(poguesServicePort.getQuestionnaireVariables(questionnaireModel)).thenReturn(variables);
+
+        poguesUseCase.getQuestionnaireVariables(poguesId);
+
+        assertEquals(questionnaireModel, poguesUseCase.getQuestionnaireModel(poguesId));
+        verify(poguesServicePort, times(1)).getQuestionnaireModel(poguesId);
+    }
+
+    @Test
+    void onGetQuestionnaireVariablesWhenVersionChangedRetrieveVariablesAgain() {
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1", "version-2");
+        when(poguesServicePort.getQuestionnaireModel(poguesId))
+                .thenReturn(createQuestionnaireModel("version-1"), createQuestionnaireModel("version-2"));
+        when(poguesServicePort.getQuestionnaireVariables(any())).thenReturn(variables);
+
+        poguesUseCase.getQuestionnaireVariables(poguesId);
+        poguesUseCase.getQuestionnaireVariables(poguesId);
+
+        verify(poguesServicePort, times(2)).getQuestionnaireModel(poguesId);
+        verify(poguesServicePort, times(2)).getQuestionnaireVariables(any());
+    }
+
+    @Test
+    void onGetQuestionnaireVariablesWhenPoguesFailsThrowsExceptionAndDoNotCache() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1");
+        when(poguesServicePort.getQuestionnaireModel(poguesId))
+                .thenThrow(new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, "pogues error"))
+                .thenReturn(questionnaireModel);
+        when(poguesServicePort.getQuestionnaireVariables(questionnaireModel)).thenReturn(variables);
+
+        assertThrows(ServiceException.class, () -> poguesUseCase.getQuestionnaireVariables(poguesId));
+        assertEquals(variables, poguesUseCase.getQuestionnaireVariables(poguesId));
+    }
+
+    @Test
+    void onPregenerateJsonLunaticsWhenDisabledDoNothing() {
+        Executor executor = mock(Executor.class);
+        poguesUseCase = new PoguesUseCase(poguesServicePort, enoService, reactiveEnoService, jsonLunaticCache,
+                executor, false, new CaffeineCacheManager());
+
+        poguesUseCase.pregenerateJsonLunatics(poguesId, Context.BUSINESS);
+
+        verifyNoInteractions(executor, poguesServicePort, enoService);
+    }
+
+    @Test
+    void onGetJsonLunaticWhenPregenerationNotStartedWaitForItAndCallEnoOnce() throws InterruptedException {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        JsonLunatic jsonLunatic = new JsonLunatic("{}");
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1");
+        when(poguesServicePort.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        List<Thread> enoCallers = new CopyOnWriteArrayList<>();
+        when(enoService.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI)).thenAnswer(invocation -> {
+            enoCallers.add(Thread.currentThread());
+            return jsonLunatic;
+        });
+        mockJsonLunaticCache();
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        poguesUseCase = new PoguesUseCase(poguesServicePort, enoService, reactiveEnoService, jsonLunaticCache,
+                tasks::add, true, new CaffeineCacheManager());
+
+        poguesUseCase.pregenerateJsonLunatics(poguesId, Context.BUSINESS);
+        // synchronisation starts before the pre-generation task is run
+        AtomicReference<JsonLunatic> result = new AtomicReference<>();
+        Thread synchronisation = startWaitingThread(() -> result.set(poguesUseCase.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI)));
+        runTasks(tasks);
+        synchronisation.join(5000);
+
+        assertEquals(jsonLunatic, result.get());
+        // eno is only called by the pre-generation
+        assertEquals(List.of(Thread.currentThread()), enoCallers);
+    }
+
+    @Test
+    void onGetJsonLunaticWhenPregenerationFailsGenerateJsonLunaticAgain() throws InterruptedException {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        JsonLunatic jsonLunatic = new JsonLunatic("{}");
+        when(poguesServicePort.refreshLatestVersionId(poguesId)).thenReturn("version-1");
+        when(poguesServicePort.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        when(enoService.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI))
+                .thenThrow(new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, "eno error"))
+                .thenReturn(jsonLunatic);
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        poguesUseCase = new PoguesUseCase(poguesServicePort, enoService, reactiveEnoService, jsonLunaticCache,
+                tasks::add, true, new CaffeineCacheManager());
+
+        poguesUseCase.pregenerateJsonLunatics(poguesId, Context.BUSINESS);
+        AtomicReference<JsonLunatic> result = new AtomicReference<>();
+        Thread synchronisation = startWaitingThread(() -> result.set(poguesUseCase.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI)));
+        runTasks(tasks);
+        synchronisation.join(5000);
+
+        assertEquals(jsonLunatic, result.get());
+        verify(enoService, times(2)).getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI);
+    }
+
+    @Test
+    void onGetJsonLunaticWhenPregenerationRejectedGenerateJsonLunatic() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("version-1");
+        JsonLunatic jsonLunatic = new JsonLunatic("{}");
+        when(enoService.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI)).thenReturn(jsonLunatic);
+        poguesUseCase = new PoguesUseCase(poguesServicePort, enoService, reactiveEnoService, jsonLunaticCache,
+                task -> {
+                    throw new RejectedExecutionException("queue is full");
+                }, true, new CaffeineCacheManager());
+
+        poguesUseCase.pregenerateJsonLunatics(poguesId, Context.BUSINESS);
+
+        assertEquals(jsonLunatic, poguesUseCase.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        verify(enoService, times(1)).getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI);
+    }
+
+    /**
+     * Cache mock keeping json lunatic in memory
+     */
+    private void mockJsonLunaticCache() {
+        Map<Mode, JsonLunatic> cachedJsonLunatics = new ConcurrentHashMap<>();
+        doAnswer(invocation -> cachedJsonLunatics.put(invocation.getArgument(2), invocation.getArgument(3)))
+                .when(jsonLunaticCache).putJsonLunatic(any(), any(), any(), any());
+        when(jsonLunaticCache.getJsonLunatic(any(), any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(cachedJsonLunatics.get(invocation.<Mode>getArgument(2))));
+    }
+
+    /**
+     * Start a thread and wait until it is blocked
+     */
+    private Thread startWaitingThread(Runnable runnable) throws InterruptedException {
+        Thread thread = new Thread(runnable);
+        thread.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && thread.isAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return thread;
+    }
+
+    private void runTasks(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private QuestionnaireModel createQuestionnaireModel(String versionId) {
+        return new QuestionnaireModel(poguesId, versionId, "questionnaire label", List.of(Mode.CAWI), null);
+    }
+}
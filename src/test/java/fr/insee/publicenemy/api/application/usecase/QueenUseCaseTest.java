@@ -2,11 +2,19 @@ package fr.insee.publicenemy.api.application.usecase;
 
 import fr.insee.publicenemy.api.application.domain.model.*;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationCreationFailure;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationHashUtils;
+import fr.insee.publicenemy.api.application.exceptions.InterrogationsCreationException;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.InterrogationJsonPort;
 import fr.insee.publicenemy.api.application.ports.PersonalizationPort;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
 import fr.insee.publicenemy.api.application.ports.QueenServicePort;
+import fr.insee.publicenemy.api.application.ports.ReactiveQueenServicePort;
 import fr.insee.publicenemy.api.application.ports.InterrogationCsvPort;
 import fr.insee.publicenemy.api.infrastructure.interro.InterrogationStateData;
+import fr.insee.publicenemy.api.infrastructure.queen.dto.SimpleInterrogationDto;
 import fr.insee.publicenemy.api.infrastructure.queen.exceptions.CampaignNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,14 +22,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -31,12 +47,16 @@ class QueenUseCaseTest {
     @Mock
     private QueenServicePort queenServicePort;
     @Mock
+    private ReactiveQueenServicePort reactiveQueenServicePort;
+    @Mock
     private InterrogationCsvPort surveyUnitServicePort;
     @Mock
     private InterrogationJsonPort surveyUnitJsonServicePort;
     @Mock
     private PersonalizationPort personalizationPort;
     @Mock
+    private QuestionnairePort questionnairePort;
+    @Mock
     private PoguesUseCase poguesUseCase;
     @Mock
     private QuestionnaireModel questionnaireModel;
@@ -48,7 +68,14 @@ class QueenUseCaseTest {
 
     @BeforeEach
     public void init() {
-        queenUseCase = new QueenUseCase(poguesUseCase, queenServicePort, surveyUnitServicePort, surveyUnitJsonServicePort,personalizationPort);
+        queenUseCase = new QueenUseCase(poguesUseCase, queenServicePort, reactiveQueenServicePort, surveyUnitServicePort, surveyUnitJsonServicePort,
+                personalizationPort, questionnairePort, 3, 2, 500, true, true, false);
+        lenient().when(reactiveQueenServicePort.createQuestionnaireModel(any(), any(), any())).thenReturn(Mono.empty());
+        lenient().when(reactiveQueenServicePort.createCampaign(any(), any(), any())).thenReturn(Mono.empty());
+        lenient().when(reactiveQueenServicePort.createInterrogations(any(), any())).thenReturn(Mono.empty());
+        lenient().when(reactiveQueenServicePort.deleteCampaign(any())).thenReturn(Mono.empty());
+        lenient().when(reactiveQueenServicePort.updateInterrogation(any())).thenReturn(Mono.empty());
+        lenient().when(reactiveQueenServicePort.deleteInterrogation(any())).thenReturn(Mono.empty());
     }
 
     @Test
@@ -58,7 +85,7 @@ class QueenUseCaseTest {
         when(questionnaire.getQuestionnaireModes()).thenReturn(List.of(questionnaireMode));
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        verify(queenServicePort).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
+        verify(reactiveQueenServicePort).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
     }
 
     @Test
@@ -71,7 +98,42 @@ class QueenUseCaseTest {
         when(poguesUseCase.getJsonLunatic(questionnaireModel, context, mode)).thenReturn(jsonLunatic);
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        verify(queenServicePort).createQuestionnaireModel(any(), eq(questionnaireModel), eq(jsonLunatic));
+        verify(reactiveQueenServicePort).createQuestionnaireModel(any(), eq(questionnaireModel), eq(jsonLunatic));
+    }
+
+    @Test
+    void onSynchronizeWhenStreamingEnabledStreamJsonLunaticToQueen() {
+        Context context = Context.BUSINESS;
+        Mode mode = Mode.CAWI;
+        QueenUseCase streamingQueenUseCase = new QueenUseCase(poguesUseCase, queenServicePort, reactiveQueenServicePort, surveyUnitServicePort,
+                surveyUnitJsonServicePort, personalizationPort, questionnairePort, 3, 2, 500, true, true, true);
+        Flux<DataBuffer> jsonLunaticContent = Flux.empty();
+
+        QuestionnaireMode questionnaireMode = new QuestionnaireMode(mode);
+        when(questionnaire.getQuestionnaireModes()).thenReturn(List.of(questionnaireMode));
+        when(questionnaire.getContext()).thenReturn(context);
+        when(poguesUseCase.findJsonLunatic(questionnaireModel, context, mode)).thenReturn(Optional.empty());
+        when(poguesUseCase.streamJsonLunatic(questionnaireModel, context, mode)).thenReturn(jsonLunaticContent);
+        when(reactiveQueenServicePort.createQuestionnaireModelFromContent(any(), any(), any())).thenReturn(Mono.empty());
+        streamingQueenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
+        verify(reactiveQueenServicePort).createQuestionnaireModelFromContent(any(), eq(questionnaireModel), eq(jsonLunaticContent));
+        verify(reactiveQueenServicePort, never()).createQuestionnaireModel(any(), any(), any());
+    }
+
+    @Test
+    void onSynchronizeWhenStreamingEnabledAndJsonLunaticAlreadyGeneratedSendGeneratedJsonLunatic() {
+        Context context = Context.BUSINESS;
+        Mode mode = Mode.CAWI;
+        QueenUseCase streamingQueenUseCase = new QueenUseCase(poguesUseCase, queenServicePort, reactiveQueenServicePort, surveyUnitServicePort,
+                surveyUnitJsonServicePort, personalizationPort, questionnairePort, 3, 2, 500, true, true, true);
+
+        QuestionnaireMode questionnaireMode = new QuestionnaireMode(mode);
+        when(questionnaire.getQuestionnaireModes()).thenReturn(List.of(questionnaireMode));
+        when(questionnaire.getContext()).thenReturn(context);
+        when(poguesUseCase.findJsonLunatic(questionnaireModel, context, mode)).thenReturn(Optional.of(jsonLunatic));
+        streamingQueenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
+        verify(reactiveQueenServicePort).createQuestionnaireModel(any(), eq(questionnaireModel), eq(jsonLunatic));
+        verify(poguesUseCase, never()).streamJsonLunatic(any(), any(), any());
     }
 
     @Test
@@ -83,7 +145,25 @@ class QueenUseCaseTest {
         when(questionnaire.getQuestionnaireModes()).thenReturn(questionnaireModes);
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        verify(queenServicePort, times(modes.size())).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
+        verify(reactiveQueenServicePort, times(modes.size())).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
+    }
+
+    @Test
+    void onSynchronizeWhenOneModeFailsShouldSynchronizeOtherModesAndThrowException() {
+        Context context = Context.BUSINESS;
+        List<QuestionnaireMode> questionnaireModes = Stream.of(Mode.CAWI, Mode.CAPI, Mode.CATI).map(QuestionnaireMode::new).toList();
+
+        when(questionnaire.getId()).thenReturn(11L);
+        when(questionnaire.getQuestionnaireModes()).thenReturn(questionnaireModes);
+        when(questionnaire.getContext()).thenReturn(context);
+        when(reactiveQueenServicePort.createCampaign(eq("11-CAPI"), eq(questionnaire), eq(questionnaireModel)))
+                .thenReturn(Mono.error(new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, "error")));
+
+        assertThrows(ServiceException.class, () -> queenUseCase.synchronizeCreate(questionnaireModel, questionnaire));
+        verify(reactiveQueenServicePort, times(3)).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
+        assertEquals(SynchronisationState.OK.name(), questionnaireModes.get(0).getSynchronisationState());
+        assertEquals(SynchronisationState.INIT_CAMPAIGN.name(), questionnaireModes.get(1).getSynchronisationState());
+        assertEquals(SynchronisationState.OK.name(), questionnaireModes.get(2).getSynchronisationState());
     }
 
     @Test
@@ -95,7 +175,7 @@ class QueenUseCaseTest {
         when(questionnaire.getQuestionnaireModes()).thenReturn(questionnaireModes);
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        verify(queenServicePort, times(2)).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
+        verify(reactiveQueenServicePort, times(2)).createCampaign(any(), eq(questionnaire), eq(questionnaireModel));
     }
 
     @Test
@@ -112,7 +192,7 @@ class QueenUseCaseTest {
 
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        modes.forEach(mode -> verify(queenServicePort).createQuestionnaireModel(any(), eq(questionnaireModel), eq(map.get(mode))));
+        modes.forEach(mode -> verify(reactiveQueenServicePort).createQuestionnaireModel(any(), eq(questionnaireModel), eq(map.get(mode))));
     }
 
     @Test
@@ -125,7 +205,7 @@ class QueenUseCaseTest {
         Mockito.lenient().when(poguesUseCase.getJsonLunatic(questionnaireModel, context, Mode.PAPI)).thenReturn(jsonLunatic);
         when(questionnaire.getContext()).thenReturn(context);
         queenUseCase.synchronizeCreate(questionnaireModel, questionnaire);
-        verify(queenServicePort, times(0)).createQuestionnaireModel(any(), eq(questionnaireModel), eq(jsonLunatic));
+        verify(reactiveQueenServicePort, times(0)).createQuestionnaireModel(any(), eq(questionnaireModel), eq(jsonLunatic));
     }
 
     @Test
@@ -163,7 +243,7 @@ class QueenUseCaseTest {
         Context context = Context.HOUSEHOLD;
 
         QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid","Label", modes, null);
-        Questionnaire questionnaireTest = new Questionnaire(questionnaireId, poguesId, "uuid", "Label", context, questionnaireModes, null, null, false);
+        Questionnaire questionnaireTest = new Questionnaire(questionnaireId, poguesId, "uuid", "Label", context, questionnaireModes, null, null, false, null);
         queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest);
         verify(queenServicePort, times(0)).deleteCampaign("1-PAPI");
         verify(queenServicePort, times(1)).deleteCampaign("1-CAWI");
@@ -180,12 +260,12 @@ class QueenUseCaseTest {
 
         Mockito.lenient().when(poguesUseCase.getJsonLunatic(eq(this.questionnaireModel), eq(context), any())).thenReturn(jsonLunatic);
         QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid","Label", modes, null);
-        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", context, questionnaireModes, "data".getBytes(), null, false);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", context, questionnaireModes, "data".getBytes(), null, false, null);
         queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest);
 
-        verify(queenServicePort, times(0)).createCampaign("1-PAPI", questionnaireTest, questionnaireModelTest);
-        verify(queenServicePort, times(1)).createCampaign("1-CATI", questionnaireTest, questionnaireModelTest);
-        verify(queenServicePort, times(1)).createCampaign("1-CAPI", questionnaireTest, questionnaireModelTest);
+        verify(reactiveQueenServicePort, times(0)).createCampaign("1-PAPI", questionnaireTest, questionnaireModelTest);
+        verify(reactiveQueenServicePort, times(1)).createCampaign("1-CATI", questionnaireTest, questionnaireModelTest);
+        verify(reactiveQueenServicePort, times(1)).createCampaign("1-CAPI", questionnaireTest, questionnaireModelTest);
     }
 
     @Test
@@ -198,7 +278,7 @@ class QueenUseCaseTest {
         Context context = Context.HOUSEHOLD;
 
         QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid","Label", modes, null);
-        Questionnaire questionnaireTest = new Questionnaire(questionnaireId, poguesId, "uuid", "Label", context, questionnaireModes, null, null, false);
+        Questionnaire questionnaireTest = new Questionnaire(questionnaireId, poguesId, "uuid", "Label", context, questionnaireModes, null, null, false, null);
         queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest);
 
         questionnaireTest.getQuestionnaireModes().stream()
@@ -217,7 +297,7 @@ class QueenUseCaseTest {
 
         Mockito.lenient().when(poguesUseCase.getJsonLunatic(eq(this.questionnaireModel), eq(context), any())).thenReturn(jsonLunatic);
         QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid","Label", modes, null);
-        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", context, questionnaireModes, "data".getBytes(), null, false);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", context, questionnaireModes, "data".getBytes(), null, false, null);
         queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest);
 
         for (QuestionnaireMode questionnaireMode : questionnaireTest.getQuestionnaireModes()) {
@@ -227,13 +307,141 @@ class QueenUseCaseTest {
         assertEquals(modes.size(), questionnaireTest.getQuestionnaireModes().size());
     }
 
+    @Test
+    void onSynchronizeUpdateWhenModelNotUpdatedOnlySynchronizeChangedInterrogations() {
+        String poguesId = "l8wwljbo";
+        byte[] data = "data".getBytes();
+        List<QuestionnaireMode> questionnaireModes = List.of(new QuestionnaireMode(1L, Mode.CAWI, SynchronisationState.OK.name()));
+        QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid", "Label", List.of(Mode.CAWI), null);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", Context.HOUSEHOLD, questionnaireModes, data, null, false, null);
+
+        List<Interrogation> interrogations = List.of(
+                new Interrogation("new-0", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "unchanged"))), null),
+                new Interrogation("new-1", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "changed"))), null),
+                new Interrogation("new-2", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "added"))), null));
+        String unchangedId = "0d3b1b2e-6f0c-4e8c-9f55-0b6a3f1b0a01";
+        String changedId = "0d3b1b2e-6f0c-4e8c-9f55-0b6a3f1b0a02";
+        String deletedId = "0d3b1b2e-6f0c-4e8c-9f55-0b6a3f1b0a03";
+        List<PersonalizationMapping> mappings = List.of(
+                new PersonalizationMapping(unchangedId, 1L, Mode.CAWI, 0, InterrogationHashUtils.computeContentHash(interrogations.get(0))),
+                new PersonalizationMapping(changedId, 1L, Mode.CAWI, 1, "previous-hash"),
+                new PersonalizationMapping(deletedId, 1L, Mode.CAWI, 3, "previous-hash"));
+
+        when(surveyUnitServicePort.streamInterrogations(data, "1-CAWI")).thenReturn(interrogations.stream());
+        when(personalizationPort.getPersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAWI)).thenReturn(mappings);
+
+        queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest, false);
+
+        verify(reactiveQueenServicePort, never()).deleteCampaign(any());
+        verify(reactiveQueenServicePort, times(1)).updateInterrogation(any());
+        verify(reactiveQueenServicePort).updateInterrogation(new Interrogation(changedId, "1-CAWI", interrogations.get(1).data(), null));
+        verify(reactiveQueenServicePort).createInterrogations("1-CAWI", List.of(interrogations.get(2)));
+        verify(reactiveQueenServicePort).deleteInterrogation(new Interrogation(deletedId, "1-CAWI", null, null));
+        verify(personalizationPort).deletePersonalizationMappings(List.of(mappings.get(2)));
+        assertEquals(SynchronisationState.OK.name(), questionnaireModes.getFirst().getSynchronisationState());
+    }
+
+    @Test
+    void onSynchronizeUpdateWhenModelUpdatedRecreateCampaign() {
+        String poguesId = "l8wwljbo";
+        List<QuestionnaireMode> questionnaireModes = List.of(new QuestionnaireMode(1L, Mode.CAWI, SynchronisationState.OK.name()));
+        QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid", "Label", List.of(Mode.CAWI), null);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", Context.HOUSEHOLD, questionnaireModes, null, null, false, null);
+
+        queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest, true);
+
+        verify(reactiveQueenServicePort).deleteCampaign("1-CAWI");
+        verify(reactiveQueenServicePort).createCampaign("1-CAWI", questionnaireTest, questionnaireModelTest);
+        verify(personalizationPort, never()).getPersonalizationMappingsByQuestionnaireIdAndMode(any(), any());
+    }
+
+    @Test
+    void onSynchronizeUpdateWhenSynchronisationInterruptedResumeFromCheckpointedInterrogations() {
+        String poguesId = "l8wwljbo";
+        byte[] data = "data".getBytes();
+        List<QuestionnaireMode> questionnaireModes = List.of(new QuestionnaireMode(1L, Mode.CAWI, SynchronisationState.INIT_SURVEY_UNIT.name()));
+        QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid", "Label", List.of(Mode.CAWI), null);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", Context.HOUSEHOLD, questionnaireModes, data, null, false, null);
+
+        List<Interrogation> interrogations = List.of(
+                new Interrogation("new-0", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "created"))), null),
+                new Interrogation("new-1", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "not created"))), null));
+        String createdId = "0d3b1b2e-6f0c-4e8c-9f55-0b6a3f1b0a01";
+        String notCheckpointedId = "0d3b1b2e-6f0c-4e8c-9f55-0b6a3f1b0a04";
+        List<PersonalizationMapping> mappings = List.of(
+                new PersonalizationMapping(createdId, 1L, Mode.CAWI, 0, InterrogationHashUtils.computeContentHash(interrogations.get(0))));
+        List<SimpleInterrogationDto> queenInterrogations = List.of(
+                new SimpleInterrogationDto(createdId, "1-CAWI", null, null, null),
+                new SimpleInterrogationDto(notCheckpointedId, "1-CAWI", null, null, null));
+
+        when(surveyUnitServicePort.streamInterrogations(data, "1-CAWI")).thenReturn(interrogations.stream());
+        when(personalizationPort.getPersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAWI)).thenReturn(mappings);
+        when(reactiveQueenServicePort.getInterrogations("1-CAWI")).thenReturn(Mono.just(queenInterrogations));
+
+        queenUseCase.synchronizeUpdate(questionnaireModelTest, questionnaireTest, false);
+
+        verify(reactiveQueenServicePort, never()).createQuestionnaireModel(any(), any(), any());
+        verify(reactiveQueenServicePort, never()).createCampaign(any(), any(), any());
+        verify(reactiveQueenServicePort, never()).deleteCampaign(any());
+        verify(reactiveQueenServicePort).deleteInterrogation(new Interrogation(notCheckpointedId, "1-CAWI", null, null));
+        verify(reactiveQueenServicePort).createInterrogations("1-CAWI", List.of(interrogations.get(1)));
+        verify(questionnairePort).updateQuestionnaireModeState(1L, Mode.CAWI, SynchronisationState.OK.name());
+        assertEquals(SynchronisationState.OK.name(), questionnaireModes.getFirst().getSynchronisationState());
+    }
+
+    @Test
+    void onSynchronizeCreateWhenSomeInterrogationsFailCheckpointCreatedInterrogations() {
+        String poguesId = "l8wwljbo";
+        byte[] data = "data".getBytes();
+        QuestionnaireMode questionnaireMode = new QuestionnaireMode(1L, Mode.CAWI, null);
+        QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid", "Label", List.of(Mode.CAWI), null);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", Context.HOUSEHOLD, List.of(questionnaireMode), data, null, false, null);
+        List<Interrogation> interrogations = List.of(
+                new Interrogation("id-0", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "first"))), null),
+                new Interrogation("id-1", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "second"))), null));
+
+        when(surveyUnitServicePort.streamInterrogations(data, "1-CAWI")).thenReturn(interrogations.stream());
+        when(reactiveQueenServicePort.createInterrogations("1-CAWI", interrogations))
+                .thenReturn(Mono.error(new InterrogationsCreationException(HttpStatus.BAD_GATEWAY, "error",
+                        List.of(new InterrogationCreationFailure("id-1", HttpStatus.BAD_GATEWAY, "error")))));
+
+        assertThrows(InterrogationsCreationException.class, () -> queenUseCase.synchronizeCreate(questionnaireModelTest, questionnaireTest));
+        verify(personalizationPort).addPersonalizationMappings(List.of(new PersonalizationMapping("id-0", 1L, Mode.CAWI, 0)));
+        verify(questionnairePort).updateQuestionnaireModeState(1L, Mode.CAWI, SynchronisationState.INIT_SURVEY_UNIT.name());
+        assertEquals(SynchronisationState.INIT_SURVEY_UNIT.name(), questionnaireMode.getSynchronisationState());
+    }
+
+    @Test
+    void onSynchronizeCreateCreateInterrogationsByChunksAndCloseData() {
+        String poguesId = "l8wwljbo";
+        byte[] data = "data".getBytes();
+        QuestionnaireMode questionnaireMode = new QuestionnaireMode(1L, Mode.CAWI, null);
+        QuestionnaireModel questionnaireModelTest = new QuestionnaireModel(poguesId, "uuid", "Label", List.of(Mode.CAWI), null);
+        Questionnaire questionnaireTest = new Questionnaire(1L, poguesId, "uuid", "Label", Context.HOUSEHOLD, List.of(questionnaireMode), data, null, false, null);
+        List<Interrogation> interrogations = List.of(
+                new Interrogation("id-0", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "first"))), null),
+                new Interrogation("id-1", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "second"))), null),
+                new Interrogation("id-2", "1-CAWI", new InterrogationData(List.of(Map.entry("NAME", "third"))), null));
+        AtomicBoolean dataClosed = new AtomicBoolean();
+        QueenUseCase chunkedQueenUseCase = new QueenUseCase(poguesUseCase, queenServicePort, reactiveQueenServicePort, surveyUnitServicePort,
+                surveyUnitJsonServicePort, personalizationPort, questionnairePort, 3, 2, 2, true, true, false);
+
+        when(surveyUnitServicePort.streamInterrogations(data, "1-CAWI")).thenReturn(interrogations.stream().onClose(() -> dataClosed.set(true)));
+
+        chunkedQueenUseCase.synchronizeCreate(questionnaireModelTest, questionnaireTest);
+
+        verify(reactiveQueenServicePort).createInterrogations("1-CAWI", interrogations.subList(0, 2));
+        verify(reactiveQueenServicePort).createInterrogations("1-CAWI", interrogations.subList(2, 3));
+        verify(personalizationPort, times(2)).addPersonalizationMappings(any());
+        assertTrue(dataClosed.get());
+        assertEquals(SynchronisationState.OK.name(), questionnaireMode.getSynchronisationState());
+    }
+
     @Test
     void onResetSurveyUnitCallResetService() {
         PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, 0);
-        byte[] data = "data".getBytes();
         Interrogation su = new Interrogation(mapping.interrogationId(), mapping.getQuestionnaireModelId(), null, InterrogationStateData.createInitialStateData());
-        when(surveyUnitServicePort.getCsvInterrogation(mapping, data)).thenReturn(su);
-        queenUseCase.resetInterrogation(mapping, data);
+        queenUseCase.resetInterrogation(mapping, su);
         verify(queenServicePort).deteteInterrogation(su);
         verify(queenServicePort).createInterrogation(su.questionnaireModelId(),su);
     }
@@ -4,6 +4,8 @@ import fr.insee.publicenemy.api.application.domain.model.Context;
 import fr.insee.publicenemy.api.application.domain.model.PreparedQuestionnaire;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnairePage;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
@@ -12,10 +14,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +42,12 @@ class QuestionnaireUseCaseTest {
     @Mock
     private PoguesUseCase poguesUseCase;
     @Mock
+    private SynchronisationJobUseCase synchronisationJobUseCase;
+    @Mock
+    private InterrogationRowUseCase interrogationRowUseCase;
+    @Mock
+    private NomenclatureUseCase nomenclatureUseCase;
+    @Mock
     private QuestionnaireModel questionnaireModel;
     @Mock
     private Questionnaire questionnaire;
@@ -41,15 +56,15 @@ class QuestionnaireUseCaseTest {
 
     @BeforeEach
     public void init() {
-        questionnaireUseCase = new QuestionnaireUseCase(questionnairePort, poguesUseCase, queenUseCase, messagePort);
+        questionnaireUseCase = new QuestionnaireUseCase(questionnairePort, poguesUseCase, queenUseCase, synchronisationJobUseCase, interrogationRowUseCase, nomenclatureUseCase, messagePort, 100);
     }
 
     @Test
-    void onAddQuestionnaireAsyncShouldInvokeCampaignCreationInQueen() {
+    void onAddQuestionnaireAsyncShouldQueueCampaignCreationInQueen() {
         PreparedQuestionnaire preparedQuestionnaire = new PreparedQuestionnaire(questionnaire, questionnaireModel);
-        when(queenUseCase.synchronizeCreateAsync(questionnaireModel, questionnaire)).thenReturn(CompletableFuture.runAsync(()-> {}));
         questionnaireUseCase.addQuestionnaireAsync(preparedQuestionnaire);
-        verify(queenUseCase, times(1)).synchronizeCreateAsync(questionnaireModel, questionnaire);
+        verify(synchronisationJobUseCase, times(1)).submitJob(questionnaire, SynchronisationJobType.CREATE, true);
+        verify(queenUseCase, never()).synchronizeCreate(any(), any());
     }
 
     @Test
@@ -60,6 +75,59 @@ class QuestionnaireUseCaseTest {
         assertThrows(ServiceException.class, () -> questionnaireUseCase.prepareQuestionnaire(poguesId, context, null));
     }
 
+    @Test
+    void onPrepareQuestionnaireShouldSaveInterrogationRows() {
+        String poguesId = "l8wwljbo";
+        byte[] interrogationData = "\"name\"\n\"value\"".getBytes();
+        when(questionnairePort.hasQuestionnaire(poguesId)).thenReturn(false);
+        when(poguesUseCase.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        when(questionnairePort.addQuestionnaire(any())).thenReturn(questionnaire);
+        when(questionnaire.getId()).thenReturn(1L);
+
+        questionnaireUseCase.prepareQuestionnaire(poguesId, Context.BUSINESS, interrogationData);
+
+        verify(interrogationRowUseCase).saveInterrogationRows(1L, interrogationData);
+    }
+
+    @Test
+    void onPrepareQuestionnaireShouldSaveNomenclaturesReference() {
+        String poguesId = "l8wwljbo";
+        JsonNode nomenclatures = JsonMapper.builder().build().createObjectNode();
+        when(questionnairePort.hasQuestionnaire(poguesId)).thenReturn(false);
+        when(poguesUseCase.getQuestionnaireModel(poguesId)).thenReturn(questionnaireModel);
+        when(poguesUseCase.getNomenclatureOfQuestionnaire(poguesId)).thenReturn(nomenclatures);
+        when(nomenclatureUseCase.storeNomenclatures(nomenclatures)).thenReturn("reference");
+        when(questionnairePort.addQuestionnaire(any())).thenReturn(questionnaire);
+
+        questionnaireUseCase.prepareQuestionnaire(poguesId, Context.BUSINESS, "\"name\"\n\"value\"".getBytes());
+
+        verify(questionnairePort).addQuestionnaire(argThat(saved -> "reference".equals(saved.getNomenclaturesReference())));
+    }
+
+    @Test
+    void onGetNomenclaturesReferenceWhenStoredDoNotStoreNomenclatures() {
+        Questionnaire storedQuestionnaire = new Questionnaire("l8wwljbo", "label", List.of());
+        storedQuestionnaire.setNomenclaturesReference("reference");
+
+        assertEquals("reference", questionnaireUseCase.getNomenclaturesReference(storedQuestionnaire));
+        verifyNoInteractions(nomenclatureUseCase);
+        verify(questionnairePort, never()).updateNomenclaturesReference(any(), any());
+    }
+
+    @Test
+    void onGetNomenclaturesReferenceWhenNotStoredStoreThemOnce() {
+        String poguesId = "l8wwljbo";
+        JsonNode nomenclatures = JsonMapper.builder().build().createObjectNode();
+        Questionnaire previousQuestionnaire = new Questionnaire(1L, Context.HOUSEHOLD, null);
+        previousQuestionnaire.setPoguesId(poguesId);
+        when(poguesUseCase.getNomenclatureOfQuestionnaire(poguesId)).thenReturn(nomenclatures);
+        when(nomenclatureUseCase.storeNomenclatures(nomenclatures)).thenReturn("reference");
+
+        assertEquals("reference", questionnaireUseCase.getNomenclaturesReference(previousQuestionnaire));
+        assertEquals("reference", questionnaireUseCase.getNomenclaturesReference(previousQuestionnaire));
+        verify(questionnairePort, times(1)).updateNomenclaturesReference(1L, "reference");
+    }
+
     @Test
     void onDeleteQuestionnaireShouldInvokeCampaignDeletionInQueen() {
         String poguesId = "poguesId";
@@ -69,10 +137,58 @@ class QuestionnaireUseCaseTest {
     }
 
     @Test
-    void onUpdateQuestionnaireShouldInvokeCampaignUpdateInQueenAsync() {
-        when(queenUseCase.synchronizeUpdateAsync(questionnaireModel, questionnaire)).thenReturn(CompletableFuture.runAsync(()-> {}));
-        questionnaireUseCase.updateQuestionnaireAsync(new PreparedQuestionnaire(questionnaire, questionnaireModel));
-        verify(queenUseCase, times(1)).synchronizeUpdateAsync(questionnaireModel, questionnaire);
-        verify(questionnairePort, times(1)).updateQuestionnaireState(questionnaire);
+    void onUpdateQuestionnaireShouldQueueCampaignUpdateInQueenAsync() {
+        questionnaireUseCase.updateQuestionnaireAsync(new PreparedQuestionnaire(questionnaire, questionnaireModel, false));
+        verify(synchronisationJobUseCase, times(1)).submitJob(questionnaire, SynchronisationJobType.UPDATE, false);
+        verify(queenUseCase, never()).synchronizeUpdate(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void onGetQuestionnaireWhenPoguesVersionChangedSetOutdated() {
+        String poguesId = "l8wwljbo";
+        Questionnaire outdatedQuestionnaire = new Questionnaire(poguesId, "label", List.of());
+        outdatedQuestionnaire.setVersionId("version1");
+        when(questionnairePort.getQuestionnaire(poguesId)).thenReturn(outdatedQuestionnaire);
+        when(poguesUseCase.getLatestVersionId(poguesId)).thenReturn("version2");
+
+        Questionnaire result = questionnaireUseCase.getQuestionnaire(poguesId);
+
+        assertTrue(result.isOutdated());
+    }
+
+    @Test
+    void onGetQuestionnaireWhenPoguesVersionUnknownReturnQuestionnaire() {
+        String poguesId = "l8wwljbo";
+        Questionnaire questionnaireWithVersion = new Questionnaire(poguesId, "label", List.of());
+        questionnaireWithVersion.setVersionId("version1");
+        when(questionnairePort.getQuestionnaire(poguesId)).thenReturn(questionnaireWithVersion);
+        when(poguesUseCase.getLatestVersionId(poguesId)).thenReturn(null);
+
+        Questionnaire result = questionnaireUseCase.getQuestionnaire(poguesId);
+
+        assertSame(questionnaireWithVersion, result);
+        assertFalse(result.isOutdated());
+    }
+
+    @Test
+    void onGetQuestionnaireWhenQuestionnaireNotFoundThrowsException() {
+        String poguesId = "l8wwljbo";
+        when(questionnairePort.getQuestionnaire(poguesId)).thenThrow(new ServiceException(HttpStatus.NOT_FOUND, "not found"));
+        lenient().when(poguesUseCase.getLatestVersionId(poguesId)).thenReturn("version1");
+
+        assertThrows(ServiceException.class, () -> questionnaireUseCase.getQuestionnaire(poguesId));
+    }
+
+    @Test
+    void onGetQuestionnairesPageWhenMoreQuestionnairesReturnNextCursor() {
+        Questionnaire first = new Questionnaire(5L, Context.HOUSEHOLD, null);
+        Questionnaire second = new Questionnaire(4L, Context.HOUSEHOLD, null);
+        Questionnaire third = new Questionnaire(3L, Context.HOUSEHOLD, null);
+        when(questionnairePort.getQuestionnairesPage(null, 3)).thenReturn(List.of(first, second, third));
+
+        QuestionnairePage page = questionnaireUseCase.getQuestionnairesPage(null, 2);
+
+        assertEquals(List.of(first, second), page.questionnaires());
+        assertEquals(4L, page.nextCursor());
     }
 }
@@ -0,0 +1,147 @@
+package fr.insee.publicenemy.api.application.usecase;
+
+import fr.insee.publicenemy.api.application.domain.model.*;
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.QuestionnairePort;
+import fr.insee.publicenemy.api.application.ports.SynchronisationJobPort;
+import fr.insee.publicenemy.api.application.web.auth.AuthenticationHelper;
+import fr.insee.publicenemy.api.application.web.auth.ServiceAuthenticationToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SynchronisationJobUseCaseTest {
+
+    @Mock
+    private SynchronisationJobPort jobPort;
+    @Mock
+    private QuestionnairePort questionnairePort;
+    @Mock
+    private PoguesUseCase poguesUseCase;
+    @Mock
+    private QueenUseCase queenUseCase;
+    @Mock
+    private AuthenticationHelper authenticationHelper;
+
+    private SynchronisationJobUseCase jobUseCase;
+
+    private Questionnaire questionnaire;
+
+    private QuestionnaireModel questionnaireModel;
+
+    @BeforeEach
+    public void init() {
+        jobUseCase = new SynchronisationJobUseCase(jobPort, questionnairePort, poguesUseCase, queenUseCase, authenticationHelper, Runnable::run,
+                2, 3, Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5));
+        questionnaire = new Questionnaire(1L, "l8wwljbo", "version", "label", Context.HOUSEHOLD,
+                List.of(new QuestionnaireMode(Mode.CAWI)), null, PersonalizationState.STARTED, false, null);
+        questionnaireModel = new QuestionnaireModel("l8wwljbo", "version", "label", List.of(Mode.CAWI), null);
+    }
+
+    @Test
+    void onPollJobsClaimOnlyFreeWorkerSlots() {
+        SynchronisationJob job = createJob(SynchronisationJobType.CREATE, 1);
+        when(jobPort.claimJobs(2)).thenReturn(List.of(job));
+        when(questionnairePort.getQuestionnaire(1L)).thenReturn(questionnaire);
+        when(poguesUseCase.getQuestionnaireModel("l8wwljbo")).thenReturn(questionnaireModel);
+
+        jobUseCase.pollJobs();
+
+        verify(jobPort).releaseLostJobs(any());
+        verify(queenUseCase).synchronizeCreate(questionnaireModel, questionnaire);
+        verify(questionnairePort).updateQuestionnaireState(questionnaire);
+        verify(jobPort).completeJob(job.id());
+    }
+
+    @Test
+    void onPollJobsRunJobAuthenticatedAsApplication() {
+        SynchronisationJob job = createJob(SynchronisationJobType.CREATE, 1);
+        ServiceAuthenticationToken serviceAuthentication = new ServiceAuthenticationToken("public-enemy");
+        when(authenticationHelper.getServiceAuthentication()).thenReturn(serviceAuthentication);
+        when(jobPort.claimJobs(2)).thenReturn(List.of(job));
+        when(questionnairePort.getQuestionnaire(1L)).thenReturn(questionnaire);
+        when(poguesUseCase.getQuestionnaireModel("l8wwljbo")).thenReturn(questionnaireModel);
+        AtomicReference<Authentication> jobAuthentication = new AtomicReference<>();
+        doAnswer(invocation -> {
+            jobAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        }).when(queenUseCase).synchronizeCreate(questionnaireModel, questionnaire);
+
+        jobUseCase.pollJobs();
+
+        assertSame(serviceAuthentication, jobAuthentication.get());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void onProcessJobWhenCreationRetriedResumeSynchronisationAsUpdate() {
+        SynchronisationJob job = createJob(SynchronisationJobType.CREATE, 2);
+        when(questionnairePort.getQuestionnaire(1L)).thenReturn(questionnaire);
+        when(poguesUseCase.getQuestionnaireModel("l8wwljbo")).thenReturn(questionnaireModel);
+
+        assertTrue(jobUseCase.processJob(job));
+
+        verify(queenUseCase, never()).synchronizeCreate(any(), any());
+        verify(queenUseCase).synchronizeUpdate(questionnaireModel, questionnaire, false);
+        verify(jobPort).completeJob(job.id());
+    }
+
+    @Test
+    void onProcessJobWhenSynchronisationFailsRetryJobLater() {
+        SynchronisationJob job = createJob(SynchronisationJobType.UPDATE, 1);
+        when(questionnairePort.getQuestionnaire(1L)).thenReturn(questionnaire);
+        when(poguesUseCase.getQuestionnaireModel("l8wwljbo")).thenReturn(questionnaireModel);
+        doThrow(new ServiceException(HttpStatus.BAD_GATEWAY, "queen error"))
+                .when(queenUseCase).synchronizeUpdate(questionnaireModel, questionnaire, true);
+
+        Instant before = Instant.now();
+        assertFalse(jobUseCase.processJob(job));
+
+        verify(jobPort).retryJob(eq(job.id()), argThat(nextAttempt -> !nextAttempt.isBefore(before.plusSeconds(30))), eq("queen error"));
+        verify(jobPort, never()).failJob(any(), any());
+        verify(questionnairePort, never()).updateQuestionnaireState(any());
+    }
+
+    @Test
+    void onProcessJobWhenLastAttemptFailsSetQuestionnaireInError() {
+        SynchronisationJob job = createJob(SynchronisationJobType.UPDATE, 3);
+        when(questionnairePort.getQuestionnaire(1L)).thenReturn(questionnaire);
+        when(poguesUseCase.getQuestionnaireModel("l8wwljbo")).thenReturn(questionnaireModel);
+        doThrow(new ServiceException(HttpStatus.BAD_GATEWAY, "queen error"))
+                .when(queenUseCase).synchronizeUpdate(questionnaireModel, questionnaire, true);
+
+        assertTrue(jobUseCase.processJob(job));
+
+        verify(jobPort).failJob(job.id(), "queen error");
+        verify(questionnairePort).updateQuestionnaireState(questionnaire);
+        assertEquals(PersonalizationState.ERROR, questionnaire.getPersonalizationState());
+    }
+
+    @Test
+    void onGetRetryDelayDoubleDelayUntilMaxDelay() {
+        assertEquals(Duration.ofSeconds(30), jobUseCase.getRetryDelay(1));
+        assertEquals(Duration.ofSeconds(60), jobUseCase.getRetryDelay(2));
+        assertEquals(Duration.ofMinutes(1), jobUseCase.getRetryDelay(10));
+    }
+
+    private SynchronisationJob createJob(SynchronisationJobType type, int attempts) {
+        return new SynchronisationJob(10L, 1L, type, SynchronisationJobStatus.RUNNING, true, attempts,
+                Instant.now(), null, Instant.now(), Instant.now());
+    }
+}
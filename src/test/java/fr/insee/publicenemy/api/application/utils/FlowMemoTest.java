@@ -0,0 +1,137 @@
+package fr.insee.publicenemy.api.application.utils;
+
+import fr.insee.publicenemy.api.application.domain.utils.FlowMemo;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowMemoTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void onMemoizeInFlowCallOnlyOnce() {
+        new FlowMemo().run(() -> {
+            Integer first = FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+            Integer second = FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+            Integer other = FlowMemo.memoize("pogues.model", calls::incrementAndGet, "other");
+            assertEquals(1, first);
+            assertEquals(1, second);
+            assertEquals(2, other);
+        });
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void onMemoizeOutsideFlowAlwaysCall() {
+        FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+        FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void onMemoizeInDifferentFlowsCallEachTime() {
+        new FlowMemo().run(() -> FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo"));
+        new FlowMemo().run(() -> FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo"));
+        assertEquals(2, calls.get());
+        assertNull(FlowMemo.current());
+    }
+
+    @Test
+    void onMemoizeWhenCallFailsCallAgain() {
+        new FlowMemo().run(() -> {
+            assertThrows(IllegalStateException.class, () -> FlowMemo.memoize("pogues.model", () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("pogues error");
+            }, "l8wwljbo"));
+            Integer result = FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+            assertEquals(2, result);
+        });
+    }
+
+    @Test
+    void onMemoizeWhenCallThrowsErrorCompleteWaitingCalls() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        try {
+            FlowMemo memo = new FlowMemo();
+            Future<Integer> first;
+            Future<Integer> second;
+            try (FlowMemo.Scope ignored = memo.enter()) {
+                first = executor.submit(FlowMemo.wrap(() -> FlowMemo.<Integer>memoize("pogues.model", () -> {
+                    callStarted.countDown();
+                    awaitRelease(releaseCall);
+                    throw new OutOfMemoryError("pogues model too large");
+                }, "l8wwljbo")));
+                assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+                second = executor.submit(FlowMemo.wrap(() -> FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo")));
+            }
+            releaseCall.countDown();
+            ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OutOfMemoryError.class, firstError.getCause());
+            // waiting call gets the error, or makes the call again when it is made after the failure: it never hangs
+            try {
+                assertEquals(1, second.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException secondError) {
+                assertInstanceOf(OutOfMemoryError.class, secondError.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void onInvalidateCallAgain() {
+        new FlowMemo().run(() -> {
+            FlowMemo.memoize("queen.interrogations", calls::incrementAndGet, "campaign");
+            FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+            FlowMemo.invalidate("queen.");
+            FlowMemo.memoize("queen.interrogations", calls::incrementAndGet, "campaign");
+            FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo");
+        });
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void onWrapShareMemoWithOtherThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        try {
+            FlowMemo memo = new FlowMemo();
+            Future<Integer> first;
+            Future<Integer> second;
+            try (FlowMemo.Scope ignored = memo.enter()) {
+                first = executor.submit(FlowMemo.wrap(() -> FlowMemo.memoize("pogues.model", () -> {
+                    callStarted.countDown();
+                    awaitRelease(releaseCall);
+                    return calls.incrementAndGet();
+                }, "l8wwljbo")));
+                assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+                // made while the first call is running: waits for its result
+                second = executor.submit(FlowMemo.wrap(() -> FlowMemo.memoize("pogues.model", calls::incrementAndGet, "l8wwljbo")));
+            }
+            releaseCall.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitRelease(CountDownLatch releaseCall) {
+        try {
+            if (!releaseCall.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("call not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -38,4 +38,15 @@ class InterrogationDataTest {
     void testNullDataThrowsException() {
         assertNull(InterrogationData.getDataFormat(null));
     }
+
+    @Test
+    void testDetectNdjsonAfterWhitespaces() {
+        byte[] ndjson = "\n  {\"name\":\"Alice\"}\n{\"name\":\"Bob\"}".getBytes();
+        assertEquals(InterrogationData.FormatType.JSON, InterrogationData.getDataFormat(ndjson));
+    }
+
+    @Test
+    void testDetectCsvWhenOnlyWhitespaces() {
+        assertEquals(InterrogationData.FormatType.CSV, InterrogationData.getDataFormat(" \n".getBytes()));
+    }
 }
@@ -0,0 +1,86 @@
+package fr.insee.publicenemy.api.configuration;
+
+import fr.insee.publicenemy.api.configuration.properties.HttpClientProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppConfigTest {
+
+    private MockWebServer mockWebServer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AppConfig appConfig;
+
+    @BeforeEach
+    void init() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+        appConfig = new AppConfig();
+        ReflectionTestUtils.setField(appConfig, "proxyEnabled", false);
+        ReflectionTestUtils.setField(appConfig, "debug", false);
+        ReflectionTestUtils.setField(appConfig, "oidcEnabled", false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void onCallDownstreamApiThenPublishConnectionPoolMetricsOfThisApi() {
+        HttpClientProperties properties = new HttpClientProperties(createClient(7), createClient(3), createClient(3), createClient(3));
+        // reactor netty publishes connection pool metrics to the global registry only
+        Metrics.addRegistry(meterRegistry);
+        try {
+            WebClient queenWebClient = appConfig.queenWebClient(properties, WebClient.builder(), new SimpleMeterRegistry());
+            mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+            queenWebClient.get().uri(mockWebServer.url("/api/healthcheck").uri()).retrieve().toBodilessEntity().block();
+
+            // pools of other webclients named queen may have been created by other tests
+            assertTrue(meterRegistry.find("reactor.netty.connection.provider.max.connections").tag("name", "queen").gauges().stream()
+                    .mapToDouble(Gauge::value)
+                    .anyMatch(maxConnections -> maxConnections == 7));
+            assertNotNull(meterRegistry.find("reactor.netty.connection.provider.active.connections").tag("name", "queen").gauge());
+            assertNotNull(meterRegistry.find("reactor.netty.connection.provider.pending.connections").tag("name", "queen").gauge());
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+    }
+
+    @Test
+    void onBuildWebClientThenPublishResilienceMetricsToGivenRegistry() {
+        HttpClientProperties properties = new HttpClientProperties(createClient(3), createClient(3), createClient(3), createClient(3));
+
+        appConfig.poguesWebClient(properties, WebClient.builder(), meterRegistry);
+
+        assertNotNull(meterRegistry.find("http.client.downstream.circuit.state").tag("client", "pogues").gauge());
+        assertNotNull(meterRegistry.find("http.client.downstream.retries").tag("client", "pogues").counter());
+    }
+
+    private HttpClientProperties.Client createClient(int maxConnections) {
+        return new HttpClientProperties.Client(maxConnections, 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(30), Duration.ofSeconds(60), Duration.ofSeconds(1),
+                new HttpClientProperties.Timeouts(Duration.ofSeconds(2), Duration.ofSeconds(2)), Map.of(),
+                new HttpClientProperties.Retry(0, Duration.ofMillis(10), Duration.ofMillis(20), 0.5, List.of()),
+                new HttpClientProperties.CircuitBreaker(3, Duration.ofMinutes(1)), false);
+    }
+}
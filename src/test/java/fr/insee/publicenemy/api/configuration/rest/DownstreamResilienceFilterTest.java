@@ -0,0 +1,123 @@
+package fr.insee.publicenemy.api.configuration.rest;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.configuration.properties.HttpClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DownstreamResilienceFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DownstreamResilienceFilter filter;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        HttpClientProperties.Client properties = new HttpClientProperties.Client(10, 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(30), Duration.ofSeconds(60), Duration.ofSeconds(1),
+                new HttpClientProperties.Timeouts(Duration.ofSeconds(2), Duration.ofSeconds(2)),
+                Map.of("slow-operation", new HttpClientProperties.Timeouts(Duration.ofMillis(100), Duration.ofMillis(100))),
+                new HttpClientProperties.Retry(2, Duration.ofMillis(10), Duration.ofMillis(20), 0.5, List.of("GET", "DELETE")),
+                new HttpClientProperties.CircuitBreaker(3, Duration.ofMinutes(1)), false);
+        filter = new DownstreamResilienceFilter("queen", properties, meterRegistry);
+    }
+
+    @Test
+    void onGetWhenServiceUnavailableThenRetryRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction next = request -> Mono.just(calls.incrementAndGet() == 1
+                ? ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()
+                : ClientResponse.create(HttpStatus.OK).build());
+
+        ClientResponse response = filter.filter(request(HttpMethod.GET), next).block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.counter("http.client.downstream.retries", "client", "queen").count());
+    }
+
+    @Test
+    void onGetWhenRetriesExhaustedThenReturnLastResponse() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction next = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build());
+        };
+
+        ClientResponse response = filter.filter(request(HttpMethod.GET), next).block();
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.statusCode());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void onPostWhenServiceUnavailableThenDoNotRetryRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction next = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        };
+
+        ClientResponse response = filter.filter(request(HttpMethod.POST), next).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.statusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void onRequestWhenOperationTimeoutExceededThenThrowGatewayTimeout() {
+        ExchangeFunction next = request -> Mono.never();
+        ClientRequest request = ClientRequest.create(HttpMethod.POST, URI.create("http://queen/api/questionnaire-models"))
+                .attribute(DownstreamResilienceFilter.OPERATION_ATTRIBUTE, "slow-operation")
+                .build();
+
+        Mono<ClientResponse> response = filter.filter(request, next);
+
+        ServiceException exception = assertThrows(ServiceException.class, response::block);
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+        assertEquals(1, meterRegistry.counter("http.client.downstream.timeouts", "client", "queen").count());
+    }
+
+    @Test
+    void onRequestWhenFailureThresholdReachedThenOpenCircuitAndFailFast() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction next = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        };
+        for (int i = 0; i < 3; i++) {
+            filter.filter(request(HttpMethod.POST), next).block();
+        }
+
+        Mono<ClientResponse> response = filter.filter(request(HttpMethod.POST), next);
+
+        ServiceException exception = assertThrows(ServiceException.class, response::block);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, filter.getCircuitState());
+        assertEquals(1, meterRegistry.counter("http.client.downstream.circuit.opened", "client", "queen").count());
+        assertEquals(1, meterRegistry.counter("http.client.downstream.circuit.rejected", "client", "queen").count());
+    }
+
+    private ClientRequest request(HttpMethod method) {
+        return ClientRequest.create(method, URI.create("http://queen/api/campaigns")).build();
+    }
+}
@@ -0,0 +1,52 @@
+package fr.insee.publicenemy.api.configuration.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GzipRequestFilterTest {
+
+    private final DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void onCompressReturnGzipContentOfAllBuffers() throws IOException {
+        String content = "{\"id\":\"l8wwljbo\",\"components\":[" + "{\"id\":\"question\"},".repeat(2000) + "{}]}";
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Flux<DataBuffer> body = Flux.range(0, 10)
+                .map(index -> {
+                    int start = index * bytes.length / 10;
+                    int end = (index + 1) * bytes.length / 10;
+                    return factory.wrap(Arrays.copyOfRange(bytes, start, end));
+                });
+
+        DataBuffer compressed = DataBufferUtils.join(GzipRequestFilter.compress(body, factory)).block();
+        byte[] compressedBytes = new byte[compressed.readableByteCount()];
+        compressed.read(compressedBytes);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressedBytes))) {
+            assertEquals(content, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void onCompressWhenEmptyBodyReturnEmptyGzipContent() throws IOException {
+        DataBuffer compressed = DataBufferUtils.join(GzipRequestFilter.compress(Flux.empty(), factory)).block();
+        byte[] compressedBytes = new byte[compressed.readableByteCount()];
+        compressed.read(compressedBytes);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressedBytes))) {
+            assertEquals(0, inputStream.readAllBytes().length);
+        }
+    }
+}
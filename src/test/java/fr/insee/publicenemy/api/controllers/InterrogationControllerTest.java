@@ -2,6 +2,7 @@ package fr.insee.publicenemy.api.controllers;
 
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationPage;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.pogues.DataTypeValidationMessage;
 import fr.insee.publicenemy.api.application.domain.model.pogues.DataTypeValidationResult;
@@ -38,14 +39,20 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -77,6 +84,12 @@ class InterrogationControllerTest {
     @MockitoBean
     private QuestionnaireUseCase questionnaireUseCase;
 
+    @MockitoBean
+    private NomenclatureUseCase nomenclatureUseCase;
+
+    @MockitoBean
+    private InterrogationRowUseCase interrogationRowUseCase;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -216,8 +229,8 @@ class InterrogationControllerTest {
     void onResetSurveyUnitCallResetService() throws Exception {
         PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, 0);
 
-        byte[] surveyUnitData = "".getBytes();
-        when(questionnaireUseCase.getInterrogationData(mapping.questionnaireId())).thenReturn(surveyUnitData);
+        Interrogation interrogation = new Interrogation(mapping.interrogationId(), mapping.getQuestionnaireModelId(), null, null);
+        when(interrogationRowUseCase.getInterrogation(mapping)).thenReturn(interrogation);
         when(personalizationUseCase.getPersoMappingByInterrogationId(mapping.interrogationId())).thenReturn(mapping);
 
         mockMvc.perform(put("/api/interrogations/{interrogationId}/reset", mapping.interrogationId())
@@ -226,6 +239,49 @@ class InterrogationControllerTest {
                 .andExpect(status().isOk())
                 .andReturn();
 
-        verify(queenUseCase).resetInterrogation(mapping, surveyUnitData);
+        verify(queenUseCase).resetInterrogation(mapping, interrogation);
+        verify(questionnaireUseCase, never()).getInterrogationData(mapping.questionnaireId());
+    }
+
+    @Test
+    void onGetInterrogationsPageReturnsInterrogationsAndNextCursor() throws Exception {
+        when(questionnaireUseCase.getQuestionnaire("l8wwljbo")).thenReturn(questionnaire);
+        when(personalizationUseCase.getPersonalizationPage(questionnaire.getId(), Mode.CAWI, 0, 2))
+                .thenReturn(new PersonalizationPage(personalizationMappings.subList(1, 3), 2));
+
+        mockMvc.perform(get("/api/questionnaires/{poguesId}/interrogations/page", "l8wwljbo")
+                        .param("mode", "CAWI")
+                        .param("cursor", "0")
+                        .param("size", "2")
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interrogations.length()", is(2)))
+                .andExpect(jsonPath("$.interrogations[0].id", is("11-CAWI-2")))
+                .andExpect(jsonPath("$.interrogations[0].displayableId", is(2)))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onStreamInterrogationsWritesOneLinePerInterrogation() throws Exception {
+        when(questionnaireUseCase.getQuestionnaire("l8wwljbo")).thenReturn(questionnaire);
+        doAnswer(invocation -> {
+            Consumer<PersonalizationMapping> consumer = invocation.getArgument(2);
+            personalizationMappings.forEach(consumer);
+            return null;
+        }).when(personalizationUseCase).streamPersonalization(eq(questionnaire.getId()), eq(Mode.CAWI), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/questionnaires/{poguesId}/interrogations/stream", "l8wwljbo")
+                        .param("mode", "CAWI")
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"mode\":\"CAWI\""));
+        assertTrue(lines[0].contains("\"id\":\"11-CAWI-1\""));
+        assertTrue(lines[2].contains("\"displayableId\":3"));
+        verify(personalizationUseCase, never()).streamPersonalization(any(), eq(Mode.CATI), any());
     }
 }
@@ -0,0 +1,81 @@
+package fr.insee.publicenemy.api.controllers;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.usecase.NomenclatureUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration
+@AutoConfigureMockMvc
+class NomenclatureControllerTest {
+
+    @MockitoBean
+    private NomenclatureUseCase nomenclatureUseCase;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String reference = "4f9d6e1c0b3a";
+
+    @Test
+    void onGetNomenclaturesWithoutAuthenticationReturnsNomenclaturesWithCacheHeaders() throws Exception {
+        when(nomenclatureUseCase.getNomenclatures(reference)).thenReturn("{\"L_COMMUNE\":[]}");
+
+        mockMvc.perform(get("/api/nomenclatures/{reference}", reference))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + reference + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().json("{\"L_COMMUNE\":[]}"));
+    }
+
+    @Test
+    void onGetNomenclaturesWhenEtagKnownReturnsNotModified() throws Exception {
+        mockMvc.perform(get("/api/nomenclatures/{reference}", reference)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + reference + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + reference + "\""));
+        verify(nomenclatureUseCase, never()).getNomenclatures(any());
+    }
+
+    @Test
+    void onGetNomenclaturesWhenAnyEtagKnownAndNomenclaturesExistReturnsNotModified() throws Exception {
+        when(nomenclatureUseCase.getNomenclatures(reference)).thenReturn("{\"L_COMMUNE\":[]}");
+
+        mockMvc.perform(get("/api/nomenclatures/{reference}", reference)
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + reference + "\""));
+    }
+
+    @Test
+    void onGetNomenclaturesWhenAnyEtagKnownAndUnknownReferenceReturnsNotFound() throws Exception {
+        when(nomenclatureUseCase.getNomenclatures(reference)).thenThrow(new ServiceException(HttpStatus.NOT_FOUND, "not found"));
+
+        mockMvc.perform(get("/api/nomenclatures/{reference}", reference)
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void onGetNomenclaturesWhenUnknownReferenceReturnsNotFound() throws Exception {
+        when(nomenclatureUseCase.getNomenclatures(reference)).thenThrow(new ServiceException(HttpStatus.NOT_FOUND, "not found"));
+
+        mockMvc.perform(get("/api/nomenclatures/{reference}", reference))
+                .andExpect(status().isNotFound());
+    }
+}
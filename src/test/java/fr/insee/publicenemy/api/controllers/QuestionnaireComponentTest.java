@@ -28,7 +28,7 @@ class QuestionnaireComponentTest {
     @Test
     void onCreateFromModelReturnsAllAttributesFromQuestionnaire() {
         Questionnaire questionnaire = new Questionnaire(1L, "l8wwljbo","uuid", "label", Context.HOUSEHOLD,
-                List.of(new QuestionnaireMode(Mode.CAWI), new QuestionnaireMode(Mode.CAPI)), "content".getBytes(), PersonalizationState.STARTED, false);
+                List.of(new QuestionnaireMode(Mode.CAWI), new QuestionnaireMode(Mode.CAPI)), "content".getBytes(), PersonalizationState.STARTED, false, null);
         
         QuestionnaireRest questionnaireRest = component.createFromModel(questionnaire);
 
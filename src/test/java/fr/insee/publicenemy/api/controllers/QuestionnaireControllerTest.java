@@ -88,7 +88,7 @@ class QuestionnaireControllerTest {
         for (long nbQuestionnaires = 0; nbQuestionnaires < 3; nbQuestionnaires++) {
             Long id = nbQuestionnaires + 1;
             Questionnaire q = new Questionnaire(id, "l8wwljbo" + id, "uuid", "label" + id, Context.BUSINESS,
-                    questionnaireModes, "data".getBytes(), PersonalizationState.STARTED, false);
+                    questionnaireModes, "data".getBytes(), PersonalizationState.STARTED, false, null);
             QuestionnaireRest qRest = new QuestionnaireRest(q.getId(), q.getPoguesId(),
                     q.getLabel(), contextRest, modesRest, q.getPersonalizationState(), q.isOutdated());
             questionnaires.add(q);
@@ -116,6 +116,31 @@ class QuestionnaireControllerTest {
                 .andExpect(jsonPath("$.modes.size()", is(questionnaireRest.modes().size())));
     }
 
+    @Test
+    void onGetQuestionnairesShouldFetchAllQuestionnaires() throws Exception {
+        when(questionnaireUseCase.getQuestionnaires()).thenReturn(questionnaires);
+
+        mockMvc.perform(get("/api/questionnaires")
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(3)))
+                .andExpect(jsonPath("$[0].poguesId", is(questionnaireRest.poguesId())));
+    }
+
+    @Test
+    void onGetQuestionnairesPageShouldFetchQuestionnairesPage() throws Exception {
+        when(questionnaireUseCase.getQuestionnairesPage(4L, 2)).thenReturn(new QuestionnairePage(questionnaires.subList(0, 2), 2L));
+
+        mockMvc.perform(get("/api/questionnaires/page")
+                        .param("cursor", "4")
+                        .param("size", "2")
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questionnaires.size()", is(2)))
+                .andExpect(jsonPath("$.questionnaires[0].poguesId", is(questionnaireRest.poguesId())))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+    }
+
     @Test
     void onGetSurveyUnitsDataReturnCSV() throws Exception {
         String poguesId = "poguesId";
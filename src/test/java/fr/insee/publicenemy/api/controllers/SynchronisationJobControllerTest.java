@@ -0,0 +1,73 @@
+package fr.insee.publicenemy.api.controllers;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+import fr.insee.publicenemy.api.application.usecase.SynchronisationJobUseCase;
+import fr.insee.publicenemy.api.utils.AuthenticatedUserTestHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration
+@AutoConfigureMockMvc
+class SynchronisationJobControllerTest {
+
+    @MockitoBean
+    private SynchronisationJobUseCase synchronisationJobUseCase;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final AuthenticatedUserTestHelper authenticatedUserTestHelper = new AuthenticatedUserTestHelper();
+
+    @Test
+    void onGetQueueStateReturnsNumberOfJobsByStatus() throws Exception {
+        when(synchronisationJobUseCase.getQueueState()).thenReturn(Map.of(
+                SynchronisationJobStatus.PENDING, 4L,
+                SynchronisationJobStatus.RUNNING, 2L,
+                SynchronisationJobStatus.FAILED, 1L,
+                SynchronisationJobStatus.DONE, 10L));
+
+        mockMvc.perform(get("/api/synchronisation-jobs")
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending", is(4)))
+                .andExpect(jsonPath("$.running", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.done", is(10)));
+    }
+
+    @Test
+    void onGetLastJobReturnsJobStatus() throws Exception {
+        String poguesId = "l8wwljbo";
+        Instant now = Instant.now();
+        when(synchronisationJobUseCase.getLastJob(poguesId)).thenReturn(new SynchronisationJob(5L, 1L, SynchronisationJobType.UPDATE,
+                SynchronisationJobStatus.PENDING, false, 2, now, "queen error", now, now));
+
+        mockMvc.perform(get("/api/synchronisation-jobs/questionnaires/{poguesId}", poguesId)
+                        .with(authentication(authenticatedUserTestHelper.getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(5)))
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.attempts", is(2)))
+                .andExpect(jsonPath("$.lastError", is("queen error")));
+    }
+}
@@ -0,0 +1,97 @@
+package fr.insee.publicenemy.api.infrastructure.csv;
+
+import com.opencsv.bean.CsvBindAndJoinByName;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.bean.processor.ConvertEmptyOrBlankStringsToNull;
+import com.opencsv.bean.processor.PreAssignmentProcessor;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.collections4.MultiValuedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Interrogations of a csv file read by the positional csv reader and by the previous reflective bean binding of opencsv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InterrogationCsvReaderBenchmark {
+
+    static final int NB_LINES = 10_000;
+    private static final int NB_COLUMNS = 20;
+
+    private InterrogationCsvService service;
+
+    private byte[] data;
+
+    @Setup
+    public void init() {
+        service = new InterrogationCsvService(2, mock(I18nMessagePort.class));
+        data = createCsvData();
+    }
+
+    @Benchmark
+    public List<Interrogation> positionalReader() {
+        return service.initInterrogations(data, "1-CAWI");
+    }
+
+    @Benchmark
+    public List<Interrogation> beanBinding() {
+        List<BeanInterrogationCsvLine> lines = new CsvToBeanBuilder<BeanInterrogationCsvLine>(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8))
+                .withSkipLines(0)
+                .withSeparator(',')
+                .withIgnoreLeadingWhiteSpace(true)
+                .withStrictQuotes(true)
+                .withIgnoreQuotations(false)
+                .withType(BeanInterrogationCsvLine.class)
+                .build().parse();
+        return lines.stream()
+                .map(line -> new Interrogation("id", "1-CAWI", new InterrogationData(line.getFields().entries().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .toList()), null))
+                .toList();
+    }
+
+    private static byte[] createCsvData() {
+        String header = IntStream.range(0, NB_COLUMNS)
+                .mapToObj(column -> column < NB_COLUMNS / 2 ? "\"VARIABLE" + column + "\"" : "\"LIST_" + column + "\"")
+                .collect(Collectors.joining(","));
+        String lines = IntStream.range(0, NB_LINES)
+                .mapToObj(line -> IntStream.range(0, NB_COLUMNS)
+                        .mapToObj(column -> "\"value " + line + "-" + column + "\"")
+                        .collect(Collectors.joining(",")))
+                .collect(Collectors.joining("\n"));
+        return (header + "\n" + lines).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Previous csv line, bound by reflection
+     */
+    @Getter
+    @Setter
+    public static class BeanInterrogationCsvLine {
+        @CsvBindAndJoinByName(column = ".*", elementType = String.class)
+        @PreAssignmentProcessor(processor = ConvertEmptyOrBlankStringsToNull.class)
+        private MultiValuedMap<String, String> fields;
+    }
+}
@@ -0,0 +1,54 @@
+package fr.insee.publicenemy.api.infrastructure.csv;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InterrogationCsvReaderBenchmarkTest {
+
+    @Test
+    void onSameDataPositionalReaderAndBeanBindingReturnSameData() {
+        InterrogationCsvReaderBenchmark benchmark = new InterrogationCsvReaderBenchmark();
+        benchmark.init();
+
+        List<Interrogation> readerInterrogations = benchmark.positionalReader();
+        List<Interrogation> beanInterrogations = benchmark.beanBinding();
+
+        assertEquals(InterrogationCsvReaderBenchmark.NB_LINES, readerInterrogations.size());
+        assertEquals(beanInterrogations.getLast().data().getExternalAttributes(), readerInterrogations.getLast().data().getExternalAttributes());
+    }
+
+    /**
+     * Run with: mvn test -Dtest=InterrogationCsvReaderBenchmarkTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkPositionalReaderAgainstBeanBinding() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InterrogationCsvReaderBenchmark.class.getName() + "\\.")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                // allocated bytes per operation
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertEquals(2, results.size());
+    }
+}
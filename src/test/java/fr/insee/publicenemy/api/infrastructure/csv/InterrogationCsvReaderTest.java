@@ -0,0 +1,67 @@
+package fr.insee.publicenemy.api.infrastructure.csv;
+
+import fr.insee.publicenemy.api.application.exceptions.ServiceException;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterrogationCsvReaderTest {
+
+    @Mock
+    private I18nMessagePort messageService;
+
+    @Test
+    void onReadBindValuesToHeadersByPosition() {
+        byte[] data = "\"name\",\"age\",\"city\"\n\"value0\",\"12\",\" \"\n\"value1\",\"\",\"Paris\"".getBytes();
+
+        try (Stream<InterrogationCsvLine> lines = new InterrogationCsvReader(data, messageService).stream()) {
+            List<List<Map.Entry<String, String>>> fields = lines.map(InterrogationCsvLine::getFields).toList();
+
+            assertEquals(2, fields.size());
+            assertEquals(List.of(entry("name", "value0"), entry("age", "12"), entry("city", null)), fields.get(0));
+            assertEquals(List.of(entry("name", "value1"), entry("age", null), entry("city", "Paris")), fields.get(1));
+        }
+    }
+
+    @Test
+    void onReadWhenOnlyHeadersReturnNoLine() {
+        try (Stream<InterrogationCsvLine> lines = new InterrogationCsvReader("\"name\",\"age\"".getBytes(), messageService).stream()) {
+            assertEquals(0, lines.count());
+        }
+    }
+
+    @Test
+    void onReadWhenValuesCountDoesNotMatchHeadersThrowsException() {
+        byte[] data = "\"name\",\"age\"\n\"value0\",\"12\"\n\"value1\"".getBytes();
+
+        try (Stream<InterrogationCsvLine> lines = new InterrogationCsvReader(data, messageService).stream()) {
+            ServiceException exception = assertThrows(ServiceException.class, lines::toList);
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        }
+    }
+
+    @Test
+    void onReadOnlyReadConsumedLines() {
+        // the malformed third line is never read
+        byte[] data = "\"name\",\"age\"\n\"value0\",\"12\"\n\"value1\"".getBytes();
+
+        try (Stream<InterrogationCsvLine> lines = new InterrogationCsvReader(data, messageService).stream()) {
+            assertEquals(1, lines.limit(1).count());
+        }
+    }
+
+    private Map.Entry<String, String> entry(String key, String value) {
+        return new AbstractMap.SimpleImmutableEntry<>(key, value);
+    }
+}
@@ -8,7 +8,6 @@ import fr.insee.publicenemy.api.application.domain.model.interrogation.IInterrog
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationDataAttributeValue;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
-import fr.insee.publicenemy.api.infrastructure.csv.exceptions.InterrogationCsvNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +15,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
 
 import java.io.File;
 import java.io.IOException;
@@ -119,16 +119,22 @@ class InterrogationCsvServiceTest {
     void onGetCsvSurveyUnitReturnCorrectInterrogation(int dataIndex) {
         PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, dataIndex);
         byte[] data = "\"name\"\n\"value0\"\n\"value1\"".getBytes();
-        Interrogation su = service.getCsvInterrogation(mapping, data);
+        List<JsonNode> rows = service.getInterrogationRows(data);
+        Interrogation su = service.getCsvInterrogation(mapping, rows.get(dataIndex));
         assertEquals(("value" + dataIndex), su.data().getExternalAttributes().get("name").getValue());
+        assertEquals(mapping.interrogationId(), su.id());
     }
 
-    @ParameterizedTest
-    @ValueSource(ints = {-1, 10})
-    void onGetCsvSurveyUnitWhenInterrogationIdIncorrectThrowsException(int dataIndex) {
-        PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, dataIndex);
-        byte[] data = "\"name\"\n\"value0\"\n\"value1\"".getBytes();
-        assertThrows(InterrogationCsvNotFoundException.class, () -> service.getCsvInterrogation(mapping, data));
+    @Test
+    void onGetCsvSurveyUnitFromRowReturnSameDataAsInitInterrogations() throws IOException {
+        byte[] surveyUnitData = Files.readAllBytes(new File("src/test/resources/survey-unit-data.csv").toPath());
+        List<Interrogation> interrogations = service.initInterrogations(surveyUnitData, "13-CAPI");
+        List<JsonNode> rows = service.getInterrogationRows(surveyUnitData);
+
+        assertEquals(interrogations.size(), rows.size());
+        PersonalizationMapping mapping = new PersonalizationMapping("13-CAPI-1", 13L, Mode.CAPI, 3);
+        Interrogation su = service.getCsvInterrogation(mapping, rows.get(3));
+        assertEquals(interrogations.get(3).data().getExternalAttributes(), su.data().getExternalAttributes());
     }
 
 
@@ -3,20 +3,26 @@ package fr.insee.publicenemy.api.infrastructure.json;
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.*;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationHashUtils;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
-import fr.insee.publicenemy.api.infrastructure.json.exceptions.InterrogationJsonNotFoundException;
+import fr.insee.publicenemy.api.infrastructure.queen.dto.InterrogationDto;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.JsonNode;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static fr.insee.publicenemy.api.infrastructure.json.InterrogationJsonService.simplifyMessage;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,6 +57,20 @@ class InterrogationJsonServiceTest {
         assertEquals(1, interrogations.size());
     }
 
+    @Test
+    void onParseSameDataTwiceWithoutStateDateReturnSameContentHashes() throws InterruptedException {
+        byte[] surveyUnitData = """
+                [{"stateData": {"currentPage": "2", "state": "INIT"}, "data": {"EXTERNAL": {"NAME": "test"}}}]
+                """.getBytes(StandardCharsets.UTF_8);
+
+        Interrogation firstParse = service.initInterrogations(surveyUnitData, "13-CAPI").getFirst();
+        Thread.sleep(5);
+        Interrogation secondParse = service.initInterrogations(surveyUnitData, "13-CAPI").getFirst();
+
+        assertEquals(InterrogationHashUtils.computeContentHash(firstParse), InterrogationHashUtils.computeContentHash(secondParse));
+        assertNotNull(InterrogationDto.fromModel(firstParse).stateData().date());
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"invalid"})
     void onGetInvalidJsonShouldThrowTechnicalError(String dataPath) throws IOException {
@@ -107,16 +127,74 @@ class InterrogationJsonServiceTest {
             }
         ]
         """.getBytes();
-        Interrogation su = service.getJsonInterrogation(mapping, data);
+        List<JsonNode> rows = service.getInterrogationRows(data);
+        Interrogation su = service.getJsonInterrogation(mapping, rows.get(dataIndex));
         assertEquals(("value " + dataIndex), su.data().getCollectedAttributes().get("name").getValue());
+        assertEquals(mapping.interrogationId(), su.id());
     }
 
-    @ParameterizedTest
-    @ValueSource(ints = {-1, 10})
-    void onGetCsvSurveyUnitWhenInterrogationIdIncorrectThrowsException(int dataIndex) {
-        PersonalizationMapping mapping = new PersonalizationMapping("11-CAPI-1", 11L, Mode.CAPI, dataIndex);
-        byte[] data = "[]".getBytes();
-        assertThrows(InterrogationJsonNotFoundException.class, () -> service.getJsonInterrogation(mapping, data));
+    @Test
+    void onGetInterrogationRowsWhenSingleObjectReturnOneRow() {
+        byte[] data = """
+        { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 0" } } } }
+        """.getBytes();
+        assertEquals(1, service.getInterrogationRows(data).size());
+    }
+
+    @Test
+    void onInitInterrogationsWhenNdjsonReturnOneInterrogationPerLine() {
+        byte[] data = """
+        { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 0" } } } }
+        { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 1" } } } }
+        """.getBytes();
+        List<Interrogation> interrogations = service.initInterrogations(data, "13-CAPI");
+        assertEquals(2, interrogations.size());
+        assertEquals("value 1", interrogations.get(1).data().getCollectedAttributes().get("name").getValue());
+    }
+
+    @Test
+    void onStreamInterrogationsOnlyReadConsumedElements() {
+        // the malformed second element is never read
+        byte[] data = """
+        [
+            { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 0" } } } },
+            { "data": ]]
+        ]
+        """.getBytes();
+        try (Stream<Interrogation> interrogations = service.streamInterrogations(data, "13-CAPI")) {
+            assertEquals(1, interrogations.limit(1).count());
+        }
+    }
+
+    @Test
+    void onStreamInterrogationsWhenElementMalformedThrowsException() {
+        byte[] data = """
+        [
+            { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 0" } } } },
+            { "data": ]]
+        ]
+        """.getBytes();
+        assertThrows(ServiceException.class, () -> service.initInterrogations(data, "13-CAPI"));
+    }
+
+    @Test
+    void onInitInterrogationsWhenContentAfterArrayThrowsException() {
+        byte[] data = """
+        [
+            { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 0" } } } }
+        ]
+        { "data": { "COLLECTED": { "name": { "COLLECTED" : "value 1" } } } }
+        """.getBytes();
+        when(messageService.getMessage(eq("validation.json.malform.error"), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> service.initInterrogations(data, "13-CAPI"));
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, exception.getStatus());
+        assertThat(exception.getMessage()).contains("Unexpected content after the end of the array");
+    }
+
+    @Test
+    void onGetInterrogationRowsWhenEmptyArrayReturnNoRow() {
+        assertEquals(0, service.getInterrogationRows("[]".getBytes()).size());
     }
 
 }
@@ -43,7 +43,8 @@ class InterrogationStateDataAttributeParserTest {
 
         assertEquals("1", result.currentPage());
         assertEquals("INIT", result.state());
-        assertTrue(result.date() <= Instant.now().toEpochMilli());
+        assertNull(result.date());
+        assertTrue(result.withDefaultDate().date() <= Instant.now().toEpochMilli());
     }
 
     @Test
@@ -71,6 +72,7 @@ class InterrogationStateDataAttributeParserTest {
 
         assertEquals("1", result.currentPage()); // fallback
         assertEquals("INIT", result.state());    // fallback
-        assertTrue(result.date() <= Instant.now().toEpochMilli()); // fallback
+        assertNull(result.date()); // defaulted when sent to Queen
+        assertTrue(result.withDefaultDate().date() <= Instant.now().toEpochMilli()); // fallback
     }
 }
@@ -53,7 +53,7 @@ class EnoServiceTest {
     @BeforeEach
     void init() {
         String enoUrl = String.format("http://localhost:%s", mockWebServer.getPort());
-        service = new EnoServiceImpl(webClient, enoUrl);
+        service = new EnoServiceImpl(new ReactiveEnoServiceImpl(webClient, enoUrl));
         when(questionnaireModel.content()).thenReturn(JsonMapper.builder().build().readTree("{}"));
     }
 
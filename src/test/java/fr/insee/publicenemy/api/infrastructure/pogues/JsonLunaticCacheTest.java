@@ -0,0 +1,164 @@
+package fr.insee.publicenemy.api.infrastructure.pogues;
+
+import fr.insee.publicenemy.api.application.domain.model.Context;
+import fr.insee.publicenemy.api.application.domain.model.JsonLunatic;
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.ports.JsonLunaticCachePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLunaticCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JsonLunaticCache cache;
+
+    private final QuestionnaireModel questionnaireModel = new QuestionnaireModel("l8wwljbo", "version1", "label", List.of(Mode.CAWI, Mode.CAPI), null);
+
+    private final JsonLunatic jsonLunatic = new JsonLunatic("{\"id\":\"lunatic\"}");
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        // memory tier holds the test json lunatic (16 bytes) but not one more entry
+        cache = new JsonLunaticCache(true, "1", DataSize.ofBytes(17), 2, DataSize.ofMegabytes(1), directory.toString(), meterRegistry);
+    }
+
+    @Test
+    void onGetJsonLunaticWhenNotCachedReturnEmpty() {
+        assertTrue(cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI).isEmpty());
+        assertEquals(1, meterRegistry.counter("lunatic.cache.requests", "tier", "disk", "result", "miss").count());
+    }
+
+    @Test
+    void onGetJsonLunaticWhenCachedReturnJsonLunaticFromMemory() {
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        assertEquals(Optional.of(jsonLunatic), cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        assertEquals(1, memoryMetric("cache.gets", "result", "hit"));
+    }
+
+    @Test
+    void onGetJsonLunaticWhenEvictedFromMemoryReturnJsonLunaticFromDisk() {
+        JsonLunatic otherJsonLunatic = new JsonLunatic("{}");
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAPI, otherJsonLunatic);
+        assertEquals(1, memoryMetric("cache.evictions"));
+
+        // the memory tier decides which entry is evicted, the other one is read from disk
+        assertEquals(Optional.of(jsonLunatic), cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        assertEquals(Optional.of(otherJsonLunatic), cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAPI));
+        assertTrue(meterRegistry.counter("lunatic.cache.requests", "tier", "disk", "result", "hit").count() >= 1);
+    }
+
+    @Test
+    void onGetJsonLunaticWhenDifferentKeyReturnEmpty() {
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        QuestionnaireModel newVersionModel = new QuestionnaireModel("l8wwljbo", "version2", "label", List.of(Mode.CAWI), null);
+
+        assertTrue(cache.getJsonLunatic(newVersionModel, Context.BUSINESS, Mode.CAWI).isEmpty());
+        assertTrue(cache.getJsonLunatic(questionnaireModel, Context.HOUSEHOLD, Mode.CAWI).isEmpty());
+        assertTrue(new JsonLunaticCache(true, "2", DataSize.ofBytes(17), 2, DataSize.ofMegabytes(1), directory.toString(), meterRegistry)
+                .getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI).isEmpty());
+    }
+
+    @Test
+    void onPutJsonLunaticWhenNoVersionDoNotCache() {
+        QuestionnaireModel modelWithoutVersion = new QuestionnaireModel("l8wwljbo", "", "label", List.of(Mode.CAWI), null);
+        cache.putJsonLunatic(modelWithoutVersion, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        assertTrue(cache.getJsonLunatic(modelWithoutVersion, Context.BUSINESS, Mode.CAWI).isEmpty());
+    }
+
+    @Test
+    void onPutJsonLunaticWhenDiskFullEvictLeastRecentlyUsedEntry() {
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAPI, jsonLunatic);
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CATI, jsonLunatic);
+        assertEquals(1, meterRegistry.counter("lunatic.cache.evictions", "tier", "disk").count());
+    }
+
+    @Test
+    void onPutJsonLunaticWhenLargerThanMemoryMaxSizeKeepItOnDiskOnly() {
+        JsonLunatic largeJsonLunatic = new JsonLunatic("{\"id\":\"large-lunatic\"}");
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, largeJsonLunatic);
+        assertEquals(1, memoryMetric("cache.evictions"));
+
+        assertEquals(Optional.of(largeJsonLunatic), cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        assertEquals(1, meterRegistry.counter("lunatic.cache.requests", "tier", "disk", "result", "hit").count());
+    }
+
+    @Test
+    void onPutJsonLunaticWhenDiskMaxSizeExceededEvictLeastRecentlyUsedEntry() throws Exception {
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+        long fileSize;
+        try (var files = Files.list(directory)) {
+            fileSize = Files.size(files.findFirst().orElseThrow());
+        }
+
+        JsonLunaticCache sizeBoundedCache = new JsonLunaticCache(true, "1", DataSize.ofBytes(17), 10,
+                DataSize.ofBytes(fileSize + 1), directory.toString(), meterRegistry);
+        sizeBoundedCache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAPI, jsonLunatic);
+
+        assertEquals(1, meterRegistry.counter("lunatic.cache.evictions", "tier", "disk").count());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void onGetJsonLunaticWhenWrittenBeforeRestartReturnJsonLunaticFromDisk() {
+        cache.putJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI, jsonLunatic);
+
+        JsonLunaticCache restartedCache = new JsonLunaticCache(true, "1", DataSize.ofBytes(17), 2, DataSize.ofMegabytes(1), directory.toString(), meterRegistry);
+        assertEquals(Optional.of(jsonLunatic), restartedCache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        assertEquals(1, meterRegistry.counter("lunatic.cache.requests", "tier", "disk", "result", "hit").count());
+    }
+
+    @Test
+    void onCommitJsonLunaticWriterReturnJsonLunaticFromDisk() {
+        try (JsonLunaticCachePort.Writer writer = cache.openJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI).orElseThrow()) {
+            writer.write(ByteBuffer.wrap("{\"id\":".getBytes()));
+            writer.write(ByteBuffer.wrap("\"lunatic\"}".getBytes()));
+            writer.commit();
+        }
+
+        assertEquals(Optional.of(jsonLunatic), cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI));
+        assertEquals(1, meterRegistry.counter("lunatic.cache.requests", "tier", "disk", "result", "hit").count());
+    }
+
+    @Test
+    void onCloseJsonLunaticWriterWithoutCommitDoNotCache() throws Exception {
+        try (JsonLunaticCachePort.Writer writer = cache.openJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI).orElseThrow()) {
+            writer.write(ByteBuffer.wrap("{\"id\":".getBytes()));
+        }
+
+        assertTrue(cache.getJsonLunatic(questionnaireModel, Context.BUSINESS, Mode.CAWI).isEmpty());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void onOpenJsonLunaticWriterWhenNoVersionReturnEmpty() {
+        QuestionnaireModel modelWithoutVersion = new QuestionnaireModel("l8wwljbo", "", "label", List.of(Mode.CAWI), null);
+        assertTrue(cache.openJsonLunatic(modelWithoutVersion, Context.BUSINESS, Mode.CAWI).isEmpty());
+    }
+
+    private double memoryMetric(String name, String... tags) {
+        return meterRegistry.get(name).tag("cache", "lunatic.memory").tags(tags).functionCounter().count();
+    }
+}
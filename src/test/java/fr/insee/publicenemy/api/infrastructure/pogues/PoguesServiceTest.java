@@ -2,6 +2,9 @@ package fr.insee.publicenemy.api.infrastructure.pogues;
 
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
+import fr.insee.publicenemy.api.application.domain.model.QuestionnaireModel;
+import fr.insee.publicenemy.api.application.domain.model.pogues.NumericDatatypeType;
+import fr.insee.publicenemy.api.application.domain.model.pogues.TextDatatypeType;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableType;
 import fr.insee.publicenemy.api.application.domain.model.pogues.VariableTypeEnum;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
@@ -19,8 +22,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,7 +62,7 @@ class PoguesServiceTest {
     void init() {
         String poguesUrl = String.format("http://localhost:%s",
                 mockWebServer.getPort());
-        service = new PoguesServiceImpl(webClient, poguesUrl, messageService);
+        service = new PoguesServiceImpl(new ReactivePoguesServiceImpl(webClient, poguesUrl, messageService, Duration.ofMinutes(1), 100));
 
 
     }
@@ -107,68 +112,112 @@ class PoguesServiceTest {
     }
 
     @Test
-    void onGetQuestionnaireVariablesWhenQuestionnaireNotFoundThrowsError() {
-        createMockNotFoundResponse();
-        assertThrows(PoguesJsonNotFoundException.class, () -> service.getQuestionnaireVariables(poguesId));
+    void onGetQuestionnaireVariablesWhenNoVariablesReturnEmptyList() {
+        List<VariableType> variables = service.getQuestionnaireVariables(createQuestionnaireModel(poguesContent));
+        assertTrue(variables.isEmpty());
     }
 
     @Test
-    void onGetQuestionnaireVariablesWhenErrorResponseThrowsError() {
-        createMockResponseError();
-        assertThrows(ServiceException.class, () -> service.getQuestionnaireVariables(poguesId));
+    void onGetQuestionnaireVariablesWhenVariablesIncorrectThrowsError() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("""
+                {"Variables": {"Variable": [{"type": "ExternalVariableType", "Name": "NAME", "Datatype": {"type": "UnknownDatatypeType"}}]}}""");
+        assertThrows(ServiceException.class, () -> service.getQuestionnaireVariables(questionnaireModel));
     }
 
     @Test
-    void onGetQuestionnaireVariablesWhenContentResponseIncorrectThrowsError() {
-        mockWebServer.enqueue(
-                new MockResponse()
-                        .setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody("{ incorrect content }")
-        );
-        assertThrows(ServiceException.class, () -> service.getQuestionnaireVariables(poguesId));
+    void onGetQuestionnaireVariablesReturnVariablesOfJsonPogues() {
+        QuestionnaireModel questionnaireModel = createQuestionnaireModel("""
+                {
+                  "TargetMode": ["CAWI"],
+                  "Label": ["questionnaire label"],
+                  "Variables": {
+                    "Variable": [
+                      {
+                        "id": "l8oaqmy0",
+                        "type": "ExternalVariableType",
+                        "Datatype": {
+                          "type": "TextDatatypeType",
+                          "typeName": "TEXT",
+                          "MaxLength": 249,
+                          "Pattern": ""
+                        },
+                        "Label": "ADMINISTRATION1 label",
+                        "Name": "ADMINISTRATION1",
+                        "Scope": "l8oatijq"
+                      },
+                      {
+                        "id": "l8oanpzz",
+                        "type": "CalculatedVariableType",
+                        "Datatype": {
+                          "type": "NumericDatatypeType",
+                          "typeName": "NUMERIC",
+                          "Minimum": "0",
+                          "Maximum": "10",
+                          "Decimals": 1
+                        },
+                        "Formula": "1 + 1",
+                        "Name": "ADMINISTRATION2"
+                      }
+                    ]
+                  }
+                }""");
+
+        List<VariableType> variables = service.getQuestionnaireVariables(questionnaireModel);
+        assertEquals(2, variables.size());
+        assertEquals("ADMINISTRATION1", variables.get(0).name());
+        assertEquals("l8oatijq", variables.get(0).scope());
+        assertEquals(VariableTypeEnum.EXTERNAL, variables.get(0).type());
+        assertInstanceOf(TextDatatypeType.class, variables.get(0).dataType());
+        assertEquals("ADMINISTRATION2", variables.get(1).name());
+        assertNull(variables.get(1).scope());
+        assertEquals(VariableTypeEnum.CALCULATED, variables.get(1).type());
+        assertInstanceOf(NumericDatatypeType.class, variables.get(1).dataType());
     }
 
     @Test
-    void onGetQuestionnaireVariablesReturnVariables() {
+    void onGetLatestVersionIdWhenCalledTwiceRequestPoguesOnce() {
+        createMockVersionResponseSuccess("version1");
+        int requestCount = mockWebServer.getRequestCount();
+
+        assertEquals("version1", service.getLatestVersionId(poguesId));
+        assertEquals("version1", service.getLatestVersionId(poguesId));
+        assertEquals(requestCount + 1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void onGetLatestVersionIdWhenVersionExpiredRequestPoguesAgain() {
+        String poguesUrl = String.format("http://localhost:%s", mockWebServer.getPort());
+        PoguesServiceImpl expiringService = new PoguesServiceImpl(new ReactivePoguesServiceImpl(webClient, poguesUrl, messageService, Duration.ZERO, 100));
+        createMockVersionResponseSuccess("version1");
+        createMockVersionResponseSuccess("version2");
+
+        assertEquals("version1", expiringService.getLatestVersionId(poguesId));
+        assertEquals("version2", expiringService.getLatestVersionId(poguesId));
+    }
+
+    @Test
+    void onGetLatestVersionIdWhenErrorResponseRequestPoguesAgain() {
+        createMockResponseError();
+        createMockVersionResponseSuccess("version1");
+
+        assertThrows(ServiceException.class, () -> service.getLatestVersionId(poguesId));
+        assertEquals("version1", service.getLatestVersionId(poguesId));
+    }
+
+    private QuestionnaireModel createQuestionnaireModel(String jsonPogues) {
+        return new QuestionnaireModel(poguesId, "version1", "questionnaire label", modes, JsonMapper.builder().build().readTree(jsonPogues));
+    }
+
+    /**
+     * Create pogues api last version response
+     */
+    private void createMockVersionResponseSuccess(String versionId) {
         mockWebServer.enqueue(
                 new MockResponse()
                         .setResponseCode(200)
                         .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody("""
-                                [
-                                  {
-                                    "type": "ExternalVariableType",
-                                    "Datatype": {
-                                      "type": "TextDatatypeType",
-                                      "typeName": "TEXT",
-                                      "MaxLength": 249,
-                                      "Pattern": ""
-                                    },
-                                    "Name": "ADMINISTRATION1",
-                                    "Scope": "l8oatijq"\s
-                                  },
-                                  {
-                                    "type": "CalculatedVariableType",
-                                    "Datatype": {
-                                      "type": "TextDatatypeType",
-                                      "typeName": "TEXT",
-                                      "MaxLength": 249,
-                                      "Pattern": ""
-                                    },
-                                    "Name": "ADMINISTRATION2",
-                                    "Scope": null
-                                  }]""")
+                        .setBody(String.format("{\"id\": \"%s\"}", versionId))
         );
-
-        List<VariableType> variables = service.getQuestionnaireVariables(poguesId);
-        assertEquals(2, variables.size());
-        assertEquals("ADMINISTRATION1", variables.get(0).name());
-        assertEquals("l8oatijq", variables.get(0).scope());
-        assertEquals(VariableTypeEnum.EXTERNAL, variables.get(0).type());
-        assertEquals("ADMINISTRATION2", variables.get(1).name());
-        assertNull(variables.get(1).scope());
-        assertEquals(VariableTypeEnum.CALCULATED, variables.get(1).type());
     }
 
     /**
@@ -3,6 +3,7 @@ package fr.insee.publicenemy.api.infrastructure.queen;
 import fr.insee.publicenemy.api.application.domain.model.*;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.Interrogation;
 import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationData;
+import fr.insee.publicenemy.api.application.exceptions.InterrogationsCreationException;
 import fr.insee.publicenemy.api.application.exceptions.ServiceException;
 import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.configuration.MetadataProps;
@@ -10,6 +11,7 @@ import fr.insee.publicenemy.api.infrastructure.interro.InterrogationStateData;
 import fr.insee.publicenemy.api.infrastructure.queen.exceptions.InterrogationsNotFoundException;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,12 +20,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -60,12 +67,12 @@ class QueenServiceTest {
     public void init() {
         String baseUrl = String.format("http://localhost:%s",
                 mockWebServer.getPort());
-        service = new QueenServiceImpl(messagePort, webClient, baseUrl, metadataProps);
+        service = new QueenServiceImpl(new ReactiveQueenServiceImpl(messagePort, webClient, baseUrl, metadataProps, 2, JsonMapper.builder().build()));
 
         QuestionnaireMode questionnaireMode = new QuestionnaireMode(Mode.CAWI);
         List<QuestionnaireMode> questionnaireModes = List.of(questionnaireMode);
         questionnaire = new Questionnaire(1L, "l8wwljbo", "uuid", "label", Context.BUSINESS,
-                questionnaireModes, "data".getBytes(), null, false);
+                questionnaireModes, "data".getBytes(), null, false, null);
     }
 
     @Test
@@ -83,17 +90,38 @@ class QueenServiceTest {
     @Test
     void onCreateQuestionnaireModelWhenApiResponseErrorThrowsServiceException() {
         createMockResponseError();
-        when(jsonLunatic.jsonContent()).thenReturn("{}");
+        when(jsonLunatic.content()).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
         assertThrows(ServiceException.class, () -> service.createQuestionnaireModel("l8wwljbo", questionnaireModel, jsonLunatic));
     }
 
     @Test
     void onCreateQuestionnaireModelWhenApiResponseSuccessfulReturnNothing() {
         createMockResponseSuccess();
-        when(jsonLunatic.jsonContent()).thenReturn("{}");
+        when(jsonLunatic.content()).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
         assertAll(() -> service.createQuestionnaireModel("l8wwljbo", questionnaireModel, jsonLunatic));
     }
 
+    @Test
+    void onCreateQuestionnaireModelSendQuestionnaireModelWithJsonLunaticValue() throws InterruptedException {
+        // requests of previous tests
+        while (mockWebServer.takeRequest(10, TimeUnit.MILLISECONDS) != null) ;
+        createMockResponseSuccess();
+        when(questionnaireModel.label()).thenReturn("questionnaire \"label\"");
+        when(jsonLunatic.content()).thenReturn("{\"componentType\": \"Questionnaire\"}".getBytes(StandardCharsets.UTF_8));
+
+        service.createQuestionnaireModel("11-CAWI", questionnaireModel, jsonLunatic);
+
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("/api/questionnaire-models", request.getPath());
+        JsonNode body = JsonMapper.builder().build().readTree(request.getBody().readUtf8());
+        assertEquals("11-CAWI", body.get("idQuestionnaireModel").asString());
+        assertEquals("questionnaire \"label\"", body.get("label").asString());
+        assertTrue(body.get("requiredNomenclatureIds").isArray());
+        assertTrue(body.get("requiredNomenclatureIds").isEmpty());
+        assertEquals("Questionnaire", body.get("value").get("componentType").asString());
+    }
+
     @Test
     void onCreateCampaignWhenApiResponseErrorThrowsServiceException() {
         createMockResponseError();
@@ -102,6 +130,8 @@ class QueenServiceTest {
 
     @Test
     void onCreateSurveyUnitsWhenApiResponseErrorThrowsServiceException() {
+        createMockResponseError();
+        createMockResponseError();
         createMockResponseError();
         InterrogationData data = new InterrogationData(new ArrayList<>());
         List<Interrogation> interrogations = new ArrayList<>();
@@ -111,6 +141,45 @@ class QueenServiceTest {
         assertThrows(ServiceException.class, () -> service.createInterrogations("12-CAWI", interrogations));
     }
 
+    @Test
+    void onCreateSurveyUnitsWhenSomeApiResponsesErrorThrowsExceptionWithFailures() {
+        createMockResponseSuccess();
+        createMockResponseError();
+        createMockResponseSuccess();
+        createMockResponseError();
+        InterrogationData data = new InterrogationData(new ArrayList<>());
+        List<Interrogation> interrogations = new ArrayList<>();
+        for (long nbSurveyUnits = 1; nbSurveyUnits <= 4; nbSurveyUnits++) {
+            interrogations.add(new Interrogation("id" + nbSurveyUnits, "q1", data, InterrogationStateData.createInitialStateData()));
+        }
+        InterrogationsCreationException exception = assertThrows(InterrogationsCreationException.class, () -> service.createInterrogations("12-CAWI", interrogations));
+        assertEquals(2, exception.getFailures().size());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+    }
+
+    @Test
+    void onCreateSurveyUnitWhenApiResponseErrorThrowsServiceException() {
+        createMockResponseError();
+        Interrogation interrogation = new Interrogation("1", "q1", new InterrogationData(new ArrayList<>()), InterrogationStateData.createInitialStateData());
+        ServiceException exception = assertThrows(ServiceException.class, () -> service.createInterrogation("12-CAWI", interrogation));
+        // single creation keeps the queen error, without the failure report of bulk creation
+        assertEquals(ServiceException.class, exception.getClass());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+    }
+
+    @Test
+    void onCreateSurveyUnitsWhenDuplicateIdsThrowsServiceExceptionWithoutCallingApi() {
+        int requestCount = mockWebServer.getRequestCount();
+        InterrogationData data = new InterrogationData(new ArrayList<>());
+        List<Interrogation> interrogations = new ArrayList<>();
+        interrogations.add(new Interrogation("1", "q1", data, InterrogationStateData.createInitialStateData()));
+        interrogations.add(new Interrogation("2", "q1", data, InterrogationStateData.createInitialStateData()));
+        interrogations.add(new Interrogation("1", "q1", data, InterrogationStateData.createInitialStateData()));
+        ServiceException exception = assertThrows(ServiceException.class, () -> service.createInterrogations("12-CAWI", interrogations));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertEquals(requestCount, mockWebServer.getRequestCount());
+    }
+
     @Test
     void onGetSurveyUnitsWhenEmptyResponseThrowsSurveyUnitsNotFoundException() {
         createMockEmptyResponse();
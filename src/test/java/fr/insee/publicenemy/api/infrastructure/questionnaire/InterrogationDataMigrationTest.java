@@ -0,0 +1,77 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InterrogationDataMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final byte[] CSV_DATA = ("\"name\",\"city\"\n" + "\"Jean\",\"Paris\"\n".repeat(1000)).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void onExecuteMoveLargeObjectDataToInterrogationDataTable() throws Exception {
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+            // large objects are only readable in a transaction, as when liquibase runs the change
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table interrogation_data (hash varchar(64) primary key, content bytea not null, " +
+                        "size bigint not null, creation_date timestamp not null)");
+                statement.execute("create table questionnaire (id bigint primary key, survey_unit_data text, " +
+                        "interrogation_data_hash varchar(64) references interrogation_data (hash))");
+            }
+            // written like hibernate did with the @Lob byte[] mapping: the column holds the oid of a large object
+            try (PreparedStatement insertStatement = connection.prepareStatement(
+                    "insert into questionnaire (id, survey_unit_data) values (?, lo_from_bytea(0, ?))")) {
+                for (long questionnaireId = 1; questionnaireId <= 2; questionnaireId++) {
+                    insertStatement.setLong(1, questionnaireId);
+                    insertStatement.setBytes(2, CSV_DATA);
+                    insertStatement.executeUpdate();
+                }
+            }
+
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new InterrogationDataMigration().execute(database);
+
+            String hash = HashUtils.sha256Hex(CSV_DATA);
+            try (Statement statement = connection.createStatement();
+                 ResultSet interrogationData = statement.executeQuery("select hash, content, size from interrogation_data")) {
+                assertTrue(interrogationData.next());
+                assertEquals(hash, interrogationData.getString(1));
+                try (GZIPInputStream content = new GZIPInputStream(new ByteArrayInputStream(interrogationData.getBytes(2)))) {
+                    assertArrayEquals(CSV_DATA, content.readAllBytes());
+                }
+                assertEquals(CSV_DATA.length, interrogationData.getLong(3));
+                // identical data of both questionnaires is stored once
+                assertFalse(interrogationData.next());
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet questionnaires = statement.executeQuery("select interrogation_data_hash from questionnaire order by id")) {
+                assertTrue(questionnaires.next());
+                assertEquals(hash, questionnaires.getString(1));
+                assertTrue(questionnaires.next());
+                assertEquals(hash, questionnaires.getString(1));
+            }
+            connection.rollback();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.utils.HashUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@DataJpaTest
+class InterrogationDataRepositoryTest {
+
+    @Autowired
+    private InterrogationDataEntityRepository interrogationDataEntityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InterrogationDataRepository repository;
+
+    // data is inserted in its own transaction and outlives each test: every test stores its own data
+    private byte[] csvData;
+
+    @BeforeEach
+    public void init() {
+        repository = new InterrogationDataRepository(interrogationDataEntityRepository, jdbcTemplate, transactionManager);
+        csvData = ("\"name\",\"city\"\n" + ("\"" + UUID.randomUUID() + "\",\"Paris\"\n").repeat(1000)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void onAddInterrogationDataTwiceStoreItOnceCompressed() {
+        long nbStoredData = interrogationDataEntityRepository.count();
+
+        String hash = repository.addInterrogationData(csvData);
+        String sameHash = repository.addInterrogationData(csvData.clone());
+
+        assertEquals(hash, sameHash);
+        assertEquals(nbStoredData + 1, interrogationDataEntityRepository.count());
+        assertTrue(interrogationDataEntityRepository.findById(hash).orElseThrow().getContent().length < csvData.length / 10);
+        assertArrayEquals(csvData, repository.getInterrogationData(hash).orElseThrow());
+    }
+
+    @Test
+    void onInsertInterrogationDataWhenAlreadyInsertedIgnoreDuplicate() {
+        String hash = HashUtils.sha256Hex(csvData);
+        long nbStoredData = interrogationDataEntityRepository.count();
+
+        // as when two requests store the same data at the same time
+        repository.insertInterrogationData(hash, csvData);
+        repository.insertInterrogationData(hash, csvData);
+
+        assertEquals(nbStoredData + 1, interrogationDataEntityRepository.count());
+        assertEquals(hash, repository.addInterrogationData(csvData));
+    }
+
+    @Test
+    void onGetInterrogationDataStreamReturnUncompressedData() throws IOException {
+        String hash = repository.addInterrogationData(csvData);
+
+        try (InputStream inputStream = repository.getInterrogationDataStream(hash).orElseThrow()) {
+            assertArrayEquals(csvData, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void onGetInterrogationDataStreamWhenLargerThanChunkReturnUncompressedData() throws IOException {
+        // random data does not compress: compressed content is read in several chunks
+        byte[] randomData = new byte[InterrogationDataRepository.CHUNK_SIZE * 2 + 10];
+        new Random().nextBytes(randomData);
+        String hash = repository.addInterrogationData(randomData);
+
+        try (InputStream inputStream = repository.getInterrogationDataStream(hash).orElseThrow()) {
+            assertArrayEquals(randomData, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void onGetInterrogationDataWhenUnknownHashReturnEmpty() {
+        assertTrue(repository.getInterrogationData("unknown").isEmpty());
+    }
+
+    @Test
+    void onDeleteUnreferencedInterrogationDataKeepDataUsedByQuestionnaires() {
+        // data of questionnaire 1 in test data
+        String usedHash = HashUtils.sha256Hex("content1".getBytes(StandardCharsets.UTF_8));
+        String unusedHash = repository.addInterrogationData(csvData);
+
+        repository.deleteUnreferencedInterrogationData(usedHash);
+        repository.deleteUnreferencedInterrogationData(unusedHash);
+
+        assertArrayEquals("content1".getBytes(StandardCharsets.UTF_8), repository.getInterrogationData(usedHash).orElseThrow());
+        assertFalse(interrogationDataEntityRepository.existsById(unusedHash));
+    }
+}
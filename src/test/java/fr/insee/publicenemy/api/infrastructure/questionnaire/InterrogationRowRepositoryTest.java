@@ -0,0 +1,76 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.interrogation.InterrogationRow;
+import fr.insee.publicenemy.api.application.domain.utils.InterrogationData.FormatType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.node.JsonNodeFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@DataJpaTest
+class InterrogationRowRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private InterrogationRowRepository repository;
+
+    private static final int NB_ROWS = 1000;
+
+    @BeforeEach
+    public void init() {
+        repository = new InterrogationRowRepository(jdbcTemplate, 100);
+    }
+
+    @Test
+    void onGetInterrogationRowReturnRowAtDataIndex() {
+        List<InterrogationRow> rows = createRows(FormatType.CSV, "value");
+        repository.saveInterrogationRows(1L, rows);
+
+        Optional<InterrogationRow> row = repository.getInterrogationRow(1L, 512);
+
+        assertTrue(row.isPresent());
+        assertEquals(FormatType.CSV, row.get().format());
+        assertEquals(rows.get(512).content(), row.get().content());
+        assertTrue(repository.getInterrogationRow(1L, NB_ROWS).isEmpty());
+        assertTrue(repository.getInterrogationRow(2L, 512).isEmpty());
+    }
+
+    @Test
+    void onSaveInterrogationRowsReplacePreviousRows() {
+        repository.saveInterrogationRows(1L, createRows(FormatType.CSV, "value"));
+        List<InterrogationRow> updatedRows = createRows(FormatType.JSON, "updated").subList(0, 10);
+
+        repository.saveInterrogationRows(1L, updatedRows);
+
+        assertEquals(updatedRows.getLast(), repository.getInterrogationRow(1L, 9).orElseThrow());
+        assertTrue(repository.getInterrogationRow(1L, 10).isEmpty());
+    }
+
+    @Test
+    void onHasInterrogationRowsReturnTrueOnlyWhenRowsSaved() {
+        repository.saveInterrogationRows(1L, createRows(FormatType.CSV, "value"));
+
+        assertTrue(repository.hasInterrogationRows(1L));
+        assertFalse(repository.hasInterrogationRows(2L));
+    }
+
+    private List<InterrogationRow> createRows(FormatType format, String value) {
+        return IntStream.range(0, NB_ROWS)
+                .mapToObj(index -> new InterrogationRow(format,
+                        JsonNodeFactory.instance.objectNode().put("name", value + index)))
+                .toList();
+    }
+}
@@ -0,0 +1,47 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@DataJpaTest
+class NomenclatureRepositoryTest {
+
+    @Autowired
+    private NomenclatureEntityRepository nomenclatureEntityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private NomenclatureRepository repository;
+
+    @BeforeEach
+    public void init() {
+        repository = new NomenclatureRepository(nomenclatureEntityRepository, jdbcTemplate);
+    }
+
+    @Test
+    void onAddNomenclaturesTwiceStoreThemOnce() {
+        repository.addNomenclatures("hash1", "{\"L_COMMUNE\":[]}");
+        repository.addNomenclatures("hash1", "{\"L_COMMUNE\":[]}");
+
+        assertEquals(1, nomenclatureEntityRepository.count());
+        assertEquals(Optional.of("{\"L_COMMUNE\":[]}"), repository.getNomenclatures("hash1"));
+    }
+
+    @Test
+    void onGetNomenclaturesWhenUnknownReturnEmpty() {
+        assertTrue(repository.getNomenclatures("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.Mode;
+import fr.insee.publicenemy.api.application.domain.model.PersonalizationMapping;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@DataJpaTest
+class PersonalizationMappingRepositoryTest {
+    private static final Logger log = LoggerFactory.getLogger(PersonalizationMappingRepositoryTest.class);
+
+    @Autowired
+    private PersonalizationMappingEntityRepository mappingEntityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PersonalizationMappingRepository repository;
+
+    private static final int NB_MAPPINGS = 10000;
+
+    @BeforeEach
+    public void init() {
+        repository = new PersonalizationMappingRepository(mappingEntityRepository, jdbcTemplate, mock(I18nMessagePort.class), 500);
+    }
+
+    @Test
+    void onAddPersonalizationMappingsShouldInsertAllMappings() {
+        List<PersonalizationMapping> mappings = createMappings(1L, Mode.CAWI);
+
+        long start = System.nanoTime();
+        repository.addPersonalizationMappings(mappings);
+        log.info(String.format("%s mappings inserted in %s ms", NB_MAPPINGS, (System.nanoTime() - start) / 1_000_000));
+
+        List<PersonalizationMapping> savedMappings = repository.getPersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAWI);
+        assertEquals(NB_MAPPINGS, savedMappings.size());
+        assertEquals(mappings.getLast(), repository.getPersonalizationMapping(mappings.getLast().interrogationId()));
+    }
+
+    @Test
+    void onDeletePersonalizationMappingsShouldOnlyDeleteMappingsOfMode() {
+        repository.addPersonalizationMappings(createMappings(1L, Mode.CAWI));
+        repository.addPersonalizationMappings(createMappings(1L, Mode.CAPI));
+
+        long start = System.nanoTime();
+        repository.deletePersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAWI);
+        log.info(String.format("%s mappings deleted in %s ms", NB_MAPPINGS, (System.nanoTime() - start) / 1_000_000));
+
+        assertEquals(0, repository.getPersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAWI).size());
+        assertEquals(NB_MAPPINGS, repository.getPersonalizationMappingsByQuestionnaireIdAndMode(1L, Mode.CAPI).size());
+    }
+
+    @Test
+    void onGetPersonalizationMappingsPageShouldReturnMappingsAfterDataIndexOfMode() {
+        List<PersonalizationMapping> mappings = createMappings(1L, Mode.CAWI);
+        repository.addPersonalizationMappings(mappings);
+        repository.addPersonalizationMappings(createMappings(1L, Mode.CAPI));
+
+        List<PersonalizationMapping> firstPage = repository.getPersonalizationMappingsPage(1L, Mode.CAWI, -1, 100);
+        List<PersonalizationMapping> nextPage = repository.getPersonalizationMappingsPage(1L, Mode.CAWI, firstPage.getLast().dataIndex(), 100);
+        List<PersonalizationMapping> lastPage = repository.getPersonalizationMappingsPage(1L, Mode.CAWI, NB_MAPPINGS - 10, 100);
+
+        assertEquals(mappings.subList(0, 100), firstPage);
+        assertEquals(mappings.subList(100, 200), nextPage);
+        assertEquals(mappings.subList(NB_MAPPINGS - 9, NB_MAPPINGS), lastPage);
+    }
+
+    private List<PersonalizationMapping> createMappings(Long questionnaireId, Mode mode) {
+        return IntStream.range(0, NB_MAPPINGS)
+                .mapToObj(index -> new PersonalizationMapping(UUID.randomUUID().toString(), questionnaireId, mode, index))
+                .toList();
+    }
+}
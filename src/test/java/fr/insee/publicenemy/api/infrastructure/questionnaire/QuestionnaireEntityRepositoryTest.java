@@ -3,9 +3,14 @@ package fr.insee.publicenemy.api.infrastructure.questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.Context;
 import fr.insee.publicenemy.api.application.domain.model.Mode;
 import fr.insee.publicenemy.api.application.domain.model.PersonalizationState;
+import fr.insee.publicenemy.api.application.domain.model.Questionnaire;
 import fr.insee.publicenemy.api.application.domain.model.QuestionnaireMode;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.QuestionnaireEntity;
 import fr.insee.publicenemy.api.infrastructure.questionnaire.entity.QuestionnaireModeEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
@@ -13,21 +18,29 @@ import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabas
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
 
 @ActiveProfiles("test")
 @AutoConfigureTestDatabase
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class QuestionnaireEntityRepositoryTest {
     @Autowired
     private QuestionnaireEntityRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldSaveQuestionnaire() {
         List<QuestionnaireMode> questionnaireModes = QuestionnaireMode.toModel(List.of(Mode.CAWI, Mode.CAPI));
-        QuestionnaireEntity questionnaire = new QuestionnaireEntity("ae3z1rz", "uuid", "questionnaire label", Context.BUSINESS, questionnaireModes, "content".getBytes(), PersonalizationState.COMPLETED.name());
+        QuestionnaireEntity questionnaire = new QuestionnaireEntity("ae3z1rz", "uuid", "questionnaire label", Context.BUSINESS, questionnaireModes, null, PersonalizationState.COMPLETED.name(), null);
         QuestionnaireEntity savedQuestionnaire = repository.saveAndFlush(questionnaire);
         assertThat(savedQuestionnaire).usingRecursiveComparison().ignoringFields("id").isEqualTo(questionnaire);
     }
@@ -41,7 +54,7 @@ class QuestionnaireEntityRepositoryTest {
     @Test
     void onFindByIdReturnsCorrectQuestionnaire() {
         List<QuestionnaireMode> questionnaireModes = QuestionnaireMode.toModel(List.of(Mode.CAWI, Mode.CAPI));
-        QuestionnaireEntity questionnaire = new QuestionnaireEntity("l8wwljbo", "uuid","questionnaire_label 1", Context.HOUSEHOLD, questionnaireModes, "content1".getBytes(), PersonalizationState.COMPLETED.name());
+        QuestionnaireEntity questionnaire = new QuestionnaireEntity("l8wwljbo", "uuid","questionnaire_label 1", Context.HOUSEHOLD, questionnaireModes, null, PersonalizationState.COMPLETED.name(), null);
         QuestionnaireEntity savedQuestionnaire = repository.findById(1L).get();
         assertEquals(1L, savedQuestionnaire.getId());
         List<QuestionnaireModeEntity> modes = savedQuestionnaire.getModeEntities();
@@ -56,4 +69,63 @@ class QuestionnaireEntityRepositoryTest {
         assertEquals(savedQuestionnaire.getLabel(), questionnaire.getLabel());
         assertEquals(savedQuestionnaire.getVersionId(), questionnaire.getVersionId());
     }
+
+    @Test
+    void onUpdateModeStateUpdatesOnlyThisMode() {
+        int updatedRows = repository.updateModeState(1L, Mode.CAPI, "INIT_SURVEY_UNIT");
+        assertEquals(1, updatedRows);
+
+        Map<Mode, String> states = repository.findById(1L).get().getModeEntities().stream()
+                .collect(Collectors.toMap(QuestionnaireModeEntity::getMode, QuestionnaireModeEntity::getSynchronisationState));
+        assertEquals("OK", states.get(Mode.CAWI));
+        assertEquals("INIT_SURVEY_UNIT", states.get(Mode.CAPI));
+    }
+
+    @Test
+    void onGetQuestionnairesPageRunsSameNumberOfQueriesWhateverThePageSize() {
+        List<QuestionnaireMode> questionnaireModes = QuestionnaireMode.toModel(List.of(Mode.CAWI, Mode.CAPI, Mode.CATI));
+        IntStream.range(0, 20).forEach(index -> repository.save(new QuestionnaireEntity("pogues" + index, "uuid", "label " + index,
+                Context.HOUSEHOLD, questionnaireModes, null, PersonalizationState.COMPLETED.name(), null)));
+        repository.flush();
+        entityManager.clear();
+        QuestionnaireRepository questionnaireRepository = new QuestionnaireRepository(repository, mock(InterrogationDataRepository.class), mock(I18nMessagePort.class));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<Questionnaire> smallPage = questionnaireRepository.getQuestionnairesPage(null, 2);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<Questionnaire> largePage = questionnaireRepository.getQuestionnairesPage(null, 20);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(2, smallPage.size());
+        assertEquals(20, largePage.size());
+        assertEquals(2, smallPageStatements);
+        assertEquals(2, largePageStatements);
+        // questionnaires are read as projections: no entity, and so no interrogation data, is loaded
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3, largePage.getFirst().getQuestionnaireModes().size());
+        assertNull(largePage.getFirst().getInterrogationData());
+    }
+
+    @Test
+    void onGetQuestionnairesReturnsAllQuestionnairesMostRecentFirst() {
+        QuestionnaireRepository questionnaireRepository = new QuestionnaireRepository(repository, mock(InterrogationDataRepository.class), mock(I18nMessagePort.class));
+
+        List<Questionnaire> questionnaires = questionnaireRepository.getQuestionnaires();
+
+        assertEquals(List.of(3L, 2L, 1L), questionnaires.stream().map(Questionnaire::getId).toList());
+        assertNull(questionnaires.getFirst().getInterrogationData());
+    }
+
+    @Test
+    void onGetQuestionnairesPageAfterCursorReturnsOlderQuestionnaires() {
+        QuestionnaireRepository questionnaireRepository = new QuestionnaireRepository(repository, mock(InterrogationDataRepository.class), mock(I18nMessagePort.class));
+
+        List<Questionnaire> questionnaires = questionnaireRepository.getQuestionnairesPage(3L, 10);
+
+        assertEquals(List.of(2L, 1L), questionnaires.stream().map(Questionnaire::getId).toList());
+        assertEquals(2, questionnaires.getLast().getQuestionnaireModes().size());
+    }
 }
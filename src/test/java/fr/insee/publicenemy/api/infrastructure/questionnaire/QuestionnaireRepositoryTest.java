@@ -25,6 +25,8 @@ class QuestionnaireRepositoryTest {
     @Mock
     private QuestionnaireEntityRepository questionnaireEntityRepository;
     @Mock
+    private InterrogationDataRepository interrogationDataRepository;
+    @Mock
     private I18nMessagePort messageService;
 
     @Mock
@@ -36,8 +38,8 @@ class QuestionnaireRepositoryTest {
 
     @BeforeEach
     public void init() {
-        repository = new QuestionnaireRepository(questionnaireEntityRepository, messageService);
-        questionnaire = new Questionnaire(1L, "l8wwljbo", "uuid", "label", Context.HOUSEHOLD, List.of(new QuestionnaireMode(Mode.CAWI)), "content".getBytes(), null, false);
+        repository = new QuestionnaireRepository(questionnaireEntityRepository, interrogationDataRepository, messageService);
+        questionnaire = new Questionnaire(1L, "l8wwljbo", "uuid", "label", Context.HOUSEHOLD, List.of(new QuestionnaireMode(Mode.CAWI)), "content".getBytes(), null, false, null);
     }
 
     @Test
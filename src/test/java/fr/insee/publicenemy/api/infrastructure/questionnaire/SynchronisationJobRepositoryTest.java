@@ -0,0 +1,140 @@
+package fr.insee.publicenemy.api.infrastructure.questionnaire;
+
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJob;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobStatus;
+import fr.insee.publicenemy.api.application.domain.model.SynchronisationJobType;
+import fr.insee.publicenemy.api.application.ports.I18nMessagePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@DataJpaTest
+class SynchronisationJobRepositoryTest {
+
+    @Autowired
+    private SynchronisationJobEntityRepository jobEntityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SynchronisationJobRepository repository;
+
+    @BeforeEach
+    public void init() {
+        repository = new SynchronisationJobRepository(jobEntityRepository, jdbcTemplate, mock(I18nMessagePort.class));
+    }
+
+    @Test
+    void onAddJobWhenJobAlreadyPendingReusePendingJob() {
+        SynchronisationJob job = repository.addJob(1L, SynchronisationJobType.CREATE, false);
+        SynchronisationJob sameJob = repository.addJob(1L, SynchronisationJobType.UPDATE, true);
+
+        assertEquals(job.id(), sameJob.id());
+        assertEquals(SynchronisationJobType.CREATE, sameJob.type());
+        assertTrue(sameJob.questionnaireModelUpdated());
+        assertEquals(1L, repository.countJobsByStatus().get(SynchronisationJobStatus.PENDING));
+    }
+
+    @Test
+    void onClaimJobsMarkJobsAsRunningAndSkipQuestionnairesAlreadySynchronizing() {
+        repository.addJob(1L, SynchronisationJobType.CREATE, true);
+        repository.addJob(2L, SynchronisationJobType.UPDATE, false);
+
+        List<SynchronisationJob> claimedJobs = repository.claimJobs(10);
+        assertEquals(2, claimedJobs.size());
+        claimedJobs.forEach(job -> {
+            assertEquals(SynchronisationJobStatus.RUNNING, job.status());
+            assertEquals(1, job.attempts());
+        });
+
+        // questionnaire 1 is being synchronized, its new job must wait
+        repository.addJob(1L, SynchronisationJobType.UPDATE, false);
+        assertTrue(repository.claimJobs(10).isEmpty());
+
+        Map<SynchronisationJobStatus, Long> jobsByStatus = repository.countJobsByStatus();
+        assertEquals(1L, jobsByStatus.get(SynchronisationJobStatus.PENDING));
+        assertEquals(2L, jobsByStatus.get(SynchronisationJobStatus.RUNNING));
+        assertEquals(0L, jobsByStatus.get(SynchronisationJobStatus.DONE));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void onAddJobsInParallelForSameQuestionnaireClaimOneJob() throws Exception {
+        // jobs are added and claimed in their own committed transactions, as by concurrent requests and workers
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(2);
+        Callable<SynchronisationJob> addJob = () -> {
+            start.await();
+            return transaction.execute(status -> repository.addJob(2L, SynchronisationJobType.UPDATE, false));
+        };
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<SynchronisationJob> firstJob = executor.submit(addJob);
+            Future<SynchronisationJob> secondJob = executor.submit(addJob);
+
+            assertEquals(firstJob.get(10, TimeUnit.SECONDS).id(), secondJob.get(10, TimeUnit.SECONDS).id());
+            List<SynchronisationJob> claimedJobs = transaction.execute(status -> repository.claimJobs(10));
+            assertNotNull(claimedJobs);
+            assertEquals(1, claimedJobs.stream().filter(job -> job.questionnaireId() == 2L).count());
+        } finally {
+            transaction.executeWithoutResult(status -> jdbcTemplate.update("delete from sync_job where questionnaire_id = ?", 2L));
+        }
+    }
+
+    @Test
+    void onRetryJobWhenQuestionnaireHasPendingJobMergeIntoPendingJob() {
+        SynchronisationJob runningJob = repository.addJob(3L, SynchronisationJobType.UPDATE, true);
+        repository.claimJobs(1);
+        SynchronisationJob pendingJob = repository.addJob(3L, SynchronisationJobType.UPDATE, false);
+
+        repository.retryJob(runningJob.id(), Instant.now(), "error");
+
+        assertEquals(1L, repository.countJobsByStatus().get(SynchronisationJobStatus.PENDING));
+        assertEquals(1L, repository.countJobsByStatus().get(SynchronisationJobStatus.FAILED));
+        SynchronisationJob lastJob = repository.getLastJob(3L);
+        assertEquals(pendingJob.id(), lastJob.id());
+        assertTrue(lastJob.questionnaireModelUpdated());
+    }
+
+    @Test
+    void onClaimJobsDoNotClaimJobsWaitingForRetry() {
+        SynchronisationJob job = repository.addJob(3L, SynchronisationJobType.CREATE, true);
+        repository.claimJobs(1);
+        repository.retryJob(job.id(), Instant.now().plusSeconds(60), "error");
+
+        assertTrue(repository.claimJobs(10).isEmpty());
+        assertEquals("error", repository.getLastJob(3L).lastError());
+    }
+
+    @Test
+    void onReleaseLostJobsQueueRunningJobsAgain() {
+        repository.addJob(1L, SynchronisationJobType.CREATE, true);
+        repository.claimJobs(1);
+
+        assertEquals(1, repository.releaseLostJobs(Instant.now().plusSeconds(1)));
+        assertEquals(1L, repository.countJobsByStatus().get(SynchronisationJobStatus.PENDING));
+    }
+}